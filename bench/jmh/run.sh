@@ -0,0 +1,34 @@
+#!/bin/sh
+# Compiles the application sources with the JMH benchmarks in bench/jmh/src and runs them.
+# Results are written as JSON to bench/results/jmh-<label>.json, one file per release.
+#
+#   JMH_LIB  directory with jmh-core, jmh-generator-annprocess, jopt-simple and commons-math3 jars
+#   APP_LIB  directory with the application dependencies (jbcrypt, HikariCP, slf4j, postgresql, javax.mail)
+#
+#   bench/jmh/run.sh <label> [JMH options]
+#   bench/jmh/run.sh 1.2.0
+#   bench/jmh/run.sh local LocalizationBenchmark -f 1 -wi 1 -i 3
+set -e
+
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+BUILD="$ROOT/bench/jmh/build"
+RESULTS="$ROOT/bench/results"
+
+: "${JMH_LIB:?JMH_LIB is not set}"
+: "${APP_LIB:?APP_LIB is not set}"
+
+LABEL=${1:-local}
+[ $# -gt 0 ] && shift
+
+CP="$JMH_LIB/*:$APP_LIB/*"
+
+rm -rf "$BUILD"
+mkdir -p "$BUILD/classes" "$RESULTS"
+
+# module-info is skipped, benchmarks share the application packages on the class path
+find "$ROOT/src" "$ROOT/bench/jmh/src" -name '*.java' ! -name module-info.java > "$BUILD/sources.txt"
+javac -encoding UTF-8 -cp "$CP" -processorpath "$JMH_LIB/*" -d "$BUILD/classes" @"$BUILD/sources.txt"
+cp "$ROOT/src/localization.csv" "$BUILD/classes/"
+java -cp "$BUILD/classes:$CP" app.LocalizationCompiler "$ROOT/src/localization.csv" "$BUILD/classes/localization.bin"
+
+java -cp "$BUILD/classes:$CP" org.openjdk.jmh.Main -rf json -rff "$RESULTS/jmh-$LABEL.json" "$@"
@@ -0,0 +1,80 @@
+package app;
+
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import app.Localization.Language;
+
+// Lookups which run for every painted list row and every translated combo box item.
+// The *Baseline methods do what Localization did before the reverse index and the format cache.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LocalizationBenchmark {
+
+    @Param({ "TR", "EN" })
+    public Language language;
+
+    private String knownText;
+    private Map<String, String> texts;
+
+    @Setup
+    public void setup() throws Exception {
+        Localization.setLanguage(language);
+        knownText = Localization.get("recycled");
+        try (InputStream is = Localization.class.getResourceAsStream("/localization.csv")) {
+            texts = Localization.Dictionary.readCSV(is).texts.get(language);
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return Localization.get("recycled");
+    }
+
+    @Benchmark
+    public String getWithArgs() {
+        return Localization.get("nghleaderboard", "Merkez");
+    }
+
+    @Benchmark
+    public String getWithArgsBaseline() {
+        return MessageFormat.format(Localization.get("nghleaderboard"), "Merkez");
+    }
+
+    @Benchmark
+    public String getKeyFound() {
+        return Localization.getKey(knownText);
+    }
+
+    @Benchmark
+    public String getKeyMissing() {
+        return Localization.getKey("Not a localized text");
+    }
+
+    @Benchmark
+    public String getKeyFoundBaseline() {
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            if (entry.getValue().equals(knownText)) return entry.getKey();
+        }
+        return knownText;
+    }
+
+    @Benchmark
+    public String getFromText() {
+        Language other = (language == Language.TR) ? Language.EN : Language.TR;
+        return Localization.getFromText(knownText, language, other);
+    }
+
+    @Benchmark
+    public String findLocalizedDisposalTypeName() {
+        return Localization.findLocalizedDisposalTypeName("Plastic");
+    }
+}
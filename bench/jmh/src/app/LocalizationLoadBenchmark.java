@@ -0,0 +1,44 @@
+package app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Startup cost of the dictionary: parsing localization.csv against reading localization.bin made by LocalizationCompiler
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LocalizationLoadBenchmark {
+
+    private byte[] csv;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws Exception {
+        try (InputStream is = Localization.class.getResourceAsStream("/localization.csv")) {
+            csv = is.readAllBytes();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(out)) {
+            Localization.Dictionary.readCSV(new ByteArrayInputStream(csv)).writeBinary(data);
+        }
+        binary = out.toByteArray();
+    }
+
+    @Benchmark
+    public Object readCSV() throws Exception {
+        return Localization.Dictionary.readCSV(new ByteArrayInputStream(csv));
+    }
+
+    @Benchmark
+    public Object readBinary() throws Exception {
+        return Localization.Dictionary.readBinary(new ByteArrayInputStream(binary));
+    }
+}
@@ -0,0 +1,65 @@
+package data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import data.DisposalData.DisposalRecord;
+
+// DisposalRecord mapping loops of DisposalData, one page (25) and a full list (1000)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DisposalRowMappingBenchmark {
+
+    @Param({ "25", "1000" })
+    public int rows;
+
+    private ResultSet feed;
+    private ResultSet recycled;
+    private ResultSet available;
+    private ResultSet filtered;
+
+    @Setup
+    public void setup() {
+        // Same column order as RowSet.disposalRows, labels differ per function like in init.sql
+        feed = RowSet.of(new String[] { "ddno", "disposalname", "weight", "volume", "ddscore", "ddate", "reservationdate", "recycledate",
+                "rstatus", "is_reserved", "fname", "mname", "lname", "cname", "full_name" }, RowSet.disposalRows(rows, true));
+        recycled = RowSet.of(new String[] { "ddno", "disposalname", "weight", "volume", "ddscore", "ddate", "reservationdate", "recycledate",
+                "rstatus", "is_reserved", "fname", "mname", "lname", "cname", "full_name" }, RowSet.disposalRows(rows, false));
+        available = RowSet.of(new String[] { "dd_no", "waste_type", "weight", "volume", "score", "discard_date", "res_date", "rec_date",
+                "rstatus", "is_reserved", "fname", "mname", "lname", "company_name", "full_name" }, RowSet.disposalRows(rows, true));
+        filtered = RowSet.of(new String[] { "dd_no", "type_name", "weight", "volume", "score", "d_date", "res_date", "rec_date",
+                "rstatus", "is_reserved", "fname", "mname", "lname", "company_name", "full_name" }, RowSet.disposalRows(rows, false));
+    }
+
+    @Benchmark
+    public List<DisposalRecord> disposalFeed() throws SQLException {
+        feed.beforeFirst();
+        return DisposalData.readDisposalRows(feed);
+    }
+
+    @Benchmark
+    public List<DisposalRecord> recycledFeed() throws SQLException {
+        recycled.beforeFirst();
+        return DisposalData.readRecycledRows(recycled);
+    }
+
+    @Benchmark
+    public List<DisposalRecord> availableList() throws SQLException {
+        available.beforeFirst();
+        return DisposalData.readAvailableRows(available);
+    }
+
+    @Benchmark
+    public List<DisposalRecord> filteredList() throws SQLException {
+        filtered.beforeFirst();
+        return DisposalData.readFilteredRows(filtered);
+    }
+}
@@ -0,0 +1,79 @@
+package data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// In-memory ResultSet for the row mapper benchmarks. Only what the mappers use is supported
+// (next, beforeFirst, getters by label), everything else throws.
+final class RowSet implements InvocationHandler {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final Object[][] rows;
+    private int cursor = -1;
+
+    private RowSet(String[] labels, Object[][] rows) {
+        for (int i = 0; i < labels.length; i++) columns.put(labels[i], i);
+        this.rows = rows;
+    }
+
+    static ResultSet of(String[] labels, Object[][] rows) {
+        return (ResultSet) Proxy.newProxyInstance(RowSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, new RowSet(labels, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "next": return ++cursor < rows.length;
+            case "beforeFirst": cursor = -1; return null;
+            case "close": return null;
+            case "getString": return value(args[0]);
+            case "getDate": return value(args[0]);
+            case "getInt": return ((Number) value(args[0])).intValue();
+            case "getDouble": return ((Number) value(args[0])).doubleValue();
+            case "getBoolean": return (Boolean) value(args[0]);
+            default: throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Object value(Object label) {
+        Integer index = columns.get(label);
+        if (index == null) throw new IllegalArgumentException("Unknown column: " + label);
+        return rows[cursor][index];
+    }
+
+    // Rows shaped like the results of the feed and list functions
+    static Object[][] disposalRows(int count, boolean withNames) {
+        String[] types = { "Paper", "Plastic", "Glass", "Metal", "Organic", "Electronic", "Wood", "Textile", "Medical", "Battery" };
+        long day = 24L * 60 * 60 * 1000;
+        long today = System.currentTimeMillis();
+
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            boolean reserved = i % 3 == 0;
+            boolean recycled = i % 6 == 0;
+            rows[i] = new Object[] {
+                i + 1,
+                types[i % types.length],
+                1.0 + i % 50,
+                0.1 + (i % 10) / 10.0,
+                10.0 + i % 90,
+                new Date(today - i * day),
+                reserved ? new Date(today - (i - 1) * day) : null,
+                recycled ? new Date(today - (i - 2) * day) : null,
+                recycled,
+                reserved,
+                withNames ? "Ayşe" : null,
+                withNames ? (i % 2 == 0 ? "Nur" : null) : null,
+                withNames ? "Yılmaz" : null,
+                reserved ? "Green Recycling Inc." : null,
+                withNames ? "Ayşe Yılmaz" : null
+            };
+        }
+        return rows;
+    }
+}
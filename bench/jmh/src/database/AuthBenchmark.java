@@ -0,0 +1,50 @@
+package database;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.*;
+
+// Password generation and the BCrypt work done on login, register and password change
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthBenchmark {
+
+    private static final String PASSWORD = "Greenhood2024";
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String createRandomPassword() {
+        return AuthManager.createRandomPassword(10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean isPasswordStrong() {
+        return AuthManager.isPasswordStrong(PASSWORD);
+    }
+
+    // Same cost as registerUser / changePassword (default gensalt rounds)
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPassword() {
+        return BCrypt.hashpw(PASSWORD, BCrypt.gensalt());
+    }
+
+    // Same cost as authenticate
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean checkPassword() {
+        return BCrypt.checkpw(PASSWORD, hash);
+    }
+}
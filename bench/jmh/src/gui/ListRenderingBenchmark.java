@@ -0,0 +1,129 @@
+package gui;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JScrollPane;
+
+import org.openjdk.jmh.annotations.*;
+
+import app.Localization;
+import data.DashboardData.LeaderboardEntry;
+import data.DisposalData.DisposalRecord;
+
+// Headless painting of the dashboard cards: a single card, a viewport of a long list
+// and replacing the items of a list (refresh)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true" })
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ListRenderingBenchmark {
+
+    private static final int WIDTH = 300;
+    private static final int VIEWPORT_HEIGHT = 600;
+    private static final int FEED_HEIGHT = 100;
+    private static final int LEADER_HEIGHT = 75;
+
+    @Param({ "25", "10000" })
+    public int items;
+
+    private CardList.CardRenderer<DisposalRecord> feedRenderer;
+    private CardList.CardRenderer<LeaderboardEntry> leaderboardRenderer;
+    private CardList<DisposalRecord> feedList;
+    private List<DisposalRecord> records;
+    private List<LeaderboardEntry> leaders;
+
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        records = new ArrayList<>();
+        leaders = new ArrayList<>();
+        long day = 24L * 60 * 60 * 1000;
+        for (int i = 0; i < items; i++) {
+            Date date = new Date(System.currentTimeMillis() - i * day);
+            records.add(new DisposalRecord(i, "Plastic", 1 + i % 50, 0.5, 10 + i % 90, date, date, date, true, true, "Ayşe Yılmaz", "Green Recycling Inc."));
+            leaders.add(new LeaderboardEntry("Neighbor " + i, String.valueOf(10000000000L + i), 10000 - i));
+        }
+
+        feedRenderer = GuiListHelper.createFeedRenderer(ListRenderingBenchmark::feedHtml, _ -> GuiListHelper.COLOR_RECYCLED, FEED_HEIGHT);
+        leaderboardRenderer = GuiListHelper.createLeaderboardRenderer(e -> false);
+
+        feedList = new CardList<>(FEED_HEIGHT, 4, feedRenderer);
+        feedList.setItems(records);
+        JScrollPane scroll = GuiListHelper.createScrollPane(feedList);
+        scroll.setSize(WIDTH, VIEWPORT_HEIGHT);
+        layout(scroll);
+
+        image = new BufferedImage(WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    // Same shape as the recycled feed card of DashboardPanel
+    private static String feedHtml(DisposalRecord item) {
+        return String.format(
+            "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+            "<b style='font-size:13px; color:#000000;'>%s</b><br>" + 
+            "<b>%.2f kg</b> / <b>%.2f m³</b><br>" + 
+            Localization.get("recycledate") + ": <span style='color:#555555;'>%s</span><br>" + 
+            Localization.get("gainedscore") + ": <b>%.2f</b><br>" + 
+            Localization.get("recycler") + ": <span style='color:#27ae60;'><b>%s</b></span></div></html>",
+            item.getName(), item.weight, item.volume, item.recDate, item.score, item.getCompanyName()
+        );
+    }
+
+    private static void layout(Component c) {
+        if (c instanceof Container container) {
+            container.doLayout();
+            for (Component child : container.getComponents()) layout(child);
+        }
+    }
+
+    @Benchmark
+    public BufferedImage feedCard() {
+        Component card = feedRenderer.getCard(records.get(0), 0, false, null);
+        card.setSize(WIDTH, FEED_HEIGHT);
+        layout(card);
+        card.paint(g);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage leaderboardCard() {
+        Component card = leaderboardRenderer.getCard(leaders.get(0), 0, false, null);
+        card.setSize(WIDTH, LEADER_HEIGHT);
+        layout(card);
+        card.paint(g);
+        return image;
+    }
+
+    // Only the rows inside the viewport are painted, cost should not depend on items
+    @Benchmark
+    public BufferedImage feedViewport() {
+        g.setClip(0, 0, WIDTH, VIEWPORT_HEIGHT);
+        feedList.paint(g);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage feedRefresh() {
+        feedList.setItems(records);
+        g.setClip(0, 0, WIDTH, VIEWPORT_HEIGHT);
+        feedList.paint(g);
+        return image;
+    }
+}
@@ -0,0 +1,37 @@
+#!/bin/sh
+# Compiles the application sources with the load generator in bench/load/src and runs it
+# against the database given with DB_URL (a scratch database created from init.sql).
+#
+#   APP_LIB  directory with the application dependencies (jbcrypt, HikariCP, slf4j, postgresql, javax.mail)
+#   DB_URL   JDBC URL with user and password, e.g. jdbc:postgresql://localhost:5432/greenhood_load?user=postgres&password=...
+#   POOL     connection pool size (default 5, same as the application)
+#   MAIN     class to run (default load.LoadGenerator, load.ReservationContention checks concurrent reservations,
+#            load.CalculatorParity compares DisposalCalculator with the SQL functions,
+#            database.InstrumentedConnectionCheck checks query metrics and events without a database)
+#
+#   bench/load/run.sh --build --neighbors=100000 --companies=500 --disposals=5000000 --duration=0
+#   bench/load/run.sh --users-neighbors=80 --users-companies=20 --duration=120
+#   bench/load/run.sh --clean
+#   MAIN=load.ReservationContention POOL=20 bench/load/run.sh --companies=50 --items=200
+#   MAIN=load.CalculatorParity bench/load/run.sh --random=1000
+#   MAIN=database.InstrumentedConnectionCheck bench/load/run.sh
+set -e
+
+ROOT=$(cd "$(dirname "$0")/../.." && pwd)
+BUILD="$ROOT/bench/load/build"
+
+: "${APP_LIB:?APP_LIB is not set}"
+case "$MAIN" in
+	database.*Check) ;; # Fake driver, no database
+	*) : "${DB_URL:?DB_URL is not set}" ;;
+esac
+
+rm -rf "$BUILD"
+mkdir -p "$BUILD/classes"
+
+find "$ROOT/src" "$ROOT/bench/load/src" -name '*.java' ! -name module-info.java > "$BUILD/sources.txt"
+javac -encoding UTF-8 -cp "$APP_LIB/*" -d "$BUILD/classes" @"$BUILD/sources.txt"
+cp "$ROOT/src/localization.csv" "$BUILD/classes/"
+
+java -Dgreenhood.db.url="$DB_URL" -Dgreenhood.db.poolSize="${POOL:-5}" \
+	-cp "$BUILD/classes:$APP_LIB/*" "${MAIN:-load.LoadGenerator}" "$@"
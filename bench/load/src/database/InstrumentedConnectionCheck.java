@@ -0,0 +1,136 @@
+package database;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+// Checks that InstrumentedConnection records every execution exactly once, with its rows, into QueryMetrics and
+// as one greenhood.DbQuery event, however the caller leaves the result set. Uses a fake driver, no database.
+//
+//   MAIN=database.InstrumentedConnectionCheck bench/load/run.sh
+public class InstrumentedConnectionCheck {
+
+	private static final int UPDATE_COUNT = 2; // Rows of every update of the fake driver
+
+	private static boolean passed = true;
+
+	public static void main(String[] args) throws Exception {
+		// Before QueryMetrics is loaded, ENABLED is read once
+		System.setProperty("greenhood.db.metrics", "true");
+
+		Recording recording = new Recording();
+		recording.enable("greenhood.DbQuery").withThreshold(Duration.ZERO);
+		recording.start();
+
+		// Single row read as in ProfileData, only the statement is closed
+		for (int i = 0; i < 5; i++) {
+			try (Connection c = InstrumentedConnection.wrap(connection(1));
+					PreparedStatement ps = c.prepareStatement("SELECT single_row")) {
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) rs.getString(1);
+			}
+		}
+
+		// Neither the result set nor the statement is closed, only the connection
+		for (int i = 0; i < 3; i++) {
+			try (Connection c = InstrumentedConnection.wrap(connection(1))) {
+				PreparedStatement ps = c.prepareStatement("SELECT unclosed_statement");
+				ps.executeQuery().next();
+			}
+		}
+
+		// Exhausted and closed result set
+		try (Connection c = InstrumentedConnection.wrap(connection(4));
+				PreparedStatement ps = c.prepareStatement("SELECT all_rows")) {
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next()) rs.getString(1);
+			}
+		}
+
+		// Same statement executed again before its first result set is finished
+		try (Connection c = InstrumentedConnection.wrap(connection(2));
+				PreparedStatement ps = c.prepareStatement("SELECT executed_twice")) {
+			ps.executeQuery().next();
+			ps.executeQuery().next();
+		}
+
+		try (Connection c = InstrumentedConnection.wrap(connection(0));
+				PreparedStatement ps = c.prepareStatement("UPDATE updated_rows")) {
+			ps.executeUpdate();
+		}
+
+		recording.stop();
+		Path file = Files.createTempFile("greenhood-check", ".jfr");
+		recording.dump(file);
+		recording.close();
+
+		Map<String, Long> events = new HashMap<>();
+		Map<String, Long> eventRows = new HashMap<>();
+		for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+			events.merge(e.getString("query"), 1L, Long::sum);
+			eventRows.merge(e.getString("query"), e.getLong("rows"), Long::sum);
+		}
+		Files.delete(file);
+
+		check("SELECT single_row", 5, 5, events, eventRows);
+		check("SELECT unclosed_statement", 3, 3, events, eventRows);
+		check("SELECT all_rows", 1, 4, events, eventRows);
+		check("SELECT executed_twice", 2, 2, events, eventRows);
+		check("UPDATE updated_rows", 1, UPDATE_COUNT, events, eventRows);
+
+		System.out.println(passed ? "PASSED" : "FAILED");
+		if (!passed) System.exit(1);
+	}
+
+	private static void check(String sql, long executions, long rows, Map<String, Long> events, Map<String, Long> eventRows) {
+		String id = QueryMetrics.idOf(sql);
+		QueryMetrics.Stats s = QueryMetrics.get(id);
+		long e = events.getOrDefault(id, 0L), er = eventRows.getOrDefault(id, 0L);
+		boolean ok = s.latency.getCount() == executions && s.getRows() == rows && e == executions && er == rows;
+		System.out.printf("%-4s %-26s executions=%d/%d rows=%d/%d events=%d/%d event rows=%d/%d%n", ok ? "OK" : "FAIL", sql,
+				s.latency.getCount(), executions, s.getRows(), rows, e, executions, er, rows);
+		passed &= ok;
+	}
+
+	// Connection whose statements return the given number of rows
+	private static Connection connection(int rows) {
+		return fake(Connection.class, (name) -> name.equals("prepareStatement") ? statement(rows) : null);
+	}
+
+	private static PreparedStatement statement(int rows) {
+		return fake(PreparedStatement.class, (name) -> switch (name) {
+			case "executeQuery" -> resultSet(rows);
+			case "executeUpdate" -> UPDATE_COUNT;
+			default -> null;
+		});
+	}
+
+	private static ResultSet resultSet(int rows) {
+		int[] left = { rows };
+		return fake(ResultSet.class, (name) -> switch (name) {
+			case "next" -> left[0]-- > 0;
+			case "getString" -> "value";
+			default -> null;
+		});
+	}
+
+	@FunctionalInterface
+	private interface Answer {
+		Object of(String method);
+	}
+
+	private static <T> T fake(Class<T> type, Answer answer) {
+		return type.cast(Proxy.newProxyInstance(InstrumentedConnectionCheck.class.getClassLoader(), new Class<?>[] { type },
+				(_, method, _) -> answer.of(method.getName())));
+	}
+}
@@ -0,0 +1,133 @@
+package load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import data.DisposalCalculator;
+import data.DisposalData;
+import data.DisposalData.DisposalType;
+import database.DBConnection;
+import database.Query;
+
+// Parity check of DisposalCalculator against the calculate_disposal_score and calculate_disposal_cost SQL functions.
+// Every disposal type of the database and an unknown type are calculated with edge inputs (0, ties of
+// volume * 10 and weight, huge and tiny values, NaN, infinity) and random ones. Results must have the same bits,
+// and an out of range error of the function must be an ArithmeticException of the calculator.
+//
+//   --random=200 --seed=1
+public class CalculatorParity {
+
+	private static final double[][] EDGE_INPUTS = {
+			{ 0, 0 }, { 0, 1.5 }, { 1.5, 0 }, { -0.0, 0 }, { 0, -0.0 },
+			{ 2, 0.2 }, { 25, 2.5 }, { 0.3, 0.03 }, { 12.34, 1.234 },   // volume * 10 == weight (or nearly)
+			{ 1.1, 0.1 }, { 0.1, 0.01 }, { 0.01, 0.01 }, { 999999.99, 99999.999 },
+			{ 1e300, 1e300 }, { 1e307, 0 }, { 0, 1e307 }, { Double.MAX_VALUE, 0 }, { 0, Double.MAX_VALUE / 10 },
+			{ Double.MIN_VALUE, 0 }, { 0, Double.MIN_VALUE }, { Double.MIN_NORMAL, Double.MIN_VALUE },
+			{ -5, 1 }, { 5, -1 },
+			{ Double.NaN, 1 }, { 1, Double.NaN }, { Double.POSITIVE_INFINITY, 1 }, { 1, Double.NEGATIVE_INFINITY },
+	};
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (!arg.startsWith("--") || eq == -1) throw new IllegalArgumentException("Unknown argument: " + arg);
+			options.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		int randomCount = Integer.parseInt(options.getOrDefault("random", "200"));
+		Random random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+
+		List<double[]> inputs = new ArrayList<>(List.of(EDGE_INPUTS));
+		for (int i = 0; i < randomCount; i++) {
+			if (i % 2 == 0) {
+				// Values as typed in the dialog
+				inputs.add(new double[] { Math.round(random.nextDouble() * 10000) / 100.0, Math.round(random.nextDouble() * 1000) / 1000.0 });
+			} else {
+				inputs.add(new double[] { random.nextDouble() * Math.pow(10, random.nextInt(12) - 4), random.nextDouble() * Math.pow(10, random.nextInt(12) - 5) });
+			}
+		}
+
+		long checked = 0, mismatches = 0;
+		try {
+			List<DisposalType> types = new ArrayList<>(DisposalData.getAllDisposalTypesWithCoefs());
+			if (types.isEmpty()) throw new IllegalStateException("No disposal types in the database");
+
+			int unknownId = 1000;
+			for (DisposalType t : types) unknownId = Math.max(unknownId, t.id + 1000);
+			types.add(null); // Unknown type
+
+			try (Connection conn = DBConnection.connect();
+				 PreparedStatement score = Query.CALCULATE_SCORE.prepare(conn);
+				 PreparedStatement cost = Query.CALCULATE_COST.prepare(conn)) {
+
+				for (DisposalType type : types) {
+					int typeId = (type == null) ? unknownId : type.id;
+					String typeName = (type == null) ? "unknown(" + unknownId + ")" : type.toString();
+
+					for (double[] in : inputs) {
+						double w = in[0], v = in[1];
+						String sqlScore = sql(score, typeId, w, v);
+						String javaScore = java(() -> DisposalCalculator.calculateScore(type, w, v));
+						String sqlCost = sql(cost, typeId, w, v);
+						String javaCost = java(() -> DisposalCalculator.calculateCost(type, w, v));
+						checked += 2;
+
+						if (!sqlScore.equals(javaScore)) {
+							mismatches++;
+							System.out.printf("SCORE %-12s weight=%s volume=%s sql=%s java=%s%n", typeName, w, v, sqlScore, javaScore);
+						}
+						if (!sqlCost.equals(javaCost)) {
+							mismatches++;
+							System.out.printf("COST  %-12s weight=%s volume=%s sql=%s java=%s%n", typeName, w, v, sqlCost, javaCost);
+						}
+					}
+				}
+			}
+		} finally {
+			DBConnection.shutdown();
+		}
+
+		System.out.println(checked + " results compared, " + mismatches + " different");
+		System.out.println(mismatches == 0 ? "PASSED" : "FAILED");
+		if (mismatches != 0) System.exit(1);
+	}
+
+	@FunctionalInterface
+	private interface Calculation {
+		double run();
+	}
+
+	// Result as exact bits (NaN is one value), or the kind of error
+	private static String outcome(double value) {
+		return Double.isNaN(value) ? "NaN" : value + " [" + Long.toHexString(Double.doubleToRawLongBits(value)) + "]";
+	}
+
+	private static String java(Calculation calculation) {
+		try {
+			return outcome(calculation.run());
+		} catch (ArithmeticException e) {
+			return "OUT OF RANGE";
+		}
+	}
+
+	// Errors other than out of range (22003) are not expected and stop the check
+	private static String sql(PreparedStatement ps, int typeId, double weight, double volume) throws SQLException {
+		ps.setInt(1, typeId);
+		ps.setDouble(2, weight);
+		ps.setDouble(3, volume);
+		try (ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return outcome(rs.getDouble(1));
+		} catch (SQLException e) {
+			if ("22003".equals(e.getSQLState())) return "OUT OF RANGE";
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import database.DBConnection;
+
+// Fills a database created from init.sql with synthetic neighbors, companies and disposals.
+// Everything is generated on the server with set-based SQL. Generated rows are marked
+// (LOAD_EMAIL_DOMAIN, LOAD_COMPANY_PREFIX) so they can be removed again with clean().
+//
+// Skew: index = floor(n * random() ^ skew), 1 means uniform, larger values concentrate
+// rows on the first neighbors / companies / streets / recent days.
+public class DatasetBuilder {
+
+	public static final String LOAD_EMAIL_DOMAIN = "@load.greenhood.test";
+	public static final String LOAD_COMPANY_PREFIX = "Load Company ";
+	public static final String LOAD_NEIGHBORHOOD_PREFIX = "Load Mahallesi ";
+	public static final String LOAD_PASSWORD = "LoadTest123";
+
+	// Tables whose user triggers (audit log, score maintenance, address cleanup) are off during bulk load
+	private static final String[] TABLES = { "address", "neighbor", "neighbor_passwords", "company", "company_passwords",
+			"company_disposal", "discarded_disposal", "reservation", "reservation_disposal" };
+
+	private static final int CHUNK = 250_000;
+
+	private final int neighborhoods;
+	private final int neighbors;
+	private final int companies;
+	private final long disposals;
+	private final int days;
+	private final double reservedRatio;
+	private final double recycledRatio;
+	private final double addressSkew;
+	private final double neighborSkew;
+	private final double companySkew;
+	private final double dateSkew;
+
+	public DatasetBuilder(Map<String, String> options) {
+		neighborhoods = Integer.parseInt(options.getOrDefault("neighborhoods", "200"));
+		neighbors = Integer.parseInt(options.getOrDefault("neighbors", "10000"));
+		companies = Integer.parseInt(options.getOrDefault("companies", "100"));
+		disposals = Long.parseLong(options.getOrDefault("disposals", "1000000"));
+		days = Integer.parseInt(options.getOrDefault("days", "1095"));
+		reservedRatio = Double.parseDouble(options.getOrDefault("reserved", "0.3"));
+		recycledRatio = Double.parseDouble(options.getOrDefault("recycled", "0.5"));
+		addressSkew = Double.parseDouble(options.getOrDefault("address-skew", "2"));
+		neighborSkew = Double.parseDouble(options.getOrDefault("neighbor-skew", "2"));
+		companySkew = Double.parseDouble(options.getOrDefault("company-skew", "1.5"));
+		dateSkew = Double.parseDouble(options.getOrDefault("date-skew", "1.5"));
+	}
+
+	public void build() throws SQLException {
+		long start = System.currentTimeMillis();
+
+		try (Connection conn = DBConnection.connect(); Statement st = conn.createStatement()) {
+			setTriggers(st, false);
+			try {
+				step("neighborhoods and streets", () -> insertNeighborhoods(conn));
+				step("neighbors", () -> insertNeighbors(conn));
+				step("companies", () -> insertCompanies(conn));
+				for (long done = 0; done < disposals; done += CHUNK) {
+					long count = Math.min(CHUNK, disposals - done);
+					step("disposals " + (done + count) + "/" + disposals, () -> insertDisposals(conn, count));
+				}
+				step("reservations", () -> insertReservations(conn));
+			} finally {
+				setTriggers(st, true);
+			}
+			step("leaderboard scores", () -> st.execute("SELECT refresh_leaderboard_scores()"));
+			step("analyze", () -> st.execute("ANALYZE"));
+		}
+
+		System.out.printf("Dataset ready in %.1f s%n", (System.currentTimeMillis() - start) / 1000.0);
+	}
+
+	// Removes every generated row
+	public static void clean() throws SQLException {
+		try (Connection conn = DBConnection.connect(); Statement st = conn.createStatement()) {
+			setTriggers(st, false);
+			try {
+				step("clean disposals", () -> st.executeUpdate(
+					"DELETE FROM discarded_disposal WHERE neighbortckn IN (SELECT tckn FROM neighbor WHERE email LIKE '%" + LOAD_EMAIL_DOMAIN + "')"));
+				step("clean reservations", () -> st.executeUpdate(
+					"DELETE FROM reservation WHERE cID IN (SELECT companyID FROM company WHERE cname LIKE '" + LOAD_COMPANY_PREFIX + "%')"));
+				step("clean neighbors", () -> st.executeUpdate("DELETE FROM neighbor WHERE email LIKE '%" + LOAD_EMAIL_DOMAIN + "'"));
+				step("clean companies", () -> st.executeUpdate("DELETE FROM company WHERE cname LIKE '" + LOAD_COMPANY_PREFIX + "%'"));
+				step("clean addresses", () -> st.executeUpdate(
+					"DELETE FROM address a WHERE NOT EXISTS (SELECT 1 FROM neighbor n WHERE n.addressID = a.addressid) " +
+					"AND NOT EXISTS (SELECT 1 FROM company c WHERE c.addressID = a.addressid)"));
+				step("clean neighborhoods", () -> st.executeUpdate(
+					"DELETE FROM neighborhood WHERE neighborhoodname LIKE '" + LOAD_NEIGHBORHOOD_PREFIX + "%'"));
+			} finally {
+				setTriggers(st, true);
+			}
+			step("leaderboard scores", () -> st.execute("SELECT refresh_leaderboard_scores()"));
+		}
+	}
+
+	@FunctionalInterface
+	private interface Step {
+		Object run() throws SQLException;
+	}
+
+	private static void step(String name, Step step) throws SQLException {
+		long start = System.currentTimeMillis();
+		Object result = step.run();
+		String rows = (result instanceof Integer i) ? " (" + i + " rows)" : "";
+		System.out.printf("  %-32s %8d ms%s%n", name, System.currentTimeMillis() - start, rows);
+	}
+
+	private static void setTriggers(Statement st, boolean enabled) throws SQLException {
+		for (String table : TABLES) {
+			st.execute("ALTER TABLE " + table + (enabled ? " ENABLE" : " DISABLE") + " TRIGGER USER");
+		}
+	}
+
+	private int insertNeighborhoods(Connection conn) throws SQLException {
+		String sql =
+			"WITH d AS (SELECT array_agg(districtid ORDER BY districtid) AS ids FROM district), " +
+			"nh AS ( " +
+			"   INSERT INTO neighborhood (neighborhoodname, districtID) " +
+			"   SELECT ? || g, d.ids[1 + g % array_length(d.ids, 1)] FROM d, generate_series(1, ?) g " +
+			"   RETURNING neighborhoodid " +
+			") " +
+			"INSERT INTO street (streetname, neighborhoodID) " +
+			"SELECT 'Load Sokak ' || s, nh.neighborhoodid FROM nh, generate_series(1, 3) s";
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setString(1, LOAD_NEIGHBORHOOD_PREFIX);
+			ps.setInt(2, neighborhoods);
+			return ps.executeUpdate();
+		}
+	}
+
+	// Address street is skewed, so some neighborhoods are much more crowded than others
+	private int insertNeighbors(Connection conn) throws SQLException {
+		conn.setAutoCommit(false);
+		try {
+			try (Statement st = conn.createStatement()) {
+				st.execute("CREATE TEMP TABLE load_address (addressid INT, rn BIGINT) ON COMMIT DROP");
+			}
+
+			String sql =
+				"WITH st AS (SELECT array_agg(streetid ORDER BY streetid) AS ids FROM street), " +
+				"a AS ( " +
+				"   INSERT INTO address (streetID, buildingno, floorno, doorno) " +
+				"   SELECT st.ids[1 + floor(array_length(st.ids, 1) * power(random(), ?))::INT], 1 + g % 200, g % 10, 1 + g % 40 " +
+				"   FROM st, generate_series(1, ?) g " +
+				"   RETURNING addressid " +
+				") " +
+				"INSERT INTO load_address SELECT addressid, row_number() OVER (ORDER BY addressid) FROM a";
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setDouble(1, addressSkew);
+				ps.setInt(2, neighbors);
+				ps.executeUpdate();
+			}
+
+			int count;
+			String neighborSql =
+				"INSERT INTO neighbor (fname, mname, lname, tckn, bdate, email, contactnumber, addressID, sex) " +
+				"SELECT " +
+				"   ('{Ahmet,Ayşe,Mehmet,Fatma,Mustafa,Zeynep,Emre,Elif,Can,Selin}'::TEXT[])[1 + rn % 10], " +
+				"   CASE WHEN rn % 4 = 0 THEN 'Nur' END, " +
+				"   ('{Yılmaz,Kaya,Demir,Şahin,Çelik,Yıldız,Aydın,Öztürk,Arslan,Doğan}'::TEXT[])[1 + (rn / 10) % 10], " +
+				"   '7' || lpad(rn::TEXT, 10, '0'), " +
+				"   DATE '1950-01-01' + (rn % 20000)::INT, " +
+				"   'load' || rn || ?, " +
+				"   '+907' || lpad(rn::TEXT, 10, '0'), " +
+				"   addressid, " +
+				"   CASE WHEN rn % 2 = 0 THEN 'M' ELSE 'F' END " +
+				"FROM load_address";
+			try (PreparedStatement ps = conn.prepareStatement(neighborSql)) {
+				ps.setString(1, LOAD_EMAIL_DOMAIN);
+				count = ps.executeUpdate();
+			}
+
+			// Every generated user has the same password, hashed once
+			try (PreparedStatement ps = conn.prepareStatement(
+					"INSERT INTO neighbor_passwords (nID, passwordhash) " +
+					"SELECT neighborid, ? FROM neighbor WHERE email LIKE '%' || ?")) {
+				ps.setString(1, BCrypt.hashpw(LOAD_PASSWORD, BCrypt.gensalt()));
+				ps.setString(2, LOAD_EMAIL_DOMAIN);
+				ps.executeUpdate();
+			}
+
+			conn.commit();
+			return count;
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+
+	private int insertCompanies(Connection conn) throws SQLException {
+		conn.setAutoCommit(false);
+		try {
+			int count;
+			String sql =
+				"WITH st AS (SELECT array_agg(streetid ORDER BY streetid) AS ids FROM street), " +
+				"a AS ( " +
+				"   INSERT INTO address (streetID, buildingno, floorno, doorno) " +
+				"   SELECT st.ids[1 + floor(array_length(st.ids, 1) * random())::INT], 1 + g % 200, 0, 1 " +
+				"   FROM st, generate_series(1, ?) g " +
+				"   RETURNING addressid " +
+				"), " +
+				"numbered AS (SELECT addressid, row_number() OVER (ORDER BY addressid) AS rn FROM a) " +
+				"INSERT INTO company (taxnumber, cname, contactnumber, addressID, governmentservice) " +
+				"SELECT '8' || lpad(rn::TEXT, 9, '0'), ? || rn, '+908' || lpad(rn::TEXT, 10, '0'), addressid, rn % 10 = 0 " +
+				"FROM numbered";
+			try (PreparedStatement ps = conn.prepareStatement(sql)) {
+				ps.setInt(1, companies);
+				ps.setString(2, LOAD_COMPANY_PREFIX);
+				count = ps.executeUpdate();
+			}
+
+			try (PreparedStatement ps = conn.prepareStatement(
+					"INSERT INTO company_passwords (cID, passwordhash) " +
+					"SELECT companyID, ? FROM company WHERE cname LIKE ? || '%'")) {
+				ps.setString(1, BCrypt.hashpw(LOAD_PASSWORD, BCrypt.gensalt()));
+				ps.setString(2, LOAD_COMPANY_PREFIX);
+				ps.executeUpdate();
+			}
+
+			// Each company accepts about half of the disposal types
+			try (PreparedStatement ps = conn.prepareStatement(
+					"INSERT INTO company_disposal (cID, dID) " +
+					"SELECT c.companyID, d.disposalID FROM company c CROSS JOIN disposal d " +
+					"WHERE c.cname LIKE ? || '%' AND (c.companyID + d.disposalID) % 2 = 0")) {
+				ps.setString(1, LOAD_COMPANY_PREFIX);
+				ps.executeUpdate();
+			}
+
+			conn.commit();
+			return count;
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+
+	// Score and cost use the same formulas as calculate_disposal_score / calculate_disposal_cost
+	private int insertDisposals(Connection conn, long count) throws SQLException {
+		String sql =
+			"WITH t AS ( " +
+			"   SELECT array_agg(disposalID ORDER BY disposalID) AS ids, " +
+			"          array_agg(scorecoef ORDER BY disposalID) AS sc, " +
+			"          array_agg(tcostcoef ORDER BY disposalID) AS tc " +
+			"   FROM disposal " +
+			"), " +
+			"n AS (SELECT array_agg(tckn ORDER BY tckn) AS ids FROM neighbor WHERE email LIKE '%' || ?), " +
+			"r AS ( " +
+			"   SELECT 1 + floor(random() * array_length(t.ids, 1))::INT AS ti, " +
+			"          1 + floor(array_length(n.ids, 1) * power(random(), ?))::INT AS ni, " +
+			"          floor(? * power(random(), ?))::INT AS age, " +
+			"          round((0.5 + random() * 30)::NUMERIC, 2) AS w, " +
+			"          round((0.01 + random() * 2)::NUMERIC, 2) AS v " +
+			"   FROM t, n, generate_series(1, ?) g " +
+			") " +
+			"INSERT INTO discarded_disposal (dID, neighbortckn, ddate, weight, volume, rstatus, ddscore, tcost) " +
+			"SELECT t.ids[r.ti], n.ids[r.ni], CURRENT_DATE - r.age, r.w, r.v, FALSE, " +
+			"       t.sc[r.ti] * (r.w + r.v * 10), t.tc[r.ti] * GREATEST(r.w, r.v * 10) " +
+			"FROM r, t, n";
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setString(1, LOAD_EMAIL_DOMAIN);
+			ps.setDouble(2, neighborSkew);
+			ps.setInt(3, days);
+			ps.setDouble(4, dateSkew);
+			ps.setLong(5, count);
+			return ps.executeUpdate();
+		}
+	}
+
+	// One reservation per disposal like the application does, company choice is skewed
+	private int insertReservations(Connection conn) throws SQLException {
+		conn.setAutoCommit(false);
+		try (Statement st = conn.createStatement()) {
+			try (PreparedStatement ps = conn.prepareStatement(
+					"CREATE TEMP TABLE load_pick ON COMMIT DROP AS " +
+					"WITH c AS (SELECT array_agg(companyID ORDER BY companyID) AS ids FROM company WHERE cname LIKE ? || '%') " +
+					"SELECT nextval(pg_get_serial_sequence('reservation', 'reservationno')) AS rno, dd.ddno, " +
+					"       c.ids[1 + floor(array_length(c.ids, 1) * power(random(), ?))::INT] AS cid, " +
+					"       LEAST(CURRENT_DATE, dd.ddate + (random() * 3)::INT) AS rdate, " +
+					"       random() < ? AS recycled " +
+					"FROM discarded_disposal dd, c " +
+					"WHERE dd.neighbortckn IN (SELECT tckn FROM neighbor WHERE email LIKE '%' || ?) " +
+					"AND NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno) " +
+					"AND random() < ?")) {
+				ps.setString(1, LOAD_COMPANY_PREFIX);
+				ps.setDouble(2, companySkew);
+				ps.setDouble(3, recycledRatio);
+				ps.setString(4, LOAD_EMAIL_DOMAIN);
+				ps.setDouble(5, reservedRatio);
+				ps.execute();
+			}
+
+			int count = st.executeUpdate(
+				"INSERT INTO reservation (reservationNo, cID, reservationdate, recycledate) " +
+				"SELECT rno, cid, rdate, CASE WHEN recycled THEN LEAST(CURRENT_DATE, rdate + 3) END FROM load_pick");
+			st.executeUpdate("INSERT INTO reservation_disposal (rnumber, ddnumber) SELECT rno, ddno FROM load_pick");
+			st.executeUpdate(
+				"UPDATE discarded_disposal dd SET rstatus = TRUE FROM load_pick p WHERE dd.ddno = p.ddno AND p.recycled");
+
+			conn.commit();
+			return count;
+		} finally {
+			conn.setAutoCommit(true);
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import data.DashboardData;
+import data.DisposalCalculator;
+import data.CompanyDisposalModel;
+import data.DisposalData;
+import data.DisposalData.DisposalRecord;
+import data.DisposalData.DisposalType;
+import data.DisposalData.ReserveResult;
+import data.ProfileData;
+import data.ReservationData;
+import database.DBConnection;
+import database.LatencyHistogram;
+
+// Headless load generator. Simulated neighbors and companies call the same data layer methods as the
+// dashboards, so pool size, statement cache and SQL changes can be measured under concurrency.
+//
+//   --build                  fill the database with DatasetBuilder first (see its options)
+//   --clean                  remove generated rows and exit
+//   --users-neighbors=40     concurrent simulated neighbors
+//   --users-companies=10     concurrent simulated companies
+//   --warmup=10 --duration=60  seconds
+//   --think=50               pause between two operations of one user (ms)
+public class LoadGenerator {
+
+	private static final int PAGE_SIZE = 50;
+
+	// Latency of one operation, pool wait is the part spent in DBConnection.connect() waiting for a connection
+	private static class OpStats {
+		final LatencyHistogram latency = new LatencyHistogram();
+		final LatencyHistogram poolWait = new LatencyHistogram();
+		final LongAdder errors = new LongAdder();
+
+		void reset() {
+			latency.reset();
+			poolWait.reset();
+			errors.reset();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Op {
+		void run() throws Exception;
+	}
+
+	private static final Map<String, OpStats> stats = new LinkedHashMap<>();
+	private static final ThreadLocal<long[]> poolWaitNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+	private static volatile boolean running = true;
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+
+		try {
+			if (options.containsKey("clean")) {
+				DatasetBuilder.clean();
+				return;
+			}
+			if (options.containsKey("build")) {
+				new DatasetBuilder(options).build();
+			}
+
+			int neighborUsers = Integer.parseInt(options.getOrDefault("users-neighbors", "40"));
+			int companyUsers = Integer.parseInt(options.getOrDefault("users-companies", "10"));
+			int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+			int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+			int think = Integer.parseInt(options.getOrDefault("think", "50"));
+			if (duration <= 0) return;
+
+			run(neighborUsers, companyUsers, warmup, duration, think);
+		} finally {
+			DBConnection.shutdown();
+		}
+	}
+
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) throw new IllegalArgumentException("Unknown argument: " + arg);
+			int eq = arg.indexOf('=');
+			if (eq == -1) options.put(arg.substring(2), "true");
+			else options.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		return options;
+	}
+
+	private static void run(int neighborUsers, int companyUsers, int warmup, int duration, int think) throws Exception {
+		List<String> tckns = loadIdentities("SELECT tckn FROM neighbor WHERE email LIKE '%" + DatasetBuilder.LOAD_EMAIL_DOMAIN + "' ORDER BY tckn");
+		List<String> taxNumbers = loadIdentities("SELECT taxnumber FROM company WHERE cname LIKE '" + DatasetBuilder.LOAD_COMPANY_PREFIX + "%' ORDER BY taxnumber");
+		if ((neighborUsers > 0 && tckns.isEmpty()) || (companyUsers > 0 && taxNumbers.isEmpty())) {
+			throw new IllegalStateException("No generated users found, run with --build first");
+		}
+		List<DisposalType> types = DisposalData.getAllDisposalTypesWithCoefs();
+
+		DBConnection.setAcquireObserver(nanos -> poolWaitNanos.get()[0] += nanos);
+
+		System.out.printf("Running %d neighbors and %d companies, warmup %d s, measure %d s, think %d ms%n",
+				neighborUsers, companyUsers, warmup, duration, think);
+
+		ExecutorService pool = Executors.newFixedThreadPool(neighborUsers + companyUsers);
+		for (int i = 0; i < neighborUsers; i++) {
+			// Same skew as the dataset, active users are mostly the ones with a lot of history
+			String tckn = tckns.get(i * tckns.size() / neighborUsers);
+			pool.execute(() -> neighborLoop(tckn, types, think));
+		}
+		for (int i = 0; i < companyUsers; i++) {
+			String taxNumber = taxNumbers.get(i * taxNumbers.size() / companyUsers);
+			pool.execute(() -> companyLoop(taxNumber, think));
+		}
+
+		TimeUnit.SECONDS.sleep(warmup);
+		synchronized (stats) {
+			stats.values().forEach(OpStats::reset);
+		}
+		long start = System.nanoTime();
+		TimeUnit.SECONDS.sleep(duration);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		report(seconds);
+
+		running = false;
+		pool.shutdown();
+		pool.awaitTermination(30, TimeUnit.SECONDS);
+		DBConnection.setAcquireObserver(null);
+	}
+
+	private static List<String> loadIdentities(String sql) throws Exception {
+		List<String> list = new ArrayList<>();
+		try (Connection conn = DBConnection.connect();
+			 PreparedStatement ps = conn.prepareStatement(sql);
+			 ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) list.add(rs.getString(1).trim());
+		}
+		return list;
+	}
+
+	// Mix is close to a neighbor session: mostly reading feeds and the own dashboard, sometimes adding a disposal
+	private static void neighborLoop(String tckn, List<DisposalType> types, int think) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (running) {
+			int r = random.nextInt(100);
+			if (r < 20) measure("neighbor.disposalsPage", () -> DisposalData.getDisposalsPage(null, PAGE_SIZE));
+			else if (r < 30) measure("neighbor.reservationsPage", () -> ReservationData.getReservationsPage(null, PAGE_SIZE));
+			else if (r < 40) measure("neighbor.recycledPage", () -> DisposalData.getRecycledPage(null, PAGE_SIZE));
+			else if (r < 50) measure("neighbor.topNeighbors", () -> DashboardData.getTopNeighbors(25));
+			else if (r < 60) measure("neighbor.neighborhoodLeaderboard", () -> DashboardData.getNeighborhoodLeaderboard(tckn, 25));
+			else if (r < 75) measure("neighbor.history", () -> ProfileData.getFilteredDisposalHistory(tckn, 30));
+			else if (r < 90) measure("neighbor.stats", () -> ProfileData.getUserStats(tckn, random.nextInt(3)));
+			else measure("neighbor.addDisposal", () -> {
+				DisposalType type = types.get(random.nextInt(types.size()));
+				double weight = Math.round((0.5 + random.nextDouble() * 20) * 100) / 100.0;
+				double volume = Math.round((0.01 + random.nextDouble()) * 100) / 100.0;
+				DisposalData.addDisposalRecord(tckn, type.id, weight, volume,
+						DisposalCalculator.calculateCost(type, weight, volume),
+						DisposalCalculator.calculateScore(type, weight, volume));
+			});
+			pause(think);
+		}
+	}
+
+	// A company reserves from the available list and later recycles or cancels its own reservations
+	private static void companyLoop(String taxNumber, int think) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<Integer> reserved = new ArrayList<>();
+		Long watermark = measure("company.watermark", DisposalData::getChangeWatermark);
+		while (running) {
+			int r = random.nextInt(100);
+			if (r < 25) {
+				List<DisposalRecord> available = measure("company.available",
+						() -> DisposalData.getAvailableDisposalsFiltered(null, taxNumber));
+				if (available != null && !available.isEmpty()) {
+					int ddno = available.get(random.nextInt(available.size())).ddno;
+					ReserveResult result = measure("company.reserve", () -> DisposalData.reserveDiscardedDisposal(taxNumber, ddno));
+					if (result == ReserveResult.RESERVED) reserved.add(ddno);
+				}
+			}
+			else if (r < 45 && watermark != null) {
+				// Dashboard delta sync after actions and change notifications
+				long since = watermark;
+				CompanyDisposalModel.Changes changes = measure("company.changes", () -> DisposalData.getCompanyDisposalChanges(taxNumber, null, since));
+				if (changes != null) watermark = changes.watermark;
+			}
+			else if (r < 65) measure("company.reserved", () -> ProfileData.getCompanyReservedDisposals(taxNumber));
+			else if (r < 80) measure("company.recycled", () -> ProfileData.getCompanyRecycledDisposals(taxNumber));
+			else if (!reserved.isEmpty()) {
+				int ddno = reserved.remove(random.nextInt(reserved.size()));
+				if (r < 95) measure("company.recycle", () -> DisposalData.completeRecycling(ddno));
+				else measure("company.cancel", () -> ReservationData.cancelReservation(ddno));
+			}
+			pause(think);
+		}
+	}
+
+	private static void measure(String name, Op op) {
+		measure(name, () -> {
+			op.run();
+			return null;
+		});
+	}
+
+	@FunctionalInterface
+	private interface Call<T> {
+		T call() throws Exception;
+	}
+
+	// Returns null when the operation failed, failures are counted instead of stopping the user
+	private static <T> T measure(String name, Call<T> call) {
+		OpStats s;
+		synchronized (stats) {
+			s = stats.computeIfAbsent(name, _ -> new OpStats());
+		}
+
+		long[] wait = poolWaitNanos.get();
+		wait[0] = 0;
+		long start = System.nanoTime();
+		try {
+			return call.call();
+		} catch (Exception e) {
+			s.errors.increment();
+			return null;
+		} finally {
+			s.latency.record(System.nanoTime() - start);
+			s.poolWait.record(wait[0]);
+		}
+	}
+
+	private static void pause(int millis) {
+		if (millis <= 0) return;
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+
+	private static void report(double seconds) {
+		System.out.printf("%n%-34s %8s %9s %9s %9s %9s %11s %11s %7s%n",
+				"operation", "count", "ops/s", "p50 ms", "p99 ms", "max ms", "wait p50", "wait p99", "errors");
+
+		long total = 0;
+		synchronized (stats) {
+			for (Map.Entry<String, OpStats> e : stats.entrySet()) {
+				OpStats s = e.getValue();
+				long count = s.latency.getCount();
+				total += count;
+				System.out.printf("%-34s %8d %9.1f %9.2f %9.2f %9.2f %11.3f %11.3f %7d%n",
+						e.getKey(), count, count / seconds,
+						s.latency.getPercentileMillis(50), s.latency.getPercentileMillis(99), s.latency.getMaxMillis(),
+						s.poolWait.getPercentileMillis(50), s.poolWait.getPercentileMillis(99), s.errors.sum());
+			}
+		}
+		System.out.printf("%-34s %8d %9.1f%n", "total", total, total / seconds);
+	}
+}
@@ -0,0 +1,154 @@
+package load;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import data.DisposalData;
+import data.DisposalData.ReserveResult;
+import data.ReservationData;
+import database.DBConnection;
+import database.LatencyHistogram;
+
+// Concurrency check of reserve_discarded_disposal: many generated companies try to reserve the same
+// available disposals at the same moment. Every disposal must end up with exactly one reservation,
+// every allowed company must get RESERVED or TAKEN and no call may fail. Reservations are cancelled at the end.
+//
+//   --companies=50 --items=200 --rounds=3
+public class ReservationContention {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (!arg.startsWith("--") || eq == -1) throw new IllegalArgumentException("Unknown argument: " + arg);
+			options.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		int companies = Integer.parseInt(options.getOrDefault("companies", "50"));
+		int items = Integer.parseInt(options.getOrDefault("items", "200"));
+		int rounds = Integer.parseInt(options.getOrDefault("rounds", "3"));
+
+		boolean passed = true;
+		try {
+			List<String> taxNumbers = select(
+					"SELECT taxnumber FROM company WHERE cname LIKE '" + DatasetBuilder.LOAD_COMPANY_PREFIX + "%' ORDER BY companyID LIMIT " + companies);
+			if (taxNumbers.size() < 2) throw new IllegalStateException("Not enough generated companies, run LoadGenerator --build first");
+
+			for (int round = 1; round <= rounds; round++) {
+				passed &= runRound(round, taxNumbers, items);
+			}
+		} finally {
+			DBConnection.shutdown();
+		}
+
+		System.out.println(passed ? "PASSED" : "FAILED");
+		if (!passed) System.exit(1);
+	}
+
+	private static boolean runRound(int round, List<String> taxNumbers, int itemCount) throws Exception {
+		List<Integer> items = new ArrayList<>();
+		for (String ddno : select(
+				"SELECT dd.ddno FROM discarded_disposal dd " +
+				"WHERE dd.rstatus = FALSE AND NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno) " +
+				"ORDER BY random() LIMIT " + itemCount)) {
+			items.add(Integer.parseInt(ddno));
+		}
+
+		Map<ReserveResult, LongAdder> results = new EnumMap<>(ReserveResult.class);
+		for (ReserveResult r : ReserveResult.values()) results.put(r, new LongAdder());
+		LongAdder errors = new LongAdder();
+		AtomicLong firstError = new AtomicLong();
+		LatencyHistogram latency = new LatencyHistogram();
+
+		// Every company tries all items in its own order, all start at the same moment
+		ExecutorService pool = Executors.newFixedThreadPool(taxNumbers.size());
+		CountDownLatch start = new CountDownLatch(1);
+		for (String taxNumber : taxNumbers) {
+			List<Integer> order = new ArrayList<>(items);
+			Collections.shuffle(order);
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int ddno : order) {
+					long t = System.nanoTime();
+					try {
+						results.get(DisposalData.reserveDiscardedDisposal(taxNumber, ddno)).increment();
+					} catch (Exception e) {
+						errors.increment();
+						if (firstError.compareAndSet(0, 1)) e.printStackTrace();
+					}
+					latency.record(System.nanoTime() - t);
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.MINUTES);
+
+		// Items which at least one company was allowed to reserve must have exactly one reservation
+		int[] check = checkItems(items, taxNumbers);
+		int reservable = check[0], reservedOnce = check[1], duplicates = check[2];
+		long reserved = results.get(ReserveResult.RESERVED).sum();
+
+		boolean ok = errors.sum() == 0 && duplicates == 0 && reservedOnce == reservable && reserved == reservable;
+		System.out.printf("round %d: %d items x %d companies | reserved %d, taken %d, not allowed %d, errors %d | " +
+				"p50 %.2f ms, p99 %.2f ms | reservable %d, reserved once %d, duplicates %d -> %s%n",
+				round, items.size(), taxNumbers.size(), reserved, results.get(ReserveResult.TAKEN).sum(),
+				results.get(ReserveResult.NOT_ALLOWED).sum(), errors.sum(),
+				latency.getPercentileMillis(50), latency.getPercentileMillis(99),
+				reservable, reservedOnce, duplicates, ok ? "OK" : "FAIL");
+
+		for (int ddno : items) ReservationData.cancelReservation(ddno);
+		return ok;
+	}
+
+	// Returns reservable item count, items with exactly one reservation and items with more than one
+	private static int[] checkItems(List<Integer> items, List<String> taxNumbers) throws Exception {
+		String sql =
+			"SELECT " +
+			"   COUNT(*) FILTER (WHERE allowed) AS reservable, " +
+			"   COUNT(*) FILTER (WHERE allowed AND reservations = 1) AS reserved_once, " +
+			"   COUNT(*) FILTER (WHERE reservations > 1) AS duplicates " +
+			"FROM ( " +
+			"   SELECT dd.ddno, " +
+			"          EXISTS (SELECT 1 FROM company_disposal cd JOIN company c ON cd.cID = c.companyID " +
+			"                  WHERE cd.dID = dd.dID AND c.taxnumber = ANY(?)) AS allowed, " +
+			"          (SELECT COUNT(*) FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno) AS reservations " +
+			"   FROM discarded_disposal dd WHERE dd.ddno = ANY(?) " +
+			") x";
+		try (Connection conn = DBConnection.connect();
+			 PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setArray(1, conn.createArrayOf("VARCHAR", taxNumbers.toArray()));
+			ps.setArray(2, conn.createArrayOf("INTEGER", items.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				return new int[] { rs.getInt(1), rs.getInt(2), rs.getInt(3) };
+			}
+		}
+	}
+
+	private static List<String> select(String sql) throws Exception {
+		List<String> list = new ArrayList<>();
+		try (Connection conn = DBConnection.connect();
+			 PreparedStatement ps = conn.prepareStatement(sql);
+			 ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) list.add(rs.getString(1).trim());
+		}
+		return list;
+	}
+}
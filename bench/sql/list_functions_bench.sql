@@ -0,0 +1,340 @@
+-- Benchmark: cursor loop list functions (previous implementation, recreated below as bench_cursor_*)
+-- against the set-based get_available_discarded_disposals_list, get_company_reserved_discarded_disposals_list
+-- and get_company_recycled_discarded_disposals_list.
+--
+-- Run on a database created from init.sql, either with generated rows or on the load test dataset
+-- (bench/load/run.sh --build --disposals=1000000 --duration=0) without generating anything:
+--   psql -d greenhood -v rows=1000000 -f bench/sql/list_functions_bench.sql
+--   psql -d greenhood_load -v rows=0 -f bench/sql/list_functions_bench.sql
+--
+-- Everything runs in one transaction which is rolled back at the end, so the database is left untouched.
+-- Each list is measured as the full result (what the dashboard loads) and as the first 50 rows,
+-- where the inlined SQL function can stop early and the cursor loop still builds the whole result.
+-- Wall times come from \timing, the plans of both versions from EXPLAIN ANALYZE at the end.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+SELECT :rows > 0 AS bench_generate \gset
+
+BEGIN;
+
+\if :bench_generate
+-- No audit log or score maintenance for generated rows
+ALTER TABLE discarded_disposal DISABLE TRIGGER USER;
+ALTER TABLE reservation DISABLE TRIGGER USER;
+ALTER TABLE reservation_disposal DISABLE TRIGGER USER;
+
+SELECT companyID AS bench_cid, taxnumber AS bench_tax FROM company ORDER BY companyID LIMIT 1 \gset
+SELECT COALESCE(MAX(ddno), 0) AS bench_first_ddno FROM discarded_disposal \gset
+
+-- Disposals spread over seeded neighbors and disposal types, dates over the last ~3 years
+INSERT INTO discarded_disposal (dID, neighbortckn, ddate, weight, volume, rstatus, ddscore, tcost)
+SELECT
+	t.ids[1 + g % array_length(t.ids, 1)],
+	n.ids[1 + g % array_length(n.ids, 1)],
+	CURRENT_DATE - (g % 1000),
+	1 + g % 50,
+	0.1 + (g % 10) / 10.0,
+	FALSE,
+	10 + g % 90,
+	5 + g % 20
+FROM (SELECT array_agg(disposalID ORDER BY disposalID) AS ids FROM disposal) t,
+	 (SELECT array_agg(tckn ORDER BY tckn) AS ids FROM neighbor) n,
+	 generate_series(1, :rows) g;
+
+-- 20% of them reserved by the first company (100 disposals per reservation), half of those recycled
+CREATE TEMP TABLE bench_reservation (reservationNo INT, idx BIGINT) ON COMMIT DROP;
+
+WITH ins AS (
+	INSERT INTO reservation (cID, reservationdate)
+	SELECT :bench_cid, CURRENT_DATE - (g % 1000)
+	FROM generate_series(1, GREATEST(:rows / 500, 1)) g
+	RETURNING reservationNo
+)
+INSERT INTO bench_reservation
+SELECT reservationNo, row_number() OVER (ORDER BY reservationNo) - 1 FROM ins;
+
+INSERT INTO reservation_disposal (rnumber, ddnumber)
+SELECT br.reservationNo, dd.ddno
+FROM discarded_disposal dd
+JOIN bench_reservation br ON br.idx = ((dd.ddno - :bench_first_ddno) / 5) % GREATEST(:rows / 500, 1)
+WHERE dd.ddno > :bench_first_ddno AND (dd.ddno - :bench_first_ddno) % 5 = 0;
+
+UPDATE discarded_disposal SET rstatus = TRUE
+WHERE ddno > :bench_first_ddno AND (ddno - :bench_first_ddno) % 10 = 0;
+
+UPDATE reservation r SET recycledate = r.reservationdate + 7
+FROM bench_reservation br WHERE r.reservationNo = br.reservationNo;
+
+ANALYZE discarded_disposal;
+ANALYZE reservation;
+ANALYZE reservation_disposal;
+\else
+-- Existing dataset: the company with the most reservations
+SELECT c.taxnumber AS bench_tax
+FROM company c JOIN reservation r ON r.cID = c.companyID JOIN reservation_disposal rd ON rd.rnumber = r.reservationNo
+GROUP BY c.taxnumber ORDER BY count(*) DESC LIMIT 1 \gset
+\endif
+
+SELECT version();
+SELECT count(*) AS disposals, count(*) FILTER (WHERE rstatus) AS recycled FROM discarded_disposal;
+
+-- Previous implementation
+CREATE OR REPLACE FUNCTION bench_cursor_available_list()
+RETURNS TABLE (
+    dd_no INT,
+    waste_type VARCHAR,
+    weight FLOAT,
+    volume FLOAT,
+    score FLOAT,
+    discard_date DATE,
+    full_name VARCHAR
+) AS $$
+DECLARE
+    -- CURSOR
+    cur_waste CURSOR FOR 
+        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, dd.ddate, 
+               n.fname, n.mname, n.lname
+        FROM discarded_disposal dd
+        JOIN disposal d ON dd.dID = d.disposalID
+        JOIN neighbor n ON n.tckn = dd.neighbortckn
+        LEFT JOIN reservation_disposal rd ON dd.ddno = rd.ddnumber
+        WHERE rd.ddnumber IS NULL -- Rezerve edilmemişler
+        ORDER BY dd.ddate DESC;
+
+    -- RECORD
+    rec_waste RECORD;
+BEGIN
+    OPEN cur_waste;
+
+    LOOP
+        FETCH cur_waste INTO rec_waste;
+        EXIT WHEN NOT FOUND;
+
+        dd_no := rec_waste.ddno;
+        waste_type := rec_waste.disposalname;
+        weight := rec_waste.weight;
+        volume := rec_waste.volume;
+        score := rec_waste.ddscore;
+        discard_date := rec_waste.ddate;
+
+		IF rec_waste.mname IS NOT NULL AND rec_waste.mname <> '' THEN
+            full_name := rec_waste.fname || ' ' || rec_waste.mname || ' ' || rec_waste.lname;
+        ELSE
+            full_name := rec_waste.fname || ' ' || rec_waste.lname;
+        END IF;
+
+        RETURN NEXT;
+    END LOOP;
+
+    CLOSE cur_waste;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bench_cursor_reserved_list(p_tax_number VARCHAR)
+RETURNS TABLE (
+    dd_no INT,
+    waste_type VARCHAR,
+    weight FLOAT,
+    volume FLOAT,
+    score FLOAT,
+    discard_date DATE,
+    res_date DATE,
+    full_name VARCHAR,
+    company_name VARCHAR
+) AS $$
+DECLARE
+    -- CURSOR
+    cur_res CURSOR FOR 
+        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
+               dd.ddate, r.reservationdate, 
+               n.fname, n.mname, n.lname, c.cname
+        FROM company c
+        JOIN reservation r ON c.companyID = r.cID
+        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
+        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
+        JOIN disposal d ON dd.dID = d.disposalID
+        JOIN neighbor n ON n.tckn = dd.neighbortckn
+        WHERE c.taxnumber = p_tax_number
+        
+        EXCEPT 
+        
+        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
+               dd.ddate, r.reservationdate, 
+               n.fname, n.mname, n.lname, c.cname
+        FROM company c
+        JOIN reservation r ON c.companyID = r.cID
+        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
+        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
+        JOIN disposal d ON dd.dID = d.disposalID
+        JOIN neighbor n ON n.tckn = dd.neighbortckn
+        WHERE c.taxnumber = p_tax_number AND dd.rstatus = TRUE
+        
+        ORDER BY reservationdate DESC;
+
+    -- RECORD
+    rec_res RECORD;
+BEGIN
+    OPEN cur_res;
+    LOOP
+        FETCH cur_res INTO rec_res;
+        EXIT WHEN NOT FOUND;
+
+        dd_no := rec_res.ddno;
+        waste_type := rec_res.disposalname;      
+        weight := rec_res.weight;
+        volume := rec_res.volume;
+        score := rec_res.ddscore;
+        discard_date := rec_res.ddate;
+        res_date := rec_res.reservationdate;
+        company_name := rec_res.cname;
+
+        -- Name concatenation
+        IF rec_res.mname IS NOT NULL AND rec_res.mname <> '' THEN
+            full_name := rec_res.fname || ' ' || rec_res.mname || ' ' || rec_res.lname;
+        ELSE
+            full_name := rec_res.fname || ' ' || rec_res.lname;
+        END IF;
+
+        RETURN NEXT;
+    END LOOP;
+    CLOSE cur_res;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bench_cursor_recycled_list(p_tax_number VARCHAR)
+RETURNS TABLE (
+    dd_no INT,
+    waste_type VARCHAR,
+    weight FLOAT,
+    volume FLOAT,
+    score FLOAT,
+    discard_date DATE,
+    res_date DATE,
+    rec_date DATE,
+    full_name VARCHAR,
+    company_name VARCHAR
+) AS $$
+DECLARE
+    cur_rec CURSOR FOR 
+        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
+               dd.ddate, r.reservationdate, r.recycledate, 
+               n.fname, n.mname, n.lname, c.cname 
+        FROM company c 
+        JOIN reservation r ON c.companyID = r.cID 
+        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber 
+        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno 
+        JOIN disposal d ON dd.dID = d.disposalID 
+        JOIN neighbor n ON n.tckn = dd.neighbortckn 
+        WHERE c.taxnumber = p_tax_number
+        
+        INTERSECT 
+        
+        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
+               dd.ddate, r.reservationdate, r.recycledate, 
+               n.fname, n.mname, n.lname, c.cname 
+        FROM company c 
+        JOIN reservation r ON c.companyID = r.cID 
+        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber 
+        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno 
+        JOIN disposal d ON dd.dID = d.disposalID 
+        JOIN neighbor n ON n.tckn = dd.neighbortckn 
+        WHERE dd.rstatus = TRUE
+        
+        ORDER BY ddate DESC;
+
+    rec_rec RECORD;
+BEGIN
+    OPEN cur_rec;
+    LOOP
+        FETCH cur_rec INTO rec_rec;
+        EXIT WHEN NOT FOUND;
+
+        dd_no := rec_rec.ddno;
+        waste_type := rec_rec.disposalname;
+        weight := rec_rec.weight;
+        volume := rec_rec.volume;
+        score := rec_rec.ddscore;
+        discard_date := rec_rec.ddate;
+        res_date := rec_rec.reservationdate;
+        rec_date := rec_rec.recycledate;
+        
+        IF rec_rec.mname IS NOT NULL AND rec_rec.mname <> '' THEN
+            full_name := rec_rec.fname || ' ' || rec_rec.mname || ' ' || rec_rec.lname;
+        ELSE
+            full_name := rec_rec.fname || ' ' || rec_rec.lname;
+        END IF;
+        
+        company_name := rec_rec.cname;
+
+        RETURN NEXT;
+    END LOOP;
+    CLOSE cur_rec;
+END;
+$$ LANGUAGE plpgsql;
+
+\timing on
+
+\echo '== Available list, full result'
+SELECT count(*) AS cursor_rows FROM bench_cursor_available_list();
+SELECT count(*) AS cursor_rows FROM bench_cursor_available_list();
+SELECT count(*) AS set_rows FROM get_available_discarded_disposals_list();
+SELECT count(*) AS set_rows FROM get_available_discarded_disposals_list();
+
+\echo '== Available list, first 50 rows'
+SELECT count(*) FROM (SELECT * FROM bench_cursor_available_list() LIMIT 50) x;
+SELECT count(*) FROM (SELECT * FROM get_available_discarded_disposals_list() LIMIT 50) x;
+
+\echo '== Reserved list, full result'
+SELECT count(*) AS cursor_rows FROM bench_cursor_reserved_list(:'bench_tax');
+SELECT count(*) AS cursor_rows FROM bench_cursor_reserved_list(:'bench_tax');
+SELECT count(*) AS set_rows FROM get_company_reserved_discarded_disposals_list(:'bench_tax');
+SELECT count(*) AS set_rows FROM get_company_reserved_discarded_disposals_list(:'bench_tax');
+
+\echo '== Recycled list, full result'
+SELECT count(*) AS cursor_rows FROM bench_cursor_recycled_list(:'bench_tax');
+SELECT count(*) AS cursor_rows FROM bench_cursor_recycled_list(:'bench_tax');
+SELECT count(*) AS set_rows FROM get_company_recycled_discarded_disposals_list(:'bench_tax');
+SELECT count(*) AS set_rows FROM get_company_recycled_discarded_disposals_list(:'bench_tax');
+
+\timing off
+
+\echo '== Results must be identical (all counts 0)'
+SELECT count(*) AS available_diff FROM (
+	(SELECT * FROM bench_cursor_available_list() EXCEPT ALL SELECT * FROM get_available_discarded_disposals_list())
+	UNION ALL
+	(SELECT * FROM get_available_discarded_disposals_list() EXCEPT ALL SELECT * FROM bench_cursor_available_list())
+) x;
+SELECT count(*) AS reserved_diff FROM (
+	(SELECT * FROM bench_cursor_reserved_list(:'bench_tax') EXCEPT ALL SELECT * FROM get_company_reserved_discarded_disposals_list(:'bench_tax'))
+	UNION ALL
+	(SELECT * FROM get_company_reserved_discarded_disposals_list(:'bench_tax') EXCEPT ALL SELECT * FROM bench_cursor_reserved_list(:'bench_tax'))
+) x;
+SELECT count(*) AS recycled_diff FROM (
+	(SELECT * FROM bench_cursor_recycled_list(:'bench_tax') EXCEPT ALL SELECT * FROM get_company_recycled_discarded_disposals_list(:'bench_tax'))
+	UNION ALL
+	(SELECT * FROM get_company_recycled_discarded_disposals_list(:'bench_tax') EXCEPT ALL SELECT * FROM bench_cursor_recycled_list(:'bench_tax'))
+) x;
+
+\echo '== Plans, cursor loop (function scan) and set-based (inlined into the query)'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_cursor_available_list();
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM get_available_discarded_disposals_list();
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_cursor_available_list() LIMIT 50;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM get_available_discarded_disposals_list() LIMIT 50;
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_cursor_reserved_list(:'bench_tax');
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM get_company_reserved_discarded_disposals_list(:'bench_tax');
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM bench_cursor_recycled_list(:'bench_tax');
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT * FROM get_company_recycled_discarded_disposals_list(:'bench_tax');
+
+ROLLBACK;
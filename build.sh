@@ -0,0 +1,41 @@
+#!/bin/sh
+# Builds the application into build/greenhood.jar (class path jar, module-info is skipped like in the benchmarks).
+# localization.csv is compiled into localization.bin, which is loaded at startup instead of parsing the csv.
+# A training start then writes the class data sharing archive build/greenhood.jsa with the classes loaded until
+# the login screen is usable, so they are mapped from the archive instead of being loaded and verified again.
+# Training needs a display (e.g. xvfb-run ./build.sh on a build server), the archive is skipped if it fails.
+#
+#   APP_LIB  directory with the application dependencies (jbcrypt, HikariCP, slf4j, postgresql, javax.mail)
+#
+#   ./build.sh
+#   java -XX:SharedArchiveFile=build/greenhood.jsa -cp "build/greenhood.jar:$APP_LIB/*" app.MainApp
+#
+# The archive is only used with the same JDK and the same class path (same jar paths in the same order),
+# otherwise the JVM prints a warning and starts without it.
+set -e
+
+ROOT=$(cd "$(dirname "$0")" && pwd)
+BUILD="$ROOT/build"
+
+: "${APP_LIB:?APP_LIB is not set}"
+
+rm -rf "$BUILD"
+mkdir -p "$BUILD/classes"
+
+find "$ROOT/src" -name '*.java' ! -name module-info.java > "$BUILD/sources.txt"
+javac -encoding UTF-8 -cp "$APP_LIB/*" -d "$BUILD/classes" @"$BUILD/sources.txt"
+
+cp "$ROOT/src/localization.csv" "$ROOT/src/greenhood.jfc" "$BUILD/classes/"
+java -cp "$BUILD/classes" app.LocalizationCompiler "$ROOT/src/localization.csv" "$BUILD/classes/localization.bin"
+
+jar --create --file "$BUILD/greenhood.jar" --main-class app.MainApp -C "$BUILD/classes" .
+
+# Class path is written as it will be used at run time (from the project directory), the archive records it
+cd "$ROOT"
+if java -XX:ArchiveClassesAtExit="$BUILD/greenhood.jsa" -Dgreenhood.startup.exit=true -Dgreenhood.startup.report=true \
+		-cp "build/greenhood.jar:$APP_LIB/*" app.MainApp; then
+	echo "Class data sharing archive: $BUILD/greenhood.jsa"
+else
+	rm -f "$BUILD/greenhood.jsa"
+	echo "Training start failed, class data sharing archive is not created" >&2
+fi
@@ -206,13 +206,45 @@ CREATE TABLE audit_log (
     operationdate TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Leaderboard scores (sum of ddscore of recycled disposals), maintained by triggers on
+-- discarded_disposal, reservation_disposal and reservation, rebuilt by refresh_leaderboard_scores()
+CREATE TABLE neighbor_score (
+	tckn CHAR(11) PRIMARY KEY,
+	neighborhoodID INT,
+	total_score NUMERIC DEFAULT 0 NOT NULL,
+
+	CONSTRAINT fk_neighbor_tckn_for_score
+	  FOREIGN KEY (tckn)
+	  REFERENCES neighbor(tckn)
+	  ON UPDATE CASCADE
+	  ON DELETE CASCADE
+);
+
+CREATE TABLE company_score (
+	cID INT PRIMARY KEY,
+	total_score NUMERIC DEFAULT 0 NOT NULL,
+
+	CONSTRAINT fk_company_id_for_score
+	  FOREIGN KEY (cID)
+	  REFERENCES company(companyID)
+	  ON DELETE CASCADE
+);
+
 CREATE INDEX IF NOT EXISTS idx_dd_neighbortckn ON discarded_disposal(neighbortckn);
 CREATE INDEX IF NOT EXISTS idx_reservation_cid ON reservation(cID);
-CREATE INDEX IF NOT EXISTS idx_dd_ddate ON discarded_disposal(ddate DESC);
+-- (ddate, ddno) is the keyset of the recent disposals feed
+CREATE INDEX IF NOT EXISTS idx_dd_ddate ON discarded_disposal(ddate DESC, ddno DESC);
+CREATE INDEX IF NOT EXISTS idx_reservation_rdate ON reservation(reservationdate DESC);
+CREATE INDEX IF NOT EXISTS idx_reservation_recdate ON reservation(recycledate DESC);
 CREATE INDEX IF NOT EXISTS idx_street_neighborhood ON street(neighborhoodID);
 CREATE INDEX IF NOT EXISTS idx_neighborhood_district ON neighborhood(districtID);
 CREATE INDEX IF NOT EXISTS idx_address_street_id ON address(streetID);
 CREATE INDEX IF NOT EXISTS idx_district_province_id ON district(provinceID);
+CREATE INDEX IF NOT EXISTS idx_rd_rnumber ON reservation_disposal(rnumber);
+-- Leaderboards are top-N scans of these
+CREATE INDEX IF NOT EXISTS idx_neighbor_score ON neighbor_score(total_score DESC);
+CREATE INDEX IF NOT EXISTS idx_neighbor_score_neighborhood ON neighbor_score(neighborhoodID, total_score DESC);
+CREATE INDEX IF NOT EXISTS idx_company_score ON company_score(total_score DESC);
 
 -- Log trigger function
 CREATE OR REPLACE FUNCTION log_audit_event() RETURNS TRIGGER AS $$
@@ -985,7 +1017,13 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
-CREATE OR REPLACE FUNCTION get_current_discarded_disposals(limitcount INT)
+-- Feeds are paginated with keyset (date, ddno) of the last row of the previous page.
+-- NULL cursor returns the first page, OFFSET is never used so every page costs the same.
+CREATE OR REPLACE FUNCTION get_discarded_disposals_page(
+	p_after_date DATE,
+	p_after_ddno INT,
+	p_limit INT
+)
 RETURNS TABLE (
 	ddno INT,
 	disposalname VARCHAR(30),
@@ -1014,12 +1052,18 @@ BEGIN
 	LEFT JOIN reservation_disposal rd ON dd.ddno = rd.ddnumber
 	LEFT JOIN reservation r ON rd.rnumber = r.reservationNo
 	LEFT JOIN company c ON r.cID = c.companyID
-	ORDER BY dd.ddate DESC 
-	LIMIT limitcount;
+	-- Row comparison is answered by idx_dd_ddate
+	WHERE (dd.ddate, dd.ddno) < (COALESCE(p_after_date, 'infinity'::DATE), COALESCE(p_after_ddno, 2147483647))
+	ORDER BY dd.ddate DESC, dd.ddno DESC
+	LIMIT p_limit;
 END;
 $$ LANGUAGE plpgsql;
 
-CREATE OR REPLACE FUNCTION get_current_recycled_disposals(limitcount INT)
+CREATE OR REPLACE FUNCTION get_recycled_disposals_page(
+	p_after_date DATE,
+	p_after_ddno INT,
+	p_limit INT
+)
 RETURNS TABLE (
 	ddno INT,
 	disposalname VARCHAR(30),
@@ -1040,8 +1084,224 @@ BEGIN
 	JOIN disposal d ON dd.dID = d.disposalID
 	JOIN company c ON r.cID = c.companyID
 	WHERE dd.rstatus = TRUE
-	ORDER BY r.recycledate DESC 
-	LIMIT limitcount;
+	  AND r.recycledate <= COALESCE(p_after_date, 'infinity'::DATE)
+	  AND (r.recycledate, dd.ddno) < (COALESCE(p_after_date, 'infinity'::DATE), COALESCE(p_after_ddno, 2147483647))
+	ORDER BY r.recycledate DESC, dd.ddno DESC
+	LIMIT p_limit;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION get_reservations_page(
+	p_after_date DATE,
+	p_after_ddno INT,
+	p_limit INT
+)
+RETURNS TABLE (
+	ddno INT,
+	disposalname VARCHAR(30),
+	weight NUMERIC,
+	volume NUMERIC,
+	ddscore NUMERIC,
+	ddate DATE,
+	reservationdate DATE,
+	recycledate DATE,
+	rstatus BOOL,
+	cname VARCHAR(100)
+) AS $$
+BEGIN
+	RETURN QUERY
+	SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, dd.ddate, r.reservationdate, r.recycledate, dd.rstatus, c.cname
+	FROM reservation r
+	JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
+	JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
+	JOIN disposal d ON dd.dID = d.disposalID
+	JOIN company c ON r.cID = c.companyID
+	WHERE r.reservationdate <= COALESCE(p_after_date, 'infinity'::DATE)
+	  AND (r.reservationdate, dd.ddno) < (COALESCE(p_after_date, 'infinity'::DATE), COALESCE(p_after_ddno, 2147483647))
+	ORDER BY r.reservationdate DESC, dd.ddno DESC
+	LIMIT p_limit;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Leaderboard score maintenance
+CREATE OR REPLACE FUNCTION get_address_neighborhood(p_addressid INT)
+RETURNS INT AS $$
+	SELECT s.neighborhoodID
+	FROM address a
+	JOIN street s ON a.streetID = s.streetid
+	WHERE a.addressid = p_addressid;
+$$ LANGUAGE sql STABLE;
+
+-- Company which reserved the discarded disposal, NULL if not reserved
+CREATE OR REPLACE FUNCTION get_disposal_company(p_ddno INT)
+RETURNS INT AS $$
+	SELECT r.cID
+	FROM reservation_disposal rd
+	JOIN reservation r ON rd.rnumber = r.reservationNo
+	WHERE rd.ddnumber = p_ddno;
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION add_leaderboard_score(p_tckn VARCHAR, p_cid INT, p_delta NUMERIC)
+RETURNS VOID AS $$
+BEGIN
+	IF p_delta = 0 THEN
+		RETURN;
+	END IF;
+
+	IF p_tckn IS NOT NULL THEN
+		UPDATE neighbor_score SET total_score = total_score + p_delta WHERE tckn = p_tckn::CHAR(11);
+	END IF;
+
+	IF p_cid IS NOT NULL THEN
+		UPDATE company_score SET total_score = total_score + p_delta WHERE cID = p_cid;
+	END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every neighbor and company has a score row, neighborhood follows the address
+CREATE OR REPLACE FUNCTION init_neighbor_score()
+RETURNS TRIGGER AS $$
+BEGIN
+	INSERT INTO neighbor_score (tckn, neighborhoodID)
+	VALUES (NEW.tckn, get_address_neighborhood(NEW.addressID))
+	ON CONFLICT (tckn) DO UPDATE SET neighborhoodID = EXCLUDED.neighborhoodID;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_neighbor_score
+AFTER INSERT OR UPDATE OF addressID ON neighbor
+FOR EACH ROW
+EXECUTE FUNCTION init_neighbor_score();
+
+CREATE OR REPLACE FUNCTION init_company_score()
+RETURNS TRIGGER AS $$
+BEGIN
+	INSERT INTO company_score (cID) VALUES (NEW.companyID) ON CONFLICT DO NOTHING;
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_company_score
+AFTER INSERT ON company
+FOR EACH ROW
+EXECUTE FUNCTION init_company_score();
+
+-- Recycle (rstatus becomes TRUE) or score change of a discarded disposal
+CREATE OR REPLACE FUNCTION update_score_on_disposal_change()
+RETURNS TRIGGER AS $$
+DECLARE
+	v_old NUMERIC := CASE WHEN OLD.rstatus THEN OLD.ddscore ELSE 0 END;
+	v_new NUMERIC := CASE WHEN NEW.rstatus THEN NEW.ddscore ELSE 0 END;
+BEGIN
+	IF v_new <> v_old THEN
+		PERFORM add_leaderboard_score(NEW.neighbortckn, get_disposal_company(NEW.ddno), v_new - v_old);
+	END IF;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_score_disposal_update
+AFTER UPDATE OF rstatus, ddscore ON discarded_disposal
+FOR EACH ROW
+EXECUTE FUNCTION update_score_on_disposal_change();
+
+-- BEFORE, so the reservation of the disposal is not cascaded away yet
+CREATE OR REPLACE FUNCTION update_score_on_disposal_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+	IF OLD.rstatus THEN
+		PERFORM add_leaderboard_score(OLD.neighbortckn, get_disposal_company(OLD.ddno), -OLD.ddscore);
+	END IF;
+
+	RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_score_disposal_delete
+BEFORE DELETE ON discarded_disposal
+FOR EACH ROW
+EXECUTE FUNCTION update_score_on_disposal_delete();
+
+-- Recycled disposal moved into or out of a reservation. When the disposal or the whole reservation
+-- is deleted, the row is already gone here and its score was removed by their own BEFORE DELETE trigger.
+CREATE OR REPLACE FUNCTION update_score_on_reservation_disposal()
+RETURNS TRIGGER AS $$
+DECLARE
+	v_score NUMERIC;
+	v_cid INT;
+BEGIN
+	IF TG_OP = 'INSERT' THEN
+		SELECT ddscore INTO v_score FROM discarded_disposal WHERE ddno = NEW.ddnumber AND rstatus = TRUE;
+		SELECT cID INTO v_cid FROM reservation WHERE reservationNo = NEW.rnumber;
+		PERFORM add_leaderboard_score(NULL, v_cid, COALESCE(v_score, 0));
+	ELSE
+		SELECT ddscore INTO v_score FROM discarded_disposal WHERE ddno = OLD.ddnumber AND rstatus = TRUE;
+		SELECT cID INTO v_cid FROM reservation WHERE reservationNo = OLD.rnumber;
+		PERFORM add_leaderboard_score(NULL, v_cid, -COALESCE(v_score, 0));
+	END IF;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_score_reservation_disposal
+AFTER INSERT OR DELETE ON reservation_disposal
+FOR EACH ROW
+EXECUTE FUNCTION update_score_on_reservation_disposal();
+
+CREATE OR REPLACE FUNCTION update_score_on_reservation_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+	UPDATE company_score
+	SET total_score = total_score - (
+		SELECT COALESCE(SUM(dd.ddscore), 0)
+		FROM reservation_disposal rd
+		JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
+		WHERE rd.rnumber = OLD.reservationNo AND dd.rstatus = TRUE
+	)
+	WHERE cID = OLD.cID;
+
+	RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_score_reservation_delete
+BEFORE DELETE ON reservation
+FOR EACH ROW
+EXECUTE FUNCTION update_score_on_reservation_delete();
+
+-- Rebuilds every score from discarded_disposal, for initial data and as a repair job
+-- (e.g. after disposals are moved between neighbors by hand). Old change tracking rows are pruned too.
+CREATE OR REPLACE FUNCTION refresh_leaderboard_scores()
+RETURNS VOID AS $$
+BEGIN
+	PERFORM prune_disposal_changes();
+
+	INSERT INTO neighbor_score (tckn, neighborhoodID, total_score)
+	SELECT
+		n.tckn,
+		get_address_neighborhood(n.addressID),
+		COALESCE(SUM(dd.ddscore), 0)
+	FROM neighbor n
+	LEFT JOIN discarded_disposal dd ON n.tckn = dd.neighbortckn AND dd.rstatus = TRUE
+	GROUP BY n.tckn
+	ON CONFLICT (tckn) DO UPDATE
+	SET neighborhoodID = EXCLUDED.neighborhoodID, total_score = EXCLUDED.total_score;
+
+	INSERT INTO company_score (cID, total_score)
+	SELECT
+		c.companyID,
+		COALESCE(SUM(dd.ddscore), 0)
+	FROM company c
+	LEFT JOIN reservation r ON c.companyID = r.cID
+	LEFT JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
+	LEFT JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno AND dd.rstatus = TRUE
+	GROUP BY c.companyID
+	ON CONFLICT (cID) DO UPDATE
+	SET total_score = EXCLUDED.total_score;
 END;
 $$ LANGUAGE plpgsql;
 
@@ -1063,21 +1323,15 @@ BEGIN
         n.mname::VARCHAR, 
         n.lname::VARCHAR, 
         n.tckn::VARCHAR,
-        
-        COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.ddscore ELSE 0 END), 0)::DOUBLE PRECISION as score
-    FROM neighbor n
-    JOIN address a ON n.addressID = a.addressid
-    JOIN street s ON a.streetID = s.streetid
-    LEFT JOIN discarded_disposal dd ON n.tckn = dd.neighbortckn
-    WHERE s.neighborhoodID = (
-        SELECT s2.neighborhoodID
-        FROM neighbor n2
-        JOIN address a2 ON n2.addressID = a2.addressid
-        JOIN street s2 ON a2.streetID = s2.streetid
-        WHERE n2.tckn = p_tckn::CHAR(11)
+        ns.total_score::DOUBLE PRECISION
+    FROM neighbor_score ns
+    JOIN neighbor n ON ns.tckn = n.tckn
+    WHERE ns.neighborhoodID = (
+        SELECT ns2.neighborhoodID
+        FROM neighbor_score ns2
+        WHERE ns2.tckn = p_tckn::CHAR(11)
     )
-    GROUP BY n.tckn, n.fname, n.mname, n.lname
-    ORDER BY score DESC
+    ORDER BY ns.total_score DESC
     LIMIT p_limit;
 END;
 $$ LANGUAGE plpgsql;
@@ -1089,38 +1343,30 @@ SELECT
     n.fname, 
     n.mname, 
     n.lname, 
-    COALESCE(SUM(dd.ddscore), 0) as total_score 
+    ns.total_score 
 FROM 
-    neighbor n 
-LEFT JOIN 
-    discarded_disposal dd ON n.tckn = dd.neighbortckn AND dd.rstatus = TRUE 
-GROUP BY 
-    n.tckn, n.fname, n.mname, n.lname 
-HAVING 
-    COALESCE(SUM(dd.ddscore), 0) > 0
+    neighbor_score ns 
+JOIN 
+    neighbor n ON ns.tckn = n.tckn 
+WHERE 
+    ns.total_score > 0
 ORDER BY 
-    total_score DESC;
+    ns.total_score DESC;
 
 -- Company leaderboard
 CREATE OR REPLACE VIEW company_leaderboard_view AS
 SELECT
 	c.cname,
 	c.taxnumber,
-	COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.ddscore ELSE 0 END), 0) as totalScore
+	cs.total_score as totalScore
 FROM
-	company c
-LEFT JOIN 
-	reservation r ON c.companyid = r.cID
-LEFT JOIN 
-	reservation_disposal rd ON r.reservationNo = rd.rnumber
-LEFT JOIN 
-	discarded_disposal dd ON rd.ddnumber = dd.ddno
-GROUP BY 
-	c.companyid, c.cname
-HAVING 
-    COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.ddscore ELSE 0 END), 0) > 0
+	company_score cs
+JOIN 
+	company c ON cs.cID = c.companyID
+WHERE 
+	cs.total_score > 0
 ORDER BY 
-	totalScore DESC;
+	cs.total_score DESC;
 
 -- Contribution score for discarded disposal
 CREATE OR REPLACE FUNCTION calculate_disposal_score(
@@ -1211,6 +1457,17 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
+-- List functions below are plain SQL, so the planner inlines them into the calling query
+-- (LIMIT, index scans and parallel plans apply) instead of materializing a row-by-row loop.
+-- Full name skips an empty middle name.
+CREATE OR REPLACE FUNCTION get_full_name(p_fname VARCHAR, p_mname VARCHAR, p_lname VARCHAR)
+RETURNS VARCHAR AS $$
+	SELECT CASE
+		WHEN p_mname IS NOT NULL AND p_mname <> '' THEN p_fname || ' ' || p_mname || ' ' || p_lname
+		ELSE p_fname || ' ' || p_lname
+	END::VARCHAR;
+$$ LANGUAGE sql IMMUTABLE;
+
 -- Returns not reserved and not recycled discarded disposals
 CREATE OR REPLACE FUNCTION get_available_discarded_disposals_list()
 RETURNS TABLE (
@@ -1222,46 +1479,20 @@ RETURNS TABLE (
     discard_date DATE,
     full_name VARCHAR
 ) AS $$
-DECLARE
-    -- CURSOR
-    cur_waste CURSOR FOR 
-        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, dd.ddate, 
-               n.fname, n.mname, n.lname
-        FROM discarded_disposal dd
-        JOIN disposal d ON dd.dID = d.disposalID
-        JOIN neighbor n ON n.tckn = dd.neighbortckn
-        LEFT JOIN reservation_disposal rd ON dd.ddno = rd.ddnumber
-        WHERE rd.ddnumber IS NULL -- Rezerve edilmemişler
-        ORDER BY dd.ddate DESC;
-
-    -- RECORD
-    rec_waste RECORD;
-BEGIN
-    OPEN cur_waste;
-
-    LOOP
-        FETCH cur_waste INTO rec_waste;
-        EXIT WHEN NOT FOUND;
-
-        dd_no := rec_waste.ddno;
-        waste_type := rec_waste.disposalname;
-        weight := rec_waste.weight;
-        volume := rec_waste.volume;
-        score := rec_waste.ddscore;
-        discard_date := rec_waste.ddate;
-
-		IF rec_waste.mname IS NOT NULL AND rec_waste.mname <> '' THEN
-            full_name := rec_waste.fname || ' ' || rec_waste.mname || ' ' || rec_waste.lname;
-        ELSE
-            full_name := rec_waste.fname || ' ' || rec_waste.lname;
-        END IF;
-
-        RETURN NEXT;
-    END LOOP;
-
-    CLOSE cur_waste;
-END;
-$$ LANGUAGE plpgsql;
+    SELECT 
+        dd.ddno,
+        d.disposalname::VARCHAR,
+        dd.weight::FLOAT,
+        dd.volume::FLOAT,
+        dd.ddscore::FLOAT,
+        dd.ddate,
+        get_full_name(n.fname, n.mname, n.lname)
+    FROM discarded_disposal dd
+    JOIN disposal d ON dd.dID = d.disposalID
+    JOIN neighbor n ON n.tckn = dd.neighbortckn
+    WHERE NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno) -- Rezerve edilmemişler
+    ORDER BY dd.ddate DESC;
+$$ LANGUAGE sql STABLE;
 
 -- Returns reserved but not recycled discarded disposals
 CREATE OR REPLACE FUNCTION get_company_reserved_discarded_disposals_list(p_tax_number VARCHAR)
@@ -1276,64 +1507,25 @@ RETURNS TABLE (
     full_name VARCHAR,
     company_name VARCHAR
 ) AS $$
-DECLARE
-    -- CURSOR
-    cur_res CURSOR FOR 
-        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
-               dd.ddate, r.reservationdate, 
-               n.fname, n.mname, n.lname, c.cname
-        FROM company c
-        JOIN reservation r ON c.companyID = r.cID
-        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
-        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
-        JOIN disposal d ON dd.dID = d.disposalID
-        JOIN neighbor n ON n.tckn = dd.neighbortckn
-        WHERE c.taxnumber = p_tax_number
-        
-        EXCEPT 
-        
-        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
-               dd.ddate, r.reservationdate, 
-               n.fname, n.mname, n.lname, c.cname
-        FROM company c
-        JOIN reservation r ON c.companyID = r.cID
-        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
-        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
-        JOIN disposal d ON dd.dID = d.disposalID
-        JOIN neighbor n ON n.tckn = dd.neighbortckn
-        WHERE c.taxnumber = p_tax_number AND dd.rstatus = TRUE
-        
-        ORDER BY reservationdate DESC;
-
-    -- RECORD
-    rec_res RECORD;
-BEGIN
-    OPEN cur_res;
-    LOOP
-        FETCH cur_res INTO rec_res;
-        EXIT WHEN NOT FOUND;
-
-        dd_no := rec_res.ddno;
-        waste_type := rec_res.disposalname;      
-        weight := rec_res.weight;
-        volume := rec_res.volume;
-        score := rec_res.ddscore;
-        discard_date := rec_res.ddate;
-        res_date := rec_res.reservationdate;
-        company_name := rec_res.cname;
-
-        -- Name concatenation
-        IF rec_res.mname IS NOT NULL AND rec_res.mname <> '' THEN
-            full_name := rec_res.fname || ' ' || rec_res.mname || ' ' || rec_res.lname;
-        ELSE
-            full_name := rec_res.fname || ' ' || rec_res.lname;
-        END IF;
-
-        RETURN NEXT;
-    END LOOP;
-    CLOSE cur_res;
-END;
-$$ LANGUAGE plpgsql;
+    SELECT 
+        dd.ddno,
+        d.disposalname::VARCHAR,
+        dd.weight::FLOAT,
+        dd.volume::FLOAT,
+        dd.ddscore::FLOAT,
+        dd.ddate,
+        r.reservationdate,
+        get_full_name(n.fname, n.mname, n.lname),
+        c.cname::VARCHAR
+    FROM company c
+    JOIN reservation r ON c.companyID = r.cID
+    JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber
+    JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno
+    JOIN disposal d ON dd.dID = d.disposalID
+    JOIN neighbor n ON n.tckn = dd.neighbortckn
+    WHERE c.taxnumber = p_tax_number AND dd.rstatus = FALSE
+    ORDER BY r.reservationdate DESC;
+$$ LANGUAGE sql STABLE;
 
 -- Returns only recycled discarded disposals
 CREATE OR REPLACE FUNCTION get_company_recycled_discarded_disposals_list(p_tax_number VARCHAR)
@@ -1349,63 +1541,26 @@ RETURNS TABLE (
     full_name VARCHAR,
     company_name VARCHAR
 ) AS $$
-DECLARE
-    cur_rec CURSOR FOR 
-        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
-               dd.ddate, r.reservationdate, r.recycledate, 
-               n.fname, n.mname, n.lname, c.cname 
-        FROM company c 
-        JOIN reservation r ON c.companyID = r.cID 
-        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber 
-        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno 
-        JOIN disposal d ON dd.dID = d.disposalID 
-        JOIN neighbor n ON n.tckn = dd.neighbortckn 
-        WHERE c.taxnumber = p_tax_number
-        
-        INTERSECT 
-        
-        SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, 
-               dd.ddate, r.reservationdate, r.recycledate, 
-               n.fname, n.mname, n.lname, c.cname 
-        FROM company c 
-        JOIN reservation r ON c.companyID = r.cID 
-        JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber 
-        JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno 
-        JOIN disposal d ON dd.dID = d.disposalID 
-        JOIN neighbor n ON n.tckn = dd.neighbortckn 
-        WHERE dd.rstatus = TRUE
-        
-        ORDER BY ddate DESC;
-
-    rec_rec RECORD;
-BEGIN
-    OPEN cur_rec;
-    LOOP
-        FETCH cur_rec INTO rec_rec;
-        EXIT WHEN NOT FOUND;
-
-        dd_no := rec_rec.ddno;
-        waste_type := rec_rec.disposalname;
-        weight := rec_rec.weight;
-        volume := rec_rec.volume;
-        score := rec_rec.ddscore;
-        discard_date := rec_rec.ddate;
-        res_date := rec_rec.reservationdate;
-        rec_date := rec_rec.recycledate;
-        
-        IF rec_rec.mname IS NOT NULL AND rec_rec.mname <> '' THEN
-            full_name := rec_rec.fname || ' ' || rec_rec.mname || ' ' || rec_rec.lname;
-        ELSE
-            full_name := rec_rec.fname || ' ' || rec_rec.lname;
-        END IF;
-        
-        company_name := rec_rec.cname;
-
-        RETURN NEXT;
-    END LOOP;
-    CLOSE cur_rec;
-END;
-$$ LANGUAGE plpgsql;
+    SELECT 
+        dd.ddno,
+        d.disposalname::VARCHAR,
+        dd.weight::FLOAT,
+        dd.volume::FLOAT,
+        dd.ddscore::FLOAT,
+        dd.ddate,
+        r.reservationdate,
+        r.recycledate,
+        get_full_name(n.fname, n.mname, n.lname),
+        c.cname::VARCHAR
+    FROM company c 
+    JOIN reservation r ON c.companyID = r.cID 
+    JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber 
+    JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno 
+    JOIN disposal d ON dd.dID = d.disposalID 
+    JOIN neighbor n ON n.tckn = dd.neighbortckn 
+    WHERE c.taxnumber = p_tax_number AND dd.rstatus = TRUE
+    ORDER BY dd.ddate DESC;
+$$ LANGUAGE sql STABLE;
 
 CREATE OR REPLACE FUNCTION get_available_disposals_filtered(
     p_filter_types VARCHAR[],
@@ -1469,6 +1624,374 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
+-- Reserves a discarded disposal for a company in one call
+-- RESERVED, TAKEN (reserved, recycled, deleted or being reserved by another company right now) or NOT_ALLOWED
+CREATE OR REPLACE FUNCTION reserve_discarded_disposal(p_tax_number VARCHAR, p_ddno INT)
+RETURNS VARCHAR AS $$
+DECLARE
+	v_cid INT;
+	v_did INT;
+	v_rno INT;
+BEGIN
+	SELECT companyID INTO v_cid FROM company WHERE taxnumber = p_tax_number;
+	IF v_cid IS NULL THEN
+		RETURN 'NOT_ALLOWED';
+	END IF;
+
+	-- Row lock serializes competing companies, the ones which cannot get it return at once instead of waiting.
+	-- Permission is part of the locking select, so a company which is not allowed never holds the lock
+	SELECT dd.dID INTO v_did
+	FROM discarded_disposal dd
+	WHERE dd.ddno = p_ddno
+	AND dd.rstatus = FALSE
+	AND NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno)
+	AND EXISTS (SELECT 1 FROM company_disposal cd WHERE cd.cID = v_cid AND cd.dID = dd.dID)
+	FOR UPDATE SKIP LOCKED;
+
+	IF v_did IS NULL THEN
+		-- Nothing locked, plain lookup (no lock) tells a type the company cannot recycle from a taken one
+		IF EXISTS (
+			SELECT 1 FROM discarded_disposal dd
+			WHERE dd.ddno = p_ddno
+			AND NOT EXISTS (SELECT 1 FROM company_disposal cd WHERE cd.cID = v_cid AND cd.dID = dd.dID)
+		) THEN
+			RETURN 'NOT_ALLOWED';
+		END IF;
+		RETURN 'TAKEN';
+	END IF;
+
+	INSERT INTO reservation (cID) VALUES (v_cid) RETURNING reservationNo INTO v_rno;
+	INSERT INTO reservation_disposal (rnumber, ddnumber) VALUES (v_rno, p_ddno);
+	RETURN 'RESERVED';
+
+EXCEPTION
+	-- A reservation committed between our snapshot and the row lock, primary key of reservation_disposal catches it
+	WHEN unique_violation THEN
+		RETURN 'TAKEN';
+END;
+$$ LANGUAGE plpgsql;
+
+-- Reserves many disposals in one statement (one transaction), result of every disposal in the given order.
+-- Set based with the same outcomes as reserve_discarded_disposal, no exception block so no subtransaction per disposal
+CREATE OR REPLACE FUNCTION reserve_discarded_disposals(p_tax_number VARCHAR, p_ddnos INT[])
+RETURNS TABLE (dd_no INT, result VARCHAR) AS $$
+DECLARE
+	v_cid INT;
+	v_locked INT[];
+	v_ddnos INT[];
+	v_rnos INT[];
+	v_reserved INT[];
+BEGIN
+	SELECT companyID INTO v_cid FROM company WHERE taxnumber = p_tax_number;
+
+	IF v_cid IS NOT NULL THEN
+		-- One lock for all allowed and free disposals, the ones another company is reserving right now are skipped
+		SELECT array_agg(l.ddno) INTO v_locked
+		FROM (
+			SELECT dd.ddno
+			FROM discarded_disposal dd
+			WHERE dd.ddno = ANY(p_ddnos)
+			AND dd.rstatus = FALSE
+			AND NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = dd.ddno)
+			AND EXISTS (SELECT 1 FROM company_disposal cd WHERE cd.cID = v_cid AND cd.dID = dd.dID)
+			FOR UPDATE OF dd SKIP LOCKED
+		) l;
+
+		-- New snapshot sees reservations committed before we got the locks, one reservation per disposal
+		SELECT array_agg(l.ddno), array_agg(nextval(pg_get_serial_sequence('reservation', 'reservationno'))::INT)
+		INTO v_ddnos, v_rnos
+		FROM unnest(v_locked) AS l(ddno)
+		WHERE NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.ddnumber = l.ddno);
+
+		INSERT INTO reservation (reservationNo, cID)
+		SELECT r.rno, v_cid FROM unnest(v_rnos) AS r(rno);
+
+		WITH inserted AS (
+			INSERT INTO reservation_disposal (rnumber, ddnumber)
+			SELECT u.rno, u.ddno FROM unnest(v_rnos, v_ddnos) AS u(rno, ddno)
+			ON CONFLICT (ddnumber) DO NOTHING
+			RETURNING ddnumber
+		)
+		SELECT array_agg(ddnumber) INTO v_reserved FROM inserted;
+
+		-- A reservation which got in without the row lock leaves our reservation empty, remove it
+		IF coalesce(cardinality(v_reserved), 0) < coalesce(cardinality(v_ddnos), 0) THEN
+			DELETE FROM reservation r
+			WHERE r.reservationNo = ANY(v_rnos)
+			AND NOT EXISTS (SELECT 1 FROM reservation_disposal rd WHERE rd.rnumber = r.reservationNo);
+		END IF;
+	END IF;
+
+	-- The rest is TAKEN unless the company cannot recycle its type, same as the single reservation
+	RETURN QUERY
+	SELECT u.ddno, (CASE
+		WHEN u.ddno = ANY(v_reserved) THEN 'RESERVED'
+		WHEN v_cid IS NULL THEN 'NOT_ALLOWED'
+		WHEN EXISTS (
+			SELECT 1 FROM discarded_disposal dd
+			WHERE dd.ddno = u.ddno
+			AND NOT EXISTS (SELECT 1 FROM company_disposal cd WHERE cd.cID = v_cid AND cd.dID = dd.dID)
+		) THEN 'NOT_ALLOWED'
+		ELSE 'TAKEN'
+	END)::VARCHAR
+	FROM unnest(p_ddnos) WITH ORDINALITY AS u(ddno, pos)
+	ORDER BY u.pos;
+END;
+$$ LANGUAGE plpgsql;
+
+-- LIVE UPDATES
+-- Clients LISTEN on greenhood_changes. One compact notification per statement and owner:
+--   <table>:<op>:<owner>:<ids>   e.g. dd:I:12345678901:501,502   rd:D:1234567890:77
+--   table: dd (discarded_disposal), r (reservation), rd (reservation_disposal)
+--   op: I, U or D, owner: neighbor TCKN for dd, company tax number for r and rd (empty if unknown)
+--   ids: ddno for dd and rd, reservationNo for r, '*' when they don't fit into one notification
+CREATE OR REPLACE FUNCTION send_change_notification(p_table TEXT, p_op TEXT, p_owner TEXT, p_ids INT[])
+RETURNS VOID AS $$
+DECLARE
+	v_payload TEXT := p_table || ':' || left(p_op, 1) || ':' || COALESCE(p_owner, '') || ':';
+	v_ids TEXT := array_to_string(p_ids, ',');
+BEGIN
+	-- Payload limit of NOTIFY is 8000 bytes, listeners reload the whole list for '*'
+	IF octet_length(v_payload) + octet_length(v_ids) > 7900 THEN
+		v_ids := '*';
+	END IF;
+
+	PERFORM pg_notify('greenhood_changes', v_payload || v_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Last transaction which changed a disposal, its reservation or its recycling. Rows of deleted disposals stay,
+-- so a client which asks for the changes after an older transaction learns that they are gone.
+-- Rows older than the horizon are pruned by prune_disposal_changes().
+CREATE TABLE disposal_change (
+	ddno INT PRIMARY KEY,
+	changed_xid xid8 NOT NULL
+);
+
+CREATE INDEX idx_disposal_change_xid ON disposal_change (changed_xid);
+
+-- Oldest watermark which can still be answered with a delta (one row)
+CREATE TABLE disposal_change_horizon (
+	only_row BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (only_row),
+	horizon_xid xid8 NOT NULL
+);
+
+INSERT INTO disposal_change_horizon (horizon_xid) VALUES ('0');
+
+-- Drops the rows of transactions older than p_keep_xids before the oldest running one and moves the horizon there.
+-- A client with an older watermark gets EXPIRED from get_company_disposal_changes and loads its lists again.
+-- Runs with refresh_leaderboard_scores(), a busy server should also schedule it (e.g. hourly with pg_cron).
+CREATE OR REPLACE FUNCTION prune_disposal_changes(p_keep_xids BIGINT DEFAULT 1000000)
+RETURNS BIGINT AS $$
+DECLARE
+	v_xmin BIGINT := pg_snapshot_xmin(pg_current_snapshot())::TEXT::BIGINT;
+	v_horizon xid8;
+	v_deleted BIGINT;
+BEGIN
+	IF v_xmin <= p_keep_xids THEN
+		RETURN 0;
+	END IF;
+	v_horizon := (v_xmin - p_keep_xids)::TEXT::xid8;
+
+	-- Both commit together, a delta read in one snapshot never misses pruned rows without seeing the horizon
+	UPDATE disposal_change_horizon SET horizon_xid = v_horizon WHERE horizon_xid < v_horizon;
+	DELETE FROM disposal_change WHERE changed_xid < v_horizon;
+	GET DIAGNOSTICS v_deleted = ROW_COUNT;
+	RETURN v_deleted;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION track_disposal_changes(p_ddnos INT[])
+RETURNS VOID AS $$
+	INSERT INTO disposal_change (ddno, changed_xid)
+	SELECT DISTINCT u.ddno, pg_current_xact_id() FROM unnest(p_ddnos) AS u(ddno)
+	ON CONFLICT (ddno) DO UPDATE SET changed_xid = EXCLUDED.changed_xid;
+$$ LANGUAGE sql;
+
+-- Statement level, so a bulk insert or update sends one notification instead of one per row
+CREATE OR REPLACE FUNCTION notify_disposal_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		PERFORM track_disposal_changes(ARRAY(SELECT ddno FROM old_rows));
+		PERFORM send_change_notification('dd', TG_OP, o.neighbortckn, array_agg(o.ddno ORDER BY o.ddno))
+		FROM old_rows o GROUP BY o.neighbortckn;
+	ELSE
+		PERFORM track_disposal_changes(ARRAY(SELECT ddno FROM new_rows));
+		PERFORM send_change_notification('dd', TG_OP, n.neighbortckn, array_agg(n.ddno ORDER BY n.ddno))
+		FROM new_rows n GROUP BY n.neighbortckn;
+	END IF;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_reservation_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		PERFORM send_change_notification('r', TG_OP, c.taxnumber, array_agg(o.reservationNo ORDER BY o.reservationNo))
+		FROM old_rows o LEFT JOIN company c ON c.companyID = o.cID GROUP BY c.taxnumber;
+	ELSE
+		-- Recycle date, new reservations have no disposals yet and deleted ones are tracked by reservation_disposal
+		IF TG_OP = 'UPDATE' THEN
+			PERFORM track_disposal_changes(ARRAY(
+				SELECT rd.ddnumber FROM new_rows n JOIN reservation_disposal rd ON rd.rnumber = n.reservationNo));
+		END IF;
+		PERFORM send_change_notification('r', TG_OP, c.taxnumber, array_agg(n.reservationNo ORDER BY n.reservationNo))
+		FROM new_rows n LEFT JOIN company c ON c.companyID = n.cID GROUP BY c.taxnumber;
+	END IF;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- When a whole reservation is deleted its row is already gone here, so the owner is empty
+CREATE OR REPLACE FUNCTION notify_reservation_disposal_changes()
+RETURNS TRIGGER AS $$
+BEGIN
+	IF TG_OP = 'DELETE' THEN
+		PERFORM track_disposal_changes(ARRAY(SELECT ddnumber FROM old_rows));
+		PERFORM send_change_notification('rd', TG_OP, c.taxnumber, array_agg(o.ddnumber ORDER BY o.ddnumber))
+		FROM old_rows o
+		LEFT JOIN reservation r ON r.reservationNo = o.rnumber
+		LEFT JOIN company c ON c.companyID = r.cID
+		GROUP BY c.taxnumber;
+	ELSE
+		PERFORM track_disposal_changes(ARRAY(SELECT ddnumber FROM new_rows));
+		PERFORM send_change_notification('rd', TG_OP, c.taxnumber, array_agg(n.ddnumber ORDER BY n.ddnumber))
+		FROM new_rows n
+		LEFT JOIN reservation r ON r.reservationNo = n.rnumber
+		LEFT JOIN company c ON c.companyID = r.cID
+		GROUP BY c.taxnumber;
+	END IF;
+
+	RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Triggers with transition tables can only have one event each
+CREATE TRIGGER trg_notify_disposal_insert
+AFTER INSERT ON discarded_disposal
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_disposal_changes();
+
+CREATE TRIGGER trg_notify_disposal_update
+AFTER UPDATE ON discarded_disposal
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_disposal_changes();
+
+CREATE TRIGGER trg_notify_disposal_delete
+AFTER DELETE ON discarded_disposal
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_disposal_changes();
+
+CREATE TRIGGER trg_notify_reservation_insert
+AFTER INSERT ON reservation
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_reservation_changes();
+
+CREATE TRIGGER trg_notify_reservation_update
+AFTER UPDATE ON reservation
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_reservation_changes();
+
+CREATE TRIGGER trg_notify_reservation_delete
+AFTER DELETE ON reservation
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_reservation_changes();
+
+CREATE TRIGGER trg_notify_reservation_disposal_insert
+AFTER INSERT ON reservation_disposal
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_reservation_disposal_changes();
+
+CREATE TRIGGER trg_notify_reservation_disposal_delete
+AFTER DELETE ON reservation_disposal
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION notify_reservation_disposal_changes();
+
+-- Current state of the disposals changed by transactions which were not visible at p_since for one company:
+--   AVAILABLE (not reserved and matches the filter, same as get_available_disposals_filtered),
+--   RESERVED or RECYCLED (by this company), NONE (deleted, reserved by another company or filtered out)
+-- p_since is the xmin of the snapshot the client has read last (see CHANGE_WATERMARK), so transactions which
+-- were still running then are included again. States are absolute, applying a row twice does no harm.
+-- A watermark older than the pruned horizon gets a single EXPIRED row, the client has to load everything again.
+CREATE OR REPLACE FUNCTION get_company_disposal_changes(
+    p_since xid8,
+    p_filter_types VARCHAR[],
+    p_min_weight NUMERIC,
+    p_max_weight NUMERIC,
+    p_min_volume NUMERIC,
+    p_max_volume NUMERIC,
+    p_start_date DATE,
+    p_end_date DATE,
+    p_tax_number VARCHAR,
+    p_only_allowed BOOLEAN
+)
+RETURNS TABLE (
+    dd_no INT,
+    state VARCHAR,
+    type_name VARCHAR,
+    weight FLOAT,
+    volume FLOAT,
+    score FLOAT,
+    discard_date DATE,
+    res_date DATE,
+    rec_date DATE,
+    full_name VARCHAR,
+    company_name VARCHAR
+) AS $$
+    SELECT
+        ch.ddno,
+        (CASE
+            WHEN dd.ddno IS NULL THEN 'NONE'
+            WHEN rd.ddnumber IS NULL THEN
+                CASE WHEN (p_filter_types IS NULL OR cardinality(p_filter_types) = 0 OR d.disposalname = ANY(p_filter_types))
+                    AND (p_min_weight IS NULL OR dd.weight >= p_min_weight)
+                    AND (p_max_weight IS NULL OR dd.weight <= p_max_weight)
+                    AND (p_min_volume IS NULL OR dd.volume >= p_min_volume)
+                    AND (p_max_volume IS NULL OR dd.volume <= p_max_volume)
+                    AND (p_start_date IS NULL OR dd.ddate >= p_start_date)
+                    AND (p_end_date IS NULL OR dd.ddate <= p_end_date)
+                    AND (p_only_allowed = FALSE OR EXISTS (
+                        SELECT 1 FROM company_disposal cdt JOIN company ac ON cdt.cID = ac.companyID
+                        WHERE ac.taxnumber = p_tax_number AND cdt.dID = dd.dID))
+                THEN 'AVAILABLE' ELSE 'NONE' END
+            WHEN c.taxnumber = p_tax_number THEN
+                CASE WHEN dd.rstatus THEN 'RECYCLED' ELSE 'RESERVED' END
+            ELSE 'NONE'
+        END)::VARCHAR,
+        d.disposalname::VARCHAR,
+        dd.weight::FLOAT,
+        dd.volume::FLOAT,
+        dd.ddscore::FLOAT,
+        dd.ddate,
+        r.reservationdate,
+        r.recycledate,
+        get_full_name(n.fname, n.mname, n.lname),
+        c.cname::VARCHAR
+    FROM disposal_change ch
+    LEFT JOIN discarded_disposal dd ON dd.ddno = ch.ddno
+    LEFT JOIN disposal d ON dd.dID = d.disposalID
+    LEFT JOIN neighbor n ON n.tckn = dd.neighbortckn
+    LEFT JOIN reservation_disposal rd ON rd.ddnumber = dd.ddno
+    LEFT JOIN reservation r ON r.reservationNo = rd.rnumber
+    LEFT JOIN company c ON c.companyID = r.cID
+    WHERE ch.changed_xid >= p_since
+    AND NOT EXISTS (SELECT 1 FROM disposal_change_horizon h WHERE p_since < h.horizon_xid)
+
+    UNION ALL
+
+    SELECT NULL::INT, 'EXPIRED'::VARCHAR, NULL::VARCHAR, NULL::FLOAT, NULL::FLOAT, NULL::FLOAT,
+        NULL::DATE, NULL::DATE, NULL::DATE, NULL::VARCHAR, NULL::VARCHAR
+    FROM disposal_change_horizon h
+    WHERE p_since < h.horizon_xid;
+$$ LANGUAGE sql STABLE;
+
+-- Initial scores, after every function which refresh_leaderboard_scores() calls exists
+SELECT refresh_leaderboard_scores();
+
 -- ROLES
 CREATE ROLE app_admin;
 CREATE ROLE app_user;
@@ -0,0 +1,168 @@
+package app;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events of the application. Settings are in greenhood.jfc (class path resource),
+// -Dgreenhood.jfr=recording.jfr starts a recording with the default JDK settings plus these events
+// and writes it to the given file on exit. Disabled events cost almost nothing.
+public class AppEvents {
+
+	@Name("greenhood.DbQuery")
+	@Label("Database Query")
+	@Category({ "GreenHood", "Database" })
+	@Description("Execution of one SQL statement, rows are counted when the result set is consumed")
+	public static class QueryEvent extends Event {
+		@Label("Query")
+		public String query;
+
+		@Label("Rows")
+		public long rows;
+
+		@Label("Failed")
+		public boolean failed;
+	}
+
+	@Name("greenhood.PoolWait")
+	@Label("Connection Pool Wait")
+	@Category({ "GreenHood", "Database" })
+	@Description("Time spent waiting for a pooled connection in DBConnection.connect()")
+	@StackTrace(false)
+	public static class PoolWaitEvent extends Event {
+		@Label("Active Connections")
+		public int active;
+
+		@Label("Idle Connections")
+		public int idle;
+
+		@Label("Waiting Threads")
+		public int waiting;
+	}
+
+	@Name("greenhood.AsyncTask")
+	@Label("Async Task")
+	@Category({ "GreenHood", "Tasks" })
+	@Description("A background task started with AppUtils.runAsync")
+	@StackTrace(false)
+	public static class TaskEvent extends Event {
+		@Label("Panel")
+		@Description("Component which started the task")
+		public String panel;
+
+		@Label("Key")
+		@Description("Coalescing key of runAsyncLatest tasks")
+		public String key;
+
+		@Label("Queue Time")
+		@Timespan(Timespan.NANOSECONDS)
+		public long queueTime;
+
+		@Label("Failed")
+		public boolean failed;
+	}
+
+	@Name("greenhood.PanelRefresh")
+	@Label("Panel Refresh")
+	@Category({ "GreenHood", "GUI" })
+	@Description("Full data refresh of a panel, from the first query until the data is shown")
+	@StackTrace(false)
+	public static class PanelRefreshEvent extends Event {
+		@Label("Panel")
+		public String panel;
+
+		public PanelRefreshEvent(String panel) {
+			this.panel = panel;
+		}
+	}
+
+	@Name("greenhood.EdtStall")
+	@Label("EDT Stall")
+	@Category({ "GreenHood", "GUI" })
+	@Description("Event Dispatch Thread did not run a posted event within the stall threshold")
+	@StackTrace(false)
+	public static class EdtStallEvent extends Event {
+		@Label("Stall Time")
+		@Timespan(Timespan.NANOSECONDS)
+		public long stallTime;
+
+		@Label("EDT Stack")
+		@Description("Stack of the EDT when the threshold was passed")
+		public String edtStack;
+	}
+
+	@Name("greenhood.StartupPhase")
+	@Label("Startup Phase")
+	@Category({ "GreenHood", "Startup" })
+	@Description("A startup phase was reached, see StartupTimer")
+	@StackTrace(false)
+	public static class StartupPhaseEvent extends Event {
+		@Label("Phase")
+		public String phase;
+
+		@Label("Since JVM Start")
+		@Timespan(Timespan.MILLISECONDS)
+		public long sinceStart;
+	}
+
+	// First use of an event class loads the flight recorder (a few hundred ms), so the type is looked up on first use
+	private static class QueryEventType {
+		static final EventType TYPE = EventType.getEventType(QueryEvent.class);
+	}
+
+	// Connections are only instrumented while somebody is recording queries
+	public static boolean isQueryEventEnabled() {
+		return QueryEventType.TYPE.isEnabled();
+	}
+
+	// Loads the flight recorder and the event classes in the background at startup, otherwise it happens on the
+	// main thread or with the first click on the EDT. Events created here are never committed.
+	public static void preload() {
+		new QueryEvent();
+		new PoolWaitEvent();
+		new TaskEvent();
+		new PanelRefreshEvent(null);
+		new EdtStallEvent();
+		isQueryEventEnabled();
+	}
+
+	public static String nameOf(Object source) {
+		if (source == null) return null;
+		String name = source.getClass().getSimpleName();
+		return name.isEmpty() ? source.getClass().getName() : name;
+	}
+
+	// Starts the recording of -Dgreenhood.jfr (if set)
+	public static void startRecording() {
+		String file = System.getProperty("greenhood.jfr");
+		if (file == null || file.isBlank()) return;
+
+		try (Reader reader = new InputStreamReader(AppEvents.class.getResourceAsStream("/greenhood.jfc"), StandardCharsets.UTF_8)) {
+			Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+			settings.putAll(Configuration.create(reader).getSettings());
+
+			Recording recording = new Recording(settings);
+			recording.setName("GreenHood");
+			recording.setToDisk(true);
+			recording.setDestination(Path.of(file));
+			recording.setDumpOnExit(true);
+			recording.start();
+		} catch (Exception e) {
+			System.err.println("JFR RECORDING CANNOT BE STARTED: " + e.getMessage());
+		}
+	}
+}
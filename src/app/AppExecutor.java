@@ -0,0 +1,164 @@
+package app;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared execution service behind AppUtils.runAsync
+public class AppExecutor {
+
+	public enum Mode {
+		PLATFORM, // Bounded pool of platform threads
+		VIRTUAL   // One virtual thread per task, concurrency limited by a semaphore
+	}
+
+	// Snapshot of the counters to size the executor under real load
+	public static class Stats {
+		public Mode mode;
+		public int maxRunning, maxQueued;
+		public int queued, running;
+		public long submitted, completed, rejected, coalesced;
+
+		@Override
+		public String toString() {
+			return String.format("[%s] running=%d/%d queued=%d/%d submitted=%d completed=%d rejected=%d coalesced=%d",
+					mode, running, maxRunning, queued, maxQueued, submitted, completed, rejected, coalesced);
+		}
+	}
+
+	// Configuration (-Dgreenhood.executor.mode=virtual etc.)
+	private static final Mode MODE = "virtual".equalsIgnoreCase(System.getProperty("greenhood.executor.mode")) ? Mode.VIRTUAL : Mode.PLATFORM;
+	private static final int MAX_RUNNING = Integer.getInteger("greenhood.executor.threads", 5); // Same as the connection pool size
+	private static final int MAX_QUEUED = Integer.getInteger("greenhood.executor.queue", 64);
+
+	// Counters
+	private static final AtomicInteger queued = new AtomicInteger();
+	private static final AtomicInteger running = new AtomicInteger();
+	private static final AtomicLong submitted = new AtomicLong();
+	private static final AtomicLong completed = new AtomicLong();
+	private static final AtomicLong rejected = new AtomicLong();
+	private static final AtomicLong coalesced = new AtomicLong();
+
+	// Platform mode
+	private static ThreadPoolExecutor pool;
+
+	// Virtual mode
+	private static Semaphore permits;
+	private static final AtomicInteger virtualThreadNo = new AtomicInteger();
+
+	// <Key, Latest task which has not started yet>
+	private static final Map<String, Runnable> pendingByKey = new ConcurrentHashMap<>();
+
+	static {
+		if (MODE == Mode.PLATFORM) {
+			AtomicInteger threadNo = new AtomicInteger();
+			pool = new ThreadPoolExecutor(
+					MAX_RUNNING, MAX_RUNNING,
+					60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(MAX_QUEUED),
+					r -> {
+						Thread t = new Thread(r, "greenhood-db-" + threadNo.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					},
+					new ThreadPoolExecutor.AbortPolicy());
+			pool.allowCoreThreadTimeOut(true);
+		} else {
+			permits = new Semaphore(MAX_RUNNING, true);
+		}
+	}
+
+	// Returns false if the task is rejected because of overload
+	public static boolean submit(Runnable task) {
+		if (queued.incrementAndGet() > MAX_QUEUED) {
+			queued.decrementAndGet();
+			rejected.incrementAndGet();
+			return false;
+		}
+
+		Runnable wrapped = () -> {
+			queued.decrementAndGet();
+			running.incrementAndGet();
+			try {
+				task.run();
+			} finally {
+				running.decrementAndGet();
+				completed.incrementAndGet();
+			}
+		};
+
+		try {
+			if (MODE == Mode.PLATFORM) {
+				pool.execute(wrapped);
+			} else {
+				Thread.ofVirtual().name("greenhood-vt-" + virtualThreadNo.incrementAndGet()).start(() -> {
+					try {
+						permits.acquire();
+					} catch (InterruptedException e) {
+						queued.decrementAndGet();
+						Thread.currentThread().interrupt();
+						return;
+					}
+					try {
+						wrapped.run();
+					} finally {
+						permits.release();
+					}
+				});
+			}
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			rejected.incrementAndGet();
+			return false;
+		}
+
+		submitted.incrementAndGet();
+		return true;
+	}
+
+	// Only the latest task with the same key runs if older ones are still waiting in the queue
+	public static boolean submitLatest(String key, Runnable task) {
+		if (pendingByKey.put(key, task) != null) {
+			// Previous task has not started yet, it will run this one instead
+			coalesced.incrementAndGet();
+			return true;
+		}
+
+		boolean accepted = submit(() -> {
+			Runnable latest = pendingByKey.remove(key);
+			if (latest != null) latest.run();
+		});
+
+		if (!accepted) pendingByKey.remove(key, task);
+		return accepted;
+	}
+
+	public static Stats getStats() {
+		Stats s = new Stats();
+		s.mode = MODE;
+		s.maxRunning = MAX_RUNNING;
+		s.maxQueued = MAX_QUEUED;
+		s.queued = queued.get();
+		s.running = running.get();
+		s.submitted = submitted.get();
+		s.completed = completed.get();
+		s.rejected = rejected.get();
+		s.coalesced = coalesced.get();
+		return s;
+	}
+
+	public static Mode getMode() { return MODE; }
+	public static int getQueuedCount() { return queued.get(); }
+	public static int getRunningCount() { return running.get(); }
+	public static long getRejectedCount() { return rejected.get(); }
+
+	public static void shutdown() {
+		if (pool != null) pool.shutdown();
+	}
+}
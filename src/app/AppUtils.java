@@ -3,6 +3,8 @@ package app;
 import java.awt.Component;
 import java.awt.Window;
 import database.DBConnection;
+import database.QueryMetrics;
+import app.AppEvents.TaskEvent;
 import javax.swing.SwingUtilities;
 import gui.GuiHelper;
 import gui.MainFrame;
@@ -30,76 +32,138 @@ public class AppUtils {
     }
 	
 	public static void runAsync(Component parent, DbTask task, DbTask finalTask) {
-        new Thread(() -> {
-            try {
-                // First task
-                task.execute();
-                
-            } catch (DialogException de) {
-            	SwingUtilities.invokeLater(() -> {
-                    Component safeParent = getSafeWindow(parent);
-                    GuiHelper.showWarningMessage(safeParent, de.getMessage());
-                });
-            	
-            } catch (SQLTransientConnectionException | SQLRecoverableException ex) {
-            	System.err.println("CONNECTION ERROR (TYPE 1)");
-                handleNetworkError(parent);
-
-            } catch (SQLException ex) {
-            	String state = ex.getSQLState();
-                // If error starts with 08, it is a connection error
-                if (state != null && state.startsWith("08")) {
-                    System.err.println("CONNECTION ERROR (TYPE 2 - STATE: " + state + ")");
-                    handleNetworkError(parent);
-                }
-                else {
-                    System.err.println("SQL QUERY ERROR");
-                    ex.printStackTrace();
-                    SwingUtilities.invokeLater(() -> {
-                        Component safeParent = getSafeWindow(parent);
-                        GuiHelper.showWarningMessage(safeParent, Localization.get("errordb"));
-                    });
+        long queuedAt = System.nanoTime();
+        Runnable job = () -> executeRecorded(parent, null, queuedAt, task, finalTask);
+        
+        if (!AppExecutor.submit(job)) {
+            handleRejectedTask(parent, finalTask);
+        }
+    }
+	
+	// Same as runAsync but if an older task with the same key is still waiting, only the newest one runs
+	public static void runAsyncLatest(Component parent, String key, DbTask task) {
+        long queuedAt = System.nanoTime();
+        Runnable job = () -> executeRecorded(parent, key, queuedAt, task, null);
+        
+        if (!AppExecutor.submitLatest(key, job)) {
+            handleRejectedTask(parent, null);
+        }
+    }
+	
+	// Emits a flight recorder event with the panel which started the task
+	private static void executeRecorded(Component parent, String key, long queuedAt, DbTask task, DbTask finalTask) {
+        TaskEvent event = new TaskEvent();
+        long queueTime = System.nanoTime() - queuedAt;
+        event.begin();
+        try {
+            execute(parent, () -> {
+                try {
+                    task.execute();
+                } catch (Exception e) {
+                    event.failed = true;
+                    throw e;
                 }
+            }, finalTask);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.panel = AppEvents.nameOf(parent);
+                event.key = key;
+                event.queueTime = queueTime;
+                event.commit();
+            }
+        }
+    }
+	
+	private static void execute(Component parent, DbTask task, DbTask finalTask) {
+        try {
+            // Failed statement id of an earlier task on this thread is not related to this one
+            QueryMetrics.takeLastError();
+            
+            // First task
+            task.execute();
+            
+        } catch (DialogException de) {
+        	SwingUtilities.invokeLater(() -> {
+                Component safeParent = getSafeWindow(parent);
+                GuiHelper.showWarningMessage(safeParent, de.getMessage());
+            });
+        	
+        } catch (SQLTransientConnectionException | SQLRecoverableException ex) {
+        	System.err.println("CONNECTION ERROR (TYPE 1)");
+            handleNetworkError(parent);
 
-            } catch (Exception ex) {
+        } catch (SQLException ex) {
+        	String state = ex.getSQLState();
+            // If error starts with 08, it is a connection error
+            if (state != null && state.startsWith("08")) {
+                System.err.println("CONNECTION ERROR (TYPE 2 - STATE: " + state + ")");
+                handleNetworkError(parent);
+            }
+            else {
+                String query = QueryMetrics.takeLastError();
+                System.err.println("SQL QUERY ERROR" + (query != null ? " (" + query + ", STATE: " + state + ")" : ""));
                 ex.printStackTrace();
-                
-                // Find the root cause of the error
-                Throwable rootCause = ex;
-                while (rootCause.getCause() != null) {
-                    rootCause = rootCause.getCause();
-                }
-                
-                final String msg;
-                if (rootCause instanceof UnknownHostException || rootCause instanceof ConnectException) {
-                	System.err.println("NETWORK ERROR");
-                    msg = Localization.get("networkwarning");
-                    SwingUtilities.invokeLater(() -> {
-                        Component safeParent = getSafeWindow(parent);
-                        GuiHelper.showWarningMessage(safeParent, msg);
-                        triggerForceExit(parent);
-                    });
-                } else {
-                	System.err.println("UNEXPECTED ERROR");
-                    msg = Localization.get("errorunexpected");
-                    SwingUtilities.invokeLater(() -> {
-                        Component safeParent = getSafeWindow(parent);
-                        GuiHelper.showWarningMessage(safeParent, msg);
-                    });
-                }
+                SwingUtilities.invokeLater(() -> {
+                    Component safeParent = getSafeWindow(parent);
+                    GuiHelper.showWarningMessage(safeParent, Localization.get("errordb"));
+                });
+            }
 
-            } finally {
-                if (finalTask != null) {
-                	try {
-                        finalTask.execute();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            
+            // Find the root cause of the error
+            Throwable rootCause = ex;
+            while (rootCause.getCause() != null) {
+                rootCause = rootCause.getCause();
+            }
+            
+            final String msg;
+            if (rootCause instanceof UnknownHostException || rootCause instanceof ConnectException) {
+            	System.err.println("NETWORK ERROR");
+                msg = Localization.get("networkwarning");
+                SwingUtilities.invokeLater(() -> {
+                    Component safeParent = getSafeWindow(parent);
+                    GuiHelper.showWarningMessage(safeParent, msg);
+                    triggerForceExit(parent);
+                });
+            } else {
+            	System.err.println("UNEXPECTED ERROR");
+                msg = Localization.get("errorunexpected");
+                SwingUtilities.invokeLater(() -> {
+                    Component safeParent = getSafeWindow(parent);
+                    GuiHelper.showWarningMessage(safeParent, msg);
+                });
+            }
+
+        } finally {
+            if (finalTask != null) {
+            	try {
+                    finalTask.execute();
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
-        }).start();
+        }
     }
 	
+	private static void handleRejectedTask(Component parent, DbTask finalTask) {
+		System.err.println("TASK REJECTED " + AppExecutor.getStats());
+		SwingUtilities.invokeLater(() -> {
+			Component safeParent = getSafeWindow(parent);
+			GuiHelper.showWarningMessage(safeParent, Localization.get("errorbusy"));
+		});
+		
+		if (finalTask != null) {
+			try {
+				finalTask.execute();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
 	private static void handleNetworkError(Component parent) {
 	    SwingUtilities.invokeLater(() -> {
 	        Component safeParent = getSafeWindow(parent);
@@ -0,0 +1,45 @@
+package app;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import data.DisposalImporter;
+import data.DisposalImporter.ImportResult;
+import database.DBConnection;
+
+// Command line bulk import for municipal operators, same format as the import button of user dashboard
+// Usage: ImportTool <file.csv> [tckn]   (tckn: all rows belong to this neighbor, tckn column is optional)
+public class ImportTool {
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: ImportTool <file.csv> [tckn]");
+			System.exit(2);
+		}
+
+		Path file = Path.of(args[0]);
+		if (!Files.isReadable(file)) {
+			System.err.println("File couldn't be read: " + file);
+			System.exit(2);
+		}
+
+		int status = 0;
+		try {
+			ImportResult result = DisposalImporter.importCsv(file, (args.length == 2) ? args[1] : null,
+					p -> System.out.printf("%-6s read: %,d rejected: %,d (%,.0f rows/s)%n", p.phase, p.read, p.rejected, p.rowsPerSecond));
+
+			System.out.printf("Imported %,d of %,d rows in %,d ms (%,.0f rows/s)%n",
+					result.imported, result.read, result.millis, result.getRowsPerSecond());
+			if (result.rejectFile != null) {
+				System.out.printf("%,d rows rejected, see %s%n", result.rejected, result.rejectFile);
+				status = 1;
+			}
+		} catch (Exception e) {
+			System.err.println("IMPORT FAILED: " + e.getMessage());
+			e.printStackTrace();
+			status = 3;
+		} finally {
+			DBConnection.shutdown();
+		}
+		System.exit(status);
+	}
+}
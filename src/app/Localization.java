@@ -1,12 +1,19 @@
 package app;
 
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Localization {
 
@@ -17,67 +24,152 @@ public class Localization {
     // Default language: Turkish
     private static Language currentLanguage = Language.TR; 
     
-    // <Language Code, <Key, Translated Phrase>>
-    private static final Map<Language, Map<String, String>> dictionary = new HashMap<>();
+    // localization.bin is made from localization.csv at build time (see LocalizationCompiler), csv is read if it is missing
+    private static final String BINARY_FILE = "/localization.bin";
+    private static final String CSV_FILE = "/localization.csv";
 
-    static {
-        for (Language lang : Language.values()) {
-            dictionary.put(lang, new HashMap<>());
-        }
+    private static final Dictionary dictionary = load();
 
-        // Read and load .csv
-        loadFromCSV();
-    }
+    // Compiled patterns of get(key, args) by pattern. MessageFormat is not thread safe, it is used under its own lock
+    private static final Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
 
-    private static void loadFromCSV() {
-        String fileName = "/localization.csv"; 
+    // Translations of every language and the reverse index (translated phrase -> key), read only after loading
+    static final class Dictionary {
+        static final int MAGIC = 0x47484C31; // "GHL1"
 
-        try (InputStream is = Localization.class.getResourceAsStream(fileName)) {
-            if (is == null) {
-                System.err.println("Localization file couldn't be found: " + fileName);
-                return;
+        // <Language Code, <Key, Translated Phrase>>
+        final Map<Language, Map<String, String>> texts = new EnumMap<>(Language.class);
+        // <Language Code, <Translated Phrase, Key>>, first key in the file wins if a phrase is used more than once
+        final Map<Language, Map<String, String>> keys = new EnumMap<>(Language.class);
+
+        Dictionary(int expectedSize) {
+            int capacity = (int) (expectedSize / 0.75f) + 1;
+            for (Language lang : Language.values()) {
+                texts.put(lang, new LinkedHashMap<>(capacity)); // File order, so the binary file keeps it too
+                keys.put(lang, new HashMap<>(capacity));
             }
+        }
 
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                String line;
-                boolean isFirstLine = true; 
+        void put(Language lang, String key, String text) {
+            texts.get(lang).put(key, text);
+            keys.get(lang).putIfAbsent(text, key);
+        }
 
-                while ((line = br.readLine()) != null) {
-                    if (isFirstLine) {
-                        line = line.replace("\uFEFF", "");
-                        isFirstLine = false;
-                        if (line.toUpperCase().startsWith("KEY")) continue;
-                    }
+        int size() {
+            return texts.get(Language.TR).size();
+        }
+
+        static Dictionary readCSV(InputStream is) throws IOException {
+            Dictionary d = new Dictionary(512);
+            BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            String line;
+            boolean isFirstLine = true; 
+
+            while ((line = br.readLine()) != null) {
+                if (isFirstLine) {
+                    line = line.replace("\uFEFF", "");
+                    isFirstLine = false;
+                    if (line.toUpperCase().startsWith("KEY")) continue;
+                }
 
-                    String trimmedLine = line.trim();
+                String trimmedLine = line.trim();
 
-                    if (trimmedLine.isEmpty()) continue;
-                    if (trimmedLine.startsWith("#")) continue;
+                if (trimmedLine.isEmpty()) continue;
+                if (trimmedLine.startsWith("#")) continue;
 
-                    String[] parts = line.split(";", -1); 
+                String[] parts = line.split(";", -1); 
 
-                    if (parts.length >= 3) {
-                        String key = parts[0].trim();
-                        String trVal = removeQuotes(parts[1].trim());
-                        String enVal = removeQuotes(parts[2].trim());
+                if (parts.length >= 3) {
+                    String key = parts[0].trim();
+                    d.put(Language.TR, key, removeQuotes(parts[1].trim()));
+                    d.put(Language.EN, key, removeQuotes(parts[2].trim()));
+                }
+            }
+            return d;
+        }
 
-                        dictionary.get(Language.TR).put(key, trVal);
-                        dictionary.get(Language.EN).put(key, enVal);
-                    }
+        // MAGIC, language count, entry count, then key and the phrase of every language for each entry.
+        // Strings are UTF-8 with a varint length (one byte for almost all of them), read from one array.
+        static Dictionary readBinary(InputStream is) throws IOException {
+            ByteBuffer in = ByteBuffer.wrap(is.readAllBytes());
+            try {
+                if (in.getInt() != MAGIC) throw new IOException("Not a localization file");
+
+                int languages = in.getInt();
+                if (languages != Language.values().length) throw new IOException("Localization file has " + languages + " languages");
+
+                int count = in.getInt();
+                Dictionary d = new Dictionary(count);
+                for (int i = 0; i < count; i++) {
+                    String key = readString(in);
+                    for (Language lang : Language.values()) d.put(lang, key, readString(in));
                 }
+                return d;
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Localization file is cut", e);
+            }
+        }
+
+        void writeBinary(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(Language.values().length);
+            out.writeInt(size());
+            for (String key : texts.get(Language.TR).keySet()) {
+                writeString(out, key);
+                for (Language lang : Language.values()) writeString(out, texts.get(lang).get(key));
             }
+        }
+
+        private static String readString(ByteBuffer in) {
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            String s = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return s;
+        }
+
+        private static void writeString(DataOutputStream out, String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            while (length >= 0x80) {
+                out.writeByte((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.writeByte(length);
+            out.write(bytes);
+        }
+
+        private static String removeQuotes(String str) {
+            if (str.startsWith("\"") && str.endsWith("\"")) {
+                return str.substring(1, str.length() - 1);
+            }
+            return str;
+        }
+    }
+
+    private static Dictionary load() {
+        try (InputStream is = Localization.class.getResourceAsStream(BINARY_FILE)) {
+            if (is != null) return Dictionary.readBinary(is);
+        } catch (IOException e) {
+            System.err.println("Compiled localization file couldn't be read (" + e.getMessage() + "), reading " + CSV_FILE);
+        }
+
+        try (InputStream is = Localization.class.getResourceAsStream(CSV_FILE)) {
+            if (is == null) {
+                System.err.println("Localization file couldn't be found: " + CSV_FILE);
+                return new Dictionary(0);
+            }
+            return Dictionary.readCSV(is);
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("An error occured while loading the localization file!");
+            return new Dictionary(0);
         }
     }
-    
-    private static String removeQuotes(String str) {
-        if (str.startsWith("\"") && str.endsWith("\"")) {
-            return str.substring(1, str.length() - 1);
-        }
-        return str;
-    }
 
     public static void setLanguage(Language lang) {
         currentLanguage = lang;
@@ -88,53 +180,36 @@ public class Localization {
     }
 
     public static String get(String key) {
-        Map<String, String> currentMap = dictionary.get(currentLanguage);
-        if (currentMap != null && currentMap.containsKey(key)) {
-            return currentMap.get(key);
-        }
-        return key; 
+        String text = dictionary.texts.get(currentLanguage).get(key);
+        return (text != null) ? text : key; 
     }
 
     public static String get(String key, Object... args) {
         String pattern = get(key);
         try {
-            return MessageFormat.format(pattern, args);
+            MessageFormat format = formats.computeIfAbsent(pattern, MessageFormat::new);
+            synchronized (format) {
+                return format.format(args);
+            }
         } catch (Exception e) {
             return pattern;
         }
     }
     
     public static String getKey(String uiText) {
-        Map<String, String> currentMap = dictionary.get(currentLanguage);
-        for (Map.Entry<String, String> entry : currentMap.entrySet()) {
-            if (entry.getValue().equals(uiText)) {
-                return entry.getKey();
-            }
-        }
-        return uiText;
+        String key = dictionary.keys.get(currentLanguage).get(uiText);
+        return (key != null) ? key : uiText;
     }
     
     // Returns localized text with another text, not with a key
     public static String getFromText(String uiText, Language searchLang, Language targetLang) {
-        // Get search language's map
-        Map<String, String> sourceMap = dictionary.get(searchLang);
-        if (sourceMap == null) return uiText;
-
         // Find the key of UI text
-        String foundKey = null;
-        for (Map.Entry<String, String> entry : sourceMap.entrySet()) {
-            if (entry.getValue().equals(uiText)) {
-                foundKey = entry.getKey();
-                break;
-            }
-        }
+        String foundKey = dictionary.keys.get(searchLang).get(uiText);
 
         // If key found, find the target language's UI text
         if (foundKey != null) {
-            Map<String, String> targetMap = dictionary.get(targetLang);
-            if (targetMap != null && targetMap.containsKey(foundKey)) {
-                return targetMap.get(foundKey);
-            }
+            String text = dictionary.texts.get(targetLang).get(foundKey);
+            if (text != null) return text;
         }
 
         // If key not found, return original UI text
@@ -146,4 +221,4 @@ public class Localization {
     	String localizationKey = "disposaltype" + typeName.toLowerCase();
     	return Localization.get(localizationKey);
     }
-}
\ No newline at end of file
+}
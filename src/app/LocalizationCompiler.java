@@ -0,0 +1,39 @@
+package app;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import app.Localization.Dictionary;
+
+// Build step: compiles localization.csv into localization.bin, which Localization reads at startup instead of
+// parsing the csv. Both files are put next to the classes, csv stays as the fallback.
+//
+//   java -cp <classes> app.LocalizationCompiler src/localization.csv <classes>/localization.bin
+public class LocalizationCompiler {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2) {
+			System.err.println("Usage: LocalizationCompiler <localization.csv> <localization.bin>");
+			System.exit(2);
+		}
+		Path csv = Path.of(args[0]);
+		Path bin = Path.of(args[1]);
+
+		Dictionary dictionary;
+		try (InputStream in = Files.newInputStream(csv)) {
+			dictionary = Dictionary.readCSV(in);
+		}
+		if (dictionary.size() == 0) throw new IllegalStateException("No entries in " + csv);
+
+		try (OutputStream os = Files.newOutputStream(bin);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+			dictionary.writeBinary(out);
+		}
+		System.out.println("Compiled " + dictionary.size() + " entries: " + csv + " (" + Files.size(csv) + " bytes) -> "
+				+ bin + " (" + Files.size(bin) + " bytes)");
+	}
+}
@@ -1,18 +1,72 @@
 package app;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.swing.SwingUtilities;
+import data.DisposalData;
+import database.AddressManager;
+import database.DBConnection;
+import gui.EdtWatchdog;
 import gui.MainFrame;
 
 public class MainApp {
+	// Training run of the class data sharing archive (see build.sh): exits when the login screen is shown
+	// and the pool warm-up is over, so the archive has the classes of a normal start
+	private static final boolean EXIT_AFTER_STARTUP = Boolean.getBoolean("greenhood.startup.exit");
+
 	public static void main(String[] args) {
+		StartupTimer.mark(StartupTimer.MAIN);
+		AppEvents.startRecording();
+		AppExecutor.submit(AppEvents::preload);
+		if (EdtWatchdog.ENABLED) EdtWatchdog.start();
+		
+		// Connections are opened while the login screen is being built and shown,
+		// reference data cache is filled after them so it does not open connections of its own
+		CompletableFuture<Void> pool = DBConnection.warmUp();
+		pool.whenComplete((_, _) -> StartupTimer.mark(StartupTimer.POOL));
+		if (Boolean.parseBoolean(System.getProperty("greenhood.cache.warmup", "true"))) {
+			pool.thenRun(() -> AppExecutor.submit(MainApp::warmUpCaches));
+		}
+		
+		// Translations are read while AWT and Swing are loaded, instead of in the frame constructor
+		AppExecutor.submit(() -> {
+			Localization.getLanguage();
+			StartupTimer.mark(StartupTimer.LOCALIZATION);
+		});
+		
+		CompletableFuture<Void> shown = new CompletableFuture<>();
 	    SwingUtilities.invokeLater(() -> {
 	        try {
 	            MainFrame frame = new MainFrame();
+	            StartupTimer.mark(StartupTimer.FRAME);
 	            frame.setVisible(true);
+	            StartupTimer.mark(StartupTimer.VISIBLE);
+	            // Events of showing the window are handled before this one
+	            SwingUtilities.invokeLater(() -> {
+	                StartupTimer.mark(StartupTimer.INTERACTIVE);
+	                shown.complete(null);
+	            });
 	        } catch (Throwable e) {
 	            System.out.println("MainApp Error!");
 	            e.printStackTrace();
+	            shown.completeExceptionally(e);
 	        }
 	    });
+	    
+	    if (EXIT_AFTER_STARTUP) {
+	        CompletableFuture.allOf(shown, pool.exceptionally(_ -> null))
+	                .whenComplete((_, e) -> System.exit(e == null ? 0 : 1));
+	    }
+	}
+	
+	private static void warmUpCaches() {
+		try {
+			DisposalData.getAllDisposalTypes();
+			DisposalData.getAllDisposalTypesWithCoefs();
+			AddressManager.getProvinces();
+		} catch (Exception e) {
+			// Not critical, caches are filled on first use anyway
+			System.err.println("CACHE WARM-UP FAILED: " + e.getMessage());
+		}
 	}
 }
\ No newline at end of file
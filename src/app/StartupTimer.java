@@ -0,0 +1,120 @@
+package app;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import app.AppEvents.StartupPhaseEvent;
+import jdk.jfr.FlightRecorder;
+
+// Startup phases in milliseconds since the JVM was started. Time to interactive is the INTERACTIVE phase,
+// the first turn of the EDT after the login screen is shown. Phases reached while a flight recording runs are
+// JFR events (greenhood.StartupPhase) too.
+//
+//   -Dgreenhood.startup.report=true        phases are printed when they are reached
+//   -Dgreenhood.startup.file=startup.csv   one row per start is appended at INTERACTIVE to follow it between releases
+public class StartupTimer {
+
+	public static final String MAIN = "main";                 // JVM and class loading until main()
+	public static final String LOCALIZATION = "localization"; // Translations loaded
+	public static final String FRAME = "frame";               // Main frame and login screen built
+	public static final String VISIBLE = "visible";           // Window shown
+	public static final String INTERACTIVE = "interactive";   // Login screen takes input
+	public static final String POOL = "pool";                 // Connection pool warmed up (or failed), usually after INTERACTIVE
+
+	// Columns of the csv file, phases after INTERACTIVE are not known when the row is written
+	private static final List<String> FILE_PHASES = List.of(MAIN, LOCALIZATION, FRAME, VISIBLE, INTERACTIVE);
+
+	public static final boolean REPORT = Boolean.getBoolean("greenhood.startup.report");
+
+	// Process start time of the OS is rounded to seconds on Linux, uptime of the JVM is exact. It is read only when
+	// a time is shown, loading the management classes in main() would be a part of the startup measured here.
+	private static class JvmStart {
+		static final long NANOS = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+	}
+
+	// <Phase, System.nanoTime() when reached>
+	private static final Map<String, Long> phases = new LinkedHashMap<>();
+
+	// Only the first mark of a phase counts (e.g. the login screen shown again after logout)
+	public static void mark(String phase) {
+		long now = System.nanoTime();
+		synchronized (phases) {
+			if (phases.putIfAbsent(phase, now) != null) return;
+		}
+
+		// Nothing is recorded before a recording starts, and the event class would load the flight recorder here
+		if (FlightRecorder.isInitialized()) {
+			StartupPhaseEvent event = new StartupPhaseEvent();
+			if (event.shouldCommit()) {
+				event.phase = phase;
+				event.sinceStart = toMillis(now);
+				event.commit();
+			}
+		}
+
+		if (REPORT) System.out.println("STARTUP " + phase + " at " + toMillis(now) + " ms");
+		if (INTERACTIVE.equals(phase)) {
+			if (REPORT) System.out.println("STARTUP REPORT\n" + report());
+			String file = System.getProperty("greenhood.startup.file");
+			if (file != null) {
+				try {
+					append(Path.of(file));
+				} catch (IOException e) {
+					System.err.println("Startup times cannot be written: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	// Milliseconds since the JVM was started, null if the phase is not reached yet
+	public static Long get(String phase) {
+		Long nanos;
+		synchronized (phases) {
+			nanos = phases.get(phase);
+		}
+		return (nanos == null) ? null : toMillis(nanos);
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos - JvmStart.NANOS);
+	}
+
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-14s %8s %8s%n", "PHASE", "AT MS", "STEP MS"));
+		long previous = 0;
+		synchronized (phases) {
+			for (Map.Entry<String, Long> e : phases.entrySet()) {
+				long millis = toMillis(e.getValue());
+				sb.append(String.format("%-14s %8d %8d%n", e.getKey(), millis, millis - previous));
+				previous = millis;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void append(Path file) throws IOException {
+		boolean header = !Files.exists(file);
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+			if (header) out.println("time," + String.join(",", FILE_PHASES));
+
+			StringBuilder row = new StringBuilder(LocalDateTime.now().withNano(0).toString());
+			for (String phase : FILE_PHASES) {
+				Long millis = get(phase);
+				row.append(',').append(millis == null ? "" : millis.toString());
+			}
+			out.println(row);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package app;
+
+import java.awt.Component;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+// Runs a group of DB loads concurrently, each result is delivered to the EDT as soon as it arrives.
+// Cancelling the group (or a failure in one of the loads) drops every result which is not delivered yet.
+public class TaskGroup {
+
+	@FunctionalInterface
+	public interface DbLoader<T> {
+		T load() throws Exception;
+	}
+
+	private final Component parent;
+	private volatile boolean cancelled = false;
+	private int pending = 0;
+	private Runnable onDone = null;
+
+	public TaskGroup(Component parent) {
+		this.parent = parent;
+	}
+
+	public synchronized <T> void fork(DbLoader<T> loader, Consumer<T> onResult) {
+		if (cancelled) return;
+		pending++;
+
+		AppUtils.runAsync(parent,
+			() -> {
+				if (cancelled) return; // Still in the queue when cancelled
+
+				T result;
+				try {
+					result = loader.load();
+				} catch (Exception e) {
+					cancel(); // Other loads are useless if one of them fails
+					throw e;
+				}
+
+				if (cancelled) return;
+				SwingUtilities.invokeLater(() -> {
+					if (!cancelled) onResult.accept(result);
+				});
+			},
+			() -> taskFinished()
+		);
+	}
+
+	// Runs on the EDT after all forked loads are finished (successfully or not)
+	public synchronized void whenDone(Runnable callback) {
+		if (pending == 0) {
+			SwingUtilities.invokeLater(callback);
+		} else {
+			onDone = callback;
+		}
+	}
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	private synchronized void taskFinished() {
+		pending--;
+		if (pending == 0 && onDone != null) {
+			SwingUtilities.invokeLater(onDone);
+			onDone = null;
+		}
+	}
+}
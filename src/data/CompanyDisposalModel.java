@@ -0,0 +1,244 @@
+package data;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import data.DisposalData.DisposalFilter;
+import data.DisposalData.DisposalRecord;
+import data.ProfileData.CompanyStats;
+
+// Client side copy of the company dashboard: available, reserved and recycled disposals, statistics are
+// calculated from them. Loaded once, then kept up to date with the changes after a watermark
+// (get_company_disposal_changes). Actions move the cards here before they are written and are rolled back
+// if the write fails. Not thread safe, used on the EDT only (load and the queries run in the background).
+public class CompanyDisposalModel {
+
+    public enum State {
+        AVAILABLE, RESERVED, RECYCLED, NONE
+    }
+
+    public static class DisposalChange {
+        public final int ddno;
+        public final State state;
+        public final DisposalRecord record; // null for NONE
+
+        public DisposalChange(int ddno, State state, DisposalRecord record) {
+            this.ddno = ddno;
+            this.state = state;
+            this.record = record;
+        }
+    }
+
+    public static class Changes {
+        public final long watermark;
+        public final List<DisposalChange> changes;
+        public final boolean expired; // Watermark is older than the pruned change rows, lists must be loaded again
+
+        public Changes(long watermark, List<DisposalChange> changes, boolean expired) {
+            this.watermark = watermark;
+            this.changes = changes;
+            this.expired = expired;
+        }
+    }
+
+    // Result of a full load
+    public static class Snapshot {
+        final long watermark;
+        final List<DisposalRecord> available, reserved, recycled;
+
+        Snapshot(long watermark, List<DisposalRecord> available, List<DisposalRecord> reserved, List<DisposalRecord> recycled) {
+            this.watermark = watermark;
+            this.available = available;
+            this.reserved = reserved;
+            this.recycled = recycled;
+        }
+    }
+
+    // Cards moved by an action, rollback puts them back where they were
+    public class Move {
+        private final Map<Integer, State> fromState = new HashMap<>();
+        private final Map<Integer, DisposalRecord> fromRecord = new HashMap<>();
+        private final int moveGeneration = generation;
+
+        public Collection<Integer> getIds() {
+            return new ArrayList<>(fromState.keySet());
+        }
+
+        public void rollback() {
+            rollback(getIds());
+        }
+
+        public void rollback(Collection<Integer> ids) {
+            if (moveGeneration != generation) return; // Lists were loaded again, nothing to put back
+            for (int id : ids) {
+                State state = fromState.get(id);
+                if (state == null) continue;
+                put(id, state, fromRecord.get(id));
+            }
+        }
+    }
+
+    private static final Comparator<DisposalRecord> BY_DISCARD_DATE = Comparator
+            .comparing((DisposalRecord r) -> r.discardDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(r -> r.ddno, Comparator.reverseOrder());
+    private static final Comparator<DisposalRecord> BY_RESERVATION_DATE = Comparator
+            .comparing((DisposalRecord r) -> r.resDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(r -> r.ddno, Comparator.reverseOrder());
+
+    private final Map<Integer, DisposalRecord> available = new HashMap<>();
+    private final Map<Integer, DisposalRecord> reserved = new HashMap<>();
+    private final Map<Integer, DisposalRecord> recycled = new HashMap<>();
+    private long watermark = -1;
+    private int generation = 0;
+
+    // Watermark is taken before the lists, so changes committed while they are read come with the next delta
+    public static Snapshot load(String taxNumber, DisposalFilter filter) throws Exception {
+        long watermark = DisposalData.getChangeWatermark();
+        return new Snapshot(watermark,
+                DisposalData.getAvailableDisposalsFiltered(filter, taxNumber),
+                ProfileData.getCompanyReservedDisposals(taxNumber),
+                ProfileData.getCompanyRecycledDisposals(taxNumber));
+    }
+
+    public void reset(Snapshot snapshot) {
+        generation++;
+        available.clear();
+        reserved.clear();
+        recycled.clear();
+        for (DisposalRecord r : snapshot.available) available.put(r.ddno, r);
+        for (DisposalRecord r : snapshot.reserved) reserved.put(r.ddno, r);
+        for (DisposalRecord r : snapshot.recycled) recycled.put(r.ddno, r);
+        watermark = snapshot.watermark;
+    }
+
+    public boolean isLoaded() {
+        return watermark != -1;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    // Changes are dropped when the lists were loaded again after they were asked
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean apply(int askedGeneration, Changes changes) {
+        if (changes.expired || askedGeneration != generation || changes.watermark < watermark) return false;
+        for (DisposalChange c : changes.changes) put(c.ddno, c.state, c.record);
+        watermark = changes.watermark;
+        return true;
+    }
+
+    // Drops available disposals which are known to be taken (e.g. from a change notification)
+    public boolean removeAvailable(Collection<Integer> ids) {
+        boolean changed = false;
+        for (int id : ids) changed |= (available.remove(id) != null);
+        return changed;
+    }
+
+    public List<DisposalRecord> getAvailable() {
+        return sorted(available, BY_DISCARD_DATE);
+    }
+
+    public List<DisposalRecord> getReserved() {
+        return sorted(reserved, BY_RESERVATION_DATE);
+    }
+
+    public List<DisposalRecord> getRecycled() {
+        return sorted(recycled, BY_DISCARD_DATE);
+    }
+
+    public boolean contains(int ddno) {
+        return available.containsKey(ddno) || reserved.containsKey(ddno) || recycled.containsKey(ddno);
+    }
+
+    // Same numbers as COMPANY_STATS. 0: All Time, 1: Last 1 Year, 2: Last 1 Month
+    public CompanyStats getStats(int rangeMode) {
+        LocalDate now = LocalDate.now();
+        LocalDate since = (rangeMode == 1) ? now.minusYears(1) : (rangeMode == 2) ? now.minusMonths(1) : now.minusYears(100);
+
+        CompanyStats stats = new CompanyStats();
+        for (Map<Integer, DisposalRecord> list : List.of(reserved, recycled)) {
+            for (DisposalRecord r : list.values()) {
+                if (onOrAfter(r.resDate, since)) {
+                    stats.reservedCount++;
+                    stats.reservedWeight += r.weight;
+                    stats.reservedVolume += r.volume;
+                }
+                if (r.isRecycled && onOrAfter(r.recDate, since)) {
+                    stats.recycledCount++;
+                    stats.recycledWeight += r.weight;
+                    stats.recycledVolume += r.volume;
+                    stats.totalScore += r.score;
+                }
+            }
+        }
+        return stats;
+    }
+
+    // Optimistic actions, the returned move rolls them back
+
+    public Move reserve(Collection<Integer> ids) {
+        Date today = Date.valueOf(LocalDate.now());
+        return move(ids, State.AVAILABLE, State.RESERVED, r -> new DisposalRecord(r.ddno, r.disposalTypeName, r.weight, r.volume, r.score,
+                r.discardDate, today, null, false, true, r.actorName, null));
+    }
+
+    public Move recycle(Collection<Integer> ids) {
+        Date today = Date.valueOf(LocalDate.now());
+        return move(ids, State.RESERVED, State.RECYCLED, r -> new DisposalRecord(r.ddno, r.disposalTypeName, r.weight, r.volume, r.score,
+                r.discardDate, r.resDate, today, true, true, r.actorName, r.companyName));
+    }
+
+    public Move cancel(Collection<Integer> ids) {
+        return move(ids, State.RESERVED, State.AVAILABLE, r -> new DisposalRecord(r.ddno, r.disposalTypeName, r.weight, r.volume, r.score,
+                r.discardDate, r.actorName));
+    }
+
+    private Move move(Collection<Integer> ids, State from, State to, java.util.function.UnaryOperator<DisposalRecord> change) {
+        Move move = new Move();
+        Map<Integer, DisposalRecord> source = map(from);
+        for (int id : ids) {
+            DisposalRecord r = source.get(id);
+            if (r == null) continue;
+            move.fromState.put(id, from);
+            move.fromRecord.put(id, r);
+            put(id, to, change.apply(r));
+        }
+        return move;
+    }
+
+    private void put(int ddno, State state, DisposalRecord record) {
+        available.remove(ddno);
+        reserved.remove(ddno);
+        recycled.remove(ddno);
+        if (state != State.NONE && record != null) map(state).put(ddno, record);
+    }
+
+    private Map<Integer, DisposalRecord> map(State state) {
+        return switch (state) {
+            case AVAILABLE -> available;
+            case RESERVED -> reserved;
+            case RECYCLED -> recycled;
+            case NONE -> throw new IllegalArgumentException("No list for " + state);
+        };
+    }
+
+    private static List<DisposalRecord> sorted(Map<Integer, DisposalRecord> map, Comparator<DisposalRecord> order) {
+        List<DisposalRecord> list = new ArrayList<>(map.values());
+        list.sort(order);
+        return list;
+    }
+
+    private static boolean onOrAfter(Date date, LocalDate since) {
+        return date != null && !date.toLocalDate().isBefore(since);
+    }
+}
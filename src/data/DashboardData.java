@@ -4,6 +4,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import database.DBConnection;
+import database.Query;
 
 public class DashboardData {
 
@@ -23,10 +24,8 @@ public class DashboardData {
     public static List<LeaderboardEntry> getTopNeighbors(int count) throws Exception {
         List<LeaderboardEntry> list = new ArrayList<>();
 
-        String selectSql = "SELECT fname, mname, lname, tckn, total_score FROM neighbor_leaderboard_view LIMIT ?";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(selectSql)) {
+             PreparedStatement ps = Query.TOP_NEIGHBORS.prepare(conn)) {
             ps.setInt(1, count);
 
             try (ResultSet rs = ps.executeQuery()) {
@@ -55,12 +54,10 @@ public class DashboardData {
 
     public static List<LeaderboardEntry> getTopCompanies(int count) throws Exception {
         List<LeaderboardEntry> list = new ArrayList<>();
-        
-        // Get all companies and their score with LEFT JOIN to prevent valueless entries
-        String selectSql = "SELECT cname, taxnumber, totalScore FROM company_leaderboard_view LIMIT ?";
 
+        // Get all companies and their score with LEFT JOIN to prevent valueless entries
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(selectSql)) {
+             PreparedStatement ps = Query.TOP_COMPANIES.prepare(conn)) {
             	 ps.setInt(1, count);
             	 
             	 try (ResultSet rs = ps.executeQuery()) {
@@ -78,12 +75,10 @@ public class DashboardData {
     
     public static List<LeaderboardEntry> getNeighborhoodLeaderboard(String tckn, int limit) throws Exception {
         List<LeaderboardEntry> list = new ArrayList<>();
-        
-        // Get all neighbors information which has same neighborhood as this user
-        String sql = "SELECT * FROM get_neighborhood_leaderboard(?, ?)";
 
+        // Get all neighbors information which has same neighborhood as this user
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.NEIGHBORHOOD_LEADERBOARD.prepare(conn)) {
             
             ps.setString(1, tckn);
             ps.setInt(2, limit);
@@ -0,0 +1,262 @@
+package data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import data.DashboardData.LeaderboardEntry;
+import data.DisposalData.DisposalRecord;
+import data.ProfileData.CompanyProfile;
+import data.ProfileData.NeighborProfile;
+import data.ProfileData.UserStats;
+import database.ChangeNotifier;
+import database.ChangeNotifier.ChangeEvent;
+
+// Client side store of the data shown by more than one panel (profiles, statistics, leaderboards).
+// Values are kept for a short time (-Dgreenhood.store.freshSeconds, default 30), so moving between screens
+// reuses them. Identical requests which arrive while one is loading wait for it instead of running again.
+// Own writes invalidate the entries they change, changes of other clients come with the change notifications.
+public class DataStore<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public static final long DEFAULT_FRESH_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("greenhood.store.freshSeconds", 30));
+
+    // All created stores for metrics and global invalidation
+    private static final List<DataStore<?, ?>> stores = new CopyOnWriteArrayList<>();
+
+    // Shared stores. Keys with a number are "<id>:<number>" (see key)
+    public static final DataStore<String, NeighborProfile> NEIGHBOR_PROFILE = new DataStore<>("neighborProfile", ProfileData::getNeighborProfile);
+    public static final DataStore<String, CompanyProfile> COMPANY_PROFILE = new DataStore<>("companyProfile", ProfileData::getCompanyProfile);
+    public static final DataStore<String, List<String>> COMPANY_ALLOWED_TYPES = new DataStore<>("companyAllowedTypes",
+            tax -> List.copyOf(ProfileData.getCompanyAllowedDisposalTypes(tax)));
+    public static final DataStore<String, String> NEIGHBORHOOD_NAME = new DataStore<>("neighborhoodName", ProfileData::getUserNeighborhoodName);
+    public static final DataStore<String, UserStats> USER_STATS = new DataStore<>("userStats",
+            key -> ProfileData.getUserStats(idOf(key), numberOf(key)));
+    public static final DataStore<String, List<DisposalRecord>> DISPOSAL_HISTORY = new DataStore<>("disposalHistory",
+            key -> List.copyOf(ProfileData.getFilteredDisposalHistory(idOf(key), numberOf(key))));
+    public static final DataStore<String, List<LeaderboardEntry>> NEIGHBORHOOD_LEADERBOARD = new DataStore<>("neighborhoodLeaderboard",
+            key -> List.copyOf(DashboardData.getNeighborhoodLeaderboard(idOf(key), numberOf(key))));
+    public static final DataStore<Integer, List<LeaderboardEntry>> TOP_NEIGHBORS = new DataStore<>("topNeighbors",
+            count -> List.copyOf(DashboardData.getTopNeighbors(count)));
+    public static final DataStore<Integer, List<LeaderboardEntry>> TOP_COMPANIES = new DataStore<>("topCompanies",
+            count -> List.copyOf(DashboardData.getTopCompanies(count)));
+
+    static {
+        ChangeNotifier.observe(DataStore::onDatabaseChange);
+    }
+
+    private final String name;
+    private final long freshMillis;
+    private final Loader<K, V> loader;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, List<Consumer<V>>> subscribers = new ConcurrentHashMap<>();
+
+    // Incremented by every invalidation, a load which started before it is not kept
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public DataStore(String name, Loader<K, V> loader) {
+        this(name, DEFAULT_FRESH_MILLIS, loader);
+    }
+
+    public DataStore(String name, long freshMillis, Loader<K, V> loader) {
+        this.name = name;
+        this.freshMillis = freshMillis;
+        this.loader = loader;
+        stores.add(this);
+    }
+
+    public static String key(String id, int number) {
+        return id + ":" + number;
+    }
+
+    private static String idOf(String key) {
+        return key.substring(0, key.lastIndexOf(':'));
+    }
+
+    private static int numberOf(String key) {
+        return Integer.parseInt(key.substring(key.lastIndexOf(':') + 1));
+    }
+
+    // Returns the fresh value, joins the load in progress or loads it from database
+    public V get(K key) throws Exception {
+        Entry<V> e = entries.get(key);
+        if (e != null && System.currentTimeMillis() - e.loadedAt < freshMillis) {
+            hits.incrementAndGet();
+            return e.value;
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+
+        loads.incrementAndGet();
+        long startVersion = version.get();
+        V value;
+        try {
+            value = loader.load(key);
+        } catch (Exception | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+
+        if (version.get() == startVersion) entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+        mine.complete(value);
+
+        List<Consumer<V>> list = subscribers.get(key);
+        if (list != null) {
+            for (Consumer<V> s : list) {
+                try {
+                    s.accept(value);
+                } catch (RuntimeException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+        return value;
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws Exception {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    // Returns the fresh value without touching the database, null if not loaded or old
+    public V peek(K key) {
+        Entry<V> e = entries.get(key);
+        if (e == null || System.currentTimeMillis() - e.loadedAt >= freshMillis) return null;
+
+        hits.incrementAndGet();
+        return e.value;
+    }
+
+    // Called on the loading thread with every value loaded for the key, returns the action which removes it
+    public Runnable subscribe(K key, Consumer<V> subscriber) {
+        subscribers.compute(key, (_, list) -> {
+            if (list == null) list = new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        return () -> subscribers.computeIfPresent(key, (_, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    // Loads in progress are forgotten too, so the next request reads the database again
+    public void invalidate(K key) {
+        version.incrementAndGet();
+        entries.remove(key);
+        inFlight.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> filter) {
+        version.incrementAndGet();
+        entries.keySet().removeIf(filter);
+        inFlight.keySet().removeIf(filter);
+    }
+
+    public void invalidateAll() {
+        version.incrementAndGet();
+        entries.clear();
+        inFlight.clear();
+    }
+
+    public String getName() { return name; }
+    public int size() { return entries.size(); }
+    public long getHits() { return hits.get(); }
+    public long getLoads() { return loads.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+
+    public static void invalidateEverything() {
+        for (DataStore<?, ?> s : stores) s.invalidateAll();
+    }
+
+    // Profile of the neighbor or company updated, names and neighborhoods are shown in the leaderboards too
+    public static void invalidateProfile(String username) {
+        NEIGHBOR_PROFILE.invalidate(username);
+        COMPANY_PROFILE.invalidate(username);
+        NEIGHBORHOOD_NAME.invalidate(username);
+        NEIGHBORHOOD_LEADERBOARD.invalidateAll();
+        TOP_NEIGHBORS.invalidateAll();
+        TOP_COMPANIES.invalidateAll();
+    }
+
+    // Disposals of the neighbor added, deleted or changed
+    public static void invalidateNeighbor(String tckn) {
+        Predicate<String> own = k -> k.startsWith(tckn + ":");
+        USER_STATS.invalidateIf(own);
+        DISPOSAL_HISTORY.invalidateIf(own);
+        NEIGHBORHOOD_LEADERBOARD.invalidateAll();
+        TOP_NEIGHBORS.invalidateAll();
+    }
+
+    // Reservations changed, owners of the disposals are not known here
+    public static void invalidateReservations() {
+        USER_STATS.invalidateAll();
+        DISPOSAL_HISTORY.invalidateAll();
+        NEIGHBORHOOD_LEADERBOARD.invalidateAll();
+        TOP_NEIGHBORS.invalidateAll();
+        TOP_COMPANIES.invalidateAll();
+    }
+
+    // Profiles are not in the change notifications, they are invalidated by their own updates only
+    private static void onDatabaseChange(ChangeEvent event) {
+        switch (event.table) {
+            case DISPOSAL -> {
+                if (event.owner.isEmpty()) invalidateReservations();
+                else invalidateNeighbor(event.owner);
+            }
+            case RESERVATION, RESERVATION_DISPOSAL -> invalidateReservations();
+            case RESYNC -> invalidateEverything();
+        }
+    }
+
+    // Hit/load counts of every store, coalesced requests waited for a load of another request
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s %8s %10s %10s %10s %8s%n", "STORE", "ENTRIES", "HITS", "LOADS", "COALESCED", "SAVED %"));
+        for (DataStore<?, ?> s : stores) {
+            long h = s.getHits(), l = s.getLoads(), c = s.getCoalesced();
+            long total = h + l + c;
+            sb.append(String.format("%-24s %8d %10d %10d %10d %7.1f%%%n", s.getName(), s.size(), h, l, c, total == 0 ? 0.0 : 100.0 * (h + c) / total));
+        }
+        return sb.toString();
+    }
+}
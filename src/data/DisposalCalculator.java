@@ -0,0 +1,69 @@
+package data;
+
+import java.util.List;
+import data.DisposalData.DisposalType;
+
+// Same formulas as calculate_disposal_score and calculate_disposal_cost SQL functions,
+// computed from cached disposal type coefficients without any round trip. Coefficients are NUMERIC in the
+// table and FLOAT in the functions, the driver reads them as the same doubles. Operations are done in the same
+// order with the same float8 rules, so results are identical (bench/load CalculatorParity checks it).
+// Like the functions, a result out of the double range is an ArithmeticException instead of infinity.
+public class DisposalCalculator {
+
+	// scoreCoef * (weight + volume * 10)
+	public static double calculateScore(DisposalType type, double weight, double volume) {
+		if (type == null) return 0;
+		return mul(type.scoreCoef, add(weight, mul(volume, 10)));
+	}
+
+	// tCostCoef * MAX(weight, volume * 10)
+	public static double calculateCost(DisposalType type, double weight, double volume) {
+		if (type == null) return 0;
+		return mul(type.tCostCoef, greatest(weight, mul(volume, 10)));
+	}
+
+	// float8 * of PostgreSQL: overflow and underflow (0 from non zero values) are errors
+	private static double mul(double a, double b) {
+		double result = a * b;
+		if (Double.isInfinite(result) && !Double.isInfinite(a) && !Double.isInfinite(b)) {
+			throw new ArithmeticException("value out of range: overflow");
+		}
+		if (result == 0.0 && a != 0.0 && b != 0.0) {
+			throw new ArithmeticException("value out of range: underflow");
+		}
+		return result;
+	}
+
+	// float8 + of PostgreSQL: overflow is an error
+	private static double add(double a, double b) {
+		double result = a + b;
+		if (Double.isInfinite(result) && !Double.isInfinite(a) && !Double.isInfinite(b)) {
+			throw new ArithmeticException("value out of range: overflow");
+		}
+		return result;
+	}
+
+	// GREATEST of PostgreSQL: NaN is greater than every number, -0 and 0 are equal so the first one is kept
+	private static double greatest(double a, double b) {
+		if (Double.isNaN(a)) return a;
+		if (Double.isNaN(b)) return b;
+		return (b > a) ? b : a;
+	}
+
+	public static double calculateScore(int typeId, double weight, double volume) throws Exception {
+		return calculateScore(findType(typeId), weight, volume);
+	}
+
+	public static double calculateCost(int typeId, double weight, double volume) throws Exception {
+		return calculateCost(findType(typeId), weight, volume);
+	}
+
+	// Unknown type gives 0 like the SQL functions
+	private static DisposalType findType(int typeId) throws Exception {
+		List<DisposalType> types = DisposalData.getAllDisposalTypesWithCoefs();
+		for (DisposalType t : types) {
+			if (t.id == typeId) return t;
+		}
+		return null;
+	}
+}
@@ -5,11 +5,14 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import app.Localization;
 import database.DBConnection;
+import database.Query;
+import database.ReferenceCache;
 
 public class DisposalData {
 	
@@ -30,6 +33,11 @@ public class DisposalData {
             this.scoreCoef = scoreCoef;
         }
 
+        // English name as stored in database
+        String getOriginalName() {
+            return name;
+        }
+
         private String getName() {
             if (name == null) return "";
             return Localization.findLocalizedDisposalTypeName(name);
@@ -55,8 +63,8 @@ public class DisposalData {
         public boolean isReserved;
         public boolean isRecycled;
         
-        public String actorName;   
-        public String companyName; 
+        public String actorName;   // null if unknown
+        public String companyName; // null if not reserved
 
         // General constructor
         public DisposalRecord(int ddno, String name, double w, double v, double s, 
@@ -76,8 +84,8 @@ public class DisposalData {
             this.isRecycled = rStatus; 
             this.isReserved = isRes;
 
-            this.actorName = (actor != null) ? actor : Localization.get("unknown");
-            this.companyName = (company != null) ? company : (isReserved ? Localization.get("reserved") : Localization.get("available"));
+            this.actorName = actor;
+            this.companyName = company;
         }
 
         // Constructor for available disposals
@@ -90,6 +98,15 @@ public class DisposalData {
         public String getName() {
             return new DisposalType(0, this.disposalTypeName).toString();
         }
+        
+        // Placeholders are localized when shown, so they follow the language
+        public String getActorName() {
+            return (actorName != null) ? actorName : Localization.get("unknown");
+        }
+        
+        public String getCompanyName() {
+            return (companyName != null) ? companyName : (isReserved ? Localization.get("reserved") : Localization.get("available"));
+        }
     }
     
     public static class DisposalFilter {
@@ -112,14 +129,71 @@ public class DisposalData {
         }
     }
     
-    // Returns all disposal types
+    // Keyset position in a feed: date and ddno of the last record of the previous page
+    public static class FeedCursor {
+        public final Date date;
+        public final int ddno;
+        
+        public FeedCursor(Date date, int ddno) {
+            this.date = date;
+            this.ddno = ddno;
+        }
+    }
+    
+    // One page of a feed, next is null if there are no more records
+    public static class FeedPage {
+        public final List<DisposalRecord> records;
+        public final FeedCursor next;
+        
+        public FeedPage(List<DisposalRecord> records, FeedCursor next) {
+            this.records = records;
+            this.next = next;
+        }
+        
+        public boolean hasMore() {
+            return next != null;
+        }
+    }
+    
+    // Binds cursor and page size of a *_page function (one extra row is asked to know if there is a next page)
+    static void bindPage(PreparedStatement ps, FeedCursor after, int pageSize) throws SQLException {
+        ps.setDate(1, (after != null) ? after.date : null);
+        ps.setObject(2, (after != null) ? after.ddno : null, java.sql.Types.INTEGER);
+        ps.setInt(3, pageSize + 1);
+    }
+    
+    // Cuts the extra row and creates the cursor from the last record of the page
+    static FeedPage toPage(List<DisposalRecord> list, int pageSize, java.util.function.Function<DisposalRecord, Date> keyDate) {
+        if (list.size() <= pageSize) return new FeedPage(list, null);
+        
+        List<DisposalRecord> records = new ArrayList<>(list.subList(0, pageSize));
+        DisposalRecord last = records.get(pageSize - 1);
+        return new FeedPage(records, new FeedCursor(keyDate.apply(last), last.ddno));
+    }
+    
+    // Disposal types are reference data, they are read from database once per TTL
+    private static final ReferenceCache<Boolean, List<DisposalType>> typeCache = 
+    		new ReferenceCache<>("disposalTypes", withCoefs -> List.copyOf(withCoefs ? loadAllDisposalTypesWithCoefs() : loadAllDisposalTypes()));
+    
     public static List<DisposalType> getAllDisposalTypes() throws Exception {
+        return typeCache.get(false);
+    }
+    
+    public static List<DisposalType> getAllDisposalTypesWithCoefs() throws Exception {
+        return typeCache.get(true);
+    }
+    
+    public static void invalidateDisposalTypeCache() {
+        typeCache.invalidateAll();
+    }
+    
+    // Returns all disposal types
+    private static List<DisposalType> loadAllDisposalTypes() throws Exception {
         List<DisposalType> list = new ArrayList<>();
-        String sql = "SELECT disposalID, disposalname FROM disposal ORDER BY disposalname";
         
         try (Connection conn = DBConnection.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = Query.DISPOSAL_TYPES.prepare(conn);
+             ResultSet rs = ps.executeQuery()) {
              
             while(rs.next()) {
                 list.add(new DisposalType(
@@ -132,13 +206,12 @@ public class DisposalData {
         return list;
     }
     
-    public static List<DisposalType> getAllDisposalTypesWithCoefs() throws Exception {
+    private static List<DisposalType> loadAllDisposalTypesWithCoefs() throws Exception {
         List<DisposalType> list = new ArrayList<>();
-        String sql = "SELECT disposalID, disposalname, tcostcoef, scorecoef FROM disposal ORDER BY disposalname";
         
         try (Connection conn = DBConnection.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = Query.DISPOSAL_TYPES_WITH_COEFS.prepare(conn);
+             ResultSet rs = ps.executeQuery()) {
             
             while(rs.next()) {
                 list.add(new DisposalType(
@@ -156,13 +229,7 @@ public class DisposalData {
     // Returns disposal types that company with given companyID can recycle
     public static List<DisposalType> getDisposalTypes(Connection conn, int companyID) throws Exception {
         List<DisposalType> list = new ArrayList<>();
-        String sql = 
-        		"SELECT d.disposalID, d.disposalname " +
-        	    "FROM company_disposal cd " +
-        	    "JOIN disposal d ON cd.dID = d.disposalID " +
-        	    "WHERE cd.cID = ?";
-        
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PreparedStatement ps = Query.COMPANY_DISPOSAL_TYPES.prepare(conn)) {
         	ps.setInt(1, companyID);
         	ResultSet rs = ps.executeQuery();
             while(rs.next()) {
@@ -177,177 +244,175 @@ public class DisposalData {
     }
     
     public static boolean deleteDisposal(int ddno) throws Exception {
-        String sql = "DELETE FROM discarded_disposal " +
-                     "WHERE ddno = ? " +
-        		     "AND rstatus = FALSE " +
-                     "AND ddno NOT IN (SELECT ddnumber FROM reservation_disposal)";
-                     
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.DELETE_DISPOSAL.prepare(conn)) {
             ps.setInt(1, ddno);
             return ps.executeUpdate() > 0;
         }
     }
     
     public static List<DisposalRecord> getLastDisposals(int last) throws Exception {
-        List<DisposalRecord> list = new ArrayList<>();
+        return getDisposalsPage(null, last).records;
+    }
+    
+    // Returns the page of discarded disposals after given cursor (null for the newest ones)
+    public static FeedPage getDisposalsPage(FeedCursor after, int pageSize) throws Exception {
+        List<DisposalRecord> list;
         
-        // Returns last "last" discarded disposal information from database
-        String sql = "SELECT * FROM get_current_discarded_disposals(?)";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.DISPOSALS_PAGE.prepare(conn)) {
             
-            ps.setInt(1, last);
+            bindPage(ps, after, pageSize);
             
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String fname = rs.getString("fname");
-                    String mname = rs.getString("mname");
-                    String lname = rs.getString("lname");
-
-                    String fullName = fname + (mname != null ? " " + mname : "") + " " + lname;
-                    
-                    list.add(new DisposalRecord(
-                        rs.getInt("ddno"),
-                        rs.getString("disposalname"),
-                        rs.getDouble("weight"),
-                        rs.getDouble("volume"),
-                        rs.getDouble("ddscore"),
-                        rs.getDate("ddate"),           
-                        rs.getDate("reservationdate"),  
-                        rs.getDate("recycledate"),      
-                        rs.getBoolean("rstatus"),
-                        rs.getBoolean("is_reserved"),
-                        fullName,           
-                        rs.getString("cname") 
-                    ));
-                }
+                list = readDisposalRows(rs);
             }
         } 
         
+        return toPage(list, pageSize, r -> r.discardDate);
+    }
+    
+    // Row mappers are kept apart from the queries so they can be measured without a database
+    static List<DisposalRecord> readDisposalRows(ResultSet rs) throws SQLException {
+        List<DisposalRecord> list = new ArrayList<>();
+        while (rs.next()) {
+            String fname = rs.getString("fname");
+            String mname = rs.getString("mname");
+            String lname = rs.getString("lname");
+
+            String fullName = fname + (mname != null ? " " + mname : "") + " " + lname;
+            
+            list.add(new DisposalRecord(
+                rs.getInt("ddno"),
+                rs.getString("disposalname"),
+                rs.getDouble("weight"),
+                rs.getDouble("volume"),
+                rs.getDouble("ddscore"),
+                rs.getDate("ddate"),           
+                rs.getDate("reservationdate"),  
+                rs.getDate("recycledate"),      
+                rs.getBoolean("rstatus"),
+                rs.getBoolean("is_reserved"),
+                fullName,           
+                rs.getString("cname") 
+            ));
+        }
         return list;
     }
     
     public static List<DisposalRecord> getLastRecycledItems(int last) throws Exception {
-        List<DisposalRecord> list = new ArrayList<>();
+        return getRecycledPage(null, last).records;
+    }
+    
+    // Returns the page of recycled disposals after given cursor (null for the newest ones)
+    public static FeedPage getRecycledPage(FeedCursor after, int pageSize) throws Exception {
+        List<DisposalRecord> list;
         
-        // Returns last "last" recycled disposals from database
-        String sql = "SELECT * FROM get_current_recycled_disposals(?)";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.RECYCLED_DISPOSALS_PAGE.prepare(conn)) {
             
-            ps.setInt(1, last);
+            bindPage(ps, after, pageSize);
             
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    list.add(new DisposalRecord(
-                        rs.getInt("ddno"),
-                        rs.getString("disposalname"),
-                        rs.getDouble("weight"),
-                        rs.getDouble("volume"),
-                        rs.getDouble("ddscore"),
-                        rs.getDate("ddate"),
-                        rs.getDate("reservationdate"),
-                        rs.getDate("recycledate"), 
-                        true, 
-                        true, // if recycled, it has to be reserved
-                        null, // no need for a neighbor
-                        rs.getString("cname") 
-                    ));
-                }
+                list = readRecycledRows(rs);
             }
         } 
         
+        return toPage(list, pageSize, r -> r.recDate);
+    }
+    
+    static List<DisposalRecord> readRecycledRows(ResultSet rs) throws SQLException {
+        List<DisposalRecord> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new DisposalRecord(
+                rs.getInt("ddno"),
+                rs.getString("disposalname"),
+                rs.getDouble("weight"),
+                rs.getDouble("volume"),
+                rs.getDouble("ddscore"),
+                rs.getDate("ddate"),
+                rs.getDate("reservationdate"),
+                rs.getDate("recycledate"), 
+                true, 
+                true, // if recycled, it has to be reserved
+                null, // no need for a neighbor
+                rs.getString("cname") 
+            ));
+        }
         return list;
     }
     
     public static List<DisposalRecord> getAvailableDisposals() throws Exception {
-        List<DisposalRecord> list = new ArrayList<>();
-        String sql = "SELECT * FROM get_available_discarded_disposals_list()"; 
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = Query.AVAILABLE_DISPOSALS.prepare(conn);
              ResultSet rs = ps.executeQuery()) {
             
-            while(rs.next()){
-                list.add(new DisposalRecord(
-                    rs.getInt("dd_no"),
-                    rs.getString("waste_type"),
-                    rs.getDouble("weight"),
-                    rs.getDouble("volume"),
-                    rs.getDouble("score"),
-                    rs.getDate("discard_date"),
-                    rs.getString("full_name")
-                ));
-            }
+            return readAvailableRows(rs);
         } 
-        
+    }
+    
+    static List<DisposalRecord> readAvailableRows(ResultSet rs) throws SQLException {
+        List<DisposalRecord> list = new ArrayList<>();
+        while(rs.next()){
+            list.add(new DisposalRecord(
+                rs.getInt("dd_no"),
+                rs.getString("waste_type"),
+                rs.getDouble("weight"),
+                rs.getDouble("volume"),
+                rs.getDouble("score"),
+                rs.getDate("discard_date"),
+                rs.getString("full_name")
+            ));
+        }
         return list;
     }
     
-    public static boolean reserveDiscardedDisposal(String taxNumber, int ddNo) throws Exception {
-        Connection conn = null;
-        PreparedStatement pstmtRes = null;
-        PreparedStatement pstmtLink = null;
-        ResultSet rs = null;
+    // Result of a reservation attempt, decided atomically by reserve_discarded_disposal
+    public enum ReserveResult {
+        RESERVED,    // Reserved for the company
+        TAKEN,       // Another company reserved it first (or it is recycled / deleted)
+        NOT_ALLOWED  // Company cannot process this disposal type
+    }
+    
+    // Single round trip, competing companies never get a constraint error
+    public static ReserveResult reserveDiscardedDisposal(String taxNumber, int ddNo) throws Exception {
+        try (Connection conn = DBConnection.connect();
+             PreparedStatement ps = Query.RESERVE_DISPOSAL.prepare(conn)) {
 
-        try {
-            conn = DBConnection.connect();
-            conn.setAutoCommit(false); // Transaction
-            
-            String sqlReservation = "INSERT INTO reservation (cID) " +
-                                    "VALUES ((SELECT companyID FROM company WHERE taxNumber = ?))";
-            
-            // Use RETURN_GENERATED_KEYS to return ID
-            pstmtRes = conn.prepareStatement(sqlReservation, Statement.RETURN_GENERATED_KEYS);
-            pstmtRes.setString(1, taxNumber);
+            ps.setString(1, taxNumber);
+            ps.setInt(2, ddNo);
             
-            int affected = pstmtRes.executeUpdate();
-            if (affected == 0) {
-                conn.rollback();
-                return false;
-            }
-
-            int reservationNo = -1;
-            rs = pstmtRes.getGeneratedKeys();
-            if (rs.next()) {
-                reservationNo = rs.getInt(1);
-            } else {
-                conn.rollback();
-                return false;
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return ReserveResult.valueOf(rs.getString(1));
             }
+        }
+    }
+    
+    // Reserves all given disposals in one statement, result of every ddno in the given order
+    public static Map<Integer, ReserveResult> reserveDiscardedDisposals(String taxNumber, List<Integer> ddNos) throws Exception {
+        Map<Integer, ReserveResult> results = new LinkedHashMap<>();
+        if (ddNos.isEmpty()) return results;
+        
+        try (Connection conn = DBConnection.connect();
+             PreparedStatement ps = Query.RESERVE_DISPOSALS.prepare(conn)) {
 
-            String sqlLink = "INSERT INTO reservation_disposal (rnumber, ddnumber) VALUES (?, ?)";
-            pstmtLink = conn.prepareStatement(sqlLink);
-            pstmtLink.setInt(1, reservationNo);
-            pstmtLink.setInt(2, ddNo);
-            pstmtLink.executeUpdate();
-
-            conn.commit();
-            return true;
-
-        } catch (SQLException e) {
-        	if (conn != null) {
-                try { conn.rollback(); } catch (SQLException ex) { ex.printStackTrace(); }
+            ps.setString(1, taxNumber);
+            ps.setArray(2, conn.createArrayOf("INTEGER", ddNos.toArray()));
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    results.put(rs.getInt("dd_no"), ReserveResult.valueOf(rs.getString("result")));
+                }
             }
-            throw e;
-
-        } finally {
-            try { if(rs != null) rs.close(); } catch(Exception e){}
-            try { if(pstmtRes != null) pstmtRes.close(); } catch(Exception e){}
-            try { if(pstmtLink != null) pstmtLink.close(); } catch(Exception e){}
-            try { if(conn != null) conn.setAutoCommit(true); conn.close(); } catch(Exception e){}
         }
+        return results;
     }
     
     public static boolean completeRecycling(int ddNo) throws Exception {
         // Since there is a trigger which automatically updates the date in reservation table, only updates the boolean
-        String sql = "UPDATE discarded_disposal SET rstatus = TRUE WHERE ddno = ?";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.COMPLETE_RECYCLING.prepare(conn)) {
 
             ps.setInt(1, ddNo);
             
@@ -357,14 +422,30 @@ public class DisposalData {
         }
     }
     
+    // Recycles the company's reserved disposals in one statement, value is false for the ones which
+    // are not reserved by this company or already recycled
+    public static Map<Integer, Boolean> completeRecyclings(String taxNumber, List<Integer> ddNos) throws Exception {
+        Map<Integer, Boolean> results = new LinkedHashMap<>();
+        if (ddNos.isEmpty()) return results;
+        for (int ddNo : ddNos) results.put(ddNo, false);
+        
+        try (Connection conn = DBConnection.connect();
+             PreparedStatement ps = Query.COMPLETE_RECYCLINGS.prepare(conn)) {
+
+            ps.setString(1, taxNumber);
+            ps.setArray(2, conn.createArrayOf("INTEGER", ddNos.toArray()));
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) results.put(rs.getInt(1), true);
+            }
+        }
+        return results;
+    }
+    
     public static boolean addDisposalRecord(String tckn, int dID, double weight, 
     		double volume, double tCost, double ddScore) throws Exception {
-        String sql = "INSERT INTO discarded_disposal (dID, neighbortckn, weight, volume, " + 
-        			 "tcost, ddscore, rstatus, ddate) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, FALSE, CURRENT_DATE)";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.INSERT_DISPOSAL.prepare(conn)) {
             
             ps.setInt(1, dID);
             ps.setString(2, tckn);
@@ -378,94 +459,118 @@ public class DisposalData {
         }
     }
     
-    public static double calculateDisposalScore(int typeId, double weight, double volume) throws Exception {
-        double score = 0.0;
-        
-        // Function to calculate score of a specific discarded disposal
-        String sql = "SELECT calculate_disposal_score(?, ?, ?)";
+    public static List<DisposalRecord> getAvailableDisposalsFiltered(DisposalFilter filter, String taxNumber) throws Exception {
+        List<DisposalRecord> list;
         
+        // Function to get filtered disposals with given parameters
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            
-            ps.setInt(1, typeId);
-            ps.setDouble(2, weight);
-            ps.setDouble(3, volume);
-            
+             PreparedStatement ps = Query.AVAILABLE_DISPOSALS_FILTERED.prepare(conn)) {
+
+            bindFilter(conn, ps, 1, filter, taxNumber);
+
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                score = rs.getDouble(1); // Return value
-            }
-        }
+            list = readFilteredRows(rs);
+        } 
         
-        return score;
+        return list;
     }
     
-    public static double calculateDisposalTransportationCost(int typeId, double weight, double volume) throws Exception {
-        double cost = 0.0;
-        
-        // Function to calculate transportation cost of a specific discarded disposal
-        String sql = "SELECT calculate_disposal_cost(?, ?, ?)";
+    // Binds the filter parameters of get_available_disposals_filtered starting from given index
+    private static void bindFilter(Connection conn, PreparedStatement ps, int first, DisposalFilter filter, String taxNumber) throws SQLException {
+        // Convert java list to SQL array
+        if (filter != null && filter.types != null && !filter.types.isEmpty()) {
+            String[] typeArray = filter.types.toArray(new String[0]);
+            java.sql.Array sqlArray = conn.createArrayOf("VARCHAR", typeArray);
+            ps.setArray(first, sqlArray);
+        } else {
+            ps.setArray(first, null);
+        }
         
+        // With setObject, if filter value is null, all values go to database as null with their data types
+        ps.setObject(first + 1, (filter != null) ? filter.minWeight : null, java.sql.Types.NUMERIC);
+        ps.setObject(first + 2, (filter != null) ? filter.maxWeight : null, java.sql.Types.NUMERIC);
+        ps.setObject(first + 3, (filter != null) ? filter.minVolume : null, java.sql.Types.NUMERIC);
+        ps.setObject(first + 4, (filter != null) ? filter.maxVolume : null, java.sql.Types.NUMERIC);
+
+        ps.setDate(first + 5, (filter != null) ? filter.startDate : null);
+        ps.setDate(first + 6, (filter != null) ? filter.endDate : null);
+        ps.setString(first + 7, taxNumber);
+        ps.setBoolean(first + 8, (filter != null) ? filter.onlyAllowed : false);
+    }
+    
+    // Taken before the lists are read, changes after it are asked with getCompanyDisposalChanges
+    public static long getChangeWatermark() throws Exception {
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            
-            ps.setInt(1, typeId);
-            ps.setDouble(2, weight);
-            ps.setDouble(3, volume);
-            
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                cost = rs.getDouble(1); // Return value
-            }
+             PreparedStatement ps = Query.CHANGE_WATERMARK.prepare(conn);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return Long.parseLong(rs.getString(1));
         }
-        
-        return cost;
     }
     
-    public static List<DisposalRecord> getAvailableDisposalsFiltered(DisposalFilter filter, String taxNumber) throws Exception {
-        List<DisposalRecord> list = new ArrayList<>();
+    // Disposals changed after the watermark with their current state for the company, and the next watermark
+    public static CompanyDisposalModel.Changes getCompanyDisposalChanges(String taxNumber, DisposalFilter filter, long since) throws Exception {
+        List<CompanyDisposalModel.DisposalChange> changes = new ArrayList<>();
+        long watermark;
         
-        // Function to get filtered disposals with given parameters
-        String sql = "SELECT * FROM get_available_disposals_filtered(?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            // Convert java list to SQL array
-            if (filter != null && filter.types != null && !filter.types.isEmpty()) {
-                String[] typeArray = filter.types.toArray(new String[0]);
-                java.sql.Array sqlArray = conn.createArrayOf("VARCHAR", typeArray);
-                ps.setArray(1, sqlArray);
-            } else {
-                ps.setArray(1, null);
+        try (Connection conn = DBConnection.connect()) {
+            // Next watermark first, so nothing committed between the two statements is missed
+            try (PreparedStatement ps = Query.CHANGE_WATERMARK.prepare(conn);
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                watermark = Long.parseLong(rs.getString(1));
             }
             
-            // With setObject, if filter value is null, all values go to database as null with their data types
-            ps.setObject(2, (filter != null) ? filter.minWeight : null, java.sql.Types.NUMERIC);
-            ps.setObject(3, (filter != null) ? filter.maxWeight : null, java.sql.Types.NUMERIC);
-            ps.setObject(4, (filter != null) ? filter.minVolume : null, java.sql.Types.NUMERIC);
-            ps.setObject(5, (filter != null) ? filter.maxVolume : null, java.sql.Types.NUMERIC);
-
-            ps.setDate(6, (filter != null) ? filter.startDate : null);
-            ps.setDate(7, (filter != null) ? filter.endDate : null);
-            ps.setString(8, taxNumber);
-            ps.setBoolean(9, (filter != null) ? filter.onlyAllowed : false);
-
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String typeName = rs.getString("type_name");
-                list.add(new DisposalRecord(
-                    rs.getInt("dd_no"),
-                    typeName,
-                    rs.getDouble("weight"),
-                    rs.getDouble("volume"),
-                    rs.getDouble("score"),
-                    rs.getDate("d_date"),
-                    null, null, false, false, null, null
-                ));
+            try (PreparedStatement ps = Query.COMPANY_DISPOSAL_CHANGES.prepare(conn)) {
+                ps.setString(1, Long.toString(since));
+                bindFilter(conn, ps, 2, filter, taxNumber);
+                
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if ("EXPIRED".equals(rs.getString("state"))) return new CompanyDisposalModel.Changes(watermark, List.of(), true);
+                        CompanyDisposalModel.State state = CompanyDisposalModel.State.valueOf(rs.getString("state"));
+                        DisposalRecord rec = null;
+                        if (state != CompanyDisposalModel.State.NONE) {
+                            boolean recycled = (state == CompanyDisposalModel.State.RECYCLED);
+                            boolean reserved = recycled || state == CompanyDisposalModel.State.RESERVED;
+                            rec = new DisposalRecord(
+                                rs.getInt("dd_no"),
+                                rs.getString("type_name"),
+                                rs.getDouble("weight"),
+                                rs.getDouble("volume"),
+                                rs.getDouble("score"),
+                                rs.getDate("discard_date"),
+                                reserved ? rs.getDate("res_date") : null,
+                                recycled ? rs.getDate("rec_date") : null,
+                                recycled,
+                                reserved,
+                                reserved ? rs.getString("full_name") : null,
+                                reserved ? rs.getString("company_name") : null
+                            );
+                        }
+                        changes.add(new CompanyDisposalModel.DisposalChange(rs.getInt("dd_no"), state, rec));
+                    }
+                }
             }
-        } 
+        }
         
+        return new CompanyDisposalModel.Changes(watermark, changes, false);
+    }
+    
+    static List<DisposalRecord> readFilteredRows(ResultSet rs) throws SQLException {
+        List<DisposalRecord> list = new ArrayList<>();
+        while (rs.next()) {
+            String typeName = rs.getString("type_name");
+            list.add(new DisposalRecord(
+                rs.getInt("dd_no"),
+                typeName,
+                rs.getDouble("weight"),
+                rs.getDouble("volume"),
+                rs.getDouble("score"),
+                rs.getDate("d_date"),
+                null, null, false, false, null, null
+            ));
+        }
         return list;
     }
 }
@@ -0,0 +1,305 @@
+package data;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import app.Localization;
+import data.DisposalData.DisposalType;
+import database.DBConnection;
+import database.Query;
+
+// Bulk import of discarded disposals from CSV. Score and cost are calculated locally from the cached
+// disposal coefficients, valid rows are streamed with COPY into a staging table and inserted in one
+// statement, so the whole file is one transaction. Invalid rows are written to <file>.rejected.csv.
+//
+// Header (order free, ';' or ',' separated): tckn;type;weight;volume;date
+//   type is the disposal name (English or localized) or its id, date is yyyy-MM-dd (empty means today)
+//   tckn can be left out when the import is made for one neighbor
+public class DisposalImporter {
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(Progress progress);
+    }
+
+    public static class Progress {
+        public final String phase; // "copy", "insert" or "done"
+        public final long read;
+        public final long rejected;
+        public final double rowsPerSecond;
+
+        Progress(String phase, long read, long rejected, double rowsPerSecond) {
+            this.phase = phase;
+            this.read = read;
+            this.rejected = rejected;
+            this.rowsPerSecond = rowsPerSecond;
+        }
+    }
+
+    public static class ImportResult {
+        public long read;
+        public long imported;
+        public long rejected;
+        public long millis;
+        public Path rejectFile; // null if every row is imported
+
+        public double getRowsPerSecond() {
+            return (millis == 0) ? read : read * 1000.0 / millis;
+        }
+    }
+
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+    private static final int PROGRESS_EVERY = 10_000;
+
+    // onlyTckn: when not null every row belongs to this neighbor, rows of other neighbors are rejected
+    public static ImportResult importCsv(Path csv, String onlyTckn, ProgressListener listener) throws Exception {
+        Map<String, DisposalType> types = typeLookup(DisposalData.getAllDisposalTypesWithCoefs());
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             Quarantine quarantine = new Quarantine(csv.resolveSibling(csv.getFileName() + ".rejected.csv"));
+             Connection conn = DBConnection.connect()) {
+
+            String header = in.readLine();
+            if (header == null) throw new IllegalArgumentException(Localization.get("importemptyfile"));
+            if (header.startsWith("\uFEFF")) header = header.substring(1);
+
+            char delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+            Columns columns = new Columns(header, delimiter, onlyTckn != null);
+            LocalDate today = LocalDate.now();
+
+            conn.setAutoCommit(false);
+            CopyIn copy = null;
+            try {
+                try (Statement st = conn.createStatement()) {
+                    st.execute(Query.IMPORT_CREATE_STAGING.sql);
+                }
+                copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(Query.IMPORT_COPY.sql);
+
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_BYTES + 256);
+                String line;
+                long lineNo = 1;
+                while ((line = in.readLine()) != null) {
+                    lineNo++;
+                    if (line.isBlank()) continue;
+                    result.read++;
+
+                    String error = appendRow(buffer, line, lineNo, delimiter, columns, types, onlyTckn, today);
+                    if (error != null) {
+                        quarantine.add(lineNo, error, line);
+                        result.rejected++;
+                    }
+
+                    if (buffer.length() >= COPY_BUFFER_BYTES) {
+                        write(copy, buffer);
+                    }
+                    if (listener != null && result.read % PROGRESS_EVERY == 0) {
+                        listener.onProgress(new Progress("copy", result.read, result.rejected, rate(result.read, start)));
+                    }
+                }
+                write(copy, buffer);
+                copy.endCopy();
+
+                if (listener != null) listener.onProgress(new Progress("insert", result.read, result.rejected, rate(result.read, start)));
+                try (Statement st = conn.createStatement()) {
+                    result.imported = st.executeUpdate(Query.IMPORT_INSERT.sql);
+                }
+
+                // Rows of neighbors which do not exist are not inserted by the join above
+                try (PreparedStatement ps = Query.IMPORT_UNKNOWN_NEIGHBORS.prepare(conn);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        quarantine.add(rs.getLong("line_no"), Localization.get("importunknownneighbor"),
+                                String.join(String.valueOf(delimiter), rs.getString("tckn"), rs.getString("dID"),
+                                        rs.getString("ddate"), rs.getString("weight"), rs.getString("volume")));
+                        result.rejected++;
+                    }
+                }
+
+                conn.commit();
+            } catch (Exception e) {
+                if (copy != null && copy.isActive()) {
+                    try { copy.cancelCopy(); } catch (SQLException ex) { ex.printStackTrace(); }
+                }
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            result.rejectFile = quarantine.getFile();
+        }
+
+        result.millis = (System.nanoTime() - start) / 1_000_000;
+        if (listener != null) listener.onProgress(new Progress("done", result.read, result.rejected, result.getRowsPerSecond()));
+        return result;
+    }
+
+    // Column positions from the header
+    private static class Columns {
+        final int tckn, type, weight, volume, date, count;
+
+        Columns(String header, char delimiter, boolean tcknOptional) {
+            String[] names = split(header, delimiter);
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < names.length; i++) index.put(names[i].trim().toLowerCase(Locale.ROOT), i);
+
+            tckn = index.getOrDefault("tckn", -1);
+            type = required(index, "type");
+            weight = required(index, "weight");
+            volume = required(index, "volume");
+            date = index.getOrDefault("date", -1);
+            count = names.length;
+
+            if (tckn == -1 && !tcknOptional) throw new IllegalArgumentException(Localization.get("importmissingcolumn", "tckn"));
+        }
+
+        private static int required(Map<String, Integer> index, String name) {
+            Integer i = index.get(name);
+            if (i == null) throw new IllegalArgumentException(Localization.get("importmissingcolumn", name));
+            return i;
+        }
+    }
+
+    // Validates one line and appends it to the COPY buffer in text format, returns the error or null
+    private static String appendRow(StringBuilder buffer, String line, long lineNo, char delimiter, Columns c,
+            Map<String, DisposalType> types, String onlyTckn, LocalDate today) {
+        String[] f = split(line, delimiter);
+        if (f.length < c.count) return Localization.get("importcolumncount");
+
+        String tckn = (c.tckn == -1) ? onlyTckn : f[c.tckn].trim();
+        if (tckn.length() != 11 || !isDigits(tckn)) return Localization.get("importinvalidtckn");
+        if (onlyTckn != null && !onlyTckn.equals(tckn)) return Localization.get("importothertckn");
+
+        DisposalType type = types.get(f[c.type].trim().toLowerCase(Locale.ROOT));
+        if (type == null) return Localization.get("importunknowntype");
+
+        double weight, volume;
+        try {
+            // Turkish files use comma as decimal separator
+            weight = Double.parseDouble(f[c.weight].trim().replace(',', '.'));
+            volume = Double.parseDouble(f[c.volume].trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return Localization.get("invalidweightvolume");
+        }
+        if (!(weight > 0) || !(volume > 0) || Double.isInfinite(weight) || Double.isInfinite(volume)) {
+            return Localization.get("errorlowweightvolume");
+        }
+
+        LocalDate date = today;
+        if (c.date != -1 && !f[c.date].isBlank()) {
+            try {
+                date = LocalDate.parse(f[c.date].trim());
+            } catch (DateTimeParseException e) {
+                return Localization.get("importinvaliddate");
+            }
+            if (date.isAfter(today)) return Localization.get("importinvaliddate");
+        }
+
+        double score, cost;
+        try {
+            score = DisposalCalculator.calculateScore(type, weight, volume);
+            cost = DisposalCalculator.calculateCost(type, weight, volume);
+        } catch (ArithmeticException e) {
+            return Localization.get("invalidweightvolume"); // Too large to be stored
+        }
+
+        buffer.append(lineNo).append('\t')
+              .append(tckn).append('\t')
+              .append(type.id).append('\t')
+              .append(date).append('\t')
+              .append(weight).append('\t')
+              .append(volume).append('\t')
+              .append(score).append('\t')
+              .append(cost).append('\n');
+        return null;
+    }
+
+    private static void write(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) return;
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    // Disposal types by id, English name and names in every language
+    private static Map<String, DisposalType> typeLookup(List<DisposalType> types) {
+        Map<String, DisposalType> lookup = new HashMap<>();
+        for (DisposalType t : types) {
+            lookup.put(String.valueOf(t.id), t);
+            String name = t.getOriginalName();
+            if (name == null) continue;
+            lookup.put(name.toLowerCase(Locale.ROOT), t);
+            for (Localization.Language lang : Localization.Language.values()) {
+                String localized = Localization.getFromText(name, Localization.Language.EN, lang);
+                if (localized != null) lookup.putIfAbsent(localized.toLowerCase(Locale.ROOT), t);
+            }
+        }
+        return lookup;
+    }
+
+    // Plain split, fields are not quoted in scale exports. ';' and ',' take the fast path of String.split
+    private static String[] split(String line, char delimiter) {
+        return line.split(String.valueOf(delimiter), -1);
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static double rate(long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return (seconds == 0) ? 0 : rows / seconds;
+    }
+
+    // Rejected rows with their line number and reason, the file is created with the first rejected row
+    private static class Quarantine implements AutoCloseable {
+        private final Path file;
+        private BufferedWriter out;
+
+        Quarantine(Path file) {
+            this.file = file;
+        }
+
+        void add(long lineNo, String reason, String record) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                out.write("line;reason;record");
+                out.newLine();
+            }
+            out.write(lineNo + ";" + reason.replace(';', ',') + ";" + record);
+            out.newLine();
+        }
+
+        Path getFile() {
+            return (out == null) ? null : file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) out.close();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.List;
 import app.Localization;
 import database.AddressManager;
 import database.DBConnection;
+import database.Query;
 import gui.GuiHelper;
 
 public class ProfileData {
@@ -59,10 +60,8 @@ public class ProfileData {
     
     // Get all necessary information about neighbor
     public static NeighborProfile getNeighborProfile(String tckn) throws Exception {
-        String sql = "SELECT * FROM get_neighbor_profile(?)";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.NEIGHBOR_PROFILE.prepare(conn)) {
             
             ps.setString(1, tckn);
             ResultSet rs = ps.executeQuery();
@@ -104,21 +103,8 @@ public class ProfileData {
         CompanyProfile p = new CompanyProfile();
 
         // Company information + all reservations + all recycles
-        String sql = 
-            "SELECT c.*, " +
-            "   COALESCE(SUM(dd.weight), 0) as res_w, " +
-            "   COALESCE(SUM(dd.volume), 0) as res_v, " +
-            "   COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.weight ELSE 0 END), 0) as rec_w, " +
-            "   COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.volume ELSE 0 END), 0) as rec_v " +
-            "FROM company c " +
-            "LEFT JOIN reservation r ON c.companyid = r.cID " +
-            "LEFT JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber " +
-            "LEFT JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno " +
-            "WHERE c.taxnumber = ? " +
-            "GROUP BY c.companyid";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.COMPANY_PROFILE.prepare(conn)) {
             
             ps.setString(1, taxNumber);
             ResultSet rs = ps.executeQuery();
@@ -161,31 +147,11 @@ public class ProfileData {
         if (rangeMode == 1) interval = "1 year";
         else if (rangeMode == 2) interval = "1 month";
 
-        String sql = 
-            "SELECT " +
-            // Reservations
-            "COUNT(CASE WHEN r.reservationdate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN 1 END) as res_cnt, " +
-            "SUM(CASE WHEN r.reservationdate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN dd.weight ELSE 0 END) as res_w, " +
-            "SUM(CASE WHEN r.reservationdate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN dd.volume ELSE 0 END) as res_v, " +
-            // Recycles
-            "COUNT(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN 1 END) as rec_cnt, " +
-            "SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN dd.weight ELSE 0 END) as rec_w, " +
-            "SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN dd.volume ELSE 0 END) as rec_v, " +
-            // Score
-            "SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= CURRENT_DATE - INTERVAL '" + interval + "' THEN dd.ddscore ELSE 0 END) as total_score " +
-            "FROM company c " +
-            "JOIN reservation r ON c.companyID = r.cID " +
-            "JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber " +
-            "JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno " +
-            // Filtering
-            "WHERE c.taxnumber = ? AND " +
-            "(r.reservationdate >= CURRENT_DATE - INTERVAL '" + interval + "' " +
-            " OR (dd.rstatus = TRUE AND r.recycledate >= CURRENT_DATE - INTERVAL '" + interval + "'))";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.COMPANY_STATS.prepare(conn)) {
             
-            ps.setString(1, taxNumber);
+            ps.setString(1, interval);
+            ps.setString(2, taxNumber);
             
             ResultSet rs = ps.executeQuery();
             if(rs.next()){
@@ -207,14 +173,8 @@ public class ProfileData {
     public static List<String> getCompanyAllowedDisposalTypes(String taxNumber) throws Exception {
         List<String> allowedTypes = new ArrayList<>();
 
-        String query = "SELECT d.disposalname " +
-                       "FROM disposal d " +
-                       "JOIN company_disposal cd ON d.disposalID = cd.dID " +
-                       "JOIN company c ON cd.cID = c.companyID " +
-                       "WHERE c.taxNumber = ?";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+             PreparedStatement pstmt = Query.COMPANY_ALLOWED_DISPOSAL_TYPES.prepare(conn)) {
 
             pstmt.setString(1, taxNumber);
             
@@ -271,8 +231,7 @@ public class ProfileData {
             int finalAddressID = -1;
 
             // Check if selected address is already existing
-            String sqlCheckAddr = "SELECT addressid FROM address WHERE streetID=? AND buildingno=? AND floorno=? AND doorno=?";
-            psCheckAddr = conn.prepareStatement(sqlCheckAddr);
+            psCheckAddr = Query.FIND_ADDRESS.prepare(conn);
             psCheckAddr.setInt(1, streetID);
             psCheckAddr.setInt(2, buildingNo);
             psCheckAddr.setInt(3, floorNo);
@@ -286,9 +245,7 @@ public class ProfileData {
             	// If there is no address like that, create new one
                 rs.close(); 
                 
-                String sqlCreateAdress = "INSERT INTO address (streetID, buildingno, floorno, doorno) " +
-                                         "VALUES (?, ?, ?, ?) RETURNING addressid";
-                psCreateAddr = conn.prepareStatement(sqlCreateAdress);
+                psCreateAddr = Query.INSERT_ADDRESS.prepare(conn);
                 psCreateAddr.setInt(1, streetID);
                 psCreateAddr.setInt(2, buildingNo);
                 psCreateAddr.setInt(3, floorNo);
@@ -306,8 +263,7 @@ public class ProfileData {
             }
 
             // Update neighbor table
-            String sqlNeighbor = "UPDATE neighbor SET fname=?, mname=?, lname=?, bdate=?, email=?, contactnumber=?, addressID=? WHERE neighborid=?";
-            psNeighbor = conn.prepareStatement(sqlNeighbor);
+            psNeighbor = Query.UPDATE_NEIGHBOR.prepare(conn);
             
             psNeighbor.setString(1, fname);
             psNeighbor.setString(2, (mname.equals("") ? null : mname));
@@ -392,8 +348,7 @@ public class ProfileData {
             int finalAddressID = -1;
 
             // Address check
-            String sqlCheckAddr = "SELECT addressid FROM address WHERE streetID=? AND buildingno=? AND floorno=? AND doorno=?";
-            psCheckAddr = conn.prepareStatement(sqlCheckAddr);
+            psCheckAddr = Query.FIND_ADDRESS.prepare(conn);
             psCheckAddr.setInt(1, streetID);
             psCheckAddr.setInt(2, buildingNo);
             psCheckAddr.setInt(3, floorNo);
@@ -407,9 +362,7 @@ public class ProfileData {
                 // If no address found, create new one
                 rs.close(); 
                 
-                String sqlCreateAdress = "INSERT INTO address (streetID, buildingno, floorno, doorno) " +
-                                         "VALUES (?, ?, ?, ?) RETURNING addressid";
-                psCreateAddr = conn.prepareStatement(sqlCreateAdress);
+                psCreateAddr = Query.INSERT_ADDRESS.prepare(conn);
                 psCreateAddr.setInt(1, streetID);
                 psCreateAddr.setInt(2, buildingNo);
                 psCreateAddr.setInt(3, floorNo);
@@ -427,8 +380,7 @@ public class ProfileData {
             }
 
             // Update company table
-            String sqlCompany = "UPDATE company SET cname=?, contactnumber=?, faxnumber=?, addressID=? WHERE companyid=?";
-            psCompany = conn.prepareStatement(sqlCompany);
+            psCompany = Query.UPDATE_COMPANY.prepare(conn);
             
             psCompany.setString(1, cname);
             psCompany.setString(2, phone);
@@ -464,10 +416,8 @@ public class ProfileData {
     
     // Delete neighbor
     public static boolean deleteNeighbor(String tckn) throws Exception {
-        String sql = "DELETE FROM neighbor WHERE tckn = ?";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.DELETE_NEIGHBOR.prepare(conn)) {
             
             ps.setString(1, tckn);
             int affectedRows = ps.executeUpdate();
@@ -477,10 +427,8 @@ public class ProfileData {
     
     // Delete company
     public static boolean deleteCompany(String taxnumber) throws Exception {
-        String sql = "DELETE FROM company WHERE taxnumber = ?";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.DELETE_COMPANY.prepare(conn)) {
             
             ps.setString(1, taxnumber);
             int affectedRows = ps.executeUpdate();
@@ -490,10 +438,8 @@ public class ProfileData {
     
     public static List<DisposalRecord> getCompanyReservedDisposals(String taxNumber) throws Exception {
         List<DisposalRecord> list = new ArrayList<>();
-        String sql = "SELECT * FROM get_company_reserved_discarded_disposals_list(?)";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.COMPANY_RESERVED_DISPOSALS.prepare(conn)) {
             
             ps.setString(1, taxNumber);
             ResultSet rs = ps.executeQuery();
@@ -521,10 +467,8 @@ public class ProfileData {
     
     public static List<DisposalRecord> getCompanyRecycledDisposals(String taxNumber) throws Exception {
         List<DisposalRecord> list = new ArrayList<>();
-        String sql = "SELECT * FROM get_company_recycled_discarded_disposals_list(?)";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.COMPANY_RECYCLED_DISPOSALS.prepare(conn)) {
             
             ps.setString(1, taxNumber);
             ResultSet rs = ps.executeQuery();
@@ -551,15 +495,8 @@ public class ProfileData {
     }
     
     public static String getUserNeighborhoodName(String tckn) throws Exception {
-        String sql = "SELECT nh.neighborhoodname " + 
-                     "FROM neighbor n " +
-                     "JOIN address a ON n.addressID = a.addressid " +
-                     "JOIN street s ON a.streetID = s.streetid " +
-                     "JOIN neighborhood nh ON s.neighborhoodID = nh.neighborhoodid " +
-                     "WHERE n.tckn = ?";
-                     
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.USER_NEIGHBORHOOD_NAME.prepare(conn)) {
             
             ps.setString(1, tckn);
             ResultSet rs = ps.executeQuery();
@@ -576,28 +513,15 @@ public class ProfileData {
     public static UserStats getUserStats(String tckn, int rangeMode) throws Exception {
         UserStats stats = new UserStats();
         
-        String dateFilter = "";
-        if (rangeMode == 1) {
-            dateFilter = " AND dd.ddate >= CURRENT_DATE - INTERVAL '1 year' ";
-        } else if (rangeMode == 2) {
-            dateFilter = " AND dd.ddate >= CURRENT_DATE - INTERVAL '1 month' ";
-        }
-
-        String sql = 
-            "SELECT " +
-            "COUNT(*) as cnt, " +
-            "SUM(dd.weight) as sum_w, " +
-            "SUM(dd.volume) as sum_v, " +
-            "SUM(CASE WHEN dd.rstatus = TRUE THEN dd.ddscore ELSE 0 END) as sum_s, " +
-            "COUNT(CASE WHEN dd.rstatus = TRUE THEN 1 END) as recycled_cnt, " +
-            "COUNT(rd.ddnumber) as reserved_cnt " +
-            "FROM discarded_disposal dd " +
-            "LEFT JOIN reservation_disposal rd ON dd.ddno = rd.ddnumber " +
-            "WHERE dd.neighbortckn = ?" + dateFilter;
+        // Null interval means all time
+        String interval = null;
+        if (rangeMode == 1) interval = "1 year";
+        else if (rangeMode == 2) interval = "1 month";
 
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, tckn);
+             PreparedStatement ps = Query.USER_STATS.prepare(conn)) {
+            ps.setString(1, interval);
+            ps.setString(2, tckn);
             ResultSet rs = ps.executeQuery();
             if(rs.next()){
                 stats.totalCount = rs.getInt("cnt");
@@ -616,10 +540,8 @@ public class ProfileData {
         List<DisposalRecord> list = new java.util.ArrayList<>();
         
         // Function to get disposals a specific neighbor discarded
-        String sql = "SELECT * FROM get_user_history_filtered(?, ?)";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {  
+             PreparedStatement ps = Query.USER_HISTORY.prepare(conn)) {  
         	
             ps.setString(1, tckn);
             ps.setInt(2, daysLimit);
@@ -637,13 +559,10 @@ public class ProfileData {
                 // not localizable texts
                 boolean isRecycled = "Dönüştürüldü".equals(statusText);
                 boolean isReserved = "Rezerve".equals(statusText) || isRecycled; 
-                
-                // Find localized version of disposal type name
-                String localizedTypeName = Localization.findLocalizedDisposalTypeName(typeName);
 
                 list.add(new DisposalRecord(
                     ddNo,              // ddno
-                    localizedTypeName, // name
+                    typeName,          // name (localized when shown)
                     weight,            // w
                     volume,            // v
                     score,             // s
@@ -3,31 +3,32 @@ package data;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import data.DisposalData.DisposalRecord;
+import data.DisposalData.FeedCursor;
+import data.DisposalData.FeedPage;
 import database.DBConnection;
+import database.Query;
 
 public class ReservationData {
 	
 	public static List<DisposalRecord> getLastReservations(int last) throws Exception {
+        return getReservationsPage(null, last).records;
+    }
+	
+	// Returns the page of reservations after given cursor (null for the newest ones)
+	public static FeedPage getReservationsPage(FeedCursor after, int pageSize) throws Exception {
         List<DisposalRecord> list = new ArrayList<>();
-        String sql = 
-            "SELECT dd.ddno, d.disposalname, dd.weight, dd.volume, dd.ddscore, dd.ddate, r.reservationdate, r.recycledate, dd.rstatus, " +
-                   "c.cname " +
-            "FROM reservation r " +
-            "JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber " +
-            "JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno " +
-            "JOIN disposal d ON dd.dID = d.disposalID " +
-            "JOIN company c ON r.cID = c.companyID " +
-            "ORDER BY r.reservationdate DESC LIMIT " + last;
 
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+             PreparedStatement ps = Query.RESERVATIONS_PAGE.prepare(conn)) {
+            DisposalData.bindPage(ps, after, pageSize);
             
+            ResultSet rs = ps.executeQuery();
             while (rs.next()) {
                 list.add(new DisposalRecord(
                     rs.getInt("ddno"),
@@ -46,19 +47,34 @@ public class ReservationData {
             }
         }
         
-        return list;
+        return DisposalData.toPage(list, pageSize, r -> r.resDate);
     }
 	
 	public static boolean cancelReservation(int wasteID) throws Exception {    
-        String sql = 
-            "DELETE FROM reservation WHERE reservationNo = (" +
-            "   SELECT rnumber FROM reservation_disposal WHERE ddnumber = ? LIMIT 1" +
-            ")";
-            
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.CANCEL_RESERVATION.prepare(conn)) {
             ps.setInt(1, wasteID);
             return ps.executeUpdate() > 0;
         }
     }
+	
+	// Cancels the company's reservations in one statement, value is false for the ones which are not
+	// reserved by this company anymore or already recycled
+	public static Map<Integer, Boolean> cancelReservations(String taxNumber, List<Integer> wasteIDs) throws Exception {
+        Map<Integer, Boolean> results = new LinkedHashMap<>();
+        if (wasteIDs.isEmpty()) return results;
+        for (int id : wasteIDs) results.put(id, false);
+        
+        try (Connection conn = DBConnection.connect();
+             PreparedStatement ps = Query.CANCEL_RESERVATIONS.prepare(conn)) {
+
+            ps.setString(1, taxNumber);
+            ps.setArray(2, conn.createArrayOf("INTEGER", wasteIDs.toArray()));
+            
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) results.put(rs.getInt(1), true);
+            }
+        }
+        return results;
+    }
 }
@@ -16,17 +16,8 @@ public class AddressManager {
     
     public static AddressDetails getAddressDetails(int addressID) throws Exception {
         AddressDetails details = new AddressDetails();
-        String sql = 
-            "SELECT a.buildingno, a.floorno, a.doorno, a.streetID, " +
-            "       s.neighborhoodID, n.districtID, d.provinceID " +
-            "FROM address a " +
-            "JOIN street s ON a.streetID = s.streetid " +
-            "JOIN neighborhood n ON s.neighborhoodID = n.neighborhoodid " +
-            "JOIN district d ON n.districtID = d.districtid " +
-            "WHERE a.addressid = ?";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.ADDRESS_DETAILS.prepare(conn)) {
             
             ps.setInt(1, addressID);
             
@@ -46,14 +37,36 @@ public class AddressManager {
         return details;
     }
     
+    // Address lists almost never change, so they are loaded once and then served from memory
+    private static final ReferenceCache<Integer, List<ComboItem>> provinceCache = new ReferenceCache<>("provinces", _ -> List.copyOf(loadProvinces()));
+    private static final ReferenceCache<Integer, List<ComboItem>> districtCache = new ReferenceCache<>("districts", id -> List.copyOf(loadDistricts(id)));
+    private static final ReferenceCache<Integer, List<ComboItem>> neighborhoodCache = new ReferenceCache<>("neighborhoods", id -> List.copyOf(loadNeighborhoods(id)));
+    private static final ReferenceCache<Integer, List<ComboItem>> streetCache = new ReferenceCache<>("streets", id -> List.copyOf(loadStreets(id)));
+    
+    public static List<ComboItem> getProvinces() throws Exception { return provinceCache.get(0); }
+    public static List<ComboItem> getDistricts(int provinceId) throws Exception { return districtCache.get(provinceId); }
+    public static List<ComboItem> getNeighborhoods(int districtId) throws Exception { return neighborhoodCache.get(districtId); }
+    public static List<ComboItem> getStreets(int neighborhoodId) throws Exception { return streetCache.get(neighborhoodId); }
+    
+    // Memory only lookups, null if the list is not loaded yet
+    public static List<ComboItem> getCachedDistricts(int provinceId) { return districtCache.peek(provinceId); }
+    public static List<ComboItem> getCachedNeighborhoods(int districtId) { return neighborhoodCache.peek(districtId); }
+    public static List<ComboItem> getCachedStreets(int neighborhoodId) { return streetCache.peek(neighborhoodId); }
+    
+    public static void invalidateAddressCache() {
+        provinceCache.invalidateAll();
+        districtCache.invalidateAll();
+        neighborhoodCache.invalidateAll();
+        streetCache.invalidateAll();
+    }
+    
     // Get all provinces
-    public static List<ComboItem> getProvinces() throws Exception {
+    private static List<ComboItem> loadProvinces() throws Exception {
         List<ComboItem> list = new ArrayList<>();
-        String sql = "SELECT provinceid, provincename FROM province ORDER BY provincename ASC";
 
         try (Connection conn = DBConnection.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = Query.PROVINCES.prepare(conn);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
                 list.add(new ComboItem(rs.getInt("provinceid"), rs.getString("provincename")));
@@ -64,12 +77,10 @@ public class AddressManager {
     }
 
     // Get all districts in given province
-    public static List<ComboItem> getDistricts(int cityId) throws Exception {
+    private static List<ComboItem> loadDistricts(int cityId) throws Exception {
         List<ComboItem> list = new ArrayList<>();
-        String sql = "SELECT districtid, districtname FROM district WHERE provinceID = ? ORDER BY districtname ASC";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.DISTRICTS.prepare(conn)) {
             
             ps.setInt(1, cityId);
             
@@ -84,12 +95,10 @@ public class AddressManager {
     }
 
     // Get all neighborhoods in given district
-    public static List<ComboItem> getNeighborhoods(int districtId) throws Exception {
+    private static List<ComboItem> loadNeighborhoods(int districtId) throws Exception {
         List<ComboItem> list = new ArrayList<>();
-        String sql = "SELECT neighborhoodid, neighborhoodname FROM neighborhood WHERE districtID = ? ORDER BY neighborhoodname ASC";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.NEIGHBORHOODS.prepare(conn)) {
             
             ps.setInt(1, districtId);
             
@@ -104,12 +113,10 @@ public class AddressManager {
     }
 
     // Get all streets in given neighborhood
-    public static List<ComboItem> getStreets(int neighborhoodId) throws Exception {
+    private static List<ComboItem> loadStreets(int neighborhoodId) throws Exception {
         List<ComboItem> list = new ArrayList<>();
-        String sql = "SELECT streetid, streetname FROM street WHERE neighborhoodID = ? ORDER BY streetname ASC";
-
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = Query.STREETS.prepare(conn)) {
             
             ps.setInt(1, neighborhoodId);
             
@@ -126,10 +133,8 @@ public class AddressManager {
     // Register given address into database
     public static int registerAddress(int streetId, int buildingNo, int floorNo, int doorNo) throws Exception {
         // Check uniqueness of given address
-        String checkSql = "SELECT addressid FROM address WHERE streetID=? AND buildingno=? AND floorno =? AND doorno=?";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(checkSql)) {
+             PreparedStatement ps = Query.FIND_ADDRESS.prepare(conn)) {
             
             ps.setInt(1, streetId);
             ps.setInt(2, buildingNo);
@@ -144,10 +149,8 @@ public class AddressManager {
         }
 
         // If unique, insert into database
-        String insertSql = "INSERT INTO address (streetID, buildingno, floorno, doorno) VALUES (?, ?, ?, ?) RETURNING addressid";
-        
         try (Connection conn = DBConnection.connect();
-             PreparedStatement ps = conn.prepareStatement(insertSql)) {
+             PreparedStatement ps = Query.INSERT_ADDRESS.prepare(conn)) {
             
             ps.setInt(1, streetId);
             ps.setInt(2, buildingNo);
@@ -167,15 +170,9 @@ public class AddressManager {
     // Get address as a string both for companies and neighbors
     public static String getAddressStr(Connection conn, int ID, boolean isNeighbor) {
         int addressID = -1;
-        String addressIdSql;
+        Query addressIdQuery = isNeighbor ? Query.NEIGHBOR_ADDRESS_ID : Query.COMPANY_ADDRESS_ID;
         
-        if (isNeighbor) {
-            addressIdSql = "SELECT addressID FROM neighbor WHERE neighborid = ?";
-        } else {
-            addressIdSql = "SELECT addressID FROM company WHERE companyid = ?";
-        }
-        
-        try (PreparedStatement ps = conn.prepareStatement(addressIdSql)) {
+        try (PreparedStatement ps = addressIdQuery.prepare(conn)) {
             ps.setInt(1, ID);
             
             try (ResultSet rs = ps.executeQuery()) {
@@ -193,15 +190,7 @@ public class AddressManager {
         }
         
         StringBuilder sb = new StringBuilder();
-        String addressStrSql = "SELECT adr.buildingno, adr.floorno, adr.doorno, st.streetname, ng.neighborhoodname, d.districtname, p.provincename "
-                            + "FROM address adr "
-                            + "JOIN street st ON st.streetid = adr.streetID "
-                            + "JOIN neighborhood ng ON ng.neighborhoodid = st.neighborhoodID "
-                            + "JOIN district d ON d.districtid = ng.districtID "
-                            + "JOIN province p ON p.provinceid = d.provinceID "
-                            + "WHERE addressid = ?";
-        
-        try (PreparedStatement ps = conn.prepareStatement(addressStrSql)) {
+        try (PreparedStatement ps = Query.ADDRESS_TEXT.prepare(conn)) {
             ps.setInt(1, addressID);
             
             try (ResultSet rs = ps.executeQuery()) {
@@ -0,0 +1,212 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+// Push based change events from the database (LISTEN greenhood_changes, see the LIVE UPDATES part of init.sql).
+// One dedicated connection outside of the pool is opened with the first subscriber and closed with the last one.
+// Subscribers are called on the listener thread. After the connection is lost and opened again, missed
+// notifications cannot be known, so every subscriber gets a RESYNC event to reload its data.
+public class ChangeNotifier {
+
+	public static final String CHANNEL = "greenhood_changes";
+
+	// -Dgreenhood.db.notify=false turns live updates off, panels are refreshed by hand only
+	public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("greenhood.db.notify", "true"));
+
+	private static final int POLL_MILLIS = 1000;
+	private static final long MAX_RETRY_MILLIS = 30_000;
+
+	public enum Table {
+		DISPOSAL("dd"), RESERVATION("r"), RESERVATION_DISPOSAL("rd"), RESYNC("");
+
+		final String code;
+
+		Table(String code) {
+			this.code = code;
+		}
+
+		static Table of(String code) {
+			for (Table t : values()) {
+				if (t.code.equals(code)) return t;
+			}
+			return null;
+		}
+	}
+
+	public enum Operation {
+		INSERT, UPDATE, DELETE, RESYNC
+	}
+
+	public static class ChangeEvent {
+		public static final ChangeEvent RESYNC = new ChangeEvent(Table.RESYNC, Operation.RESYNC, "", null);
+
+		public final Table table;
+		public final Operation op;
+		public final String owner; // Neighbor TCKN for disposals, company tax number for reservations ("" if unknown)
+		public final List<Integer> ids; // ddno (reservationNo for RESERVATION), null when all rows may be changed
+
+		ChangeEvent(Table table, Operation op, String owner, List<Integer> ids) {
+			this.table = table;
+			this.op = op;
+			this.owner = owner;
+			this.ids = ids;
+		}
+
+		public boolean isAll() {
+			return ids == null;
+		}
+
+		public boolean contains(int id) {
+			return ids == null || ids.contains(id);
+		}
+
+		// <table>:<op>:<owner>:<ids>, null for unknown payloads
+		static ChangeEvent parse(String payload) {
+			String[] parts = payload.split(":", -1);
+			if (parts.length != 4) return null;
+
+			Table table = Table.of(parts[0]);
+			if (table == null || table == Table.RESYNC) return null;
+
+			Operation op = switch (parts[1]) {
+				case "I" -> Operation.INSERT;
+				case "U" -> Operation.UPDATE;
+				case "D" -> Operation.DELETE;
+				default -> null;
+			};
+			if (op == null) return null;
+
+			List<Integer> ids = null;
+			if (!"*".equals(parts[3])) {
+				ids = new ArrayList<>();
+				try {
+					for (String id : parts[3].split(",")) {
+						if (!id.isEmpty()) ids.add(Integer.parseInt(id));
+					}
+				} catch (NumberFormatException e) {
+					return null;
+				}
+				ids = Collections.unmodifiableList(ids);
+			}
+			return new ChangeEvent(table, op, parts[2].trim(), ids);
+		}
+
+		@Override
+		public String toString() {
+			return table + " " + op + " " + owner + " " + (ids == null ? "*" : ids);
+		}
+	}
+
+	private static final List<Consumer<ChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+	private static final List<Consumer<ChangeEvent>> observers = new CopyOnWriteArrayList<>();
+	private static Thread listener;
+	private static volatile Connection conn;
+
+	// Returns the action which removes the subscription
+	public static synchronized Runnable subscribe(Consumer<ChangeEvent> subscriber) {
+		subscribers.add(subscriber);
+		if (ENABLED && listener == null) {
+			listener = new Thread(ChangeNotifier::listen, "greenhood-change-listener");
+			listener.setDaemon(true);
+			listener.start();
+		}
+		return () -> unsubscribe(subscriber);
+	}
+
+	// Gets the events while the listener runs for the subscribers but does not start it (e.g. cache invalidation).
+	// Observers are called before the subscribers, so what they invalidate is already gone when panels reload.
+	public static void observe(Consumer<ChangeEvent> observer) {
+		observers.add(observer);
+	}
+
+	private static synchronized void unsubscribe(Consumer<ChangeEvent> subscriber) {
+		subscribers.remove(subscriber);
+		if (subscribers.isEmpty()) stop();
+	}
+
+	public static synchronized void stop() {
+		if (listener == null) return;
+		listener.interrupt();
+		listener = null;
+		closeQuietly(conn); // Wakes up the thread if it waits on the socket
+	}
+
+	private static void listen() {
+		Thread self = Thread.currentThread();
+		long retryMillis = 1000;
+		boolean reconnected = false;
+
+		while (!self.isInterrupted()) {
+			try (Connection c = DriverManager.getConnection(System.getProperty("greenhood.db.url", Variables.URL))) {
+				conn = c;
+				try (Statement st = c.createStatement()) {
+					st.execute("LISTEN " + CHANNEL);
+				}
+				PGConnection pg = c.unwrap(PGConnection.class);
+
+				retryMillis = 1000;
+				if (reconnected) dispatch(ChangeEvent.RESYNC);
+
+				while (!self.isInterrupted()) {
+					PGNotification[] notifications = pg.getNotifications(POLL_MILLIS);
+					if (notifications == null) continue;
+
+					for (PGNotification n : notifications) {
+						ChangeEvent event = ChangeEvent.parse(n.getParameter());
+						if (event != null) dispatch(event);
+						else System.err.println("UNKNOWN CHANGE NOTIFICATION: " + n.getParameter());
+					}
+				}
+			} catch (SQLException e) {
+				if (self.isInterrupted()) break;
+				System.err.println("CHANGE LISTENER DISCONNECTED (" + e.getSQLState() + "), retry in " + retryMillis + " ms");
+				reconnected = true;
+				try {
+					Thread.sleep(retryMillis);
+				} catch (InterruptedException ie) {
+					break;
+				}
+				retryMillis = Math.min(retryMillis * 2, MAX_RETRY_MILLIS);
+			} finally {
+				conn = null;
+			}
+		}
+	}
+
+	private static void dispatch(ChangeEvent event) {
+		for (Consumer<ChangeEvent> o : observers) {
+			try {
+				o.accept(event);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+		for (Consumer<ChangeEvent> s : subscribers) {
+			try {
+				s.accept(event);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static void closeQuietly(Connection c) {
+		if (c == null) return;
+		try {
+			c.close();
+		} catch (SQLException e) {
+			// Already closed
+		}
+	}
+}
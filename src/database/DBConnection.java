@@ -2,15 +2,30 @@ package database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import app.AppEvents;
+import app.AppEvents.PoolWaitEvent;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 
 public class DBConnection {
 
 	// Static pooling object
     private static HikariDataSource ds;
     private static final String CLIENT_IDENTITY;
+    
+    // Optional observer of the time spent waiting for a pooled connection (nanoseconds)
+    private static volatile LongConsumer acquireObserver;
+    
+    // Physical connections opened while the login screen is shown (see warmUp)
+    private static final int POOL_SIZE = Integer.getInteger("greenhood.db.poolSize", 5);
+    private static final int WARMUP_CONNECTIONS = Integer.getInteger("greenhood.db.warmupConnections", 2);
+    private static CompletableFuture<Void> warmUp;
 
     // Only works once when class called
     static {
@@ -18,19 +33,33 @@ public class DBConnection {
         CLIENT_IDENTITY = rawUser.replaceAll("[^a-zA-Z0-9_]", ""); 
     	
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(Variables.URL);
+        // URL can be overridden to run against another database (e.g. a local load test instance)
+        config.setJdbcUrl(System.getProperty("greenhood.db.url", Variables.URL));
         config.setDriverClassName("org.postgresql.Driver");
         
         // Addition for debug
         config.setConnectionTimeout(5000); 
         config.setMinimumIdle(0);
+        // Pool is not connected here (the first connection was closed right away with minimum idle 0),
+        // warmUp opens the connections in the background instead of the first class touching DBConnection
+        config.setInitializationFailTimeout(-1);
         
-        config.setMaximumPoolSize(5); // Maximum Concurrent Connection for One User
+        config.setMaximumPoolSize(POOL_SIZE); // Maximum Concurrent Connection for One User
         //config.setMinimumIdle(5); // Number of Ready Connections Waiting to Serve
         config.setMaxLifetime(1800000); // Connection lifetime (ms)
         config.setKeepaliveTime(30000); // Checks connection in every x ms
         config.setIdleTimeout(600000); // Connection idle lifetime (ms)
         config.setLeakDetectionThreshold(3000); // Connection leak tolerance (ms)
+        
+        // Runs once for every new physical connection, so audit identity is set for the whole session
+        // (SET LOCAL outside of a transaction has no effect, and it costs an extra round trip on every borrow)
+        config.setConnectionInitSql("SET \"app.current_user\" = 'USER_" + CLIENT_IDENTITY + "'");
+        
+        // pgjdbc statement cache (per physical connection), every statement in Query is parameterized and reused
+        // so it can be prepared on the server right away instead of after default 5 executions
+        config.addDataSourceProperty("prepareThreshold", Integer.getInteger("greenhood.db.prepareThreshold", 1));
+        config.addDataSourceProperty("preparedStatementCacheQueries", Integer.getInteger("greenhood.db.statementCacheQueries", 128));
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", Integer.getInteger("greenhood.db.statementCacheSizeMiB", 5));
 
         try {
         	ds = new HikariDataSource(config);
@@ -41,20 +70,97 @@ public class DBConnection {
     }
     
 	public static Connection connect() throws SQLException {
+        // Audit identity is already applied by connection init SQL
+        PoolWaitEvent event = new PoolWaitEvent();
+        event.begin();
+        long start = System.nanoTime();
         Connection conn = ds.getConnection();
+        long waited = System.nanoTime() - start;
+        event.end();
         
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute("SET LOCAL \"app.current_user\" = 'USER_" + CLIENT_IDENTITY + "'");
-            
-        } catch (SQLException e) {
-            conn.close();
-            throw e;
+        if (event.shouldCommit()) {
+            HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+            if (pool != null) {
+                event.active = pool.getActiveConnections();
+                event.idle = pool.getIdleConnections();
+                event.waiting = pool.getThreadsAwaitingConnection();
+            }
+            event.commit();
         }
         
-        return conn;
+        LongConsumer observer = acquireObserver;
+        if (observer != null) observer.accept(waited);
+        if (QueryMetrics.ENABLED) QueryMetrics.recordAcquire(waited);
+        
+        // Statements are only wrapped when their metrics or flight recorder events are collected
+        if (!QueryMetrics.ENABLED && !AppEvents.isQueryEventEnabled()) return conn;
+        return InstrumentedConnection.wrap(conn);
+    }
+    
+    // Opens the first connections (TCP, TLS, init SQL) on its own thread, so the login does not wait for them.
+    // Started once, the same future is returned to every caller. It fails if the database cannot be reached.
+    public static synchronized CompletableFuture<Void> warmUp() {
+        if (warmUp != null) return warmUp;
+        
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                openConnections(Math.max(1, Math.min(WARMUP_CONNECTIONS, POOL_SIZE)));
+                result.complete(null);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, "greenhood-pool-warmup");
+        t.setDaemon(true);
+        t.start();
+        
+        warmUp = result;
+        return result;
+    }
+    
+    // Connections are held until all are open so each one is a new physical connection, then they stay idle
+    // in the pool. Borrowed from the data source directly, they are not pool waits of the application.
+    private static void openConnections(int count) throws SQLException {
+        if (ds == null) throw new SQLException("Database pool cannot be created!");
+        
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) opened.add(ds.getConnection());
+        } finally {
+            for (Connection c : opened) c.close();
+        }
+    }
+    
+    // Database could not be reached (connection refused, unknown host, timeout) rather than an error of a statement
+    public static boolean isNetworkError(Throwable e) {
+        if (e instanceof SQLTransientConnectionException) return true;
+        return e instanceof SQLException s && s.getSQLState() != null && s.getSQLState().startsWith("08");
+    }
+    
+    public static void setAcquireObserver(LongConsumer observer) {
+        acquireObserver = observer;
     }
     
     public static void shutdown() {
+        if (Boolean.getBoolean("greenhood.db.statementReport")) {
+            System.out.println("STATEMENT CACHE REPORT\n" + Query.report());
+        }
+        if (Boolean.getBoolean("greenhood.cache.report")) {
+            System.out.println("REFERENCE CACHE REPORT\n" + ReferenceCache.report());
+            System.out.println("DATA STORE REPORT\n" + data.DataStore.report());
+        }
+        if (QueryMetrics.ENABLED) {
+            System.out.println("QUERY METRICS REPORT\n" + QueryMetrics.report());
+            String file = System.getProperty("greenhood.db.metricsFile");
+            if (file != null) {
+                try {
+                    QueryMetrics.export(java.nio.file.Path.of(file));
+                } catch (java.io.IOException e) {
+                    System.err.println("Query metrics cannot be exported: " + e.getMessage());
+                }
+            }
+        }
+        ChangeNotifier.stop();
         if (ds != null) ds.close();
     }
 }
@@ -0,0 +1,188 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import app.AppEvents.QueryEvent;
+
+// Connection wrapper which times every statement execution and counts returned rows into QueryMetrics
+// (when enabled) and into greenhood.DbQuery flight recorder events.
+// Only statement and result set methods are intercepted, everything else (unwrap, commit, close ...)
+// goes directly to the pooled connection, so statement cache tracking and transactions work as before.
+// Every execution is recorded exactly once, queries with the rows read from their result set.
+class InstrumentedConnection {
+
+	// Rows read from the result set of one query execution. Recorded once, when the result set is exhausted or closed,
+	// or when its statement is executed again or closed, or the connection is closed. Most single row reads
+	// (if (rs.next()) ...) never close the result set, closing the statement closes only the real one.
+	private static final class PendingRows {
+		final String id;
+		final QueryEvent event;
+		long rows;
+		boolean recorded;
+
+		PendingRows(String id, QueryEvent event) {
+			this.id = id;
+			this.event = event;
+		}
+
+		void record() {
+			if (recorded) return;
+			recorded = true;
+			recordRows(id, event, rows);
+		}
+	}
+
+	// Last query of every open statement of the connection, used on one thread like the connection itself
+	private static final class OpenStatements {
+		final List<PendingRows[]> statements = new ArrayList<>();
+
+		void recordAll() {
+			for (PendingRows[] last : statements) {
+				if (last[0] != null) last[0].record();
+			}
+			statements.clear();
+		}
+	}
+
+	static Connection wrap(Connection conn) {
+		OpenStatements open = new OpenStatements();
+		return proxy(Connection.class, conn, (target, method, args) -> {
+			// Pending rows are recorded before the pooled connection closes the statements
+			if (method.getName().equals("close")) open.recordAll();
+			Object result = invoke(target, method, args);
+
+			switch (method.getName()) {
+				case "prepareStatement":
+				case "prepareCall":
+					String sql = (String) args[0];
+					Class<? extends Statement> type = method.getName().equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+					return statement(type, (Statement) result, QueryMetrics.idOf(sql), sql, open);
+				case "createStatement":
+					return statement(Statement.class, (Statement) result, null, null, open);
+				default:
+					return result;
+			}
+		});
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+		Object handle(Object target, Method method, Object[] args) throws Throwable;
+	}
+
+	private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+		InvocationHandler h = (_, method, args) -> handler.handle(target, method, args);
+		return type.cast(Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[] { type }, h));
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	// Prepared statements have their id from the start, plain statements get it from the SQL of each execute call
+	private static <T extends Statement> T statement(Class<T> type, Statement stmt, String preparedId, String preparedSql, OpenStatements open) {
+		PendingRows[] last = { null };
+		open.statements.add(last);
+		return proxy(type, stmt, (target, method, args) -> {
+			String name = method.getName();
+			if (name.equals("close")) {
+				if (last[0] != null) last[0].record();
+				open.statements.remove(last);
+				return invoke(target, method, args);
+			}
+			if (!name.startsWith("execute")) return invoke(target, method, args);
+
+			// Executing again closes the result set of the previous execution
+			if (last[0] != null) {
+				last[0].record();
+				last[0] = null;
+			}
+
+			String sql = (preparedSql == null && args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+			String id = (preparedId == null && sql != null) ? QueryMetrics.idOf(sql) : preparedId;
+			if (id == null) id = "BATCH";
+
+			QueryEvent event = new QueryEvent();
+			event.query = id;
+			event.begin();
+			long start = System.nanoTime();
+			Object result;
+			try {
+				result = invoke(target, method, args);
+			} catch (Throwable t) {
+				if (QueryMetrics.ENABLED) QueryMetrics.recordError(id);
+				event.failed = true;
+				event.commit();
+				throw t;
+			}
+			event.end();
+			if (QueryMetrics.ENABLED) QueryMetrics.recordExecution(id, System.nanoTime() - start, sql);
+
+			// Updates report their row count right away, queries when their result set is consumed
+			if (result instanceof ResultSet rs) {
+				last[0] = new PendingRows(id, event);
+				return resultSet(rs, last[0]);
+			}
+
+			long rows = -1;
+			if (result instanceof Integer n) rows = n;
+			else if (result instanceof Long n) rows = n;
+			else if (result instanceof int[] counts) rows = sum(counts);
+			else if (result instanceof long[] counts) rows = sum(counts);
+			recordRows(id, event, Math.max(0, rows));
+			return result;
+		});
+	}
+
+	// Counts next() calls, rows are recorded when the result set is exhausted or closed (or by its statement)
+	private static ResultSet resultSet(ResultSet rs, PendingRows pending) {
+		return proxy(ResultSet.class, rs, (target, method, args) -> {
+			Object result = invoke(target, method, args);
+			String name = method.getName();
+
+			if (name.equals("next") && Boolean.TRUE.equals(result)) {
+				pending.rows++;
+			}
+			else if (name.equals("next") || name.equals("close")) {
+				pending.record();
+			}
+			return result;
+		});
+	}
+
+	// Called once per query execution (see PendingRows), so every execution commits exactly one event.
+	// Event duration is still the execution time, it was ended before the rows were read
+	private static void recordRows(String id, QueryEvent event, long rows) {
+		if (QueryMetrics.ENABLED) QueryMetrics.recordRows(id, rows);
+		if (event.shouldCommit()) {
+			event.rows = rows;
+			event.commit();
+		}
+	}
+
+	private static long sum(int[] counts) {
+		long total = 0;
+		for (int c : counts) total += Math.max(0, c);
+		return total;
+	}
+
+	private static long sum(long[] counts) {
+		long total = 0;
+		for (long c : counts) total += Math.max(0, c);
+		return total;
+	}
+}
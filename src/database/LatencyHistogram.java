@@ -0,0 +1,67 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram with logarithmic buckets (about 4% precision) from 1 µs up to about an hour.
+// Memory is fixed, so it can stay enabled for the whole life of the application.
+public class LatencyHistogram {
+
+	private static final double RATIO = 1.04;
+	private static final double LOG_RATIO = Math.log(RATIO);
+	private static final int BUCKETS = 600;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+		counts.incrementAndGet(bucketOf(nanos));
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static int bucketOf(long nanos) {
+		double micros = nanos / 1000.0;
+		if (micros <= 1) return 0;
+		return Math.min(BUCKETS - 1, (int) (Math.log(micros) / LOG_RATIO));
+	}
+
+	public long getCount() { return count.sum(); }
+	public double getTotalMillis() { return totalNanos.sum() / 1_000_000.0; }
+	public double getMaxMillis() { return maxNanos.get() / 1_000_000.0; }
+
+	public double getMeanMillis() {
+		long c = getCount();
+		return (c == 0) ? 0 : getTotalMillis() / c;
+	}
+
+	// Upper bound of the bucket which holds the given percentile (0-100)
+	public double getPercentileMillis(double percentile) {
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+		if (total == 0) return 0;
+
+		long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				double upperMillis = Math.pow(RATIO, i + 1) / 1000.0;
+				return Math.min(upperMillis, getMaxMillis());
+			}
+		}
+		return getMaxMillis();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0);
+	}
+}
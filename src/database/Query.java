@@ -0,0 +1,263 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Central registry of all data layer statements. Every statement is fully parameterized,
+// so its text never changes and pgjdbc can reuse the server-side prepared plan on each connection.
+public enum Query {
+
+	// Reference data
+	DISPOSAL_TYPES("SELECT disposalID, disposalname FROM disposal ORDER BY disposalname"),
+	DISPOSAL_TYPES_WITH_COEFS("SELECT disposalID, disposalname, tcostcoef, scorecoef FROM disposal ORDER BY disposalname"),
+	COMPANY_DISPOSAL_TYPES(
+			"SELECT d.disposalID, d.disposalname " +
+			"FROM company_disposal cd " +
+			"JOIN disposal d ON cd.dID = d.disposalID " +
+			"WHERE cd.cID = ?"),
+	COMPANY_ALLOWED_DISPOSAL_TYPES(
+			"SELECT d.disposalname " +
+			"FROM disposal d " +
+			"JOIN company_disposal cd ON d.disposalID = cd.dID " +
+			"JOIN company c ON cd.cID = c.companyID " +
+			"WHERE c.taxNumber = ?"),
+
+	// Discarded disposals
+	DELETE_DISPOSAL(
+			"DELETE FROM discarded_disposal " +
+			"WHERE ddno = ? " +
+			"AND rstatus = FALSE " +
+			"AND ddno NOT IN (SELECT ddnumber FROM reservation_disposal)"),
+	// Parameters: cursor date, cursor ddno (both null for the first page), page size
+	DISPOSALS_PAGE("SELECT * FROM get_discarded_disposals_page(?, ?, ?)"),
+	RECYCLED_DISPOSALS_PAGE("SELECT * FROM get_recycled_disposals_page(?, ?, ?)"),
+	AVAILABLE_DISPOSALS("SELECT * FROM get_available_discarded_disposals_list()"),
+	AVAILABLE_DISPOSALS_FILTERED("SELECT * FROM get_available_disposals_filtered(?, ?, ?, ?, ?, ?, ?, ?, ?)"),
+	// xmin of the current snapshot, every transaction which is not visible to a read after it has a greater or equal id
+	CHANGE_WATERMARK("SELECT pg_snapshot_xmin(pg_current_snapshot())::TEXT"),
+	// Parameters: watermark, then the same parameters as AVAILABLE_DISPOSALS_FILTERED
+	COMPANY_DISPOSAL_CHANGES("SELECT * FROM get_company_disposal_changes(CAST(? AS xid8), ?, ?, ?, ?, ?, ?, ?, ?, ?)"),
+	INSERT_DISPOSAL(
+			"INSERT INTO discarded_disposal (dID, neighbortckn, weight, volume, " +
+			"tcost, ddscore, rstatus, ddate) " +
+			"VALUES (?, ?, ?, ?, ?, ?, FALSE, CURRENT_DATE)"),
+	COMPLETE_RECYCLING("UPDATE discarded_disposal SET rstatus = TRUE WHERE ddno = ?"),
+	// Parameters: tax number, ddno array. Only the company's own reservations which are not recycled yet
+	COMPLETE_RECYCLINGS(
+			"UPDATE discarded_disposal dd SET rstatus = TRUE " +
+			"FROM reservation_disposal rd " +
+			"JOIN reservation r ON rd.rnumber = r.reservationNo " +
+			"JOIN company c ON r.cID = c.companyID " +
+			"WHERE rd.ddnumber = dd.ddno AND c.taxnumber = ? AND dd.ddno = ANY(?) AND dd.rstatus = FALSE " +
+			"RETURNING dd.ddno"),
+	// Calculated by DisposalCalculator, the functions are only called by its parity check (bench/load CalculatorParity)
+	CALCULATE_SCORE("SELECT calculate_disposal_score(?, ?, ?)"),
+	CALCULATE_COST("SELECT calculate_disposal_cost(?, ?, ?)"),
+
+	// Bulk import: rows are copied into a staging table first, then inserted for the known neighbors at once
+	IMPORT_CREATE_STAGING(
+			"CREATE TEMP TABLE disposal_import (line_no BIGINT, tckn CHAR(11), dID INT, ddate DATE, " +
+			"weight NUMERIC, volume NUMERIC, ddscore NUMERIC, tcost NUMERIC) ON COMMIT DROP"),
+	IMPORT_COPY("COPY disposal_import (line_no, tckn, dID, ddate, weight, volume, ddscore, tcost) FROM STDIN"),
+	IMPORT_INSERT(
+			"INSERT INTO discarded_disposal (dID, neighbortckn, ddate, weight, volume, rstatus, ddscore, tcost) " +
+			"SELECT i.dID, i.tckn, i.ddate, i.weight, i.volume, FALSE, i.ddscore, i.tcost " +
+			"FROM disposal_import i JOIN neighbor n ON n.tckn = i.tckn " +
+			"ORDER BY i.line_no"),
+	IMPORT_UNKNOWN_NEIGHBORS(
+			"SELECT i.line_no, i.tckn, i.dID, i.ddate, i.weight, i.volume FROM disposal_import i " +
+			"WHERE NOT EXISTS (SELECT 1 FROM neighbor n WHERE n.tckn = i.tckn) " +
+			"ORDER BY i.line_no"),
+
+	// Reservations
+	// Parameters: tax number, ddno. Returns RESERVED, TAKEN or NOT_ALLOWED
+	RESERVE_DISPOSAL("SELECT reserve_discarded_disposal(?, ?)"),
+	// Parameters: tax number, ddno array. One row per ddno: dd_no, result
+	RESERVE_DISPOSALS("SELECT * FROM reserve_discarded_disposals(?, ?)"),
+	CANCEL_RESERVATION(
+			"DELETE FROM reservation WHERE reservationNo = (" +
+			"   SELECT rnumber FROM reservation_disposal WHERE ddnumber = ? LIMIT 1" +
+			")"),
+	// Parameters: tax number, ddno array. Only the company's own reservations which are not recycled yet
+	CANCEL_RESERVATIONS(
+			"DELETE FROM reservation r " +
+			"USING reservation_disposal rd, company c, discarded_disposal dd " +
+			"WHERE rd.rnumber = r.reservationNo AND r.cID = c.companyID AND dd.ddno = rd.ddnumber " +
+			"AND c.taxnumber = ? AND rd.ddnumber = ANY(?) AND dd.rstatus = FALSE " +
+			"RETURNING rd.ddnumber"),
+	RESERVATIONS_PAGE("SELECT * FROM get_reservations_page(?, ?, ?)"),
+
+	// Leader boards
+	TOP_NEIGHBORS("SELECT fname, mname, lname, tckn, total_score FROM neighbor_leaderboard_view LIMIT ?"),
+	TOP_COMPANIES("SELECT cname, taxnumber, totalScore FROM company_leaderboard_view LIMIT ?"),
+	NEIGHBORHOOD_LEADERBOARD("SELECT * FROM get_neighborhood_leaderboard(?, ?)"),
+
+	// Profiles
+	NEIGHBOR_PROFILE("SELECT * FROM get_neighbor_profile(?)"),
+	COMPANY_PROFILE(
+			"SELECT c.*, " +
+			"   COALESCE(SUM(dd.weight), 0) as res_w, " +
+			"   COALESCE(SUM(dd.volume), 0) as res_v, " +
+			"   COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.weight ELSE 0 END), 0) as rec_w, " +
+			"   COALESCE(SUM(CASE WHEN dd.rstatus = TRUE THEN dd.volume ELSE 0 END), 0) as rec_v " +
+			"FROM company c " +
+			"LEFT JOIN reservation r ON c.companyid = r.cID " +
+			"LEFT JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber " +
+			"LEFT JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno " +
+			"WHERE c.taxnumber = ? " +
+			"GROUP BY c.companyid"),
+	// Parameters: interval ('100 years', '1 year', '1 month'), tax number
+	COMPANY_STATS(
+			"SELECT " +
+			// Reservations
+			"COUNT(CASE WHEN r.reservationdate >= p.since THEN 1 END) as res_cnt, " +
+			"SUM(CASE WHEN r.reservationdate >= p.since THEN dd.weight ELSE 0 END) as res_w, " +
+			"SUM(CASE WHEN r.reservationdate >= p.since THEN dd.volume ELSE 0 END) as res_v, " +
+			// Recycles
+			"COUNT(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= p.since THEN 1 END) as rec_cnt, " +
+			"SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= p.since THEN dd.weight ELSE 0 END) as rec_w, " +
+			"SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= p.since THEN dd.volume ELSE 0 END) as rec_v, " +
+			// Score
+			"SUM(CASE WHEN dd.rstatus = TRUE AND r.recycledate >= p.since THEN dd.ddscore ELSE 0 END) as total_score " +
+			"FROM (SELECT CURRENT_DATE - CAST(? AS INTERVAL) AS since) p " +
+			"CROSS JOIN company c " +
+			"JOIN reservation r ON c.companyID = r.cID " +
+			"JOIN reservation_disposal rd ON r.reservationNo = rd.rnumber " +
+			"JOIN discarded_disposal dd ON rd.ddnumber = dd.ddno " +
+			// Filtering
+			"WHERE c.taxnumber = ? AND " +
+			"(r.reservationdate >= p.since " +
+			" OR (dd.rstatus = TRUE AND r.recycledate >= p.since))"),
+	COMPANY_RESERVED_DISPOSALS("SELECT * FROM get_company_reserved_discarded_disposals_list(?)"),
+	COMPANY_RECYCLED_DISPOSALS("SELECT * FROM get_company_recycled_discarded_disposals_list(?)"),
+	UPDATE_NEIGHBOR("UPDATE neighbor SET fname=?, mname=?, lname=?, bdate=?, email=?, contactnumber=?, addressID=? WHERE neighborid=?"),
+	UPDATE_COMPANY("UPDATE company SET cname=?, contactnumber=?, faxnumber=?, addressID=? WHERE companyid=?"),
+	DELETE_NEIGHBOR("DELETE FROM neighbor WHERE tckn = ?"),
+	DELETE_COMPANY("DELETE FROM company WHERE taxnumber = ?"),
+	USER_NEIGHBORHOOD_NAME(
+			"SELECT nh.neighborhoodname " +
+			"FROM neighbor n " +
+			"JOIN address a ON n.addressID = a.addressid " +
+			"JOIN street s ON a.streetID = s.streetid " +
+			"JOIN neighborhood nh ON s.neighborhoodID = nh.neighborhoodid " +
+			"WHERE n.tckn = ?"),
+	// Parameters: interval ('1 year', '1 month' or null for all time), tckn
+	USER_STATS(
+			"SELECT " +
+			"COUNT(*) as cnt, " +
+			"SUM(dd.weight) as sum_w, " +
+			"SUM(dd.volume) as sum_v, " +
+			"SUM(CASE WHEN dd.rstatus = TRUE THEN dd.ddscore ELSE 0 END) as sum_s, " +
+			"COUNT(CASE WHEN dd.rstatus = TRUE THEN 1 END) as recycled_cnt, " +
+			"COUNT(rd.ddnumber) as reserved_cnt " +
+			"FROM (SELECT CAST(? AS INTERVAL) AS span) p " +
+			"CROSS JOIN discarded_disposal dd " +
+			"LEFT JOIN reservation_disposal rd ON dd.ddno = rd.ddnumber " +
+			"WHERE dd.neighbortckn = ? AND (p.span IS NULL OR dd.ddate >= CURRENT_DATE - p.span)"),
+	USER_HISTORY("SELECT * FROM get_user_history_filtered(?, ?)"),
+
+	// Addresses
+	ADDRESS_DETAILS(
+			"SELECT a.buildingno, a.floorno, a.doorno, a.streetID, " +
+			"       s.neighborhoodID, n.districtID, d.provinceID " +
+			"FROM address a " +
+			"JOIN street s ON a.streetID = s.streetid " +
+			"JOIN neighborhood n ON s.neighborhoodID = n.neighborhoodid " +
+			"JOIN district d ON n.districtID = d.districtid " +
+			"WHERE a.addressid = ?"),
+	PROVINCES("SELECT provinceid, provincename FROM province ORDER BY provincename ASC"),
+	DISTRICTS("SELECT districtid, districtname FROM district WHERE provinceID = ? ORDER BY districtname ASC"),
+	NEIGHBORHOODS("SELECT neighborhoodid, neighborhoodname FROM neighborhood WHERE districtID = ? ORDER BY neighborhoodname ASC"),
+	STREETS("SELECT streetid, streetname FROM street WHERE neighborhoodID = ? ORDER BY streetname ASC"),
+	FIND_ADDRESS("SELECT addressid FROM address WHERE streetID=? AND buildingno=? AND floorno=? AND doorno=?"),
+	INSERT_ADDRESS("INSERT INTO address (streetID, buildingno, floorno, doorno) VALUES (?, ?, ?, ?) RETURNING addressid"),
+	NEIGHBOR_ADDRESS_ID("SELECT addressID FROM neighbor WHERE neighborid = ?"),
+	COMPANY_ADDRESS_ID("SELECT addressID FROM company WHERE companyid = ?"),
+	ADDRESS_TEXT(
+			"SELECT adr.buildingno, adr.floorno, adr.doorno, st.streetname, ng.neighborhoodname, d.districtname, p.provincename " +
+			"FROM address adr " +
+			"JOIN street st ON st.streetid = adr.streetID " +
+			"JOIN neighborhood ng ON ng.neighborhoodid = st.neighborhoodID " +
+			"JOIN district d ON d.districtid = ng.districtID " +
+			"JOIN province p ON p.provinceid = d.provinceID " +
+			"WHERE addressid = ?");
+
+	public final String sql;
+
+	Query(String sql) {
+		this.sql = sql;
+	}
+
+	// Statement cache tracking
+	// <Physical connection, Queries already prepared on it>
+	private static final Map<Connection, Set<Query>> preparedOnConnection = Collections.synchronizedMap(new WeakHashMap<>());
+	private static final Map<Query, AtomicLong> hits = new EnumMap<>(Query.class);
+	private static final Map<Query, AtomicLong> misses = new EnumMap<>(Query.class);
+
+	static {
+		for (Query q : values()) {
+			hits.put(q, new AtomicLong());
+			misses.put(q, new AtomicLong());
+		}
+	}
+
+	public PreparedStatement prepare(Connection conn) throws SQLException {
+		recordUse(conn);
+		return conn.prepareStatement(sql);
+	}
+
+	public PreparedStatement prepare(Connection conn, int autoGeneratedKeys) throws SQLException {
+		recordUse(conn);
+		return conn.prepareStatement(sql, autoGeneratedKeys);
+	}
+
+	// Hit: the same statement has already been prepared on this physical connection,
+	// so pgjdbc serves it from its statement cache instead of parsing it again
+	private void recordUse(Connection conn) {
+		Connection physical;
+		try {
+			physical = conn.unwrap(Connection.class);
+		} catch (SQLException e) {
+			physical = conn;
+		}
+		if (physical == null) physical = conn;
+
+		boolean isNew;
+		synchronized (preparedOnConnection) {
+			isNew = preparedOnConnection.computeIfAbsent(physical, _ -> new HashSet<>()).add(this);
+		}
+
+		if (isNew) misses.get(this).incrementAndGet();
+		else hits.get(this).incrementAndGet();
+	}
+
+	public long getHits() { return hits.get(this).get(); }
+	public long getMisses() { return misses.get(this).get(); }
+
+	// Statement cache hit rates of all queries which are used at least once
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		long totalHits = 0, totalMisses = 0;
+
+		sb.append(String.format("%-32s %10s %10s %8s%n", "QUERY", "HITS", "MISSES", "HIT %"));
+		for (Query q : values()) {
+			long h = q.getHits(), m = q.getMisses();
+			if (h + m == 0) continue;
+			totalHits += h;
+			totalMisses += m;
+			sb.append(String.format("%-32s %10d %10d %7.1f%%%n", q.name(), h, m, 100.0 * h / (h + m)));
+		}
+
+		long total = totalHits + totalMisses;
+		sb.append(String.format("%-32s %10d %10d %7.1f%%%n", "TOTAL", totalHits, totalMisses, total == 0 ? 0.0 : 100.0 * totalHits / total));
+		return sb.toString();
+	}
+}
@@ -0,0 +1,162 @@
+package database;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per statement latency, row count and error metrics collected by InstrumentedConnection.
+// Enabled with -Dgreenhood.db.metrics=true. Statements are keyed by their Query name, other SQL
+// gets a stable id from its text with literals removed, so the same statement always has the same id.
+//
+//   -Dgreenhood.db.slowQueryMs=250       statements slower than this are logged to stderr (0 disables)
+//   -Dgreenhood.db.metricsFile=path.csv  metrics are exported here on shutdown
+public class QueryMetrics {
+
+	public static final boolean ENABLED = Boolean.getBoolean("greenhood.db.metrics");
+	public static final long SLOW_QUERY_NANOS = Long.getLong("greenhood.db.slowQueryMs", 250) * 1_000_000L;
+
+	// Id of the time spent waiting for a pooled connection in DBConnection.connect()
+	public static final String POOL_ACQUIRE = "POOL_ACQUIRE";
+
+	public static class Stats {
+		public final String id;
+		public final LatencyHistogram latency = new LatencyHistogram();
+		private final LongAdder rows = new LongAdder();
+		private final AtomicLong maxRows = new AtomicLong();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder slow = new LongAdder();
+
+		Stats(String id) {
+			this.id = id;
+		}
+
+		public long getRows() { return rows.sum(); }
+		public long getMaxRows() { return maxRows.get(); }
+		public long getErrors() { return errors.sum(); }
+		public long getSlowCount() { return slow.sum(); }
+	}
+
+	private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+	// <SQL text, Query name>
+	private static final Map<String, String> queryIds = new HashMap<>();
+
+	// Last statement which failed on this thread, so error handlers can tell which query it was
+	private static final ThreadLocal<String> lastError = new ThreadLocal<>();
+
+	static {
+		for (Query q : Query.values()) queryIds.put(q.sql, q.name());
+	}
+
+	public static String idOf(String sql) {
+		String id = queryIds.get(sql);
+		if (id != null) return id;
+
+		// Literals are removed so the same ad hoc statement with other values gets the same id
+		String normalized = sql.replaceAll("'([^']|'')*'", "?").replaceAll("\\b\\d+\\b", "?").replaceAll("\\s+", " ").trim();
+		String verb = normalized.isEmpty() ? "SQL" : normalized.split(" ", 2)[0].toUpperCase();
+		return verb + "_" + String.format("%08X", normalized.hashCode());
+	}
+
+	public static Stats get(String id) {
+		return stats.computeIfAbsent(id, Stats::new);
+	}
+
+	static void recordAcquire(long nanos) {
+		get(POOL_ACQUIRE).latency.record(nanos);
+	}
+
+	static void recordExecution(String id, long nanos, String sql) {
+		Stats s = get(id);
+		s.latency.record(nanos);
+
+		if (SLOW_QUERY_NANOS > 0 && nanos >= SLOW_QUERY_NANOS) {
+			s.slow.increment();
+			// Only the statement text is logged, parameter values may contain personal data
+			String text = (sql == null) ? "" : sql.replaceAll("\\s+", " ");
+			if (text.length() > 200) text = text.substring(0, 200) + "...";
+			System.err.printf("SLOW QUERY %s %.1f ms [%s] %s%n", id, nanos / 1e6, Thread.currentThread().getName(), text);
+		}
+	}
+
+	static void recordRows(String id, long rows) {
+		Stats s = get(id);
+		s.rows.add(rows);
+		s.maxRows.accumulateAndGet(rows, Math::max);
+	}
+
+	static void recordError(String id) {
+		get(id).errors.increment();
+		lastError.set(id);
+	}
+
+	// Returns and clears the id of the last failed statement of the current thread (null if unknown)
+	public static String takeLastError() {
+		String id = lastError.get();
+		lastError.remove();
+		return id;
+	}
+
+	// Slowest statements (by total time) first
+	public static List<Stats> snapshot() {
+		List<Stats> list = new ArrayList<>(stats.values());
+		list.sort(Comparator.comparingDouble((Stats s) -> s.latency.getTotalMillis()).reversed());
+		return list;
+	}
+
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-32s %8s %10s %9s %9s %9s %9s %10s %7s %6s%n",
+				"QUERY", "COUNT", "TOTAL MS", "MEAN MS", "P50 MS", "P99 MS", "MAX MS", "ROWS", "ERRORS", "SLOW"));
+		for (Stats s : snapshot()) {
+			LatencyHistogram h = s.latency;
+			sb.append(String.format("%-32s %8d %10.1f %9.2f %9.2f %9.2f %9.2f %10d %7d %6d%n",
+					s.id, h.getCount(), h.getTotalMillis(), h.getMeanMillis(), h.getPercentileMillis(50),
+					h.getPercentileMillis(99), h.getMaxMillis(), s.getRows(), s.getErrors(), s.getSlowCount()));
+		}
+		return sb.toString();
+	}
+
+	// Writes metrics of all statements as CSV
+	public static void export(Path file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			out.println("query;count;total_ms;mean_ms;p50_ms;p90_ms;p99_ms;max_ms;rows;max_rows;errors;slow");
+			for (Stats s : snapshot()) {
+				LatencyHistogram h = s.latency;
+				out.println(String.join(";", s.id, Long.toString(h.getCount()),
+						fmt(h.getTotalMillis()), fmt(h.getMeanMillis()), fmt(h.getPercentileMillis(50)),
+						fmt(h.getPercentileMillis(90)), fmt(h.getPercentileMillis(99)), fmt(h.getMaxMillis()),
+						Long.toString(s.getRows()), Long.toString(s.getMaxRows()),
+						Long.toString(s.getErrors()), Long.toString(s.getSlowCount())));
+			}
+		}
+	}
+
+	// Exports to a time stamped file in the working directory and returns its path
+	public static Path export() throws IOException {
+		String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		Path file = Path.of("greenhood-queries-" + stamp + ".csv").toAbsolutePath();
+		export(file);
+		return file;
+	}
+
+	private static String fmt(double value) {
+		return String.format(java.util.Locale.ROOT, "%.3f", value);
+	}
+
+	public static void reset() {
+		stats.clear();
+	}
+}
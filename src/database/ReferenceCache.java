@@ -0,0 +1,103 @@
+package database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through cache for reference data which almost never changes (disposal types, address lists).
+// Entries expire after TTL (-Dgreenhood.cache.ttlMinutes, default 60) or when invalidated explicitly.
+public class ReferenceCache<K, V> {
+
+	@FunctionalInterface
+	public interface Loader<K, V> {
+		V load(K key) throws Exception;
+	}
+
+	private static class Entry<V> {
+		final V value;
+		final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("greenhood.cache.ttlMinutes", 60));
+
+	// All created caches for metrics and global invalidation
+	private static final List<ReferenceCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+	private final String name;
+	private final long ttlMillis;
+	private final Loader<K, V> loader;
+	private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public ReferenceCache(String name, Loader<K, V> loader) {
+		this(name, DEFAULT_TTL_MILLIS, loader);
+	}
+
+	public ReferenceCache(String name, long ttlMillis, Loader<K, V> loader) {
+		this.name = name;
+		this.ttlMillis = ttlMillis;
+		this.loader = loader;
+		caches.add(this);
+	}
+
+	// Returns cached value or loads it from database
+	public V get(K key) throws Exception {
+		Entry<V> e = entries.get(key);
+		if (e != null && e.expiresAt > System.currentTimeMillis()) {
+			hits.incrementAndGet();
+			return e.value;
+		}
+
+		misses.incrementAndGet();
+		V value = loader.load(key);
+		entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+		return value;
+	}
+
+	// Returns cached value without touching the database, null if not loaded yet or expired
+	public V peek(K key) {
+		Entry<V> e = entries.get(key);
+		if (e == null || e.expiresAt <= System.currentTimeMillis()) return null;
+
+		hits.incrementAndGet();
+		return e.value;
+	}
+
+	public void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	public String getName() { return name; }
+	public int size() { return entries.size(); }
+	public long getHits() { return hits.get(); }
+	public long getMisses() { return misses.get(); }
+
+	public static void invalidateEverything() {
+		for (ReferenceCache<?, ?> c : caches) c.invalidateAll();
+	}
+
+	// Hit/miss counts of every cache
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-24s %8s %10s %10s %8s%n", "CACHE", "ENTRIES", "HITS", "MISSES", "HIT %"));
+		for (ReferenceCache<?, ?> c : caches) {
+			long h = c.getHits(), m = c.getMisses();
+			sb.append(String.format("%-24s %8d %10d %10d %7.1f%%%n", c.getName(), c.size(), h, m, (h + m) == 0 ? 0.0 : 100.0 * h / (h + m)));
+		}
+		return sb.toString();
+	}
+}
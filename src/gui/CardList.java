@@ -0,0 +1,279 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Predicate;
+
+// Virtualized list of cards. Only visible rows are painted and every row is painted with the same
+// reusable card, so scroll and refresh cost depends on viewport size instead of row count.
+// Hover buttons are normal components inside the card, marked with ACTION_KEY client property.
+// Selection is off by default, with setMultiSelect(true) cards are selected with click, Ctrl+click and Shift+click.
+public class CardList<T> extends JList<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	// Client property of the components which trigger an action when clicked
+	public static final String ACTION_KEY = "cardlist.action";
+
+	@FunctionalInterface
+	public interface CardRenderer<T> {
+		// Fills the reusable card with given item, hoveredAction is the action under the mouse (or null)
+		Component getCard(T item, int index, boolean hovered, String hoveredAction);
+	}
+
+	@FunctionalInterface
+	public interface ActionHandler<T> {
+		void onAction(String action, T item);
+	}
+
+	private final DefaultListModel<T> model = new DefaultListModel<>();
+	private final CardRenderer<T> renderer;
+	private final int gap;
+	private ActionHandler<T> actionHandler;
+	private String emptyMessage = "";
+
+	private int hoverIndex = -1;
+	private String hoverAction = null;
+
+	private static final Color SELECTION_FILL = new Color(52, 152, 219, 40);
+	private static final Color SELECTION_LINE = new Color(52, 152, 219);
+
+	// Selection model of lists without selection
+	private static class NoSelectionModel extends DefaultListSelectionModel {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void setSelectionInterval(int index0, int index1) {}
+
+		@Override
+		public void addSelectionInterval(int index0, int index1) {}
+	}
+
+	public CardList(int cardHeight, int gap, CardRenderer<T> renderer) {
+		this.renderer = renderer;
+		this.gap = gap;
+
+		setModel(model);
+		setSelectionModel(new NoSelectionModel());
+		setFixedCellHeight(cardHeight + gap);
+		setFixedCellWidth(1); // Width follows the viewport, no need to measure rows
+		setOpaque(false);
+		setFocusable(false);
+
+		// Gap between cards
+		JPanel cell = new JPanel(new BorderLayout());
+		cell.setOpaque(false);
+		cell.setBorder(new EmptyBorder(0, 0, gap, 0));
+
+		setCellRenderer((_, value, index, _, _) -> {
+			boolean hovered = (index == hoverIndex);
+			Component card = renderer.getCard(value, index, hovered, hovered ? hoverAction : null);
+			if (cell.getComponentCount() == 0 || cell.getComponent(0) != card) {
+				cell.removeAll();
+				cell.add(card, BorderLayout.CENTER);
+			}
+			return cell;
+		});
+
+		MouseAdapter mouse = new MouseAdapter() {
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				updateHover(e.getPoint());
+			}
+
+			@Override
+			public void mouseExited(MouseEvent e) {
+				updateHover(null);
+			}
+
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (!SwingUtilities.isLeftMouseButton(e) || actionHandler == null) return;
+
+				int index = rowAt(e.getPoint());
+				if (index == -1) return;
+
+				String action = findAction(index, e.getPoint());
+				if (action != null) actionHandler.onAction(action, model.get(index));
+			}
+		};
+		addMouseListener(mouse);
+		addMouseMotionListener(mouse);
+	}
+
+	public void setMultiSelect(boolean multiSelect) {
+		if (multiSelect) {
+			DefaultListSelectionModel selection = new DefaultListSelectionModel();
+			selection.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+			setSelectionModel(selection);
+		} else {
+			setSelectionModel(new NoSelectionModel());
+		}
+	}
+
+	public List<T> getSelectedItems() {
+		return getSelectedValuesList();
+	}
+
+	public void selectAll() {
+		if (!model.isEmpty()) setSelectionInterval(0, model.getSize() - 1);
+	}
+
+	public void setActionHandler(ActionHandler<T> handler) {
+		this.actionHandler = handler;
+	}
+
+	// Shown when the list is empty
+	public void setEmptyMessage(String message) {
+		this.emptyMessage = (message == null) ? "" : message;
+		repaint();
+	}
+
+	public void setItems(List<T> items) {
+		hoverIndex = -1;
+		hoverAction = null;
+		model.clear();
+		model.addAll(items);
+	}
+
+	public void addItems(List<T> items) {
+		model.addAll(items);
+	}
+
+	public int getItemCount() {
+		return model.getSize();
+	}
+
+	// Removes the matching items in place, selection of the other items is kept
+	public int removeItems(Predicate<T> filter) {
+		int removed = 0;
+		for (int i = model.getSize() - 1; i >= 0; i--) {
+			if (filter.test(model.get(i))) {
+				model.remove(i);
+				removed++;
+			}
+		}
+		if (removed > 0 && hoverIndex >= model.getSize()) hoverIndex = -1;
+		return removed;
+	}
+
+	public boolean anyMatch(Predicate<T> filter) {
+		for (int i = 0; i < model.getSize(); i++) {
+			if (filter.test(model.get(i))) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return true;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+
+		paintSelection(g);
+
+		if (model.isEmpty() && !emptyMessage.isEmpty()) {
+			g.setColor(Color.GRAY);
+			g.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+			FontMetrics fm = g.getFontMetrics();
+			int x = (getWidth() - fm.stringWidth(emptyMessage)) / 2;
+			((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.drawString(emptyMessage, Math.max(0, x), 15 + fm.getAscent());
+		}
+	}
+
+	// Outline over the selected cards, only the rows inside the clip are visited
+	private void paintSelection(Graphics g) {
+		if (isSelectionEmpty()) return;
+
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+		int first = Math.max(getMinSelectionIndex(), locationToIndex(clip.getLocation()));
+		int last = Math.min(getMaxSelectionIndex(), locationToIndex(new Point(clip.x, clip.y + clip.height - 1)));
+
+		Graphics2D g2 = (Graphics2D) g.create();
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g2.setStroke(new BasicStroke(2f));
+		for (int i = first; i <= last; i++) {
+			if (!isSelectedIndex(i)) continue;
+			Rectangle r = getCellBounds(i, i);
+			if (r == null) continue;
+			g2.setColor(SELECTION_FILL);
+			g2.fillRect(r.x, r.y, r.width, r.height - gap);
+			g2.setColor(SELECTION_LINE);
+			g2.drawRect(r.x + 1, r.y + 1, r.width - 2, r.height - gap - 2);
+		}
+		g2.dispose();
+	}
+
+	// A press on an action button must not change the selection, list UI ignores consumed events
+	@Override
+	protected void processMouseEvent(MouseEvent e) {
+		if (e.getID() == MouseEvent.MOUSE_PRESSED && SwingUtilities.isLeftMouseButton(e)) {
+			int index = rowAt(e.getPoint());
+			if (index != -1 && findAction(index, e.getPoint()) != null) e.consume();
+		}
+		super.processMouseEvent(e);
+	}
+
+	private void updateHover(Point p) {
+		int index = (p == null) ? -1 : rowAt(p);
+		String action = (index == -1) ? null : findAction(index, p);
+		if (index == hoverIndex && java.util.Objects.equals(action, hoverAction)) return;
+
+		repaintRow(hoverIndex);
+		hoverIndex = index;
+		hoverAction = action;
+		repaintRow(hoverIndex);
+
+		setCursor(action != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+	}
+
+	private int rowAt(Point p) {
+		int index = locationToIndex(p);
+		if (index == -1) return -1;
+
+		Rectangle bounds = getCellBounds(index, index);
+		return (bounds != null && bounds.contains(p)) ? index : -1;
+	}
+
+	private void repaintRow(int index) {
+		if (index < 0 || index >= model.getSize()) return;
+		Rectangle bounds = getCellBounds(index, index);
+		if (bounds != null) repaint(bounds);
+	}
+
+	// Lays out the hovered card of the row and finds the action component under the point
+	private String findAction(int index, Point p) {
+		Rectangle bounds = getCellBounds(index, index);
+		if (bounds == null) return null;
+
+		Component card = renderer.getCard(model.get(index), index, true, null);
+		card.setBounds(0, 0, bounds.width, bounds.height - gap);
+		layoutTree(card);
+
+		Component c = SwingUtilities.getDeepestComponentAt(card, p.x - bounds.x, p.y - bounds.y);
+		while (c != null && c != card) {
+			if (c instanceof JComponent jc && jc.getClientProperty(ACTION_KEY) != null && c.isEnabled()) {
+				return (String) jc.getClientProperty(ACTION_KEY);
+			}
+			c = c.getParent();
+		}
+		return null;
+	}
+
+	// validate() does nothing for components without a peer, so layout is done by hand
+	private static void layoutTree(Component c) {
+		if (c instanceof Container container) {
+			container.doLayout();
+			for (Component child : container.getComponents()) layoutTree(child);
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package gui;
+
+import java.util.function.Supplier;
+
+import javax.swing.JComponent;
+
+// Html of a card whose localized labels are filled in once per language, a painted row only appends its values.
+// Values replace the {} placeholders in order. Used on the EDT only, like the renderers.
+public class CardTemplate {
+
+	private final StringBuilder sb = new StringBuilder(512);
+	private String[] parts;
+
+	// Pattern is made now and again after every language change, the binding is kept in the owner component
+	public static CardTemplate bind(JComponent owner, String slot, Supplier<String> pattern) {
+		CardTemplate template = new CardTemplate();
+		LocalizedText.bind(owner, slot, p -> template.parts = p.split("\\{\\}", -1), pattern);
+		return template;
+	}
+
+	public String fill(Object... values) {
+		sb.setLength(0);
+		for (int i = 0; i < parts.length; i++) {
+			sb.append(parts[i]);
+			if (i < values.length && i < parts.length - 1) sb.append(values[i]);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,235 @@
+package gui;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import app.AppEvents.EdtStallEvent;
+import database.LatencyHistogram;
+
+// Measures how fast the Event Dispatch Thread picks up new events. A probe is posted with invokeLater
+// every PERIOD and the time until it runs is recorded. If a probe waits longer than the stall threshold,
+// the EDT stack is captured so the code which blocks the UI can be found.
+// Enabled with -Dgreenhood.edt.watchdog=true. Probes keep the EDT alive, the application exits with System.exit anyway.
+//
+//   -Dgreenhood.edt.stallMs=200          stall threshold
+//   -Dgreenhood.edt.reportFile=edt.csv   responsiveness report is written here on exit
+public class EdtWatchdog {
+
+	public static final boolean ENABLED = Boolean.getBoolean("greenhood.edt.watchdog");
+
+	private static final long PERIOD_MILLIS = 50;
+	private static final long STALL_MILLIS = Long.getLong("greenhood.edt.stallMs", 200);
+	private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final int MAX_WINDOWS = 60; // Rolling history of one hour
+	private static final int MAX_STALLS = 50;
+	private static final int MAX_FRAMES = 40;
+
+	// Latency summary of one window
+	public static class Window {
+		public final LocalDateTime start;
+		public final long count;
+		public final double p50, p90, p99, max;
+		public final long stalls;
+
+		Window(LocalDateTime start, LatencyHistogram h, long stalls) {
+			this.start = start;
+			this.count = h.getCount();
+			this.p50 = h.getPercentileMillis(50);
+			this.p90 = h.getPercentileMillis(90);
+			this.p99 = h.getPercentileMillis(99);
+			this.max = h.getMaxMillis();
+			this.stalls = stalls;
+		}
+	}
+
+	public static class Stall {
+		public final LocalDateTime time;
+		public final double millis;
+		public final String stack;
+
+		Stall(LocalDateTime time, double millis, String stack) {
+			this.time = time;
+			this.millis = millis;
+			this.stack = stack;
+		}
+	}
+
+	private static final LatencyHistogram total = new LatencyHistogram();
+	private static final LatencyHistogram window = new LatencyHistogram();
+	private static final AtomicLong windowStalls = new AtomicLong();
+	private static final AtomicLong totalStalls = new AtomicLong();
+	private static LocalDateTime windowStart = LocalDateTime.now();
+
+	// Guarded by EdtWatchdog.class
+	private static final Deque<Window> windows = new ArrayDeque<>();
+	private static final Deque<Stall> stalls = new ArrayDeque<>();
+
+	private static volatile Thread edt;
+	private static Thread watchdog;
+
+	public static synchronized void start() {
+		if (watchdog != null) return;
+
+		watchdog = new Thread(EdtWatchdog::run, "greenhood-edt-watchdog");
+		watchdog.setDaemon(true);
+		watchdog.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			System.out.println("EDT RESPONSIVENESS REPORT\n" + report());
+			String file = System.getProperty("greenhood.edt.reportFile");
+			if (file != null) {
+				try {
+					export(Path.of(file));
+				} catch (IOException e) {
+					System.err.println("EDT report cannot be exported: " + e.getMessage());
+				}
+			}
+		}, "greenhood-edt-report"));
+	}
+
+	private static void run() {
+		long nextWindow = System.currentTimeMillis() + WINDOW_MILLIS;
+
+		while (true) {
+			try {
+				probe();
+
+				if (System.currentTimeMillis() >= nextWindow) {
+					rollWindow();
+					nextWindow += WINDOW_MILLIS;
+				}
+				Thread.sleep(PERIOD_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	private static void probe() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(1);
+		long posted = System.nanoTime();
+		SwingUtilities.invokeLater(() -> {
+			edt = Thread.currentThread(); // EDT is replaced after an uncaught exception
+			done.countDown();
+		});
+
+		if (done.await(STALL_MILLIS, TimeUnit.MILLISECONDS)) {
+			record(System.nanoTime() - posted);
+			return;
+		}
+
+		// Stall: stack is taken while the EDT is still blocked, then the end of the stall is waited
+		EdtStallEvent event = new EdtStallEvent();
+		event.begin();
+		String stack = captureStack();
+		done.await();
+		long nanos = System.nanoTime() - posted;
+		record(nanos);
+
+		double millis = nanos / 1_000_000.0;
+		totalStalls.incrementAndGet();
+		windowStalls.incrementAndGet();
+		synchronized (EdtWatchdog.class) {
+			stalls.addLast(new Stall(LocalDateTime.now(), millis, stack));
+			if (stalls.size() > MAX_STALLS) stalls.removeFirst();
+		}
+		System.err.printf("EDT STALL %.0f ms%n%s", millis, stack);
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.stallTime = nanos;
+			event.edtStack = stack;
+			event.commit();
+		}
+	}
+
+	private static void record(long nanos) {
+		total.record(nanos);
+		window.record(nanos);
+	}
+
+	private static String captureStack() {
+		Thread t = edt;
+		if (t == null) return "\t(EDT has not started yet)\n";
+
+		StackTraceElement[] frames = t.getStackTrace();
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < Math.min(frames.length, MAX_FRAMES); i++) {
+			sb.append("\tat ").append(frames[i]).append('\n');
+		}
+		if (frames.length > MAX_FRAMES) sb.append("\t... ").append(frames.length - MAX_FRAMES).append(" more\n");
+		return sb.toString();
+	}
+
+	private static synchronized void rollWindow() {
+		windows.addLast(new Window(windowStart, window, windowStalls.getAndSet(0)));
+		if (windows.size() > MAX_WINDOWS) windows.removeFirst();
+		window.reset();
+		windowStart = LocalDateTime.now();
+	}
+
+	public static synchronized List<Window> getWindows() {
+		List<Window> list = new ArrayList<>(windows);
+		list.add(new Window(windowStart, window, windowStalls.get())); // Current (incomplete) window
+		return list;
+	}
+
+	public static synchronized List<Stall> getStalls() {
+		return new ArrayList<>(stalls);
+	}
+
+	public static String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-10s %8s %8s %8s %8s %9s %7s%n", "WINDOW", "PROBES", "P50 MS", "P90 MS", "P99 MS", "MAX MS", "STALLS"));
+		DateTimeFormatter time = DateTimeFormatter.ofPattern("HH:mm");
+		for (Window w : getWindows()) {
+			sb.append(String.format("%-10s %8d %8.2f %8.2f %8.2f %9.1f %7d%n",
+					w.start.format(time), w.count, w.p50, w.p90, w.p99, w.max, w.stalls));
+		}
+		sb.append(String.format("%-10s %8d %8.2f %8.2f %8.2f %9.1f %7d%n", "TOTAL", total.getCount(),
+				total.getPercentileMillis(50), total.getPercentileMillis(90), total.getPercentileMillis(99),
+				total.getMaxMillis(), totalStalls.get()));
+		return sb.toString();
+	}
+
+	// Windows as CSV, stall stacks are written next to it as <file>.stalls.txt
+	public static void export(Path file) throws IOException {
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+			out.println("window_start;probes;p50_ms;p90_ms;p99_ms;max_ms;stalls");
+			for (Window w : getWindows()) {
+				out.println(String.format(Locale.ROOT, "%s;%d;%.3f;%.3f;%.3f;%.3f;%d",
+						w.start, w.count, w.p50, w.p90, w.p99, w.max, w.stalls));
+			}
+		}
+
+		Path stallFile = file.resolveSibling(file.getFileName() + ".stalls.txt");
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(stallFile, StandardCharsets.UTF_8))) {
+			for (Stall s : getStalls()) {
+				out.printf(Locale.ROOT, "%s stall %.1f ms%n%s%n", s.time, s.millis, s.stack);
+			}
+		}
+	}
+
+	// Exports to a time stamped file in the working directory and returns its path
+	public static Path export() throws IOException {
+		String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+		Path file = Path.of("greenhood-edt-" + stamp + ".csv").toAbsolutePath();
+		export(file);
+		return file;
+	}
+}
@@ -1,15 +1,19 @@
 package gui;
 
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 
 import app.Localization;
+import data.DashboardData.LeaderboardEntry;
 
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
 import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class GuiListHelper {
 
@@ -19,16 +23,27 @@ public class GuiListHelper {
     public static final Color COLOR_RESERVED = new Color(230, 126, 34); 
     public static final Color COLOR_AVAILABLE = new Color(52, 152, 219); 
     public static final Color COLOR_DEFAULT = Color.LIGHT_GRAY;
-
-    // List container methods
-    public static JPanel createListPanel() {
-        JPanel p = new JPanel();
-        p.setLayout(new BoxLayout(p, BoxLayout.Y_AXIS));
-        p.setOpaque(false); 
-        return p;
+    
+    private static final Map<Color, Border> cardBorders = new HashMap<>();
+    
+    // Leaderboard rows: rank colors (gold, silver, bronze, others) with their borders, built once
+    private static final Color[] RANK_COLORS = {
+        new Color(255, 215, 0), new Color(192, 192, 192), new Color(205, 127, 50), new Color(180, 180, 180)
+    };
+    private static final Border[] RANK_BORDERS = new Border[RANK_COLORS.length];
+    static {
+        for (int i = 0; i < RANK_COLORS.length; i++) {
+            RANK_BORDERS[i] = new CompoundBorder(
+                BorderFactory.createMatteBorder(0, 5, 0, 0, RANK_COLORS[i]),
+                new EmptyBorder(5, 10, 5, 10)
+            );
+        }
     }
+    private static final Color LEADER_ME_BG = new Color(235, 245, 251);
+    private static final Color LEADER_HOVER_BG = new Color(250, 250, 250);
 
-    public static JScrollPane createScrollPane(JPanel panel) {
+    // List container methods
+    public static JScrollPane createScrollPane(JComponent panel) {
         JScrollPane scroll = new JScrollPane(panel);
         scroll.setBorder(null);
         scroll.setOpaque(false);
@@ -40,21 +55,17 @@ public class GuiListHelper {
     public static JPanel createBaseCard(Color borderColor, int fixedHeight) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(CARD_BG);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createMatteBorder(0, 5, 0, 0, borderColor),
-            new EmptyBorder(10, 12, 10, 12)
-        ));
+        card.setBorder(createCardBorder(borderColor));
         card.setMaximumSize(new Dimension(Integer.MAX_VALUE, fixedHeight));
         return card;
     }
-
-    public static JPanel createFeedCard(String htmlContent, Color borderColor, int fixedHeight) {
-        JPanel card = createBaseCard(borderColor, fixedHeight);
-        
-        JLabel lblContent = new JLabel(htmlContent);
-        lblContent.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        card.add(lblContent, BorderLayout.CENTER);
-        return card;
+    
+    // Colored left edge of the cards, shared by every card with the same color
+    public static Border createCardBorder(Color borderColor) {
+        return cardBorders.computeIfAbsent(borderColor, c -> BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(0, 5, 0, 0, c),
+            new EmptyBorder(10, 12, 10, 12)
+        ));
     }
 
     public static JPanel createLeaderboardCard(int rank, String name, double score, boolean isMe, int fixedHeight) {
@@ -94,50 +105,47 @@ public class GuiListHelper {
         return card;
     }
     
-    public static JPanel createStyledLeaderboardCard(int rank, String name, double score, boolean isMe, int height) {
+    // Reusable feed card, filled with the html and status color of the painted item
+    public static <T> CardList.CardRenderer<T> createFeedRenderer(Function<T, String> html, Function<T, Color> borderColor, int fixedHeight) {
+        JPanel card = createBaseCard(COLOR_DEFAULT, fixedHeight);
+        
+        JLabel lblContent = new JLabel();
+        lblContent.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        card.add(lblContent, BorderLayout.CENTER);
+        
+        // Border is looked up only when the color changes from the previous painted row
+        Color[] lastColor = new Color[1];
+        return (item, _, _, _) -> {
+            Color color = borderColor.apply(item);
+            if (color != lastColor[0]) {
+                card.setBorder(createCardBorder(color));
+                lastColor[0] = color;
+            }
+            lblContent.setText(html.apply(item));
+            return card;
+        };
+    }
+    
+    // Reusable leaderboard card, rank is the row index
+    public static CardList.CardRenderer<LeaderboardEntry> createLeaderboardRenderer(Predicate<LeaderboardEntry> isMe) {
         // BorderLayout
         JPanel panel = new JPanel(new BorderLayout(10, 0));
         DecimalFormat df = new DecimalFormat("#0.00");
         
-        // Colors
-        Color rankColor;
-        Color bgColor = Color.WHITE;
-        
-        if (rank == 1) rankColor = new Color(255, 215, 0);       // Gold
-        else if (rank == 2) rankColor = new Color(192, 192, 192); // Silver
-        else if (rank == 3) rankColor = new Color(205, 127, 50);  // Bronze
-        else rankColor = new Color(180, 180, 180);                // Gray
-
-        if (isMe) bgColor = new Color(235, 245, 251); 
-        
-        panel.setBackground(bgColor);
-        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, height));
-        panel.setPreferredSize(new Dimension(0, height));
-        
-        // Borders
-        panel.setBorder(new CompoundBorder(
-            BorderFactory.createMatteBorder(0, 5, 0, 0, rankColor),
-            new EmptyBorder(5, 10, 5, 10)
-        ));
-
         // Rankings
-        JLabel lblRank = new JLabel(rank + ".");
+        JLabel lblRank = new JLabel();
         lblRank.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        lblRank.setForeground(rankColor);
         lblRank.setPreferredSize(new Dimension(25, 0));
         lblRank.setVerticalAlignment(SwingConstants.CENTER);
         
         // Names
-        JLabel lblName = new JLabel("<html>" + name + "</html>");
+        JLabel lblName = new JLabel();
         lblName.setFont(new Font("Segoe UI", Font.BOLD, 13));
         lblName.setForeground(new Color(44, 62, 80));
         lblName.setVerticalAlignment(SwingConstants.CENTER);
-
+        
         // Points
-        JLabel lblScore = new JLabel("<html><div style='text-align:right;'>" + 
-                                     "<b>" + df.format(score) + "</b><br>" + 
-                                     "<span style='font-size:11px; color:gray;'>" + Localization.get("score") + "</span>" +
-                                     "</div></html>");
+        JLabel lblScore = new JLabel();
         lblScore.setHorizontalAlignment(SwingConstants.RIGHT);
         
         // Add elements into panel
@@ -145,35 +153,33 @@ public class GuiListHelper {
         panel.add(lblName, BorderLayout.CENTER);
         panel.add(lblScore, BorderLayout.EAST);
         
-        // Hover
-        Color finalBgColor = bgColor;
-        panel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseEntered(MouseEvent evt) {
-                panel.setBackground(new Color(250, 250, 250));
-            }
-            @Override
-            public void mouseExited(MouseEvent evt) {
-                panel.setBackground(finalBgColor);
-            }
-        });
-
-        return panel;
-    }
-
-    // Helper methods
-    public static void addEmptyMessage(JPanel panel, String message) {
-        JLabel empty = new JLabel(message);
-        empty.setForeground(Color.GRAY);
-        empty.setFont(new Font("Segoe UI", Font.ITALIC, 12));
-        empty.setAlignmentX(Component.CENTER_ALIGNMENT);
-        empty.setBorder(new EmptyBorder(15, 0, 0, 0));
-        panel.add(empty);
+        CardTemplate scoreHtml = CardTemplate.bind(panel, "template.score", () ->
+                "<html><div style='text-align:right;'>" + 
+                "<b>{}</b><br>" + 
+                "<span style='font-size:11px; color:gray;'>" + Localization.get("score") + "</span>" +
+                "</div></html>");
+        
+        return (entry, index, hovered, _) -> {
+            int rank = index + 1;
+            int style = Math.min(index, RANK_COLORS.length - 1);
+            
+            Color bgColor = isMe.test(entry) ? LEADER_ME_BG : Color.WHITE;
+            
+            // Hover
+            panel.setBackground(hovered ? LEADER_HOVER_BG : bgColor);
+            panel.setBorder(RANK_BORDERS[style]);
+            
+            lblRank.setText(rank + ".");
+            lblRank.setForeground(RANK_COLORS[style]);
+            lblName.setText("<html>" + entry.name + "</html>");
+            lblScore.setText(scoreHtml.fill(df.format(entry.score)));
+            return panel;
+        };
     }
-
-    public static void refreshPanel(JPanel p) {
-        p.add(Box.createVerticalGlue());
-        p.revalidate();
-        p.repaint();
+    
+    public static CardList<LeaderboardEntry> createLeaderboardList(int height, int gap, Predicate<LeaderboardEntry> isMe) {
+        CardList<LeaderboardEntry> list = new CardList<>(height, gap, createLeaderboardRenderer(isMe));
+        LocalizedText.emptyMessage(list, "nodata");
+        return list;
     }
 }
\ No newline at end of file
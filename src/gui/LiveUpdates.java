@@ -0,0 +1,94 @@
+package gui;
+
+import java.awt.event.HierarchyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import database.ChangeNotifier;
+import database.ChangeNotifier.ChangeEvent;
+
+// Delivers database change events to a panel while it is showing. Events are collected for a short window
+// and handed over together on the EDT, so a burst of changes causes one update instead of many.
+// Events which come while a kept panel is hidden are held back and handed over when it is shown again,
+// too many of them are replaced by one RESYNC. The subscription ends when the panel is removed.
+public class LiveUpdates {
+
+	private static final int MAX_HELD = 500;
+
+	public static void attach(JComponent panel, int windowMillis, Consumer<List<ChangeEvent>> handler) {
+		if (!ChangeNotifier.ENABLED) return;
+
+		List<ChangeEvent> pending = new ArrayList<>();
+		Timer flush = new Timer(windowMillis, _ -> {
+			if (!panel.isShowing()) return;
+			List<ChangeEvent> batch;
+			synchronized (pending) {
+				batch = new ArrayList<>(pending);
+				pending.clear();
+			}
+			if (!batch.isEmpty()) handler.accept(batch);
+		});
+		flush.setRepeats(false);
+
+		// Window starts with the first event, a constant stream of changes still flushes regularly
+		Consumer<ChangeEvent> subscriber = event -> {
+			boolean first;
+			synchronized (pending) {
+				first = pending.isEmpty();
+				// A held RESYNC already covers everything after it
+				if (pending.size() == 1 && pending.get(0) == ChangeEvent.RESYNC) return;
+				if (pending.size() >= MAX_HELD) {
+					pending.clear();
+					event = ChangeEvent.RESYNC;
+				}
+				pending.add(event);
+			}
+			if (first) SwingUtilities.invokeLater(() -> {
+				if (panel.isShowing()) flush.start();
+			});
+		};
+
+		Runnable[] unsubscribe = new Runnable[1];
+		panel.addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.PARENT_CHANGED) != 0 && panel.getParent() == null) {
+				if (unsubscribe[0] != null) {
+					unsubscribe[0].run();
+					unsubscribe[0] = null;
+				}
+				flush.stop();
+				synchronized (pending) {
+					pending.clear();
+				}
+				return;
+			}
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) == 0) return;
+
+			if (panel.isShowing()) {
+				if (unsubscribe[0] == null) unsubscribe[0] = ChangeNotifier.subscribe(subscriber);
+				boolean held;
+				synchronized (pending) {
+					held = !pending.isEmpty();
+				}
+				if (held) flush.restart();
+			} else {
+				flush.stop();
+			}
+		});
+	}
+
+	// Has any event of the given tables (RESYNC always matches)
+	public static boolean touches(List<ChangeEvent> events, ChangeNotifier.Table... tables) {
+		for (ChangeEvent e : events) {
+			if (e.table == ChangeNotifier.Table.RESYNC) return true;
+			for (ChangeNotifier.Table t : tables) {
+				if (e.table == t) return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,100 @@
+package gui;
+
+import java.awt.Component;
+import java.awt.Window;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import javax.swing.ListCellRenderer;
+import javax.swing.text.JTextComponent;
+
+import app.Localization;
+
+// Texts which follow the language. Components register how their texts are made (key and arguments, or a supplier
+// reading the data they already show), and refresh() sets them again after Localization.setLanguage. Nothing is
+// built again and nothing is read from database. Bindings are kept in the component, dropped panels are collected.
+public class LocalizedText {
+
+	private static final String BINDINGS_KEY = "localizedtext.bindings";
+
+	// Components with bindings, weak so removed panels are not kept alive
+	private static final Set<JComponent> bound = Collections.newSetFromMap(new WeakHashMap<>());
+
+	// Sets the text of a label or button now and after every language change
+	public static <T extends JComponent> T text(T c, String key, Object... args) {
+		return text(c, () -> (args.length == 0) ? Localization.get(key) : Localization.get(key, args));
+	}
+
+	public static <T extends JComponent> T text(T c, Supplier<String> text) {
+		bind(c, "text", s -> setText(c, s), text);
+		return c;
+	}
+
+	public static void addTab(JTabbedPane tabs, String key, Component content) {
+		tabs.addTab("", content);
+		int index = tabs.getTabCount() - 1;
+		bind(tabs, "tab" + index, t -> tabs.setTitleAt(index, t), () -> Localization.get(key));
+	}
+
+	public static void emptyMessage(CardList<?> list, String key) {
+		bind(list, "empty", list::setEmptyMessage, () -> Localization.get(key));
+	}
+
+	// Items of the combo box are localization keys, they are shown in the current language
+	public static void keys(JComboBox<String> combo) {
+		ListCellRenderer<? super String> base = combo.getRenderer();
+		combo.setRenderer((list, value, index, selected, focused) ->
+				base.getListCellRendererComponent(list, (value == null) ? null : Localization.get(value), index, selected, focused));
+	}
+
+	// Any other text of the component (titles, empty messages etc.), a new binding of the same slot replaces the old one
+	public static void bind(JComponent c, String slot, Consumer<String> setter, Supplier<String> text) {
+		bindings(c).put(slot, () -> setter.accept(text.get()));
+		setter.accept(text.get());
+	}
+
+	// Parts drawn from loaded data (cards, statistics) are drawn again with the new language
+	public static void onChange(JComponent c, Runnable render) {
+		bindings(c).put("render", render);
+	}
+
+	// Called on the EDT after the language is changed
+	public static void refresh() {
+		for (JComponent c : bound.toArray(new JComponent[0])) {
+			for (Runnable r : bindings(c).values().toArray(new Runnable[0])) r.run();
+		}
+		// Card lists paint their rows with the current language, a repaint is enough for them
+		for (Window w : Window.getWindows()) {
+			w.revalidate();
+			w.repaint();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Runnable> bindings(JComponent c) {
+		Map<String, Runnable> map = (Map<String, Runnable>) c.getClientProperty(BINDINGS_KEY);
+		if (map == null) {
+			map = new LinkedHashMap<>();
+			c.putClientProperty(BINDINGS_KEY, map);
+			bound.add(c);
+		}
+		return map;
+	}
+
+	private static void setText(Component c, String text) {
+		if (c instanceof JLabel l) l.setText(text);
+		else if (c instanceof AbstractButton b) b.setText(text);
+		else if (c instanceof JTextComponent t) t.setText(text);
+		else throw new IllegalArgumentException("No text in " + c.getClass().getName());
+	}
+}
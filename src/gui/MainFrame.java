@@ -3,6 +3,7 @@ package gui;
 import database.*;
 import gui.panels.*;
 import javax.swing.*;
+import app.AppExecutor;
 import app.Localization;
 import app.Localization.Language;
 import java.awt.*;
@@ -11,6 +12,7 @@ public class MainFrame extends JFrame {
     private static final long serialVersionUID = 1L;
     private CardLayout cardLayout = new CardLayout();
     private JPanel mainPanel = new JPanel(cardLayout);
+    private PanelCache panels = new PanelCache(mainPanel, cardLayout);
     
     private String currentRole = "USER";
     private String currentUsername = "";
@@ -27,63 +29,70 @@ public class MainFrame extends JFrame {
         this.addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
+                AppExecutor.shutdown();
                 DBConnection.shutdown();
                 System.exit(0);
             }
         });
 
-        JPanel loginP = new LoginPanel(this); 
-        mainPanel.add(loginP, "LOGIN_SCREEN");
-
-        JPanel regP = new RegisterPanel(this);
-        mainPanel.add(regP, "REG_PANEL");
-
         add(mainPanel);
-        cardLayout.show(mainPanel, "LOGIN_SCREEN");
+        panels.show("LOGIN_SCREEN", () -> new LoginPanel(this));
+        
+        if (QueryMetrics.ENABLED || EdtWatchdog.ENABLED) installMetricsExport();
         
         checkNetwork();
     }
+    
+    // Ctrl+Shift+Q prints query metrics and EDT responsiveness and exports them as CSV
+    // (only the ones enabled with -Dgreenhood.db.metrics and -Dgreenhood.edt.watchdog)
+    private void installMetricsExport() {
+        KeyStroke key = KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_Q,
+                java.awt.event.InputEvent.CTRL_DOWN_MASK | java.awt.event.InputEvent.SHIFT_DOWN_MASK);
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(key, "exportQueryMetrics");
+        getRootPane().getActionMap().put("exportQueryMetrics", new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                app.AppUtils.runAsync(MainFrame.this, () -> {
+                    StringBuilder files = new StringBuilder();
+                    if (QueryMetrics.ENABLED) {
+                        System.out.println("QUERY METRICS REPORT\n" + QueryMetrics.report());
+                        files.append('\n').append(QueryMetrics.export());
+                    }
+                    if (EdtWatchdog.ENABLED) {
+                        System.out.println("EDT RESPONSIVENESS REPORT\n" + EdtWatchdog.report());
+                        files.append('\n').append(EdtWatchdog.export());
+                    }
+                    SwingUtilities.invokeLater(() -> GuiHelper.showMessage(MainFrame.this, Localization.get("metricsexported", files)));
+                });
+            }
+        });
+    }
 
     public void switchPanel(String panelName) {
         this.currentScreenName = panelName;
         
+        // Dashboards and the profile are kept (see PanelCache), login and forms are built again
         switch (panelName) {
             case "LOGIN_SCREEN":
-                mainPanel.add(new LoginPanel(this), "LOGIN_SCREEN");
+                panels.show(panelName, () -> new LoginPanel(this));
                 break;
                 
             case "REG_PANEL":
-                mainPanel.add(new RegisterPanel(this), "REG_PANEL");
+                panels.show(panelName, () -> new RegisterPanel(this));
                 break;
                 
             case "DASHBOARD":
-                mainPanel.add(new DashboardPanel(this), "DASHBOARD");
+                panels.show(panelName, () -> new DashboardPanel(this));
                 break;
                 
             case "PROFILE_PANEL":
-                mainPanel.add(new ProfilePanel(this), "PROFILE_PANEL");
+                panels.show(panelName, () -> new ProfilePanel(this));
                 break;
                 
             case "EDIT_PROFILE":
-                mainPanel.add(new EditProfilePanel(this), "EDIT_PROFILE");
-                break;
-        }
-        
-        cardLayout.show(mainPanel, panelName);
-        mainPanel.revalidate();
-        mainPanel.repaint();
-    }
-    
-    private void refreshCurrentScreen() {
-        switch (currentScreenName) {
-            case "USER_DASHBOARD":
-                showUserDashboard();
-                break;
-            case "COMPANY_DASHBOARD":
-                showCompanyDashboard();
-                break;
-            default:
-                switchPanel(currentScreenName);
+                panels.show(panelName, () -> new EditProfilePanel(this));
                 break;
         }
     }
@@ -91,8 +100,10 @@ public class MainFrame extends JFrame {
     public void logout() {
         this.currentUsername = null;
         this.currentRole = null;
+        data.DataStore.invalidateEverything();
         
         switchPanel("LOGIN_SCREEN");
+        panels.clear(); // Screens of the previous user
         
         GuiHelper.showMessage(this, Localization.get("successfulllogout"));
     }
@@ -107,8 +118,7 @@ public class MainFrame extends JFrame {
             return;
         }
 
-        mainPanel.add(new UserDashboardPanel(this, tckn), "USER_DASHBOARD");
-        cardLayout.show(mainPanel, "USER_DASHBOARD");
+        panels.show("USER_DASHBOARD", () -> new UserDashboardPanel(this, tckn));
     }
     
     public void showCompanyDashboard() {
@@ -120,42 +130,36 @@ public class MainFrame extends JFrame {
             return;
         }
         
-        mainPanel.add(new CompanyDashboardPanel(this, currentUsername), "COMPANY_DASHBOARD");
-        cardLayout.show(mainPanel, "COMPANY_DASHBOARD");
+        panels.show("COMPANY_DASHBOARD", () -> new CompanyDashboardPanel(this, currentUsername));
     }
     
+    // Warm-up of the connection pool (started in MainApp) is the network check, a separate socket is not opened
     private void checkNetwork() {
-        new Thread(() -> {
-            System.out.println("Checking network...");
+        System.out.println("Checking network...");
+        DBConnection.warmUp().whenComplete((_, e) -> {
+            if (e == null) {
+                System.out.println("Connection successfull! (" + Variables.PORT + " is allowed.)");
+                return;
+            }
             
-            String host = Variables.HOST;
-            int port = Integer.parseInt(Variables.PORT);
-            int timeout = 3000; // 3 seconds wait
-
-            try {
-                if (host.isEmpty()) throw new Exception("Host couldn't be found!");
-
-                try (java.net.Socket socket = new java.net.Socket()) {
-                    socket.connect(new java.net.InetSocketAddress(host, port), timeout);
-                    System.out.println("Connection successfull! (" + port + " is allowed.)");
-                } catch (java.io.IOException e) {
-                    System.err.println("Connection failed: " + e.getMessage());
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        String title = Localization.get("networkwarningtitle");
-                        String message = Localization.get("networkwarning");
-                        JOptionPane.showMessageDialog(this, message, title, JOptionPane.WARNING_MESSAGE);
-                        forceExitApplication();
-                    });
-                }
-
-            } catch (Exception e) {
-                System.out.println("An error occured while checking network: " + e.getMessage());
+            Throwable cause = (e instanceof java.util.concurrent.CompletionException) ? e.getCause() : e;
+            if (!DBConnection.isNetworkError(cause)) {
+                System.out.println("An error occured while checking network: " + cause.getMessage());
+                return;
             }
-        }).start();
+            System.err.println("Connection failed: " + cause.getMessage());
+            
+            SwingUtilities.invokeLater(() -> {
+                String title = Localization.get("networkwarningtitle");
+                String message = Localization.get("networkwarning");
+                JOptionPane.showMessageDialog(this, message, title, JOptionPane.WARNING_MESSAGE);
+                forceExitApplication();
+            });
+        });
     }
     
     public void exitApplication() {      
+        AppExecutor.shutdown();
         DBConnection.shutdown();
         this.dispose();
         System.exit(0);
@@ -176,7 +180,7 @@ public class MainFrame extends JFrame {
     // Language
     public void changeLanguage(Language lang) {
         Localization.setLanguage(lang);
-        refreshCurrentScreen();
+        LocalizedText.refresh(); // Screens keep their state and loaded data, only the texts change
     }
     public Language getLanguage() { return Localization.getLanguage(); }
 }
\ No newline at end of file
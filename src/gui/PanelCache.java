@@ -0,0 +1,104 @@
+package gui;
+
+import java.awt.CardLayout;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.swing.JPanel;
+
+// Screens of the main window. Panels with PanelLifecycle are kept after they are hidden, so going back to them
+// does not build them again and run all of their queries; at most -Dgreenhood.panels.cacheSize (default 4) are
+// kept and the least recently shown one is disposed first. Other panels (forms) are built on every visit and
+// removed when they are left.
+public class PanelCache {
+
+	public static final int MAX_PANELS = Integer.getInteger("greenhood.panels.cacheSize", 4);
+	public static final long STALE_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("greenhood.panels.staleSeconds", 30));
+
+	private static class Entry {
+		final String name;
+		final JPanel panel;
+		long hiddenAt = -1; // Never shown
+
+		Entry(String name, JPanel panel) {
+			this.name = name;
+			this.panel = panel;
+		}
+
+		boolean isCached() {
+			return panel instanceof PanelLifecycle;
+		}
+	}
+
+	private final JPanel container;
+	private final CardLayout cards;
+	private final Map<String, Entry> cached = new LinkedHashMap<>(16, 0.75f, true); // Least recently shown first
+	private Entry current;
+
+	public PanelCache(JPanel container, CardLayout cards) {
+		this.container = container;
+		this.cards = cards;
+	}
+
+	public void show(String name, Supplier<? extends JPanel> factory) {
+		Entry previous = current;
+		Entry next = cached.get(name);
+		if (next == null) {
+			next = new Entry(name, factory.get());
+			container.add(next.panel, name);
+			if (next.isCached()) cached.put(name, next);
+		}
+
+		current = next;
+		cards.show(container, name);
+		container.revalidate();
+		container.repaint();
+
+		if (previous != null && previous != next) leave(previous);
+		if (next.isCached() && previous != next) {
+			boolean stale = next.hiddenAt == -1 || System.currentTimeMillis() - next.hiddenAt > STALE_MILLIS;
+			((PanelLifecycle) next.panel).activate(stale);
+		}
+		evict();
+	}
+
+	// Disposes every kept panel, e.g. after logout
+	public void clear() {
+		List<Entry> entries = new ArrayList<>(cached.values());
+		cached.clear();
+		for (Entry e : entries) {
+			if (e == current) current = null;
+			container.remove(e.panel);
+			((PanelLifecycle) e.panel).dispose();
+		}
+	}
+
+	public int size() {
+		return cached.size();
+	}
+
+	private void leave(Entry e) {
+		if (!e.isCached()) {
+			container.remove(e.panel);
+			return;
+		}
+		e.hiddenAt = System.currentTimeMillis();
+		((PanelLifecycle) e.panel).deactivate();
+	}
+
+	private void evict() {
+		Iterator<Entry> it = cached.values().iterator();
+		while (cached.size() > MAX_PANELS && it.hasNext()) {
+			Entry e = it.next();
+			if (e == current) continue;
+			it.remove();
+			container.remove(e.panel);
+			((PanelLifecycle) e.panel).dispose();
+		}
+	}
+}
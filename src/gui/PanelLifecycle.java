@@ -0,0 +1,15 @@
+package gui;
+
+// Screens which are kept by PanelCache after they are hidden. Called on the EDT.
+public interface PanelLifecycle {
+
+	// Panel is shown. stale is true on the first show and when it was hidden longer than the stale window
+	// (live updates keep it current, the events which came while it was hidden are handed over after it is shown)
+	void activate(boolean stale);
+
+	// Panel is hidden but kept, running loads can be stopped
+	default void deactivate() {}
+
+	// Panel is dropped (evicted or logout), it is not shown again
+	default void dispose() {}
+}
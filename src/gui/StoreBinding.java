@@ -0,0 +1,40 @@
+package gui;
+
+import java.awt.event.HierarchyEvent;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import data.DataStore;
+
+// Shows the values of a store key in a component while it is showing, whoever loaded them.
+// The returned consumer is used for the values the panel loads itself, a value is shown only once.
+public class StoreBinding {
+
+	public static <K, V> Consumer<V> bind(JComponent panel, DataStore<K, V> store, K key, Consumer<V> view) {
+		Object[] shown = new Object[1];
+		Consumer<V> show = value -> {
+			if (shown[0] == value) return;
+			shown[0] = value;
+			view.accept(value);
+		};
+
+		Consumer<V> subscriber = value -> SwingUtilities.invokeLater(() -> {
+			if (panel.isShowing()) show.accept(value);
+		});
+
+		Runnable[] unsubscribe = new Runnable[1];
+		panel.addHierarchyListener(e -> {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) == 0) return;
+
+			if (panel.isShowing() && unsubscribe[0] == null) {
+				unsubscribe[0] = store.subscribe(key, subscriber);
+			} else if (!panel.isShowing() && unsubscribe[0] != null) {
+				unsubscribe[0].run();
+				unsubscribe[0] = null;
+			}
+		});
+		return show;
+	}
+}
@@ -2,24 +2,43 @@ package gui.panels;
 
 import app.AppUtils;
 import app.Localization;
+import app.AppEvents.PanelRefreshEvent;
+import data.CompanyDisposalModel;
+import data.CompanyDisposalModel.Changes;
+import data.CompanyDisposalModel.Move;
+import data.CompanyDisposalModel.Snapshot;
 import data.DisposalData;
-import data.ProfileData;
+import data.DataStore;
 import data.DisposalData.*;
 import data.ProfileData.*;
 import data.ReservationData;
+import database.ChangeNotifier.ChangeEvent;
+import database.ChangeNotifier.Operation;
+import database.ChangeNotifier.Table;
+import gui.CardList;
+import gui.CardTemplate;
 import gui.GuiHelper;
+import gui.LocalizedText;
 import gui.GuiListHelper;
+import gui.LiveUpdates;
 import gui.MainFrame;
+import gui.PanelLifecycle;
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
-import java.awt.event.*;
 import java.sql.Date;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
-public class CompanyDashboardPanel extends JPanel {
+public class CompanyDashboardPanel extends JPanel implements PanelLifecycle {
     private static final long serialVersionUID = 1L;
     public MainFrame mainFrame;
     private String companyTaxNumber;
@@ -29,11 +48,14 @@ public class CompanyDashboardPanel extends JPanel {
     private final int GAP = 4;
 
     // UI Elements
-    private JPanel pnlAvailableList; 
-    private JPanel pnlReservedList;  
-    private JPanel pnlRecycledList;  
+    private CardList<DisposalRecord> availableList; 
+    private CardList<DisposalRecord> reservedList;  
+    private CardList<DisposalRecord> recycledList;  
     private JPanel pnlStatsGrid;     
     
+    // Bulk actions on the selected cards
+    private JButton btnReserveSelected, btnRecycleSelected, btnCancelSelected;
+    
     // Statistics Filtering UI
     private JButton btnStatsMonth, btnStatsYear, btnStatsAll;
     private int currentStatsRange = 0; // 0: All, 1: Year, 2: Month
@@ -42,6 +64,16 @@ public class CompanyDashboardPanel extends JPanel {
     private JPanel pnlActiveFilterContainer; 
     private JLabel lblActiveFilterText;      
     private DisposalFilter currentFilter = null;
+    
+    // <ddno, Until> disposals written by this panel, their change notifications must not reload the lists again
+    private final Map<Integer, Long> ownWrites = new HashMap<>();
+    private static final long OWN_WRITE_MILLIS = 5000;
+    
+    // Lists and statistics on the screen, kept up to date with the changes after the last read
+    private final CompanyDisposalModel model = new CompanyDisposalModel();
+    private boolean syncing = false;
+    private boolean syncAgain = false;
+    private boolean initialized = false;
 
     // Formats
     private static final DecimalFormat df = new DecimalFormat("#0.00");
@@ -58,12 +90,12 @@ public class CompanyDashboardPanel extends JPanel {
         JPanel topPanel = new JPanel(new BorderLayout(15, 0));
         topPanel.setOpaque(false);
         
-        JButton btnBack = new JButton(Localization.get("returntomainmenu"));
+        JButton btnBack = LocalizedText.text(new JButton(), "returntomainmenu");
         btnBack.setFont(new Font("Segoe UI", Font.BOLD, 12));
         btnBack.setFocusPainted(false);
         btnBack.addActionListener(_ -> mainFrame.switchPanel("DASHBOARD"));
         
-        JLabel lblTitle = new JLabel(Localization.get("corpdisposalmng"));
+        JLabel lblTitle = LocalizedText.text(new JLabel(), "corpdisposalmng");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 22));
         lblTitle.setForeground(new Color(44, 62, 80));
         lblTitle.setBorder(new EmptyBorder(0, 10, 0, 0));
@@ -82,12 +114,30 @@ public class CompanyDashboardPanel extends JPanel {
 
         add(contentPanel, BorderLayout.CENTER);
         
-        initData();
+        LiveUpdates.attach(this, 500, this::onDatabaseChanges);
+        
+        // Cards and statistics are drawn again from the model, nothing is read from database
+        LocalizedText.onChange(this, () -> {
+            if (model.isLoaded()) render();
+            updateBulkButtons();
+        });
+    }
+    
+    // Lists are loaded once. Changes made while the panel was hidden come with live updates when it is shown again,
+    // a stale panel (or one without notifications) reads them at once
+    @Override
+    public void activate(boolean stale) {
+        if (!initialized) {
+            initialized = true;
+            initData();
+        } else if (stale) {
+            syncChanges();
+        }
     }
     
     private void initData() {
         AppUtils.runAsync(this, () -> {
-            this.allowedTypes = ProfileData.getCompanyAllowedDisposalTypes(companyTaxNumber);
+            this.allowedTypes = DataStore.COMPANY_ALLOWED_TYPES.get(companyTaxNumber);
             refreshDataInternal();
         });
     }
@@ -102,11 +152,11 @@ public class CompanyDashboardPanel extends JPanel {
         headerPanel.setOpaque(false);
         headerPanel.setBorder(new EmptyBorder(0,0,5,0));
         
-        JLabel lblHeader = new JLabel(Localization.get("disposalpool"));
+        JLabel lblHeader = LocalizedText.text(new JLabel(), "disposalpool");
         lblHeader.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblHeader.setForeground(new Color(52, 73, 94));
         
-        JButton btnFilter = new JButton(Localization.get("dofilter"));
+        JButton btnFilter = LocalizedText.text(new JButton(), "dofilter");
         btnFilter.setIcon(UIManager.getIcon("Tree.openIcon")); 
         btnFilter.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         btnFilter.setFocusPainted(false);
@@ -128,7 +178,7 @@ public class CompanyDashboardPanel extends JPanel {
                 new EmptyBorder(5, 10, 5, 5)
         ));
 
-        lblActiveFilterText = new JLabel(Localization.get("filter") + ": ...");
+        lblActiveFilterText = LocalizedText.text(new JLabel(), () -> Localization.get("filter") + ": ...");
         lblActiveFilterText.setFont(new Font("Segoe UI", Font.ITALIC, 11));
         
         JButton btnClearFilter = new JButton("x");
@@ -152,8 +202,14 @@ public class CompanyDashboardPanel extends JPanel {
         container.add(topContainer, BorderLayout.NORTH);
 
         // List
-        pnlAvailableList = GuiListHelper.createListPanel();
-        container.add(GuiListHelper.createScrollPane(pnlAvailableList), BorderLayout.CENTER);
+        availableList = new CardList<>(ITEM_HEIGHT, GAP, new AvailableCardRenderer());
+        availableList.setActionHandler((_, rec) -> reserveDisposal(rec));
+        availableList.setMultiSelect(true);
+        container.add(GuiListHelper.createScrollPane(availableList), BorderLayout.CENTER);
+        
+        btnReserveSelected = createBulkButton(GuiListHelper.COLOR_RESERVED);
+        btnReserveSelected.addActionListener(_ -> reserveSelected());
+        container.add(createBulkBar(availableList, btnReserveSelected), BorderLayout.SOUTH);
         
         return container;
     }
@@ -167,7 +223,7 @@ public class CompanyDashboardPanel extends JPanel {
         JPanel headerWrapper = new JPanel(new BorderLayout(0, 5));
         headerWrapper.setOpaque(false);
 
-        JLabel lblHeader = new JLabel(Localization.get("stats"));
+        JLabel lblHeader = LocalizedText.text(new JLabel(), "stats");
         lblHeader.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblHeader.setForeground(new Color(52, 73, 94));
         headerWrapper.add(lblHeader, BorderLayout.NORTH);
@@ -176,9 +232,9 @@ public class CompanyDashboardPanel extends JPanel {
         JPanel pnlDateFilters = new JPanel(new GridLayout(1, 3, 5, 0));
         pnlDateFilters.setOpaque(false);
 
-        btnStatsMonth = createStatButton(Localization.get("lastmonth"));
-        btnStatsYear = createStatButton(Localization.get("lastyear"));
-        btnStatsAll = createStatButton(Localization.get("alltime"));
+        btnStatsMonth = createStatButton("lastmonth");
+        btnStatsYear = createStatButton("lastyear");
+        btnStatsAll = createStatButton("alltime");
 
         // Action listeners
         btnStatsMonth.addActionListener(_ -> setStatsRange(2, btnStatsMonth));
@@ -204,8 +260,8 @@ public class CompanyDashboardPanel extends JPanel {
     }
     
     // Statistics Button Helper
-    private JButton createStatButton(String text) {
-        JButton btn = new JButton(text);
+    private JButton createStatButton(String key) {
+        JButton btn = LocalizedText.text(new JButton(), key);
         btn.setFont(new Font("Segoe UI", Font.BOLD, 10));
         btn.setFocusPainted(false);
         btn.setBorder(new LineBorder(Color.GRAY, 1));
@@ -217,11 +273,11 @@ public class CompanyDashboardPanel extends JPanel {
         return btn;
     }
     
-    // Statistics Logic
+    // Statistics Logic, calculated from the loaded lists
     private void setStatsRange(int range, JButton activeBtn) {
         this.currentStatsRange = range;
         updateStatButtons(activeBtn);
-        refreshData(); 
+        if (model.isLoaded()) updateStatsPanel(model.getStats(range));
     }
     
     private void updateStatButtons(JButton activeBtn) {
@@ -252,50 +308,190 @@ public class CompanyDashboardPanel extends JPanel {
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Segoe UI", Font.BOLD, 12));
         
-        pnlReservedList = GuiListHelper.createListPanel();
-        pnlRecycledList = GuiListHelper.createListPanel();
+        reservedList = new CardList<>(ITEM_HEIGHT, GAP, new ReservedCardRenderer());
+        LocalizedText.emptyMessage(reservedList, "noreservations");
+        reservedList.setActionHandler(this::handleReservedAction);
+        reservedList.setMultiSelect(true);
+        
+        recycledList = new CardList<>(ITEM_HEIGHT, GAP, new RecycledCardRenderer());
+        LocalizedText.emptyMessage(recycledList, "norecycles");
+
+        btnRecycleSelected = createBulkButton(GuiListHelper.COLOR_RECYCLED);
+        btnRecycleSelected.addActionListener(_ -> recycleSelected());
+        btnCancelSelected = createBulkButton(new Color(231, 76, 60));
+        btnCancelSelected.addActionListener(_ -> cancelSelected());
+        
+        JPanel reservedTab = new JPanel(new BorderLayout(0, 5));
+        reservedTab.setOpaque(false);
+        reservedTab.add(GuiListHelper.createScrollPane(reservedList), BorderLayout.CENTER);
+        reservedTab.add(createBulkBar(reservedList, btnRecycleSelected, btnCancelSelected), BorderLayout.SOUTH);
 
-        tabbedPane.addTab(Localization.get("reservedones"), GuiListHelper.createScrollPane(pnlReservedList));
-        tabbedPane.addTab(Localization.get("recycledones"), GuiListHelper.createScrollPane(pnlRecycledList));
+        LocalizedText.addTab(tabbedPane, "reservedones", reservedTab);
+        LocalizedText.addTab(tabbedPane, "recycledones", GuiListHelper.createScrollPane(recycledList));
         
         container.add(tabbedPane, BorderLayout.CENTER);
         return container;
     }
     
-    // Data refreshing
-    private void refreshData() {
-        AppUtils.runAsync(this, () -> refreshDataInternal());
+    // Bulk action bar: select all / clear toggle and the action buttons, which show the selection count
+    private JPanel createBulkBar(CardList<DisposalRecord> list, JButton... actions) {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        bar.setOpaque(false);
+        
+        JButton btnSelectAll = LocalizedText.text(new JButton(), "selectall");
+        btnSelectAll.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        btnSelectAll.setFocusPainted(false);
+        btnSelectAll.addActionListener(_ -> {
+            if (list.getSelectedIndices().length == list.getItemCount()) list.clearSelection();
+            else list.selectAll();
+        });
+        bar.add(btnSelectAll);
+        for (JButton action : actions) bar.add(action);
+        
+        list.addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting()) return;
+            int count = list.getSelectedIndices().length;
+            boolean all = count > 0 && count == list.getItemCount();
+            LocalizedText.text(btnSelectAll, all ? "clearselection" : "selectall");
+            updateBulkButtons();
+        });
+        updateBulkButtons();
+        return bar;
+    }
+    
+    private JButton createBulkButton(Color color) {
+        JButton btn = new JButton();
+        btn.setFont(new Font("Segoe UI", Font.BOLD, 11));
+        btn.setFocusPainted(false);
+        btn.setBackground(color);
+        btn.setForeground(Color.WHITE);
+        return btn;
     }
     
+    private void updateBulkButtons() {
+        if (btnReserveSelected != null && availableList != null) {
+            int count = availableList.getSelectedIndices().length;
+            btnReserveSelected.setText(Localization.get("reserveselected", count));
+            btnReserveSelected.setEnabled(count > 0);
+        }
+        if (btnRecycleSelected != null && reservedList != null) {
+            int count = reservedList.getSelectedIndices().length;
+            btnRecycleSelected.setText(Localization.get("recycleselected", count));
+            btnRecycleSelected.setEnabled(count > 0);
+            btnCancelSelected.setText(Localization.get("cancelselected", count));
+            btnCancelSelected.setEnabled(count > 0);
+        }
+    }
+    
+    // Data refreshing, full load (first load and filter changes)
     private void refreshDataInternal() throws Exception {
-        List<DisposalRecord> filteredList = DisposalData.getAvailableDisposalsFiltered(currentFilter, companyTaxNumber);
+        PanelRefreshEvent event = new PanelRefreshEvent("CompanyDashboardPanel");
+        event.begin();
         
-        CompanyStats stats = ProfileData.getCompanyStats(companyTaxNumber, currentStatsRange);
-        List<DisposalRecord> reserved = ProfileData.getCompanyReservedDisposals(companyTaxNumber);
-        List<DisposalRecord> recycled = ProfileData.getCompanyRecycledDisposals(companyTaxNumber);
+        Snapshot snapshot = CompanyDisposalModel.load(companyTaxNumber, currentFilter);
 
         // UI
         SwingUtilities.invokeLater(() -> {
-            updateAvailablePanel(filteredList);
-            updateStatsPanel(stats);
-            updateReservedPanel(reserved);
-            updateRecycledPanel(recycled);
+            model.reset(snapshot);
+            render();
+            event.commit();
         });
     }
     
-    private void updateAvailablePanel(List<DisposalRecord> list) {
-        pnlAvailableList.removeAll();
-        
-        if (list.isEmpty()) {
-            String msg = (currentFilter != null) ? Localization.get("nodisposals") : Localization.get("nodisposalrecord");
-            GuiListHelper.addEmptyMessage(pnlAvailableList, msg);
-        } else {
-            for (DisposalRecord rec : list) {
-                pnlAvailableList.add(createAvailableItem(rec));
-                pnlAvailableList.add(Box.createVerticalStrut(GAP));
+    // Only the disposals changed after the last read, one query instead of the four of a full load.
+    // Runs one at a time, a request while a sync is running starts another one after it.
+    private void syncChanges() {
+        if (!model.isLoaded()) return;
+        if (syncing) {
+            syncAgain = true;
+            return;
+        }
+        syncing = true;
+        
+        long since = model.getWatermark();
+        int generation = model.getGeneration();
+        DisposalFilter filter = currentFilter;
+        AppUtils.runAsync(this, 
+            () -> {
+                Changes changes = DisposalData.getCompanyDisposalChanges(companyTaxNumber, filter, since);
+                // Hidden too long, the changes after the watermark are pruned
+                if (changes.expired) {
+                    refreshDataInternal();
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (model.apply(generation, changes) && !changes.changes.isEmpty()) render();
+                });
+            },
+            () -> SwingUtilities.invokeLater(() -> {
+                syncing = false;
+                if (syncAgain) {
+                    syncAgain = false;
+                    syncChanges();
+                }
+            })
+        );
+    }
+    
+    private void render() {
+        updateAvailablePanel(model.getAvailable());
+        updateStatsPanel(model.getStats(currentStatsRange));
+        updateReservedPanel(model.getReserved());
+        updateRecycledPanel(model.getRecycled());
+    }
+    
+    // Disposals reserved by other companies or deleted are only removed from the list,
+    // anything else which can change what this company sees is synced once for the whole batch
+    private void onDatabaseChanges(List<ChangeEvent> events) {
+        boolean sync = false;
+        boolean removed = false;
+        
+        for (ChangeEvent e : events) {
+            if (e.table == Table.RESYNC) {
+                sync = true;
+                break;
+            }
+            // Reservation rows never change alone, their reservation_disposal or disposal change comes too
+            if (e.table == Table.RESERVATION || isOwnWrite(e)) continue;
+            
+            boolean takenAway = (e.table == Table.RESERVATION_DISPOSAL && e.op == Operation.INSERT && !companyTaxNumber.equals(e.owner))
+                    || (e.table == Table.DISPOSAL && e.op == Operation.DELETE);
+            
+            if (takenAway && !e.isAll()) {
+                removed |= model.removeAvailable(e.ids);
+                if (e.table == Table.DISPOSAL && e.ids.stream().anyMatch(model::contains)) sync = true;
+            } else if (e.table == Table.DISPOSAL && e.op == Operation.UPDATE && !e.isAll()) {
+                // Updates of disposals which are not on the screen don't matter
+                if (e.ids.stream().anyMatch(model::contains)) sync = true;
+            } else {
+                sync = true;
             }
         }
-        GuiListHelper.refreshPanel(pnlAvailableList);
+        
+        if (removed) render();
+        if (sync) syncChanges();
+    }
+    
+    private void expectOwnWrite(Collection<Integer> ids) {
+        long until = System.currentTimeMillis() + OWN_WRITE_MILLIS;
+        for (int id : ids) ownWrites.put(id, until);
+    }
+    
+    private boolean isOwnWrite(ChangeEvent e) {
+        long now = System.currentTimeMillis();
+        ownWrites.values().removeIf(until -> until < now);
+        if (e.isAll() || e.ids.isEmpty() || e.table == Table.RESYNC) return false;
+        
+        for (int id : e.ids) {
+            if (!ownWrites.containsKey(id)) return false;
+        }
+        return true;
+    }
+    
+    private void updateAvailablePanel(List<DisposalRecord> list) {
+        String msg = (currentFilter != null) ? Localization.get("nodisposals") : Localization.get("nodisposalrecord");
+        availableList.setEmptyMessage(msg);
+        showItems(availableList, list);
     }
 
     private void updateStatsPanel(CompanyStats stats) {
@@ -310,229 +506,299 @@ public class CompanyDashboardPanel extends JPanel {
     }
 
     private void updateReservedPanel(List<DisposalRecord> list) {
-        pnlReservedList.removeAll();
-        if (list.isEmpty()) GuiListHelper.addEmptyMessage(pnlReservedList, Localization.get("noreservations"));
-        else {
-            for (DisposalRecord rec : list) {
-                pnlReservedList.add(createReservedItem(rec));
-                pnlReservedList.add(Box.createVerticalStrut(GAP));
-            }
-        }
-        GuiListHelper.refreshPanel(pnlReservedList);
+        showItems(reservedList, list);
     }
 
     private void updateRecycledPanel(List<DisposalRecord> list) {
-        pnlRecycledList.removeAll();
-        if (list.isEmpty()) GuiListHelper.addEmptyMessage(pnlRecycledList, Localization.get("norecycles"));
-        else {
-            for (DisposalRecord rec : list) {
-                pnlRecycledList.add(createRecycledItem(rec));
-                pnlRecycledList.add(Box.createVerticalStrut(GAP));
-            }
-        }
-        GuiListHelper.refreshPanel(pnlRecycledList);
+        showItems(recycledList, list);
     }
     
-    // Helper methods
-    private JPanel createAvailableItem(DisposalRecord rec) {
-        Color borderColor = getColorForType(rec.disposalTypeName);
-        
-        JPanel panel = GuiListHelper.createBaseCard(borderColor, ITEM_HEIGHT);
+    // Lists are rendered again after every change, selected cards which are still in the list stay selected
+    private static void showItems(CardList<DisposalRecord> list, List<DisposalRecord> items) {
+        Set<Integer> selected = new HashSet<>(selectedIds(list));
+        list.setItems(items);
+        if (selected.isEmpty()) return;
         
-        String translatedType = rec.getName();
-        String htmlContent = String.format(
-            "<html>" +
-            "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-            "<b style='font-size:13px; color:#000000;'>%s</b><br>" +
-            Localization.get("disposaldate") + ": <span style='color:#555555;'>%s</span><br>" +
-            "<b>%s kg</b> / <b>%s m³</b><br>" +
-            "<span style='color:#2c3e50;'>" + Localization.get("scorevalue") + ": <b>%s</b></span>" +
-            "</div></html>",
-            translatedType, rec.discardDate, rec.weight, rec.volume, df.format(rec.score)
-        );
-        panel.add(new JLabel(htmlContent), BorderLayout.CENTER);
-
-        JButton btnReserve = new JButton(Localization.get("reserve"));
-        btnReserve.setFont(new Font("Segoe UI", Font.BOLD, 11));
-        btnReserve.setPreferredSize(new Dimension(100, 30));
-        btnReserve.setFocusPainted(false);
-        btnReserve.setVisible(false);
-
-        boolean isAllowed = allowedTypes != null && allowedTypes.contains(rec.disposalTypeName);
-
-        if (isAllowed) {
-            btnReserve.setBackground(GuiListHelper.COLOR_RESERVED);
-            btnReserve.setForeground(Color.WHITE);
-            
-            btnReserve.addActionListener(_ -> {
-                AppUtils.runAsync(this, () -> {
-                    boolean success = DisposalData.reserveDiscardedDisposal(companyTaxNumber, rec.ddno);
-                    if (!success) {
-                    	throw new AppUtils.DialogException(Localization.get("failed"));
-                    }
-                    SwingUtilities.invokeLater(() -> {
-                    	refreshData();
-                    	if (success)
-                    		GuiHelper.showMessage(Localization.get("disposalreserved"));
-                    });
-                });
-            });
-
-            panel.addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) { 
-                    panel.setBackground(new Color(255, 240, 230));
-                    btnReserve.setVisible(true); 
-                }
-                public void mouseExited(MouseEvent e) { 
-                    if(!panel.contains(e.getPoint())) { 
-                        panel.setBackground(GuiListHelper.CARD_BG); 
-                        btnReserve.setVisible(false); 
-                    }
-                }
-            });
-        } else {
-            btnReserve.setText(Localization.get("outofscope"));
-            btnReserve.setBackground(new Color(230, 230, 230)); 
-            btnReserve.setForeground(Color.GRAY);
-            btnReserve.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
-            
-            panel.addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) { btnReserve.setVisible(true); }
-                public void mouseExited(MouseEvent e) { 
-                    if(!panel.contains(e.getPoint())) btnReserve.setVisible(false); 
-                }
-            });
-            
-            btnReserve.addActionListener(_ -> GuiHelper.showMessage(Localization.get("outofscopetext")));
+        ListSelectionModel selection = list.getSelectionModel();
+        selection.setValueIsAdjusting(true);
+        for (int i = 0; i < items.size(); i++) {
+            if (selected.contains(items.get(i).ddno)) selection.addSelectionInterval(i, i);
         }
-
-        JPanel btnWrapper = new JPanel(new GridBagLayout());
-        btnWrapper.setOpaque(false);
-        btnWrapper.add(btnReserve);
-        
-        panel.add(btnWrapper, BorderLayout.EAST);
-        
-        return panel;
+        selection.setValueIsAdjusting(false);
     }
+    
+    // List cards, each list paints all of its rows with one reused card
+    // Hover and button colors of the cards, shared by every painted row
+    private static final Color HOVER_AVAILABLE = new Color(255, 240, 230);
+    private static final Color HOVER_RESERVED = new Color(255, 248, 240);
+    private static final Color HOVER_RECYCLED = new Color(245, 255, 245);
+    private static final Color HOVER_RECYCLE_BUTTON = new Color(39, 174, 96);
+    private static final Color OUT_OF_SCOPE_BUTTON = new Color(230, 230, 230);
+    private static final Border OUT_OF_SCOPE_BORDER = BorderFactory.createLineBorder(Color.LIGHT_GRAY);
+
+    private class AvailableCardRenderer implements CardList.CardRenderer<DisposalRecord> {
+        private final JPanel panel = GuiListHelper.createBaseCard(GuiListHelper.COLOR_DEFAULT, ITEM_HEIGHT);
+        private final JLabel lblContent = new JLabel();
+        private final JButton btnReserve = new JButton();
+        private final Border defaultButtonBorder;
+        private final CardTemplate html = CardTemplate.bind(CompanyDashboardPanel.this, "template.available", () ->
+                "<html>" +
+                "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+                "<b style='font-size:13px; color:#000000;'>{}</b><br>" +
+                Localization.get("disposaldate") + ": <span style='color:#555555;'>{}</span><br>" +
+                "<b>{} kg</b> / <b>{} m³</b><br>" +
+                "<span style='color:#2c3e50;'>" + Localization.get("scorevalue") + ": <b>{}</b></span>" +
+                "</div></html>");
+
+        AvailableCardRenderer() {
+            panel.add(lblContent, BorderLayout.CENTER);
+
+            btnReserve.setFont(new Font("Segoe UI", Font.BOLD, 11));
+            btnReserve.setPreferredSize(new Dimension(100, 30));
+            btnReserve.setFocusPainted(false);
+            btnReserve.putClientProperty(CardList.ACTION_KEY, "reserve");
+            defaultButtonBorder = btnReserve.getBorder();
+
+            JPanel btnWrapper = new JPanel(new GridBagLayout());
+            btnWrapper.setOpaque(false);
+            btnWrapper.add(btnReserve);
+            panel.add(btnWrapper, BorderLayout.EAST);
+        }
 
-    private JPanel createReservedItem(DisposalRecord rec) {
-        JPanel panel = GuiListHelper.createBaseCard(GuiListHelper.COLOR_RESERVED, ITEM_HEIGHT);
-        String translatedType = rec.getName();
-        
-        String htmlContent = String.format(
-            "<html>" +
-            "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-            "<b style='font-size:13px; color:#000000;'>%s</b><br>" +
-            Localization.get("reservationdate") + ": <span style='color:#555555;'>%s</span><br>" +
-            "<b>%s kg</b> / <b>%s m³</b><br>" +
-            "<span style='color:#d35400;'><i>" + Localization.get("pendingaction") + "</i></span>" +
-            "</div></html>",
-            translatedType, rec.resDate, rec.weight, rec.volume
-        );
-        
-        panel.add(new JLabel(htmlContent), BorderLayout.CENTER);
-
-        JPanel btnPanel = new JPanel(new GridLayout(2, 1, 0, 5)); 
-        btnPanel.setOpaque(false);
-
-        Dimension btnSize = new Dimension(110, 22);
-        Font btnFont = new Font("Segoe UI", Font.BOLD, 10);
+        @Override
+        public Component getCard(DisposalRecord rec, int index, boolean hovered, String hoveredAction) {
+            panel.setBorder(GuiListHelper.createCardBorder(getColorForType(rec.disposalTypeName)));
+            lblContent.setText(html.fill(rec.getName(), rec.discardDate, rec.weight, rec.volume, df.format(rec.score)));
+
+            if (isAllowed(rec)) {
+                btnReserve.setText(Localization.get("reserve"));
+                btnReserve.setBackground(GuiListHelper.COLOR_RESERVED);
+                btnReserve.setForeground(Color.WHITE);
+                btnReserve.setBorder(defaultButtonBorder);
+                panel.setBackground(hovered ? HOVER_AVAILABLE : GuiListHelper.CARD_BG);
+            } else {
+                btnReserve.setText(Localization.get("outofscope"));
+                btnReserve.setBackground(OUT_OF_SCOPE_BUTTON); 
+                btnReserve.setForeground(Color.GRAY);
+                btnReserve.setBorder(OUT_OF_SCOPE_BORDER);
+                panel.setBackground(GuiListHelper.CARD_BG);
+            }
+            btnReserve.setVisible(hovered);
+            return panel;
+        }
+    }
 
-        JButton btnConfirm = new JButton(Localization.get("recycle"));
-        btnConfirm.setBackground(GuiListHelper.COLOR_RECYCLED);
-        btnConfirm.setForeground(Color.WHITE);
-        btnConfirm.setFocusPainted(false);
-        btnConfirm.setFont(btnFont);
-        btnConfirm.setPreferredSize(btnSize);
-        btnConfirm.setBorder(BorderFactory.createEmptyBorder()); 
+    private class ReservedCardRenderer implements CardList.CardRenderer<DisposalRecord> {
+        private final JPanel panel = GuiListHelper.createBaseCard(GuiListHelper.COLOR_RESERVED, ITEM_HEIGHT);
+        private final JLabel lblContent = new JLabel();
+        private final JButton btnConfirm = new JButton();
+        private final JButton btnCancel = new JButton();
+        private final JPanel wrapper = new JPanel(new GridBagLayout());
+        private final Color redText = new Color(231, 76, 60);
+        private final CardTemplate html = CardTemplate.bind(CompanyDashboardPanel.this, "template.reserved", () ->
+                "<html>" +
+                "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+                "<b style='font-size:13px; color:#000000;'>{}</b><br>" +
+                Localization.get("reservationdate") + ": <span style='color:#555555;'>{}</span><br>" +
+                "<b>{} kg</b> / <b>{} m³</b><br>" +
+                "<span style='color:#d35400;'><i>" + Localization.get("pendingaction") + "</i></span>" +
+                "</div></html>");
+
+        ReservedCardRenderer() {
+            panel.add(lblContent, BorderLayout.CENTER);
+
+            JPanel btnPanel = new JPanel(new GridLayout(2, 1, 0, 5)); 
+            btnPanel.setOpaque(false);
+
+            Dimension btnSize = new Dimension(110, 22);
+            Font btnFont = new Font("Segoe UI", Font.BOLD, 10);
+
+            btnConfirm.setForeground(Color.WHITE);
+            btnConfirm.setFocusPainted(false);
+            btnConfirm.setFont(btnFont);
+            btnConfirm.setPreferredSize(btnSize);
+            btnConfirm.setBorder(BorderFactory.createEmptyBorder()); 
+            btnConfirm.putClientProperty(CardList.ACTION_KEY, "recycle");
+
+            btnCancel.setBorder(BorderFactory.createLineBorder(redText)); 
+            btnCancel.setFocusPainted(false);
+            btnCancel.setFont(btnFont);
+            btnCancel.setPreferredSize(btnSize);
+            btnCancel.putClientProperty(CardList.ACTION_KEY, "cancel");
+
+            btnPanel.add(btnConfirm);
+            btnPanel.add(btnCancel);
+
+            wrapper.setOpaque(false);
+            wrapper.add(btnPanel);
+            panel.add(wrapper, BorderLayout.EAST);
+        }
 
-        btnConfirm.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) { btnConfirm.setBackground(new Color(39, 174, 96)); }
-            public void mouseExited(MouseEvent e) { btnConfirm.setBackground(GuiListHelper.COLOR_RECYCLED); }
-        });
+        @Override
+        public Component getCard(DisposalRecord rec, int index, boolean hovered, String hoveredAction) {
+            lblContent.setText(html.fill(rec.getName(), rec.resDate, rec.weight, rec.volume));
 
-        JButton btnCancel = new JButton(Localization.get("cancel"));
-        Color redText = new Color(231, 76, 60);
-        btnCancel.setBackground(Color.WHITE);
-        btnCancel.setForeground(redText);
-        btnCancel.setBorder(BorderFactory.createLineBorder(redText)); 
-        btnCancel.setFocusPainted(false);
-        btnCancel.setFont(btnFont);
-        btnCancel.setPreferredSize(btnSize);
-
-        btnCancel.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) { btnCancel.setBackground(redText); btnCancel.setForeground(Color.WHITE); }
-            public void mouseExited(MouseEvent e) { btnCancel.setBackground(Color.WHITE); btnCancel.setForeground(redText); }
-        });
-        
-        btnCancel.addActionListener(_ -> {
-            AppUtils.runAsync(this, () -> {
-                ReservationData.cancelReservation(rec.ddno);
-                SwingUtilities.invokeLater(() -> refreshData());
-            });
-        });
+            btnConfirm.setText(Localization.get("recycle"));
+            btnConfirm.setBackground("recycle".equals(hoveredAction) ? HOVER_RECYCLE_BUTTON : GuiListHelper.COLOR_RECYCLED);
 
-        btnConfirm.addActionListener(_ -> {
-            AppUtils.runAsync(this, () -> {
-                DisposalData.completeRecycling(rec.ddno);
-                SwingUtilities.invokeLater(() -> refreshData());
-            });
-        });
+            boolean cancelHovered = "cancel".equals(hoveredAction);
+            btnCancel.setText(Localization.get("cancel"));
+            btnCancel.setBackground(cancelHovered ? redText : Color.WHITE);
+            btnCancel.setForeground(cancelHovered ? Color.WHITE : redText);
 
-        btnPanel.add(btnConfirm);
-        btnPanel.add(btnCancel);
+            panel.setBackground(hovered ? HOVER_RESERVED : GuiListHelper.CARD_BG);
+            wrapper.setVisible(hovered);
+            return panel;
+        }
+    }
 
-        JPanel wrapper = new JPanel(new GridBagLayout());
-        wrapper.setOpaque(false);
-        wrapper.add(btnPanel);
-        wrapper.setVisible(false);
+    private class RecycledCardRenderer implements CardList.CardRenderer<DisposalRecord> {
+        private final JPanel panel = GuiListHelper.createBaseCard(GuiListHelper.COLOR_RECYCLED, ITEM_HEIGHT);
+        private final JLabel lblContent = new JLabel();
+        private final CardTemplate html = CardTemplate.bind(CompanyDashboardPanel.this, "template.recycled", () ->
+                "<html>" +
+                "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+                "<b style='font-size:13px; color:#000000;'>{}</b><br>" +
+                Localization.get("recycledate") + ": <span style='color:#555555;'>{}</span><br>" +
+                "<b>{} kg</b> / <b>{} m³</b><br>" +
+                "<span style='color:#27ae60;'><b>" + Localization.get("recycled") + "</b></span>" +
+                "</div></html>");
+
+        RecycledCardRenderer() {
+            panel.add(lblContent, BorderLayout.CENTER);
+            panel.add(new JLabel("<html><span style='color:green; font-size:24px'>✓</span></html>"), BorderLayout.EAST);
+        }
 
-        panel.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) { 
-                panel.setBackground(new Color(255, 248, 240)); 
-                wrapper.setVisible(true); 
-            }
-            public void mouseExited(MouseEvent e) { 
-                if(!panel.contains(e.getPoint())) { 
-                    panel.setBackground(GuiListHelper.CARD_BG); 
-                    wrapper.setVisible(false); 
-                }
-            }
-        });
+        @Override
+        public Component getCard(DisposalRecord rec, int index, boolean hovered, String hoveredAction) {
+            lblContent.setText(html.fill(rec.getName(), rec.recDate, rec.weight, rec.volume));
+            panel.setBackground(hovered ? HOVER_RECYCLED : GuiListHelper.CARD_BG);
+            return panel;
+        }
+    }
 
-        panel.add(wrapper, BorderLayout.EAST);
-        return panel;
+    private boolean isAllowed(DisposalRecord rec) {
+        return allowedTypes != null && allowedTypes.contains(rec.disposalTypeName);
     }
 
-    private JPanel createRecycledItem(DisposalRecord rec) {
-        JPanel panel = GuiListHelper.createBaseCard(GuiListHelper.COLOR_RECYCLED, ITEM_HEIGHT);
-        String translatedType = rec.getName();
+    // List actions, cards are moved at once and the write runs in the background.
+    // Items which could not be written are put back, then the real state is synced.
+    @FunctionalInterface
+    private interface Write {
+        Collection<Integer> execute() throws Exception; // ids which were not written
+    }
+    
+    private void writeOptimistic(Move move, Write write) {
+        Collection<Integer> ids = move.getIds();
+        if (ids.isEmpty()) return;
+        
+        expectOwnWrite(ids);
+        render();
         
-        String htmlContent = String.format(
-            "<html>" +
-            "<div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-            "<b style='font-size:13px; color:#000000;'>%s</b><br>" +
-            Localization.get("recycledate") + ": <span style='color:#555555;'>%s</span><br>" +
-            "<b>%s kg</b> / <b>%s m³</b><br>" +
-            "<span style='color:#27ae60;'><b>" + Localization.get("recycled") + "</b></span>" +
-            "</div></html>",
-            translatedType, rec.recDate, rec.weight, rec.volume
+        // Everything is rolled back if the write throws
+        AtomicReference<Collection<Integer>> failed = new AtomicReference<>(ids);
+        AppUtils.runAsync(this, 
+            () -> failed.set(write.execute()),
+            () -> SwingUtilities.invokeLater(() -> {
+                DataStore.invalidateReservations(); // Statistics and leaderboards of the others
+                if (!failed.get().isEmpty()) {
+                    move.rollback(failed.get());
+                    render();
+                }
+                syncChanges();
+            })
         );
+    }
+    
+    private static List<Integer> failedIds(Map<Integer, ?> results, Object success) {
+        List<Integer> failed = new ArrayList<>();
+        results.forEach((id, result) -> {
+            if (!success.equals(result)) failed.add(id);
+        });
+        return failed;
+    }
+    
+    private void reserveDisposal(DisposalRecord rec) {
+        if (!isAllowed(rec)) {
+            GuiHelper.showMessage(Localization.get("outofscopetext"));
+            return;
+        }
         
-        panel.add(new JLabel(htmlContent), BorderLayout.CENTER);
+        writeOptimistic(model.reserve(List.of(rec.ddno)), () -> {
+            ReserveResult result = DisposalData.reserveDiscardedDisposal(companyTaxNumber, rec.ddno);
+            SwingUtilities.invokeLater(() -> {
+            	switch (result) {
+            		case RESERVED -> GuiHelper.showMessage(Localization.get("disposalreserved"));
+            		case TAKEN -> GuiHelper.showMessage(Localization.get("disposaltaken"));
+            		case NOT_ALLOWED -> GuiHelper.showMessage(Localization.get("outofscopetext"));
+            	}
+            });
+            return (result == ReserveResult.RESERVED) ? List.of() : List.of(rec.ddno);
+        });
+    }
+
+    // Bulk actions, one write for all selected cards
+    private static List<Integer> selectedIds(CardList<DisposalRecord> list) {
+        List<Integer> ids = new ArrayList<>();
+        for (DisposalRecord rec : list.getSelectedItems()) ids.add(rec.ddno);
+        return ids;
+    }
+    
+    private void reserveSelected() {
+        List<Integer> ids = selectedIds(availableList);
+        if (ids.isEmpty()) return;
         
-        JLabel lblDone = new JLabel("<html><span style='color:green; font-size:24px'>✓</span></html>");
-        panel.add(lblDone, BorderLayout.EAST);
+        writeOptimistic(model.reserve(ids), () -> {
+            Map<Integer, ReserveResult> results = DisposalData.reserveDiscardedDisposals(companyTaxNumber, ids);
+            
+            Map<ReserveResult, Integer> counts = new EnumMap<>(ReserveResult.class);
+            for (ReserveResult r : ReserveResult.values()) counts.put(r, 0);
+            for (ReserveResult r : results.values()) counts.merge(r, 1, Integer::sum);
+            
+            SwingUtilities.invokeLater(() -> GuiHelper.showMessage(Localization.get("bulkreserveresult",
+                    counts.get(ReserveResult.RESERVED), counts.get(ReserveResult.TAKEN), counts.get(ReserveResult.NOT_ALLOWED))));
+            return failedIds(results, ReserveResult.RESERVED);
+        });
+    }
+    
+    private void recycleSelected() {
+        List<Integer> ids = selectedIds(reservedList);
+        if (ids.isEmpty()) return;
+        if (!GuiHelper.confirm(this, Localization.get("confirm"), Localization.get("confirmbulkrecycle", ids.size()), Localization.get("yes"), Localization.get("no"))) return;
         
-        panel.addMouseListener(new MouseAdapter() {
-            public void mouseEntered(MouseEvent e) { panel.setBackground(new Color(245, 255, 245)); }
-            public void mouseExited(MouseEvent e) { panel.setBackground(GuiListHelper.CARD_BG); }
+        writeOptimistic(model.recycle(ids), () -> {
+            Map<Integer, Boolean> results = DisposalData.completeRecyclings(companyTaxNumber, ids);
+            int done = (int) results.values().stream().filter(Boolean::booleanValue).count();
+            
+            SwingUtilities.invokeLater(() -> GuiHelper.showMessage(Localization.get("bulkrecycleresult", done, results.size() - done)));
+            return failedIds(results, Boolean.TRUE);
         });
+    }
+    
+    private void cancelSelected() {
+        List<Integer> ids = selectedIds(reservedList);
+        if (ids.isEmpty()) return;
+        if (!GuiHelper.confirm(this, Localization.get("confirm"), Localization.get("confirmbulkcancel", ids.size()), Localization.get("yes"), Localization.get("no"))) return;
         
-        return panel;
+        writeOptimistic(model.cancel(ids), () -> {
+            Map<Integer, Boolean> results = ReservationData.cancelReservations(companyTaxNumber, ids);
+            int done = (int) results.values().stream().filter(Boolean::booleanValue).count();
+            
+            SwingUtilities.invokeLater(() -> GuiHelper.showMessage(Localization.get("bulkcancelresult", done, results.size() - done)));
+            return failedIds(results, Boolean.TRUE);
+        });
+    }
+
+    private void handleReservedAction(String action, DisposalRecord rec) {
+        if ("recycle".equals(action)) {
+            writeOptimistic(model.recycle(List.of(rec.ddno)),
+                () -> DisposalData.completeRecycling(rec.ddno) ? List.of() : List.of(rec.ddno));
+        } else if ("cancel".equals(action)) {
+            writeOptimistic(model.cancel(List.of(rec.ddno)),
+                () -> ReservationData.cancelReservation(rec.ddno) ? List.of() : List.of(rec.ddno));
+        }
     }
     
-    // Helper methods
     private void addStatCard(String title, String value, Color color) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(Color.WHITE);
@@ -554,19 +820,19 @@ public class CompanyDashboardPanel extends JPanel {
         pnlStatsGrid.add(card);
     }
 
+    // Card edge colors per disposal type (not localizable text), constants so the card borders are shared
+    private static final Map<String, Color> TYPE_COLORS = Map.of(
+        "Paper", GuiListHelper.COLOR_AVAILABLE,
+        "Plastic", new Color(241, 196, 15),
+        "Glass", GuiListHelper.COLOR_RECYCLED,
+        "Metal", new Color(155, 89, 182),
+        "Organic", new Color(211, 84, 0),
+        "Electronic", new Color(52, 73, 94)
+    );
+
     private Color getColorForType(String type) {
         if (type == null) return GuiListHelper.COLOR_DEFAULT;
-        
-        // not localizable text
-        switch (type) {
-            case "Paper": return GuiListHelper.COLOR_AVAILABLE;
-            case "Plastic": return new Color(241, 196, 15);
-            case "Glass": return GuiListHelper.COLOR_RECYCLED;
-            case "Metal": return new Color(155, 89, 182);
-            case "Organic": return new Color(211, 84, 0);
-            case "Electronic": return new Color(52, 73, 94);
-            default: return GuiListHelper.COLOR_DEFAULT;
-        }
+        return TYPE_COLORS.getOrDefault(type, GuiListHelper.COLOR_DEFAULT);
     }
     
     private void openFilterDialog() {
@@ -745,8 +1011,7 @@ public class CompanyDashboardPanel extends JPanel {
         AppUtils.runAsync(this, () -> {
             this.currentFilter = filter;
             SwingUtilities.invokeLater(() -> {
-                String text = "<html><b>" + Localization.get("filter") + ":</b> " + Localization.get("active") + "</html>"; 
-                lblActiveFilterText.setText(text);
+                LocalizedText.text(lblActiveFilterText, () -> "<html><b>" + Localization.get("filter") + ":</b> " + Localization.get("active") + "</html>");
                 pnlActiveFilterContainer.setVisible(true);
             });
             refreshDataInternal();
@@ -2,22 +2,34 @@ package gui.panels;
 
 import app.AppUtils;
 import app.Localization;
+import app.Localization.Language;
+import app.TaskGroup;
+import app.AppEvents.PanelRefreshEvent;
 import data.DashboardData;
+import data.DataStore;
 import data.DisposalData;
 import data.DisposalData.*;
 import data.ReservationData;
+import database.ChangeNotifier.Table;
+import gui.CardList;
+import gui.CardTemplate;
 import gui.GuiHelper;
+import gui.LocalizedText;
 import gui.GuiListHelper;
+import gui.LiveUpdates;
 import gui.MainFrame;
+import gui.PanelLifecycle;
+import gui.StoreBinding;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
 import java.util.List;
+import java.util.function.Consumer;
 import java.text.SimpleDateFormat;
 
-public class DashboardPanel extends JPanel {
+public class DashboardPanel extends JPanel implements PanelLifecycle {
 
     private static final long serialVersionUID = 1L;
     public MainFrame mainFrame;
@@ -28,7 +40,7 @@ public class DashboardPanel extends JPanel {
     private final int GAP = 4;
     
     // Data Control
-    private int feedLimit = 100; // Default = 100
+    private int feedLimit = 100; // Page size of the feeds, default = 100
     
     // UI Elements
     private JLabel lblUserInfo;
@@ -37,17 +49,53 @@ public class DashboardPanel extends JPanel {
     private JSpinner spinnerLimit;
     
     // List components
-    private JPanel neighborListPanel; 
-    private JPanel companyListPanel;
-    private JPanel disposalListPanel;
-    private JPanel reservationListPanel;
-    private JPanel recycledListPanel;
+    private CardList<DashboardData.LeaderboardEntry> neighborList; 
+    private CardList<DashboardData.LeaderboardEntry> companyList;
+    private Consumer<List<DashboardData.LeaderboardEntry>> showNeighbors; // Also get the leaderboards loaded by other panels
+    private Consumer<List<DashboardData.LeaderboardEntry>> showCompanies;
+    private String leaderUsername; // Highlighted row of the leaderboards
+    private String leaderRole;
+    
+    // Feeds (loaded page by page while scrolling)
+    private Feed disposalFeed;
+    private Feed reservationFeed;
+    private Feed recycledFeed;
     
     // Middle part
     private JPanel centerPanel; 
     
+    // Running loads (cancelled when panel is closed or refreshed again)
+    private TaskGroup dataLoads;
+    private TaskGroup feedLoads;
+    private boolean loaded = false; // Last full refresh finished without being cancelled
+    
     // Formats
     private static final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    private static final DecimalFormat df = new DecimalFormat("0.00");
+    static {
+        df.setRoundingMode(RoundingMode.HALF_UP); // Same as %.2f
+    }
+    
+    // Feed card html, labels are filled in once per language
+    private final CardTemplate recycledDisposalHtml = CardTemplate.bind(this, "template.disposal.recycled",
+            () -> disposalPattern("#27ae60", Localization.get("recycled") + ": {}"));
+    private final CardTemplate reservedDisposalHtml = CardTemplate.bind(this, "template.disposal.reserved",
+            () -> disposalPattern("#d35400", Localization.get("reserved") + ": {}"));
+    private final CardTemplate availableDisposalHtml = CardTemplate.bind(this, "template.disposal.available",
+            () -> disposalPattern("#2980b9", Localization.get("available")));
+    private final CardTemplate reservationHtml = CardTemplate.bind(this, "template.reservation", () ->
+            "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+            "<b style='font-size:13px; color:#000000;'>{}</b><br>" + 
+            Localization.get("reservationdate") + ": <span style='color:#555555;'>{}</span><br>" +
+            "<b>{} kg</b> / <b>{} m³</b><br>" + 
+            Localization.get("reserver") + ": <span style='color:#d35400;'><b>{}</b></span></div></html>");
+    private final CardTemplate recycledHtml = CardTemplate.bind(this, "template.recycled", () ->
+            "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+            "<b style='font-size:13px; color:#000000;'>{}</b><br>" + 
+            "<b>{} kg</b> / <b>{} m³</b><br>" + 
+            Localization.get("recycledate") + ": <span style='color:#555555;'>{}</span><br>" + 
+            Localization.get("gainedscore") + ": <b>{}</b><br>" + 
+            Localization.get("recycler") + ": <span style='color:#27ae60;'><b>{}</b></span></div></html>");
 
     public DashboardPanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -69,14 +117,30 @@ public class DashboardPanel extends JPanel {
         centerPanel.setOpaque(false);
         add(centerPanel, BorderLayout.CENTER);
 
-        this.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentShown(ComponentEvent e) {
-                refreshDashboard();
+        // Feeds follow database changes, a longer window since every client of the city shows them
+        LiveUpdates.attach(this, 2000, events -> {
+            if (LiveUpdates.touches(events, Table.DISPOSAL, Table.RESERVATION_DISPOSAL)) {
+                refreshFeedsOnly();
+                refreshLeaderboards();
             }
         });
     }
 
+    @Override
+    public void activate(boolean stale) {
+        if (stale || !loaded) refreshDashboard();
+    }
+    
+    @Override
+    public void deactivate() {
+        cancelLoads();
+    }
+    
+    @Override
+    public void dispose() {
+        cancelLoads();
+    }
+
     // Live preview menu
     private void createLeftSidebar() {
         JPanel leftSidebar = new JPanel(new BorderLayout(0, 5));
@@ -88,7 +152,7 @@ public class DashboardPanel extends JPanel {
         headerPanel.setOpaque(false);
         headerPanel.setBorder(new EmptyBorder(0, 0, 10, 0));
 
-        JLabel lblFeedTitle = new JLabel(Localization.get("livestream"), SwingConstants.CENTER);
+        JLabel lblFeedTitle = LocalizedText.text(new JLabel("", SwingConstants.CENTER), "livestream");
         lblFeedTitle.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblFeedTitle.setForeground(new Color(52, 73, 94));
         
@@ -97,7 +161,7 @@ public class DashboardPanel extends JPanel {
         controlPanel.setOpaque(false);
         
         // Last Label
-        JLabel lblLast = new JLabel(Localization.get("feedprefix")); 
+        JLabel lblLast = LocalizedText.text(new JLabel(), "feedprefix"); 
         lblLast.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         
         // Input spinner
@@ -106,11 +170,11 @@ public class DashboardPanel extends JPanel {
         spinnerLimit.setPreferredSize(new Dimension(60, 24));
         
         // Items label
-        JLabel lblItems = new JLabel(Localization.get("feedsuffix")); 
+        JLabel lblItems = LocalizedText.text(new JLabel(), "feedsuffix"); 
         lblItems.setFont(new Font("Segoe UI", Font.PLAIN, 12));
 
         // Show button
-        btnShow = new JButton(Localization.get("showbtn")); 
+        btnShow = LocalizedText.text(new JButton(), "showbtn"); 
         btnShow.setFont(new Font("Segoe UI", Font.BOLD, 11));
         btnShow.setBackground(new Color(52, 152, 219));
         btnShow.setForeground(Color.WHITE);
@@ -146,13 +210,16 @@ public class DashboardPanel extends JPanel {
         leftTabs.setFont(new Font("Segoe UI", Font.BOLD, 12));
         leftTabs.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
 
-        disposalListPanel = GuiListHelper.createListPanel();
-        reservationListPanel = GuiListHelper.createListPanel();
-        recycledListPanel = GuiListHelper.createListPanel();
+        disposalFeed = new Feed(DisposalData::getDisposalsPage, 
+            GuiListHelper.createFeedRenderer(this::createDisposalHtml, this::getStatusColor, FEED_HEIGHT), "nodisposals");
+        reservationFeed = new Feed(ReservationData::getReservationsPage, 
+            GuiListHelper.createFeedRenderer(this::createReservationHtml, _ -> GuiListHelper.COLOR_RESERVED, FEED_HEIGHT), "noreservations");
+        recycledFeed = new Feed(DisposalData::getRecycledPage, 
+            GuiListHelper.createFeedRenderer(this::createRecycledHtml, _ -> GuiListHelper.COLOR_RECYCLED, FEED_HEIGHT), "norecycles");
 
-        leftTabs.addTab(Localization.get("recentdisposals"), GuiListHelper.createScrollPane(disposalListPanel));
-        leftTabs.addTab(Localization.get("recentreservations"), GuiListHelper.createScrollPane(reservationListPanel));
-        leftTabs.addTab(Localization.get("recentrecycles"), GuiListHelper.createScrollPane(recycledListPanel));
+        LocalizedText.addTab(leftTabs, "recentdisposals", disposalFeed.createScrollPane());
+        LocalizedText.addTab(leftTabs, "recentreservations", reservationFeed.createScrollPane());
+        LocalizedText.addTab(leftTabs, "recentrecycles", recycledFeed.createScrollPane());
         
         leftSidebar.add(leftTabs, BorderLayout.CENTER);
         add(leftSidebar, BorderLayout.WEST);
@@ -163,7 +230,7 @@ public class DashboardPanel extends JPanel {
         rightSidebar.setOpaque(false);
         rightSidebar.setPreferredSize(new Dimension(380, 0));
         
-        JLabel lblLeaderboardTitle = new JLabel(Localization.get("leaderboards"), SwingConstants.CENTER);
+        JLabel lblLeaderboardTitle = LocalizedText.text(new JLabel("", SwingConstants.CENTER), "leaderboards");
         lblLeaderboardTitle.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblLeaderboardTitle.setForeground(new Color(52, 73, 94));
         lblLeaderboardTitle.setBorder(new EmptyBorder(0, 0, 10, 0));
@@ -173,11 +240,15 @@ public class DashboardPanel extends JPanel {
         rightTabs.setFont(new Font("Segoe UI", Font.BOLD, 12));
         rightTabs.setTabLayoutPolicy(JTabbedPane.SCROLL_TAB_LAYOUT);
         
-        neighborListPanel = GuiListHelper.createListPanel();
-        companyListPanel = GuiListHelper.createListPanel();
-
-        rightTabs.addTab(Localization.get("neighbors"), GuiListHelper.createScrollPane(neighborListPanel));
-        rightTabs.addTab(Localization.get("companies"), GuiListHelper.createScrollPane(companyListPanel));
+        neighborList = GuiListHelper.createLeaderboardList(LEADER_HEIGHT, GAP, 
+            e -> "USER".equals(leaderRole) && e.uniqueNo.equals(leaderUsername));
+        companyList = GuiListHelper.createLeaderboardList(LEADER_HEIGHT, GAP, 
+            e -> "COMPANY".equals(leaderRole) && e.name.equals(leaderUsername));
+        showNeighbors = StoreBinding.bind(this, DataStore.TOP_NEIGHBORS, 25, neighborList::setItems);
+        showCompanies = StoreBinding.bind(this, DataStore.TOP_COMPANIES, 25, companyList::setItems);
+
+        LocalizedText.addTab(rightTabs, "neighbors", GuiListHelper.createScrollPane(neighborList));
+        LocalizedText.addTab(rightTabs, "companies", GuiListHelper.createScrollPane(companyList));
         
         rightSidebar.add(rightTabs, BorderLayout.CENTER);
         add(rightSidebar, BorderLayout.EAST);
@@ -191,7 +262,7 @@ public class DashboardPanel extends JPanel {
         JPanel leftHeader = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
         leftHeader.setOpaque(false);
 
-        JButton btnLogout = new JButton(Localization.get("logout"));
+        JButton btnLogout = LocalizedText.text(new JButton(), "logout");
         btnLogout.setOpaque(true);
         btnLogout.setBorderPainted(false);
         btnLogout.setFont(new Font("Segoe UI", Font.BOLD, 12));
@@ -204,7 +275,7 @@ public class DashboardPanel extends JPanel {
             if(confirmed == true) mainFrame.logout();
         });
 
-        JLabel lblTitle = new JLabel(Localization.get("dashboard"));
+        JLabel lblTitle = LocalizedText.text(new JLabel(), "dashboard");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 22));
         lblTitle.setForeground(new Color(44, 62, 80));
         
@@ -214,19 +285,27 @@ public class DashboardPanel extends JPanel {
         JPanel profileArea = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         profileArea.setOpaque(false);
         
-        lblUserInfo = new JLabel(Localization.get("loading"));
+        lblUserInfo = LocalizedText.text(new JLabel(), "loading");
         lblUserInfo.setFont(new Font("Segoe UI", Font.BOLD, 14));
         lblUserInfo.setForeground(new Color(52, 73, 94));
         lblUserInfo.setBorder(new EmptyBorder(0, 0, 0, 10)); 
         
-        btnProfile = new JButton(Localization.get("myprofile"));
+        btnProfile = LocalizedText.text(new JButton(), "myprofile");
         btnProfile.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         btnProfile.setBackground(Color.WHITE);
         btnProfile.setFocusPainted(false);
         btnProfile.addActionListener(_ -> mainFrame.switchPanel("PROFILE_PANEL"));
         
+        // Texts are changed in place, loaded lists stay
+        JButton btnLang = LocalizedText.text(new JButton(), () -> (Localization.getLanguage() == Language.TR) ? "EN" : "TR");
+        btnLang.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        btnLang.setBackground(Color.WHITE);
+        btnLang.setFocusPainted(false);
+        btnLang.addActionListener(_ -> mainFrame.changeLanguage((Localization.getLanguage() == Language.TR) ? Language.EN : Language.TR));
+        
         profileArea.add(lblUserInfo);
         profileArea.add(btnProfile);
+        profileArea.add(btnLang);
 
         headerPanel.add(leftHeader, BorderLayout.WEST);
         headerPanel.add(profileArea, BorderLayout.EAST);
@@ -238,10 +317,10 @@ public class DashboardPanel extends JPanel {
         String username = mainFrame.getCurrentUsername(); 
 
         if ("GUEST".equals(role)) {
-            lblUserInfo.setText(Localization.get("guest"));
+            LocalizedText.text(lblUserInfo, "guest");
             btnProfile.setEnabled(false);
         } else {
-            lblUserInfo.setText(Localization.get("welcome", username));
+            LocalizedText.text(lblUserInfo, "welcome", username);
             btnProfile.setEnabled(true);
         }
 
@@ -254,17 +333,17 @@ public class DashboardPanel extends JPanel {
         actionButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 
         if ("USER".equals(role)) {
-            actionButton.setText(Localization.get("userdashboard"));
+            LocalizedText.text(actionButton, "userdashboard");
             actionButton.setBackground(new Color(46, 204, 113));
             actionButton.setForeground(Color.WHITE);
             actionButton.addActionListener(_ -> mainFrame.showUserDashboard());
         } else if ("COMPANY".equals(role)) {
-            actionButton.setText(Localization.get("companydashboard"));
+            LocalizedText.text(actionButton, "companydashboard");
             actionButton.setBackground(new Color(52, 152, 219));
             actionButton.setForeground(Color.WHITE);
             actionButton.addActionListener(_ -> mainFrame.showCompanyDashboard());
         } else {
-            actionButton.setText(Localization.get("noaccess"));
+            LocalizedText.text(actionButton, "noaccess");
             actionButton.setEnabled(false);
         }
         centerPanel.add(actionButton);
@@ -277,23 +356,35 @@ public class DashboardPanel extends JPanel {
     
     // Refreshes all data in the page
     private void refreshAllData(String myUsername, String myRole) {
-        AppUtils.runAsync(this, () -> {  
-            // Database connections
-            List<DisposalRecord> disposals = DisposalData.getLastDisposals(feedLimit);
-            List<DisposalRecord> reservations = ReservationData.getLastReservations(feedLimit);
-            List<DisposalRecord> recycled = DisposalData.getLastRecycledItems(feedLimit);
-            
-            List<DashboardData.LeaderboardEntry> topNeighbors = DashboardData.getTopNeighbors(25);
-            List<DashboardData.LeaderboardEntry> topCompanies = DashboardData.getTopCompanies(25);
-
-            // UI
-            SwingUtilities.invokeLater(() -> {
-                updateDisposalPanel(disposals);
-                updateReservationPanel(reservations);
-                updateRecycledPanel(recycled);
-                updateNeighborPanel(topNeighbors, myUsername, myRole);
-                updateCompanyPanel(topCompanies, myUsername, myRole);
-            });
+        PanelRefreshEvent event = new PanelRefreshEvent("DashboardPanel");
+        event.begin();
+        cancelLoads();
+        
+        // All queries run concurrently, each list is drawn as soon as its own data arrives
+        TaskGroup group = new TaskGroup(this);
+        dataLoads = group;
+        
+        disposalFeed.reload(group);
+        reservationFeed.reload(group);
+        recycledFeed.reload(group);
+        leaderUsername = myUsername;
+        leaderRole = myRole;
+        group.fork(() -> DataStore.TOP_NEIGHBORS.get(25), showNeighbors);
+        group.fork(() -> DataStore.TOP_COMPANIES.get(25), showCompanies);
+        
+        // Refresh is finished when the last list is drawn
+        loaded = false;
+        group.whenDone(() -> {
+            loaded = !group.isCancelled();
+            event.commit();
+        });
+    }
+    
+    // Stores are already invalidated by the change, new lists arrive through the bindings
+    private void refreshLeaderboards() {
+        AppUtils.runAsync(this, () -> {
+            DataStore.TOP_NEIGHBORS.get(25);
+            DataStore.TOP_COMPANIES.get(25);
         });
     }
     
@@ -302,142 +393,132 @@ public class DashboardPanel extends JPanel {
     	// Lock the show button
         if (btnShow != null) btnShow.setEnabled(false);
         
-        // Get all three lists
-        AppUtils.runAsync(this, 
-            () -> {
-                // Database connections
-                List<DisposalRecord> disposals = DisposalData.getLastDisposals(feedLimit);
-                List<DisposalRecord> reservations = ReservationData.getLastReservations(feedLimit);
-                List<DisposalRecord> recycled = DisposalData.getLastRecycledItems(feedLimit);
-                
-                // UI
-                SwingUtilities.invokeLater(() -> {
-                    updateDisposalPanel(disposals);
-                    updateReservationPanel(reservations);
-                    updateRecycledPanel(recycled);
-                });
-            },
-            () -> {
-                SwingUtilities.invokeLater(() -> {
-                    if(btnShow != null) btnShow.setEnabled(true); // Unlock the show button
-                });
-            }
-        );
+        if (feedLoads != null) feedLoads.cancel();
+        
+        // Get first pages of all three lists
+        TaskGroup group = new TaskGroup(this);
+        feedLoads = group;
+        
+        disposalFeed.reload(group);
+        reservationFeed.reload(group);
+        recycledFeed.reload(group);
+        
+        group.whenDone(() -> {
+            if (btnShow != null) btnShow.setEnabled(true); // Unlock the show button
+        });
     }
-
-    // Recently discarded list
-    private void updateDisposalPanel(List<DisposalRecord> list) {
-        disposalListPanel.removeAll();
-        for (DisposalRecord d : list) {
-            Color statusColor;
-            String statusText, statusStyle;
-
-            if (d.isRecycled) {
-                statusColor = GuiListHelper.COLOR_RECYCLED; 
-                statusText = Localization.get("recycled") + ": " + d.companyName;
-                statusStyle = "#27ae60"; 
-            } else if (d.isReserved) {
-                statusColor = GuiListHelper.COLOR_RESERVED; 
-                statusText = Localization.get("reserved") + ": " + d.companyName;
-                statusStyle = "#d35400"; 
-            } else {
-                statusColor = GuiListHelper.COLOR_AVAILABLE; 
-                statusText = Localization.get("available");
-                statusStyle = "#2980b9"; 
-            }
+    
+    private void cancelLoads() {
+        if (dataLoads != null) dataLoads.cancel();
+        if (feedLoads != null) feedLoads.cancel();
+        disposalFeed.cancel();
+        reservationFeed.cancel();
+        recycledFeed.cancel();
+    }
+    
+    @FunctionalInterface
+    private interface PageLoader {
+        FeedPage load(FeedCursor after, int pageSize) throws Exception;
+    }
+    
+    // A feed in the left menu, next page is loaded with the keyset cursor when scrolled near the end
+    private class Feed {
+        private final CardList<DisposalRecord> list;
+        private final PageLoader loader;
+        
+        private FeedCursor next = null;
+        private boolean loading = false;
+        private int generation = 0; // Results of older loads are dropped
+        
+        Feed(PageLoader loader, CardList.CardRenderer<DisposalRecord> renderer, String emptyKey) {
+            this.loader = loader;
+            this.list = new CardList<>(FEED_HEIGHT, GAP, renderer);
+            LocalizedText.emptyMessage(list, emptyKey);
+        }
+        
+        JScrollPane createScrollPane() {
+            JScrollPane scroll = GuiListHelper.createScrollPane(list);
+            JScrollBar bar = scroll.getVerticalScrollBar();
+            bar.addAdjustmentListener(_ -> {
+                // Less than two cards left below the viewport
+                if (bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - 2 * FEED_HEIGHT) loadMore();
+            });
+            return scroll;
+        }
+        
+        // First page, as a part of given group
+        void reload(TaskGroup group) {
+            int gen = ++generation;
+            next = null;
+            loading = true;
+            int pageSize = feedLimit;
+            group.fork(() -> loader.load(null, pageSize), page -> show(page, gen, true));
+        }
+        
+        void loadMore() {
+            if (loading || next == null) return;
             
-            String typeName = d.getName();
-            String dateStr = (d.discardDate != null) ? sdf.format(d.discardDate) : "-";
-
-            String html = String.format(
-                "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-                "<b style='font-size:13px; color:#000000;'>%s</b><br>" + 
-                Localization.get("disposaldate") + ": <span style='color:#555555;'>%s</span><br>" +
-                "<b>%.2f kg</b> / <b>%.2f m³</b><br>" + 
-                "<span style='color:%s;'><b>%s</b></span></div></html>",
-                typeName, dateStr, d.weight, d.volume, statusStyle, statusText
+            loading = true;
+            int gen = generation;
+            FeedCursor after = next;
+            int pageSize = feedLimit;
+            AppUtils.runAsync(DashboardPanel.this, 
+                () -> {
+                    FeedPage page = loader.load(after, pageSize);
+                    SwingUtilities.invokeLater(() -> show(page, gen, false));
+                },
+                () -> SwingUtilities.invokeLater(() -> {
+                    if (gen == generation) loading = false;
+                })
             );
+        }
+        
+        void cancel() {
+            generation++;
+            loading = false;
+        }
+        
+        private void show(FeedPage page, int gen, boolean replace) {
+            if (gen != generation) return;
+            loading = false;
             
-            disposalListPanel.add(GuiListHelper.createFeedCard(html, statusColor, FEED_HEIGHT));
-            disposalListPanel.add(Box.createVerticalStrut(GAP));
+            if (replace) list.setItems(page.records);
+            else list.addItems(page.records);
+            next = page.next;
         }
-        if (list.isEmpty()) GuiListHelper.addEmptyMessage(disposalListPanel, Localization.get("nodisposals"));
-        GuiListHelper.refreshPanel(disposalListPanel);
     }
 
-    // Recent reservations
-    private void updateReservationPanel(List<DisposalRecord> list) {
-        reservationListPanel.removeAll();
-        for (DisposalRecord r : list) {
-            String typeName = r.getName();
-            String dateStr = (r.resDate != null) ? sdf.format(r.resDate) : "-";
-            
-            String html = String.format(
-                "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-                "<b style='font-size:13px; color:#000000;'>%s</b><br>" + 
-                Localization.get("reservationdate") + ": <span style='color:#555555;'>%s</span><br>" +
-                "<b>%.2f kg</b> / <b>%.2f m³</b><br>" + 
-                Localization.get("reserver") + ": <span style='color:#d35400;'><b>%s</b></span></div></html>",
-                typeName, dateStr, r.weight, r.volume, r.companyName
-            );
-            
-            reservationListPanel.add(GuiListHelper.createFeedCard(html, GuiListHelper.COLOR_RESERVED, FEED_HEIGHT));
-            reservationListPanel.add(Box.createVerticalStrut(GAP));
-        }
-        if (list.isEmpty()) GuiListHelper.addEmptyMessage(reservationListPanel, Localization.get("noreservations"));
-        GuiListHelper.refreshPanel(reservationListPanel);
+    private Color getStatusColor(DisposalRecord d) {
+        if (d.isRecycled) return GuiListHelper.COLOR_RECYCLED;
+        if (d.isReserved) return GuiListHelper.COLOR_RESERVED;
+        return GuiListHelper.COLOR_AVAILABLE;
     }
 
-    // Recent recycles
-    private void updateRecycledPanel(List<DisposalRecord> list) {
-        recycledListPanel.removeAll();
-        for (DisposalRecord item : list) {
-            String dateStr = (item.recDate != null) ? sdf.format(item.recDate) : "-";
-            String typeName = item.getName();
-
-            String html = String.format(
-                "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
-                "<b style='font-size:13px; color:#000000;'>%s</b><br>" + 
-                "<b>%.2f kg</b> / <b>%.2f m³</b><br>" + 
-                Localization.get("recycledate") + ": <span style='color:#555555;'>%s</span><br>" + 
-                Localization.get("gainedscore") + ": <b>%.2f</b><br>" + 
-                Localization.get("recycler") + ": <span style='color:#27ae60;'><b>%s</b></span></div></html>",
-                typeName, item.weight, item.volume, dateStr, item.score, item.companyName
-            );
-            
-            recycledListPanel.add(GuiListHelper.createFeedCard(html, GuiListHelper.COLOR_RECYCLED, FEED_HEIGHT));
-            recycledListPanel.add(Box.createVerticalStrut(GAP));
-        }
-        if (list.isEmpty()) GuiListHelper.addEmptyMessage(recycledListPanel, Localization.get("norecycles"));
-        GuiListHelper.refreshPanel(recycledListPanel);
+    // Recently discarded list
+    private String createDisposalHtml(DisposalRecord d) {
+        CardTemplate html = d.isRecycled ? recycledDisposalHtml : (d.isReserved ? reservedDisposalHtml : availableDisposalHtml);
+        String dateStr = (d.discardDate != null) ? sdf.format(d.discardDate) : "-";
+        return html.fill(d.getName(), dateStr, df.format(d.weight), df.format(d.volume), d.getCompanyName());
     }
 
-    // Leader boards
-    private void updateNeighborPanel(List<DashboardData.LeaderboardEntry> leaders, String myUsername, String myRole) {
-        neighborListPanel.removeAll();
-        int rank = 1;
-        for (DashboardData.LeaderboardEntry entry : leaders) {
-            boolean isMe = "USER".equals(myRole) && entry.uniqueNo.equals(myUsername);
-            JPanel card = GuiListHelper.createStyledLeaderboardCard(rank, entry.name, entry.score, isMe, LEADER_HEIGHT);
-            neighborListPanel.add(card);
-            neighborListPanel.add(Box.createVerticalStrut(GAP));
-            rank++;
-        }
-        if (leaders.isEmpty()) GuiListHelper.addEmptyMessage(neighborListPanel, Localization.get("nodata"));
-        GuiListHelper.refreshPanel(neighborListPanel);
+    private static String disposalPattern(String statusStyle, String statusText) {
+        return "<html><div style='font-family:Segoe UI; font-size:11px; color:#333333;'>" +
+            "<b style='font-size:13px; color:#000000;'>{}</b><br>" + 
+            Localization.get("disposaldate") + ": <span style='color:#555555;'>{}</span><br>" +
+            "<b>{} kg</b> / <b>{} m³</b><br>" + 
+            "<span style='color:" + statusStyle + ";'><b>" + statusText + "</b></span></div></html>";
     }
 
-    private void updateCompanyPanel(List<DashboardData.LeaderboardEntry> leaders, String myUsername, String myRole) {
-        companyListPanel.removeAll();
-        int rank = 1;
-        for (DashboardData.LeaderboardEntry entry : leaders) {
-            boolean isMe = "COMPANY".equals(myRole) && entry.name.equals(myUsername);
-            JPanel card = GuiListHelper.createStyledLeaderboardCard(rank, entry.name, entry.score, isMe, LEADER_HEIGHT);
-            companyListPanel.add(card);
-            companyListPanel.add(Box.createVerticalStrut(GAP));
-            rank++;
-        }
-        if (leaders.isEmpty()) GuiListHelper.addEmptyMessage(companyListPanel, Localization.get("nodata"));
-        GuiListHelper.refreshPanel(companyListPanel);
+    // Recent reservations
+    private String createReservationHtml(DisposalRecord r) {
+        String dateStr = (r.resDate != null) ? sdf.format(r.resDate) : "-";
+        return reservationHtml.fill(r.getName(), dateStr, df.format(r.weight), df.format(r.volume), r.getCompanyName());
+    }
+
+    // Recent recycles
+    private String createRecycledHtml(DisposalRecord item) {
+        String dateStr = (item.recDate != null) ? sdf.format(item.recDate) : "-";
+        return recycledHtml.fill(item.getName(), df.format(item.weight), df.format(item.volume), dateStr,
+                df.format(item.score), item.getCompanyName());
     }
 }
\ No newline at end of file
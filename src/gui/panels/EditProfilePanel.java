@@ -1,6 +1,7 @@
 package gui.panels;
 
 import app.Localization;
+import data.DataStore;
 import data.ProfileData;
 import database.AddressManager;
 import gui.MainFrame;
@@ -126,10 +127,10 @@ public class EditProfilePanel extends JPanel {
             int addressID = 0;
             
             if ("USER".equals(role)) {
-                nProfile = ProfileData.getNeighborProfile(username);
+                nProfile = DataStore.NEIGHBOR_PROFILE.get(username);
                 if (nProfile != null) addressID = nProfile.addressID;
             } else {
-                cProfile = ProfileData.getCompanyProfile(username);
+                cProfile = DataStore.COMPANY_PROFILE.get(username);
                 if (cProfile != null) addressID = cProfile.addressID;
             }
             
@@ -358,6 +359,7 @@ public class EditProfilePanel extends JPanel {
             }
 
             if (success) {
+                DataStore.invalidateProfile(mainFrame.getCurrentUsername());
                 SwingUtilities.invokeLater(() -> {
                     JOptionPane.showMessageDialog(this, Localization.get("successfullupdate"));
                     mainFrame.switchPanel("PROFILE_PANEL");
@@ -467,46 +469,85 @@ public class EditProfilePanel extends JPanel {
         });
     }
 
-    // Asynchronous loaders
+    // Asynchronous loaders (only the latest selection is loaded if user changes it quickly),
+    // lists which are already in the reference cache are filled directly on the EDT
     private void loadDistrictsAsync(int provinceID) {
-        AppUtils.runAsync(this, () -> {
+        List<ComboItem> cached = AddressManager.getCachedDistricts(provinceID);
+        if (cached != null) {
+            fillDistricts(cached);
+            return;
+        }
+        
+        AppUtils.runAsyncLatest(this, "editprofile.districts", () -> {
             List<ComboItem> list = AddressManager.getDistricts(provinceID);
             SwingUtilities.invokeLater(() -> {
-                isUpdating = true;
-                cmbDistrict.removeAllItems();
-                cmbNeighborhood.removeAllItems();
-                cmbStreet.removeAllItems();
-                cmbDistrict.addItem(new ComboItem(0, Localization.get("choose")));
-                for (ComboItem i : list) cmbDistrict.addItem(i);
-                isUpdating = false;
+                if (getSelectedID(cmbProvince) != provinceID) return; // Selection changed meanwhile
+                fillDistricts(list);
             });
         });
     }
 
     private void loadNeighborhoodsAsync(int districtID) {
-        AppUtils.runAsync(this, () -> {
+        List<ComboItem> cached = AddressManager.getCachedNeighborhoods(districtID);
+        if (cached != null) {
+            fillNeighborhoods(cached);
+            return;
+        }
+        
+        AppUtils.runAsyncLatest(this, "editprofile.neighborhoods", () -> {
             List<ComboItem> list = AddressManager.getNeighborhoods(districtID);
             SwingUtilities.invokeLater(() -> {
-                isUpdating = true;
-                cmbNeighborhood.removeAllItems();
-                cmbStreet.removeAllItems();
-                cmbNeighborhood.addItem(new ComboItem(0, Localization.get("choose")));
-                for (ComboItem i : list) cmbNeighborhood.addItem(i);
-                isUpdating = false;
+                if (getSelectedID(cmbDistrict) != districtID) return;
+                fillNeighborhoods(list);
             });
         });
     }
 
     private void loadStreetsAsync(int neighborhoodID) {
-        AppUtils.runAsync(this, () -> {
+        List<ComboItem> cached = AddressManager.getCachedStreets(neighborhoodID);
+        if (cached != null) {
+            fillStreets(cached);
+            return;
+        }
+        
+        AppUtils.runAsyncLatest(this, "editprofile.streets", () -> {
             List<ComboItem> list = AddressManager.getStreets(neighborhoodID);
             SwingUtilities.invokeLater(() -> {
-                isUpdating = true;
-                cmbStreet.removeAllItems();
-                cmbStreet.addItem(new ComboItem(0, Localization.get("choose")));
-                for (ComboItem i : list) cmbStreet.addItem(i);
-                isUpdating = false;
+                if (getSelectedID(cmbNeighborhood) != neighborhoodID) return;
+                fillStreets(list);
             });
         });
     }
+    
+    private void fillDistricts(List<ComboItem> list) {
+        isUpdating = true;
+        cmbDistrict.removeAllItems();
+        cmbNeighborhood.removeAllItems();
+        cmbStreet.removeAllItems();
+        cmbDistrict.addItem(new ComboItem(0, Localization.get("choose")));
+        for (ComboItem i : list) cmbDistrict.addItem(i);
+        isUpdating = false;
+    }
+    
+    private void fillNeighborhoods(List<ComboItem> list) {
+        isUpdating = true;
+        cmbNeighborhood.removeAllItems();
+        cmbStreet.removeAllItems();
+        cmbNeighborhood.addItem(new ComboItem(0, Localization.get("choose")));
+        for (ComboItem i : list) cmbNeighborhood.addItem(i);
+        isUpdating = false;
+    }
+    
+    private void fillStreets(List<ComboItem> list) {
+        isUpdating = true;
+        cmbStreet.removeAllItems();
+        cmbStreet.addItem(new ComboItem(0, Localization.get("choose")));
+        for (ComboItem i : list) cmbStreet.addItem(i);
+        isUpdating = false;
+    }
+    
+    private static int getSelectedID(JComboBox<ComboItem> cmb) {
+        ComboItem item = (ComboItem) cmb.getSelectedItem();
+        return (item == null) ? -1 : item.getID();
+    }
 }
\ No newline at end of file
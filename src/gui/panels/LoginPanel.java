@@ -2,6 +2,7 @@ package gui.panels;
 
 import database.AuthManager;
 import gui.GuiHelper;
+import gui.LocalizedText;
 import gui.MainFrame;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -38,8 +39,7 @@ public class LoginPanel extends JPanel {
         topPanel.setBorder(new EmptyBorder(5, 0, 0, 10));
 
         // Select language text
-        String btnText = (Localization.getLanguage() == Language.TR) ? "EN" : "TR";
-        JButton btnLang = new JButton(btnText);
+        JButton btnLang = LocalizedText.text(new JButton(), () -> (Localization.getLanguage() == Language.TR) ? "EN" : "TR");
         
         // Change language button
         btnLang.setOpaque(true);
@@ -65,24 +65,25 @@ public class LoginPanel extends JPanel {
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
         // Role selection box
-        String[] roles = {Localization.get("personallogin"), Localization.get("corporatelogin"), Localization.get("guest")};
+        String[] roles = {"personallogin", "corporatelogin", "guest"};
         cmbRole = new JComboBox<>(roles);
+        LocalizedText.keys(cmbRole);
         cmbRole.setFont(new Font("Arial", Font.BOLD, 14));
         
         // Form elements
-        lblUsername = new JLabel(Localization.get("tc") + ":"); 
+        lblUsername = LocalizedText.text(new JLabel(), () -> Localization.get("tc") + ":");
         lblUsername.setFont(new Font("Arial", Font.PLAIN, 14));
         
         txtUsername = new JTextField(20);
         txtUsername.setPreferredSize(new Dimension(250, 30));
         
-        lblPassword = new JLabel(Localization.get("password") + ":");
+        lblPassword = LocalizedText.text(new JLabel(), () -> Localization.get("password") + ":");
         lblPassword.setFont(new Font("Arial", Font.PLAIN, 14));
         
         txtPassword = new JPasswordField(20);
         txtPassword.setPreferredSize(new Dimension(250, 30));
 
-        btnLogin = new JButton(Localization.get("login"));
+        btnLogin = LocalizedText.text(new JButton(), "login");
         btnLogin.setOpaque(true);
         btnLogin.setBorderPainted(false);
         btnLogin.setPreferredSize(new Dimension(150, 40));
@@ -91,12 +92,12 @@ public class LoginPanel extends JPanel {
         btnLogin.setFont(new Font("Arial", Font.BOLD, 14));
 
         // Register
-        lblNoAccount = new JLabel(Localization.get("noaccount"));
-        btnRegister = new JButton(Localization.get("register"));
+        lblNoAccount = LocalizedText.text(new JLabel(), "noaccount");
+        btnRegister = LocalizedText.text(new JButton(), "register");
         styleLinkButton(btnRegister);
 
         // Forgot pass
-        btnForgotPass = new JButton(Localization.get("forgotpass"));
+        btnForgotPass = LocalizedText.text(new JButton(), "forgotpass");
         styleLinkButton(btnForgotPass);
 
         // Title
@@ -108,7 +109,7 @@ public class LoginPanel extends JPanel {
 
         // Role selection
         gbc.gridy = 1; 
-        formPanel.add(new JLabel(Localization.get("logintype")), gbc);
+        formPanel.add(LocalizedText.text(new JLabel(), "logintype"), gbc);
         gbc.gridy = 2; 
         formPanel.add(cmbRole, gbc);
 
@@ -154,16 +155,16 @@ public class LoginPanel extends JPanel {
             int selectedIndex = cmbRole.getSelectedIndex();
             
             if (selectedIndex == 0) { // Neighbor
-                updateRoleVisibility(true, Localization.get("tcextended"));
+                updateRoleVisibility(true, "tcextended");
                 mainFrame.setCurrentRole("USER");
             } 
             else if (selectedIndex == 1) { // Company
-                updateRoleVisibility(true, Localization.get("taxno"));
+                updateRoleVisibility(true, "taxno");
                 setForgotPassVisible(false); // Companies don't have an email
                 mainFrame.setCurrentRole("COMPANY");
             } 
             else { // Guest
-                updateRoleVisibility(false, "");
+                updateRoleVisibility(false, null);
                 mainFrame.setCurrentRole("GUEST");
             }
         });
@@ -178,8 +179,8 @@ public class LoginPanel extends JPanel {
         btnLogin.addActionListener(_ -> performLogin());
     }
     
-    private void updateRoleVisibility(boolean isVisible, String usernameLabel) {
-        lblUsername.setText(usernameLabel);
+    private void updateRoleVisibility(boolean isVisible, String usernameLabelKey) {
+        if (usernameLabelKey != null) LocalizedText.text(lblUsername, usernameLabelKey);
         lblUsername.setVisible(isVisible);
         txtUsername.setVisible(isVisible);
         txtUsername.setEnabled(isVisible);
@@ -307,10 +308,10 @@ public class LoginPanel extends JPanel {
         btnRegister.setEnabled(!loading);
         
         if (loading) {
-            btnLogin.setText(Localization.get("loggingin") + "...");
+            LocalizedText.text(btnLogin, () -> Localization.get("loggingin") + "...");
             btnLogin.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
         } else {
-            btnLogin.setText(Localization.get("login"));
+            LocalizedText.text(btnLogin, "login");
             btnLogin.setCursor(Cursor.getDefaultCursor());
         }
     }
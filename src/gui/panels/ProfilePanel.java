@@ -2,21 +2,24 @@ package gui.panels;
 
 import app.AppUtils;
 import app.Localization;
+import data.DataStore;
 import data.ProfileData;
 import gui.GuiHelper;
+import gui.LocalizedText;
 import gui.MainFrame;
+import gui.PanelLifecycle;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
 
-public class ProfilePanel extends JPanel {
+public class ProfilePanel extends JPanel implements PanelLifecycle {
 
 	private static final long serialVersionUID = 1L;
 	public MainFrame mainFrame;
     private JPanel infoContainer;
     private JButton btnEdit;
+    private ProfileData.NeighborProfile neighborProfile; // Last loaded profile (one of them)
+    private ProfileData.CompanyProfile companyProfile;
 
     public ProfilePanel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -27,10 +30,10 @@ public class ProfilePanel extends JPanel {
         headerPanel.setBackground(new Color(240, 240, 240));
         headerPanel.setBorder(new EmptyBorder(15, 30, 15, 30));
 
-        JLabel lblTitle = new JLabel(Localization.get("profileinfo"));
+        JLabel lblTitle = LocalizedText.text(new JLabel(), "profileinfo");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 24));
 
-        btnEdit = new JButton(Localization.get("edit"));
+        btnEdit = LocalizedText.text(new JButton(), "edit");
         btnEdit.setFont(new Font("Segoe UI", Font.BOLD, 14));
         btnEdit.setFocusable(false);
         btnEdit.addActionListener(_ -> mainFrame.switchPanel("EDIT_PROFILE"));
@@ -57,12 +60,12 @@ public class ProfilePanel extends JPanel {
         bottomPanel.setBorder(new EmptyBorder(15, 30, 15, 30));
 
         // Back button
-        JButton btnBack = new JButton(Localization.get("returntomainmenu"));
+        JButton btnBack = LocalizedText.text(new JButton(), "returntomainmenu");
         btnBack.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         btnBack.addActionListener(_ -> mainFrame.switchPanel("DASHBOARD"));
         
         // Delete button
-        JButton btnDeleteAccount = new JButton(Localization.get("deleteacc"));
+        JButton btnDeleteAccount = LocalizedText.text(new JButton(), "deleteacc");
         btnDeleteAccount.setFont(new Font("Segoe UI", Font.BOLD, 12));
         btnDeleteAccount.setBackground(new Color(220, 53, 69)); // Red
         btnDeleteAccount.setForeground(Color.WHITE);
@@ -74,14 +77,14 @@ public class ProfilePanel extends JPanel {
         bottomPanel.add(btnDeleteAccount, BorderLayout.EAST);
         
         add(bottomPanel, BorderLayout.SOUTH);
+        
+        LocalizedText.onChange(this, this::showProfile);
+    }
 
-        // On profile panel opens
-        this.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentShown(ComponentEvent e) {
-                loadProfileData();
-            }
-        });
+    // Profile comes from the data store, so it is read again only when it is old or was just edited
+    @Override
+    public void activate(boolean stale) {
+        loadProfileData();
     }
 
     private void loadProfileData() {
@@ -96,7 +99,7 @@ public class ProfilePanel extends JPanel {
         
         // Check if guest
         if ("GUEST".equals(role)) {
-            JLabel lblGuest = new JLabel(Localization.get("guestprofile"));
+            JLabel lblGuest = LocalizedText.text(new JLabel(), "guestprofile");
             lblGuest.setFont(new Font("Arial", Font.BOLD, 16));
             lblGuest.setForeground(Color.GRAY);
             infoContainer.add(lblGuest);
@@ -114,9 +117,9 @@ public class ProfilePanel extends JPanel {
             ProfileData.CompanyProfile cProfile = null;
 
             if ("USER".equals(role)) {
-                nProfile = ProfileData.getNeighborProfile(username);
+                nProfile = DataStore.NEIGHBOR_PROFILE.get(username);
             } else if ("COMPANY".equals(role)) {
-                cProfile = ProfileData.getCompanyProfile(username);
+                cProfile = DataStore.COMPANY_PROFILE.get(username);
             }
 
             final ProfileData.NeighborProfile finalNProfile = nProfile;
@@ -124,51 +127,61 @@ public class ProfilePanel extends JPanel {
 
             // UI
             SwingUtilities.invokeLater(() -> {
-                GridBagConstraints gbcs = new GridBagConstraints();
-                gbcs.insets = new Insets(10, 20, 10, 20); 
-                gbcs.fill = GridBagConstraints.HORIZONTAL;
-                gbcs.anchor = GridBagConstraints.WEST;
-
-                if (finalNProfile != null) {
-                    int row = 0;
-                    addDetailRow(Localization.get("userid") + ":", String.valueOf(finalNProfile.id), gbcs, row++);
-                    addDetailRow(Localization.get("tc") + ":", finalNProfile.tckn, gbcs, row++);
-                    addDetailRow(Localization.get("fullname") + ":", finalNProfile.fname + (finalNProfile.mname == null ? " " : " " + finalNProfile.mname + " ") + finalNProfile.lname, gbcs, row++);
-                    addDetailRow(Localization.get("email") + ":", finalNProfile.email, gbcs, row++);
-                    addDetailRow(Localization.get("phonenumber") + ":", finalNProfile.phone, gbcs, row++);
-                    addDetailRow(Localization.get("address") + ":", finalNProfile.address, gbcs, row++);
-                    addDetailRow(Localization.get("age") + ":", finalNProfile.bdate + " (" + Localization.get("yearsold", finalNProfile.age) + ")", gbcs, row++);
-                    
-                    String sexText = Localization.get("unspecified");
-                    if (finalNProfile.sex != null) {
-                        switch (finalNProfile.sex.trim().toUpperCase()) {
-                            case "M": sexText = Localization.get("male"); break;
-                            case "F": sexText = Localization.get("female"); break;
-                            case "N": sexText = Localization.get("unspecified"); break;
-                        }
-                    }
-                    addDetailRow(Localization.get("gender") + ":", sexText, gbcs, row++);
-                } 
-                else if (finalCProfile != null) {
-                    int row = 0;
-                    addDetailRow(Localization.get("companyid") + ":", String.valueOf(finalCProfile.id), gbcs, row++);
-                    addDetailRow(Localization.get("taxno") + ":", finalCProfile.taxNumber, gbcs, row++);
-                    addDetailRow(Localization.get("companyname") + ":", finalCProfile.cname, gbcs, row++);
-                    
-                    String wasteTypesHtml = "<html><body style='width: 600px'>" + finalCProfile.supportedTypes + "</body></html>";
-                    addDetailRow(Localization.get("recyclabledisposaltypes") + ":", wasteTypesHtml, gbcs, row++);
-                    
-                    addDetailRow(Localization.get("phonenumber") + ":", finalCProfile.phone, gbcs, row++);
-                    addDetailRow(Localization.get("fax") + ":", finalCProfile.fax, gbcs, row++);
-                    addDetailRow(Localization.get("address") + ":", finalCProfile.address, gbcs, row++);
-                    addDetailRow(Localization.get("governmentservice") + ":", finalCProfile.isGov ? Localization.get("yes") : Localization.get("no"), gbcs, row++);
-                }
-
-                infoContainer.revalidate();
-                infoContainer.repaint();
+                neighborProfile = finalNProfile;
+                companyProfile = finalCProfile;
+                showProfile();
             });
         });
     }
+
+    // Also called after a language change, rows are made from the profile already loaded
+    private void showProfile() {
+        if (neighborProfile == null && companyProfile == null) return;
+        infoContainer.removeAll();
+
+        GridBagConstraints gbcs = new GridBagConstraints();
+        gbcs.insets = new Insets(10, 20, 10, 20); 
+        gbcs.fill = GridBagConstraints.HORIZONTAL;
+        gbcs.anchor = GridBagConstraints.WEST;
+
+        if (neighborProfile != null) {
+            int row = 0;
+            addDetailRow(Localization.get("userid") + ":", String.valueOf(neighborProfile.id), gbcs, row++);
+            addDetailRow(Localization.get("tc") + ":", neighborProfile.tckn, gbcs, row++);
+            addDetailRow(Localization.get("fullname") + ":", neighborProfile.fname + (neighborProfile.mname == null ? " " : " " + neighborProfile.mname + " ") + neighborProfile.lname, gbcs, row++);
+            addDetailRow(Localization.get("email") + ":", neighborProfile.email, gbcs, row++);
+            addDetailRow(Localization.get("phonenumber") + ":", neighborProfile.phone, gbcs, row++);
+            addDetailRow(Localization.get("address") + ":", neighborProfile.address, gbcs, row++);
+            addDetailRow(Localization.get("age") + ":", neighborProfile.bdate + " (" + Localization.get("yearsold", neighborProfile.age) + ")", gbcs, row++);
+            
+            String sexText = Localization.get("unspecified");
+            if (neighborProfile.sex != null) {
+                switch (neighborProfile.sex.trim().toUpperCase()) {
+                    case "M": sexText = Localization.get("male"); break;
+                    case "F": sexText = Localization.get("female"); break;
+                    case "N": sexText = Localization.get("unspecified"); break;
+                }
+            }
+            addDetailRow(Localization.get("gender") + ":", sexText, gbcs, row++);
+        } 
+        else if (companyProfile != null) {
+            int row = 0;
+            addDetailRow(Localization.get("companyid") + ":", String.valueOf(companyProfile.id), gbcs, row++);
+            addDetailRow(Localization.get("taxno") + ":", companyProfile.taxNumber, gbcs, row++);
+            addDetailRow(Localization.get("companyname") + ":", companyProfile.cname, gbcs, row++);
+            
+            String wasteTypesHtml = "<html><body style='width: 600px'>" + companyProfile.supportedTypes + "</body></html>";
+            addDetailRow(Localization.get("recyclabledisposaltypes") + ":", wasteTypesHtml, gbcs, row++);
+            
+            addDetailRow(Localization.get("phonenumber") + ":", companyProfile.phone, gbcs, row++);
+            addDetailRow(Localization.get("fax") + ":", companyProfile.fax, gbcs, row++);
+            addDetailRow(Localization.get("address") + ":", companyProfile.address, gbcs, row++);
+            addDetailRow(Localization.get("governmentservice") + ":", companyProfile.isGov ? Localization.get("yes") : Localization.get("no"), gbcs, row++);
+        }
+
+        infoContainer.revalidate();
+        infoContainer.repaint();
+    }
     
     // Delete account
     private void performAccountDeletion() {
@@ -192,6 +205,7 @@ public class ProfilePanel extends JPanel {
             }
 
             if (success) {
+                DataStore.invalidateEverything();
                 SwingUtilities.invokeLater(() -> {
                     GuiHelper.showMessage(this, Localization.get("successfulldeleteacc"));
                     mainFrame.logout();
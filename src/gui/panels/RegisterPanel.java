@@ -384,10 +384,18 @@ public class RegisterPanel extends JPanel {
 
     		cmbDistrict.removeAllItems(); // Clear old districts
 
+    		// Already loaded districts are filled without a round trip
+    		List<ComboItem> cached = AddressManager.getCachedDistricts(selected.getID());
+    		if (cached != null) {
+    			for (ComboItem d : cached) cmbDistrict.addItem(d);
+    			return;
+    		}
+
     		// Get districts
-    		AppUtils.runAsync(this, () -> {
+    		AppUtils.runAsyncLatest(this, "register.districts." + System.identityHashCode(cmbDistrict), () -> {
     			List<ComboItem> districts = AddressManager.getDistricts(selected.getID());
         	    SwingUtilities.invokeLater(() -> {
+        	    	if (cmbProvince.getSelectedItem() != selected) return; // Selection changed meanwhile
         	    	for (ComboItem d : districts) cmbDistrict.addItem(d);
         	    });
         	});
@@ -400,10 +408,18 @@ public class RegisterPanel extends JPanel {
 
     		cmbNeighborhood.removeAllItems();
 
+    		// Already loaded neighborhoods are filled without a round trip
+    		List<ComboItem> cached = AddressManager.getCachedNeighborhoods(selected.getID());
+    		if (cached != null) {
+    			for (ComboItem n : cached) cmbNeighborhood.addItem(n);
+    			return;
+    		}
+
     		// Get neighborhoods
-    		AppUtils.runAsync(this, () -> {
+    		AppUtils.runAsyncLatest(this, "register.neighborhoods." + System.identityHashCode(cmbNeighborhood), () -> {
     			List<ComboItem> neighborhoods = AddressManager.getNeighborhoods(selected.getID());
         	    SwingUtilities.invokeLater(() -> {
+        	    	if (cmbDistrict.getSelectedItem() != selected) return; // Selection changed meanwhile
         	    	for (ComboItem n : neighborhoods) cmbNeighborhood.addItem(n);
         	    });
         	});
@@ -416,10 +432,18 @@ public class RegisterPanel extends JPanel {
 
     		cmbStreet.removeAllItems();
 
+    		// Already loaded streets are filled without a round trip
+    		List<ComboItem> cached = AddressManager.getCachedStreets(selected.getID());
+    		if (cached != null) {
+    			for (ComboItem s : cached) cmbStreet.addItem(s);
+    			return;
+    		}
+
     		// Get streets
-    		AppUtils.runAsync(this, () -> {
+    		AppUtils.runAsyncLatest(this, "register.streets." + System.identityHashCode(cmbStreet), () -> {
     			List<ComboItem> streets = AddressManager.getStreets(selected.getID());
         	    SwingUtilities.invokeLater(() -> {
+        	    	if (cmbNeighborhood.getSelectedItem() != selected) return; // Selection changed meanwhile
         	    	for (ComboItem s : streets) cmbStreet.addItem(s);
         	    });
         	});
@@ -2,33 +2,48 @@ package gui.panels;
 
 import app.AppUtils;
 import app.Localization;
-import data.DashboardData;
+import app.AppEvents.PanelRefreshEvent;
+import data.DataStore;
+import data.DisposalCalculator;
 import data.DisposalData;
-import data.ProfileData;
+import data.DisposalImporter;
+import data.DisposalImporter.ImportResult;
 import data.DashboardData.LeaderboardEntry;
 import data.DisposalData.*;
 import data.ProfileData.*;
+import database.ChangeNotifier.ChangeEvent;
+import gui.CardList;
+import gui.CardTemplate;
 import gui.GuiHelper;
+import gui.LocalizedText;
 import gui.GuiListHelper;
+import gui.LiveUpdates;
 import gui.MainFrame;
+import gui.PanelLifecycle;
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
-import java.awt.event.MouseEvent;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-public class UserDashboardPanel extends JPanel {
+public class UserDashboardPanel extends JPanel implements PanelLifecycle {
     private static final long serialVersionUID = 1L;
     public MainFrame mainFrame;
     private String userTCKN;
     
     // UI Elements
-    private JPanel pnlHistoryList; 
+    private CardList<DisposalRecord> historyList; 
     private JPanel pnlStatsGrid;
-    private JPanel pnlLeaderboardList;
+    private CardList<LeaderboardEntry> leaderboardList;
+    private UserStats stats; // Last loaded statistics
     private JLabel lblLeaderboardHeader;
     
     // Statistics Filtering UI
@@ -37,6 +52,7 @@ public class UserDashboardPanel extends JPanel {
     
     // Decimal format
     private static final DecimalFormat df = new DecimalFormat("#0.00");
+    private static final int HISTORY_HEIGHT = 110;
 
     public UserDashboardPanel(MainFrame mainFrame, String tckn) {
         this.mainFrame = mainFrame;
@@ -50,12 +66,12 @@ public class UserDashboardPanel extends JPanel {
         JPanel topPanel = new JPanel(new BorderLayout());
         topPanel.setOpaque(false);
         
-        JButton btnBack = new JButton(Localization.get("returntomainmenu"));
+        JButton btnBack = LocalizedText.text(new JButton(), "returntomainmenu");
         btnBack.setFont(new Font("Segoe UI", Font.BOLD, 12));
         btnBack.setFocusPainted(false);
         btnBack.addActionListener(_ -> mainFrame.switchPanel("DASHBOARD"));
         
-        JLabel lblTitle = new JLabel(Localization.get("persdisposalmng"));
+        JLabel lblTitle = LocalizedText.text(new JLabel(), "persdisposalmng");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 20));
         lblTitle.setForeground(new Color(44, 62, 80));
         lblTitle.setBorder(new EmptyBorder(0, 10, 0, 0));
@@ -77,8 +93,15 @@ public class UserDashboardPanel extends JPanel {
         contentPanel.add(createRightPanel());
         add(contentPanel, BorderLayout.CENTER);
         
-        // Load data
-        refreshData();
+        LiveUpdates.attach(this, 500, this::onDatabaseChanges);
+        LocalizedText.onChange(this, this::showStats);
+    }
+    
+    // Own changes are made here and the others come with live updates (also the ones made while the panel was hidden),
+    // so the lists are only read again when old
+    @Override
+    public void activate(boolean stale) {
+        if (stale) refreshData();
     }
 
     // Left Menu
@@ -87,23 +110,25 @@ public class UserDashboardPanel extends JPanel {
         container.setOpaque(false);
         
         // Title
-        JLabel lblHeader = new JLabel(Localization.get("disposalhstry"));
+        JLabel lblHeader = LocalizedText.text(new JLabel(), "disposalhstry");
         lblHeader.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblHeader.setForeground(new Color(52, 73, 94));
         container.add(lblHeader, BorderLayout.NORTH);
         
         // List area
-        pnlHistoryList = new JPanel();
-        pnlHistoryList.setLayout(new BoxLayout(pnlHistoryList, BoxLayout.Y_AXIS));
-        pnlHistoryList.setBackground(Color.WHITE);
+        historyList = new CardList<>(HISTORY_HEIGHT, 5, new HistoryCardRenderer());
+        historyList.setOpaque(true);
+        historyList.setBackground(Color.WHITE);
+        LocalizedText.emptyMessage(historyList, "nodisposalrecord");
+        historyList.setActionHandler((_, rec) -> deleteDisposal(rec));
         
-        JScrollPane scroll = new JScrollPane(pnlHistoryList);
+        JScrollPane scroll = new JScrollPane(historyList);
         scroll.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
         scroll.getVerticalScrollBar().setUnitIncrement(16);
         container.add(scroll, BorderLayout.CENTER);
         
         // Add button
-        JButton btnAdd = new JButton(Localization.get("addnewdisposal"));
+        JButton btnAdd = LocalizedText.text(new JButton(), "addnewdisposal");
         btnAdd.setFont(new Font("Segoe UI", Font.BOLD, 14));
         btnAdd.setBackground(new Color(39, 174, 96));
         btnAdd.setForeground(Color.WHITE);
@@ -117,7 +142,21 @@ public class UserDashboardPanel extends JPanel {
             });
         });
         
-        container.add(btnAdd, BorderLayout.SOUTH);
+        // Import button, records from a CSV file (scale exports etc.)
+        JButton btnImport = LocalizedText.text(new JButton(), "importcsv");
+        btnImport.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        btnImport.setBackground(new Color(52, 152, 219));
+        btnImport.setForeground(Color.WHITE);
+        btnImport.setFocusPainted(false);
+        btnImport.setPreferredSize(new Dimension(120, 40));
+        btnImport.addActionListener(_ -> importDisposals());
+        
+        JPanel pnlButtons = new JPanel(new BorderLayout(5, 0));
+        pnlButtons.setOpaque(false);
+        pnlButtons.add(btnAdd, BorderLayout.CENTER);
+        pnlButtons.add(btnImport, BorderLayout.EAST);
+        
+        container.add(pnlButtons, BorderLayout.SOUTH);
         return container;
     }
 
@@ -130,7 +169,7 @@ public class UserDashboardPanel extends JPanel {
         JPanel headerWrapper = new JPanel(new BorderLayout(0, 5));
         headerWrapper.setOpaque(false);
         
-        JLabel lblHeader = new JLabel(Localization.get("stats"));
+        JLabel lblHeader = LocalizedText.text(new JLabel(), "stats");
         lblHeader.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblHeader.setForeground(new Color(52, 73, 94));
         headerWrapper.add(lblHeader, BorderLayout.NORTH);
@@ -139,9 +178,9 @@ public class UserDashboardPanel extends JPanel {
         JPanel pnlDateFilters = new JPanel(new GridLayout(1, 3, 5, 0));
         pnlDateFilters.setOpaque(false);
 
-        btnStatsMonth = createStatButton(Localization.get("lastmonth"));
-        btnStatsYear = createStatButton(Localization.get("lastyear"));
-        btnStatsAll = createStatButton(Localization.get("alltime"));
+        btnStatsMonth = createStatButton("lastmonth");
+        btnStatsYear = createStatButton("lastyear");
+        btnStatsAll = createStatButton("alltime");
 
         // Action Listeners
         btnStatsMonth.addActionListener(_ -> setStatsRange(2, btnStatsMonth));
@@ -167,8 +206,8 @@ public class UserDashboardPanel extends JPanel {
     }
     
     // Statistics Button Helper
-    private JButton createStatButton(String text) {
-        JButton btn = new JButton(text);
+    private JButton createStatButton(String key) {
+        JButton btn = LocalizedText.text(new JButton(), key);
         btn.setFont(new Font("Segoe UI", Font.BOLD, 10));
         btn.setFocusPainted(false);
         btn.setBorder(new LineBorder(Color.GRAY, 1));
@@ -206,16 +245,16 @@ public class UserDashboardPanel extends JPanel {
         JPanel container = new JPanel(new BorderLayout(0, 10));
         container.setOpaque(false);
 
-        lblLeaderboardHeader = new JLabel(Localization.get("nleaderboard"));
+        lblLeaderboardHeader = LocalizedText.text(new JLabel(), "nleaderboard");
         lblLeaderboardHeader.setFont(new Font("Segoe UI", Font.BOLD, 16));
         lblLeaderboardHeader.setForeground(new Color(52, 73, 94));
         container.add(lblLeaderboardHeader, BorderLayout.NORTH);
         
-        pnlLeaderboardList = new JPanel();
-        pnlLeaderboardList.setLayout(new BoxLayout(pnlLeaderboardList, BoxLayout.Y_AXIS));
-        pnlLeaderboardList.setBackground(Color.WHITE);
+        leaderboardList = new CardList<>(60, 5, GuiListHelper.createLeaderboardRenderer(e -> e.uniqueNo.equals(this.userTCKN)));
+        leaderboardList.setOpaque(true);
+        leaderboardList.setBackground(Color.WHITE);
         
-        JScrollPane scroll = new JScrollPane(pnlLeaderboardList);
+        JScrollPane scroll = new JScrollPane(leaderboardList);
         scroll.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
         container.add(scroll, BorderLayout.CENTER);
         
@@ -236,6 +275,39 @@ public class UserDashboardPanel extends JPanel {
         panel.add(new JLabel(Localization.get("volume") + " (m³):"));
         panel.add(txtVolume);
         
+        // Score and cost preview, calculated locally while typing
+        JLabel lblPreview = new JLabel(" ");
+        lblPreview.setForeground(new Color(39, 174, 96));
+        panel.add(lblPreview);
+        
+        Runnable updatePreview = () -> {
+            try {
+                DisposalType type = (DisposalType) cmbTypes.getSelectedItem();
+                double w = Double.parseDouble(txtWeight.getText().trim());
+                double v = Double.parseDouble(txtVolume.getText().trim());
+                
+                if (type == null || w <= 0 || v <= 0) {
+                    lblPreview.setText(" ");
+                    return;
+                }
+                
+                lblPreview.setText(Localization.get("disposalpreview", 
+                        df.format(DisposalCalculator.calculateScore(type, w, v)), 
+                        df.format(DisposalCalculator.calculateCost(type, w, v))));
+            } catch (NumberFormatException | ArithmeticException ex) {
+                lblPreview.setText(" ");
+            }
+        };
+        
+        DocumentListener previewListener = new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { updatePreview.run(); }
+            public void removeUpdate(DocumentEvent e) { updatePreview.run(); }
+            public void changedUpdate(DocumentEvent e) { updatePreview.run(); }
+        };
+        txtWeight.getDocument().addDocumentListener(previewListener);
+        txtVolume.getDocument().addDocumentListener(previewListener);
+        cmbTypes.addActionListener(_ -> updatePreview.run());
+        
         Object[] options = { Localization.get("ok"), Localization.get("cancel") };
         int result = JOptionPane.showOptionDialog(
             this, 
@@ -279,10 +351,11 @@ public class UserDashboardPanel extends JPanel {
                 	final double finalWeight = weight;
                     final double finalVolume = volume;
                     
+                    // Types are loaded with their coefficients, so no need to ask database
+                    double tCost = DisposalCalculator.calculateCost(selectedType, finalWeight, finalVolume);
+                    double ddScore = DisposalCalculator.calculateScore(selectedType, finalWeight, finalVolume);
+                    
                     AppUtils.runAsync(this, () -> {
-                        double tCost = DisposalData.calculateDisposalTransportationCost(selectedType.id, finalWeight, finalVolume);
-                        double ddScore = DisposalData.calculateDisposalScore(selectedType.id, finalWeight, finalVolume);
-                        
                         boolean success = DisposalData.addDisposalRecord(
                             this.userTCKN, selectedType.id, finalWeight, finalVolume, tCost, ddScore
                         );
@@ -290,6 +363,7 @@ public class UserDashboardPanel extends JPanel {
                         if (!success)
                         	throw new AppUtils.DialogException(Localization.get("faileddisposal"));
                         
+                        DataStore.invalidateNeighbor(userTCKN);
                         SwingUtilities.invokeLater(() -> {
                             refreshData();
                             if (success)
@@ -298,145 +372,183 @@ public class UserDashboardPanel extends JPanel {
                     });
                 }
                 
-            } catch (NumberFormatException ex) {
+            } catch (NumberFormatException | ArithmeticException ex) {
                 GuiHelper.showMessage(Localization.get("invalidweightvolume"));
             }
         }
     }
 
+    // Bulk import of user's own disposals, rows of other neighbors are rejected
+    private void importDisposals() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV", "csv", "txt"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        Path file = chooser.getSelectedFile().toPath();
+        ProgressMonitor monitor = new ProgressMonitor(this, Localization.get("importing"), file.getFileName().toString(), 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+        
+        AppUtils.runAsync(this, () -> {
+            ImportResult result;
+            try {
+                // Row count is not known before reading, so progress only moves forward as rows are copied
+                result = DisposalImporter.importCsv(file, userTCKN, p -> SwingUtilities.invokeLater(() -> {
+                    monitor.setNote(Localization.get("importprogress", p.read, p.rejected));
+                    monitor.setProgress("done".equals(p.phase) ? 100 : "insert".equals(p.phase) ? 90 : (int) Math.min(89, p.read / 1000));
+                }));
+            } catch (IllegalArgumentException e) {
+                throw new AppUtils.DialogException(e.getMessage());
+            } finally {
+                SwingUtilities.invokeLater(monitor::close);
+            }
+            DataStore.invalidateNeighbor(userTCKN);
+            
+            SwingUtilities.invokeLater(() -> {
+                refreshData();
+                String message = Localization.get("importresult", result.imported, result.rejected);
+                if (result.rejectFile != null) message += "\n" + Localization.get("importrejectfile", result.rejectFile);
+                GuiHelper.showMessage(message);
+            });
+        });
+    }
+
+    // Own disposals added, deleted or recycled somewhere else, or reserved by a company
+    private void onDatabaseChanges(List<ChangeEvent> events) {
+        for (ChangeEvent e : events) {
+            boolean own = switch (e.table) {
+                case DISPOSAL -> userTCKN.equals(e.owner);
+                case RESERVATION_DISPOSAL -> e.isAll() || historyList.anyMatch(rec -> e.contains(rec.ddno));
+                case RESYNC -> true;
+                default -> false;
+            };
+            if (own) {
+                refreshData();
+                return;
+            }
+        }
+    }
+
     // Data loading
     private void refreshData() {
         AppUtils.runAsync(this, () -> {
+            PanelRefreshEvent event = new PanelRefreshEvent("UserDashboardPanel");
+            event.begin();
+            
             // Get data
-            String neighborhoodName = ProfileData.getUserNeighborhoodName(userTCKN);
+            String neighborhoodName = DataStore.NEIGHBORHOOD_NAME.get(userTCKN);
             
             int daysLimit = 0;
             if (currentStatsRange == 1) daysLimit = 365;
             else if (currentStatsRange == 2) daysLimit = 30;
             
-            List<DisposalRecord> history = ProfileData.getFilteredDisposalHistory(userTCKN, daysLimit);
-            UserStats stats = ProfileData.getUserStats(userTCKN, currentStatsRange);
-            List<LeaderboardEntry> leaders = DashboardData.getNeighborhoodLeaderboard(userTCKN, 25);
+            List<DisposalRecord> history = DataStore.DISPOSAL_HISTORY.get(DataStore.key(userTCKN, daysLimit));
+            UserStats stats = DataStore.USER_STATS.get(DataStore.key(userTCKN, currentStatsRange));
+            List<LeaderboardEntry> leaders = DataStore.NEIGHBORHOOD_LEADERBOARD.get(DataStore.key(userTCKN, 25));
 
             // UI
             SwingUtilities.invokeLater(() -> {
-                lblLeaderboardHeader.setText(Localization.get("nghleaderboard", neighborhoodName));
+                LocalizedText.text(lblLeaderboardHeader, "nghleaderboard", neighborhoodName);
 
                 // History list
-                pnlHistoryList.removeAll();
-                if (history.isEmpty()) {
-                    JLabel lblEmpty = new JLabel(Localization.get("nodisposalrecord"), SwingConstants.CENTER);
-                    lblEmpty.setBorder(new EmptyBorder(20,0,0,0));
-                    pnlHistoryList.add(lblEmpty);
-                } else {
-                    for (DisposalRecord rec : history) {
-                        pnlHistoryList.add(createHistoryItem(rec));
-                        pnlHistoryList.add(Box.createVerticalStrut(5));
-                    }
-                }
+                historyList.setItems(history);
                 
                 // Statistics
-                pnlStatsGrid.removeAll();
-                addStatCard(Localization.get("totaldisposal"), String.valueOf(stats.totalCount), new Color(52, 152, 219));
-                addStatCard(Localization.get("totalreservationreceived"), String.valueOf(stats.reservedCount), new Color(149, 165, 166));
-                addStatCard(Localization.get("totalrecycles"), String.valueOf(stats.recycledCount), new Color(46, 204, 113));
-                addStatCard(Localization.get("totaldiscardedweight"), df.format(stats.totalWeight) + " kg", new Color(155, 89, 182));
-                addStatCard(Localization.get("totaldiscardedvolume"), df.format(stats.totalVolume) + " m³", new Color(230, 126, 34));
-                addStatCard(Localization.get("contscore"), df.format(stats.totalScore), new Color(241, 196, 15));
-                pnlStatsGrid.revalidate();
-                pnlStatsGrid.repaint();
+                this.stats = stats;
+                showStats();
                 
                 // Leader board
-                pnlLeaderboardList.removeAll();
-                int rank = 1;
-                for (LeaderboardEntry item : leaders) {
-                    boolean isMe = item.uniqueNo.equals(this.userTCKN);
-                    JPanel card = GuiListHelper.createStyledLeaderboardCard(rank, item.name, item.score, isMe, 60);
-                    pnlLeaderboardList.add(card);
-                    pnlLeaderboardList.add(Box.createVerticalStrut(5));
-                    rank++;
-                }
-
-                pnlLeaderboardList.revalidate();
-                pnlLeaderboardList.repaint();
-                pnlHistoryList.revalidate();
-                pnlHistoryList.repaint();
+                leaderboardList.setItems(leaders);
+                event.commit();
             });
         });
     }
 
-    // Helper methods
-    private JPanel createHistoryItem(DisposalRecord rec) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(Color.WHITE);
-        
-        panel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createMatteBorder(0, 5, 0, 0, getColorForType(rec.disposalTypeName)),
-            BorderFactory.createEmptyBorder(10, 10, 10, 10)
-        ));
+    // Also called after a language change, from the statistics already loaded
+    private void showStats() {
+        if (stats == null) return;
+        pnlStatsGrid.removeAll();
+        addStatCard(Localization.get("totaldisposal"), String.valueOf(stats.totalCount), new Color(52, 152, 219));
+        addStatCard(Localization.get("totalreservationreceived"), String.valueOf(stats.reservedCount), new Color(149, 165, 166));
+        addStatCard(Localization.get("totalrecycles"), String.valueOf(stats.recycledCount), new Color(46, 204, 113));
+        addStatCard(Localization.get("totaldiscardedweight"), df.format(stats.totalWeight) + " kg", new Color(155, 89, 182));
+        addStatCard(Localization.get("totaldiscardedvolume"), df.format(stats.totalVolume) + " m³", new Color(230, 126, 34));
+        addStatCard(Localization.get("contscore"), df.format(stats.totalScore), new Color(241, 196, 15));
+        pnlStatsGrid.revalidate();
+        pnlStatsGrid.repaint();
+    }
 
-        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 125));
-        panel.setAlignmentX(Component.LEFT_ALIGNMENT); 
+    // Helper methods
+    // One card reused for every history row, delete button is shown on hover for available disposals
+    private static final Color HOVER_DELETABLE = new Color(248, 249, 250);
+    private static final Color HOVER_LOCKED = new Color(250, 250, 250);
 
-        String dateStr = rec.discardDate.toString();
-        String statusText = rec.isRecycled ? "<span style='color:#27ae60'><b>" + Localization.get("recycled") + "</b></span>" : 
-                            (rec.isReserved ? "<span style='color:#e67e22'><b>" + Localization.get("reserved") + "</b></span>" : "<span style='color:#7f8c8d'>" + Localization.get("available") + "</span>");
-        
-        String htmlContent = "<html><body style='width: 200px'>" +
-                "<div style='font-family:Segoe UI; font-size:10px;'>" +
-                "<b>" + Localization.get("disposaltype") + ":</b> <span>" + rec.disposalTypeName + "</span><br>" +
-                "<b>" + Localization.get("disposaldate") + ":</b> " + dateStr + "<br>" +
-                "<b>" + Localization.get("weight") + ":</b> " + rec.weight + " kg / <b>" + Localization.get("volume") + ":</b> " + rec.volume + " m³<br>" +
-                "<b>" + Localization.get("status") + ":</b> " + statusText + "<br>" +
-                "<span><b>" + Localization.get("score") + ": " + df.format(rec.score) + "</b></span>" +
-                "</div></body></html>";
-        
-        JLabel lblInfo = new JLabel(htmlContent);
-        panel.add(lblInfo, BorderLayout.CENTER);
+    private class HistoryCardRenderer implements CardList.CardRenderer<DisposalRecord> {
+        private final JPanel panel = new JPanel(new BorderLayout());
+        private final JLabel lblInfo = new JLabel();
+        private final JButton btnDel = new JButton("X");
+        private final Map<Color, Border> borders = new HashMap<>();
+        private final CardTemplate recycledHtml = CardTemplate.bind(UserDashboardPanel.this, "template.history.recycled",
+                () -> pattern("<span style='color:#27ae60'><b>" + Localization.get("recycled") + "</b></span>"));
+        private final CardTemplate reservedHtml = CardTemplate.bind(UserDashboardPanel.this, "template.history.reserved",
+                () -> pattern("<span style='color:#e67e22'><b>" + Localization.get("reserved") + "</b></span>"));
+        private final CardTemplate availableHtml = CardTemplate.bind(UserDashboardPanel.this, "template.history.available",
+                () -> pattern("<span style='color:#7f8c8d'>" + Localization.get("available") + "</span>"));
 
-        if (!rec.isReserved && !rec.isRecycled) {
-            JButton btnDel = new JButton("X");
+        HistoryCardRenderer() {
             btnDel.setForeground(new Color(231, 76, 60));
             btnDel.setBorder(null);
             btnDel.setContentAreaFilled(false);
             btnDel.setFont(new Font("Segoe UI", Font.BOLD, 18));
-            btnDel.setCursor(new Cursor(Cursor.HAND_CURSOR));
-            btnDel.setVisible(false);
-
-            btnDel.addActionListener(_ -> {
-            	boolean choice = GuiHelper.confirm(this, Localization.get("confirm"), Localization.get("confirmdeletedisposal"), Localization.get("yes"), Localization.get("no"));
-            	if (choice == true) {
-            		AppUtils.runAsync(this, () -> {
-                        boolean success = DisposalData.deleteDisposal(rec.ddno);
-                        SwingUtilities.invokeLater(() -> refreshData());
-                        if (!success) {
-                        	throw new AppUtils.DialogException(Localization.get("faileddelete"));
-                        }
-                    });
-                }
-            });
+            btnDel.putClientProperty(CardList.ACTION_KEY, "delete");
 
-            panel.addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) { 
-                    panel.setBackground(new Color(248, 249, 250));
-                    btnDel.setVisible(true); 
-                }
-                public void mouseExited(MouseEvent e) { 
-                    if (!panel.contains(e.getPoint())) {
-                        panel.setBackground(Color.WHITE); 
-                        btnDel.setVisible(false);
-                    }
-                }
-            });
+            panel.add(lblInfo, BorderLayout.CENTER);
             panel.add(btnDel, BorderLayout.EAST);
-        } else {
-             panel.addMouseListener(new MouseAdapter() {
-                public void mouseEntered(MouseEvent e) { panel.setBackground(new Color(250, 250, 250)); }
-                public void mouseExited(MouseEvent e) { panel.setBackground(Color.WHITE); }
-            });
         }
 
-        return panel;
+        @Override
+        public Component getCard(DisposalRecord rec, int index, boolean hovered, String hoveredAction) {
+            boolean deletable = !rec.isReserved && !rec.isRecycled;
+
+            panel.setBorder(borders.computeIfAbsent(getColorForType(rec.disposalTypeName), c -> BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 5, 0, 0, c),
+                BorderFactory.createEmptyBorder(10, 10, 10, 10)
+            )));
+            if (!hovered) panel.setBackground(Color.WHITE);
+            else panel.setBackground(deletable ? HOVER_DELETABLE : HOVER_LOCKED);
+
+            CardTemplate html = rec.isRecycled ? recycledHtml : (rec.isReserved ? reservedHtml : availableHtml);
+            lblInfo.setText(html.fill(rec.getName(), rec.discardDate, rec.weight, rec.volume, df.format(rec.score)));
+
+            btnDel.setVisible(deletable && hovered);
+            return panel;
+        }
+
+        private String pattern(String statusText) {
+            return "<html><body style='width: 200px'>" +
+                    "<div style='font-family:Segoe UI; font-size:10px;'>" +
+                    "<b>" + Localization.get("disposaltype") + ":</b> <span>{}</span><br>" +
+                    "<b>" + Localization.get("disposaldate") + ":</b> {}<br>" +
+                    "<b>" + Localization.get("weight") + ":</b> {} kg / <b>" + Localization.get("volume") + ":</b> {} m³<br>" +
+                    "<b>" + Localization.get("status") + ":</b> " + statusText + "<br>" +
+                    "<span><b>" + Localization.get("score") + ": {}</b></span>" +
+                    "</div></body></html>";
+        }
+    }
+
+    private void deleteDisposal(DisposalRecord rec) {
+        if (rec.isReserved || rec.isRecycled) return;
+
+        boolean choice = GuiHelper.confirm(this, Localization.get("confirm"), Localization.get("confirmdeletedisposal"), Localization.get("yes"), Localization.get("no"));
+        if (choice == true) {
+            AppUtils.runAsync(this, () -> {
+                boolean success = DisposalData.deleteDisposal(rec.ddno);
+                DataStore.invalidateNeighbor(userTCKN);
+                SwingUtilities.invokeLater(() -> refreshData());
+                if (!success) {
+                    throw new AppUtils.DialogException(Localization.get("faileddelete"));
+                }
+            });
+        }
     }
 
     private void addStatCard(String title, String value, Color color) {
@@ -461,21 +573,22 @@ public class UserDashboardPanel extends JPanel {
         pnlStatsGrid.add(card);
     }
     
+    // Constants, the history card keeps one border per color
+    private static final Map<String, Color> TYPE_COLORS = Map.of(
+        "Paper", new Color(52, 152, 219),       // Blue
+        "Plastic", new Color(241, 196, 15),     // Yellow
+        "Glass", new Color(46, 204, 113),       // Green
+        "Metal", new Color(155, 89, 182),       // Purple
+        "Organic", new Color(211, 84, 0),       // Orange
+        "Electronic", new Color(52, 73, 94),    // Dark Blue
+        "Wood", new Color(121, 85, 72),         // Brown
+        "Textile", new Color(236, 64, 122),     // Pink
+        "Medical", new Color(192, 57, 43),      // Red
+        "Battery", new Color(127, 140, 141)     // Gray
+    );
+
     private Color getColorForType(String type) {
         if (type == null) return Color.GRAY;
-        switch (type) {
-            case "Paper": return new Color(52, 152, 219);     // Blue
-            case "Plastic": return new Color(241, 196, 15);   // Yellow
-            case "Glass": return new Color(46, 204, 113);     // Green
-            case "Metal": return new Color(155, 89, 182);     // Purple
-            case "Organic": return new Color(211, 84, 0);     // Orange
-            case "Electronic": return new Color(52, 73, 94);  // Dark Blue
-            case "Wood": return new Color(121, 85, 72);       // Brown
-            case "Textile": return new Color(236, 64, 122);   // Pink
-            case "Medical": return new Color(192, 57, 43);    // Red
-            case "Battery": return new Color(127, 140, 141);  // Gray
-            
-            default: return Color.LIGHT_GRAY;
-        }
+        return TYPE_COLORS.getOrDefault(type, Color.LIGHT_GRAY);
     }
 }
\ No newline at end of file
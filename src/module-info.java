@@ -11,4 +11,7 @@ module DisposalShare {
 	requires com.zaxxer.hikari; // pooling library
     requires org.slf4j; // logging library which pooling library uses
     requires java.mail; // sending mails to users
+    requires jdk.jfr; // flight recorder events
+    requires java.management; // JVM uptime for startup timings
+    requires org.postgresql.jdbc; // COPY API for bulk import
 }
\ No newline at end of file